@@ -0,0 +1,72 @@
+#!/usr/bin/env bash
+# JVM jar vs. native image: startup time, RSS (idle and under load) and search throughput.
+# Writes a markdown report to loadtest/results/.
+#
+#   mvn -DskipTests package                       # target/flight-booking-webflux-*.jar
+#   mvn -Pnative -DskipTests native:compile       # target/flight-booking-webflux
+#   ./loadtest/native-compare.sh
+#
+# Needs a running Mongo (SPRING_DATA_MONGODB_URI), jmeter, curl and jq.
+
+set -euo pipefail
+
+cd "$(dirname "$0")"
+
+JAR=${JAR:-$(ls ../target/flight-booking-webflux-*.jar | grep -v plain | head -1)}
+NATIVE=${NATIVE:-../target/flight-booking-webflux}
+PORT=${PORT:-18082}
+THREADS=${THREADS:-50}
+DURATION=${DURATION:-60}
+FROM=${FROM:-Delhi}
+TO=${TO:-Mumbai}
+DATE=${DATE:-$(date -d '+10 days' +%F)}
+
+mkdir -p results
+REPORT=results/native-vs-jvm-$(date +%Y%m%d-%H%M%S).md
+
+rss_mb() { awk '/VmRSS/ { printf "%.0f", $2 / 1024 }' "/proc/$1/status"; }
+now_ms() { date +%s%3N; }
+
+measure() { # label cmd... -> one report row
+	local label=$1 start app ready idle_rss samples errors rps load_rss
+	shift
+
+	start=$(now_ms)
+	"$@" --server.port="$PORT" --spring.profiles.active=prod --flightapp.admission.enabled=false \
+		>"results/$label.log" 2>&1 &
+	app=$!
+	until curl -fs "http://localhost:$PORT/actuator/health" >/dev/null; do sleep 0.02; done
+	ready=$(($(now_ms) - start))
+	sleep 2
+	idle_rss=$(rss_mb $app)
+
+	jmeter -n -t flight-search.jmx -Jport="$PORT" -Jthreads="$THREADS" -Jduration="$DURATION" \
+		-Jfrom="$FROM" -Jto="$TO" -Jdate="$DATE" -l "results/$label.jtl" >/dev/null &
+	local jm=$!
+	sleep $((DURATION / 2))
+	load_rss=$(rss_mb $app)
+	wait $jm
+
+	read -r samples errors < <(awk -F, 'NR > 1 { n++; if ($8 != "true") e++ } END { print n, e + 0 }' \
+		"results/$label.jtl")
+	rps=$(awk -v n="$samples" -v d="$DURATION" 'BEGIN { printf "%.0f", n / d }')
+
+	echo "| $label | $ready | $idle_rss | $load_rss | $rps | $errors |" >>"$REPORT"
+
+	kill $app
+	wait $app 2>/dev/null || true
+}
+
+{
+	echo "# Native vs JVM — $(date -R)"
+	echo
+	echo "$THREADS JMeter threads for ${DURATION}s against POST /search ($FROM -> $TO, $DATE)."
+	echo
+	echo "| build | startup to healthy (ms) | idle RSS (MB) | RSS under load (MB) | throughput (req/s) | errors |"
+	echo "|---|---|---|---|---|---|"
+} >"$REPORT"
+
+measure jvm java -jar "$JAR"
+measure native "$NATIVE"
+
+cat "$REPORT"
@@ -0,0 +1,64 @@
+#!/usr/bin/env bash
+# Cold start -> first successful booking, plain jar vs. AOT + CDS (from `mvn -Pstartup package`).
+#
+#   mvn -Pstartup -DskipTests package && ./loadtest/startup.sh
+#
+# Needs a running Mongo (SPRING_DATA_MONGODB_URI) and curl + jq. Each mode runs RUNS times;
+# every run adds one flight and books one seat on it.
+
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+RUNS=${RUNS:-5}
+PORT=${PORT:-18081}
+JAR=$(ls target/flight-booking-webflux-*.jar | grep -v plain | head -1)
+APP_DIR=target/app
+
+[ -f "$APP_DIR/application.jsa" ] || { echo "Build with: mvn -Pstartup -DskipTests package" >&2; exit 1; }
+
+now_ms() { date +%s%3N; }
+
+first_booking() { # mode run -> prints ms from launch to first 2xx booking
+	local mode=$1 run=$2 flight_no dep start app id
+
+	flight_no=$(printf "ST%d%03d" "$(date +%s)" "$run" | tail -c 10)
+	dep=$(date -d '+30 days' +%Y-%m-%dT10:00:00)
+
+	start=$(now_ms)
+	case $mode in
+	plain)
+		java -jar "$JAR" --server.port="$PORT" --spring.profiles.active=prod >/tmp/startup-$mode.log 2>&1 &
+		;;
+	aot-cds)
+		(cd "$APP_DIR" && exec java -XX:SharedArchiveFile=application.jsa -Dspring.aot.enabled=true \
+			-jar "$(basename "$JAR")" --server.port="$PORT" --spring.profiles.active=prod) >/tmp/startup-$mode.log 2>&1 &
+		;;
+	esac
+	app=$!
+
+	until curl -fs "http://localhost:$PORT/actuator/health" >/dev/null; do sleep 0.05; done
+
+	id=$(curl -fs -X POST "http://localhost:$PORT/api/flight/airline/inventory/add" -H 'Content-Type: application/json' \
+		-d "{\"flightNumber\":\"$flight_no\",\"fromPlace\":\"Startup\",\"toPlace\":\"Bench\",\"departureTime\":\"$dep\",
+			\"arrivalTime\":\"${dep/T10/T12}\",\"price\":100,\"totalSeats\":10,\"airlineName\":\"Bench Air\"}" | jq -r .id)
+
+	curl -fs -X POST "http://localhost:$PORT/api/flight/booking/$id" -H 'Content-Type: application/json' \
+		-d '{"email":"startup@bench.dev","numberOfSeats":1,"passengers":[{"name":"Bench","gender":"M","age":30,"seatNumber":"1A","meal":"veg"}]}' \
+		>/dev/null
+
+	echo $(($(now_ms) - start))
+
+	kill $app
+	wait $app 2>/dev/null || true
+}
+
+for mode in plain aot-cds; do
+	total=0
+	for run in $(seq 1 "$RUNS"); do
+		ms=$(first_booking $mode "$run")
+		echo "$mode run $run: ${ms} ms"
+		total=$((total + ms))
+	done
+	echo "$mode average: $((total / RUNS)) ms"
+done
@@ -0,0 +1,76 @@
+#!/usr/bin/env bash
+# Sweeps event-loop / Mongo pool / compression settings against the search load in
+# flight-search.jmx and writes one CSV row per combination.
+#
+#   mvn -DskipTests package
+#   WORKERS="4 8" POOL_MAX="50 100" COMPRESSORS="none zstd" THREADS=100 ./loadtest/sweep.sh
+#
+# Needs jmeter on PATH, a running Mongo (SPRING_DATA_MONGODB_URI) and curl + jq.
+# Admission control is switched off so the sweep measures the server, not the limiter.
+
+set -euo pipefail
+
+cd "$(dirname "$0")"
+
+JAR=${JAR:-$(ls ../target/flight-booking-webflux-*.jar | grep -v plain | head -1)}
+PORT=${PORT:-18080}
+WORKERS=${WORKERS:-"0 4 8"}
+POOL_MAX=${POOL_MAX:-"50 100"}
+POOL_MIN=${POOL_MIN:-10}
+MAX_WAIT=${MAX_WAIT:-2s}
+COMPRESSORS=${COMPRESSORS:-"none zstd snappy"}
+THREADS=${THREADS:-50}
+DURATION=${DURATION:-60}
+FROM=${FROM:-Delhi}
+TO=${TO:-Mumbai}
+DATE=${DATE:-$(date -d '+10 days' +%F)}
+
+OUT=results/$(date +%Y%m%d-%H%M%S)
+mkdir -p "$OUT"
+SUMMARY=$OUT/summary.csv
+echo "workers,pool_max,compressors,samples,errors,mean_ms,p99_ms,throughput_rps,pool_wait_max_ms,pool_wait_timeouts" >"$SUMMARY"
+
+metric() { # name statistic [tag] -> value
+	curl -fs "http://localhost:$PORT/actuator/metrics/$1${3:+?tag=$3}" |
+		jq -r --arg s "$2" '.measurements[] | select(.statistic == $s) | .value' 2>/dev/null || echo 0
+}
+
+for workers in $WORKERS; do
+	for pool in $POOL_MAX; do
+		for comp in $COMPRESSORS; do
+			run="w${workers}-p${pool}-${comp}"
+			[ "$comp" = none ] && comp_prop="" || comp_prop=$comp
+			echo "=== $run"
+
+			java -jar "$JAR" --server.port="$PORT" --logging.level.com.flightapp=WARN \
+				--flightapp.admission.enabled=false \
+				--flightapp.netty.worker-threads="$workers" \
+				--flightapp.mongo.client.pool.max-size="$pool" \
+				--flightapp.mongo.client.pool.min-size="$POOL_MIN" \
+				--flightapp.mongo.client.pool.max-wait-time="$MAX_WAIT" \
+				--flightapp.mongo.client.compressors="$comp_prop" >"$OUT/$run.log" 2>&1 &
+			app=$!
+			trap 'kill $app 2>/dev/null || true' EXIT
+
+			until curl -fs "http://localhost:$PORT/actuator/health" >/dev/null; do sleep 1; done
+
+			jmeter -n -t flight-search.jmx -Jport="$PORT" -Jthreads="$THREADS" -Jduration="$DURATION" \
+				-Jfrom="$FROM" -Jto="$TO" -Jdate="$DATE" -l "$OUT/$run.jtl" >"$OUT/$run.jmeter.log"
+
+			# elapsed is column 2, success column 8 in the default CSV .jtl
+			stats=$(awk -F, -v d="$DURATION" 'NR > 1 { n++; sum += $2; v[n] = $2; if ($8 != "true") err++ }
+				END { asort(v); p99 = v[int(n * 0.99) > 0 ? int(n * 0.99) : 1];
+					printf "%d,%d,%.1f,%d,%.1f", n, err, sum / n, p99, n / d }' "$OUT/$run.jtl")
+			wait_max=$(metric flightapp.mongo.pool.wait MAX outcome:success | awk '{ print $1 * 1000 }')
+			timeouts=$(metric flightapp.mongo.pool.wait.timeouts COUNT)
+
+			echo "$workers,$pool,$comp,$stats,$wait_max,$timeouts" | tee -a "$SUMMARY"
+
+			kill $app
+			wait $app 2>/dev/null || true
+			trap - EXIT
+		done
+	done
+done
+
+echo "Summary: $SUMMARY"
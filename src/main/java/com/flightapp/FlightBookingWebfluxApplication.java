@@ -2,10 +2,14 @@ package com.flightapp;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+import com.flightapp.config.NativeHints;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
 @SpringBootApplication
+@ImportRuntimeHints(NativeHints.class)
 public class FlightBookingWebfluxApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,200 @@
+package com.flightapp.admission;
+
+import com.flightapp.config.AdmissionProperties;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Admission control in front of FlightController.
+//
+// Each request to a limited endpoint must get (1) a token from its client's bucket
+// and (2) an in-flight slot for its endpoint class. Either failing = immediate 429
+// with Retry-After, before any Mongo work is queued. The in-flight ceiling shrinks
+// when Mongo gets slow (see EndpointLimiter.currentLimit), so overload turns into
+// fast rejections instead of every endpoint timing out.
+
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@Slf4j
+public class AdmissionControlFilter implements WebFilter {
+
+	private static final byte[] TOO_MANY_REQUESTS = "{\"error\":\"Too many requests, please retry later\"}"
+			.getBytes(StandardCharsets.UTF_8);
+
+	private static final String FORWARDED_FOR = "X-Forwarded-For";
+
+	private final AdmissionProperties properties;
+	private final Set<String> trustedProxies;
+	private final List<Rule> rules;
+
+	public AdmissionControlFilter(AdmissionProperties properties, MongoLatencyTracker latencyTracker,
+			MeterRegistry meterRegistry) {
+		this.properties = properties;
+		this.trustedProxies = Set.copyOf(properties.getTrustedProxies());
+
+		EndpointLimiter booking = limiter("booking", properties.getBooking(), latencyTracker, meterRegistry);
+		EndpointLimiter search = limiter("search", properties.getSearch(), latencyTracker, meterRegistry);
+		EndpointLimiter read = limiter("read", properties.getRead(), latencyTracker, meterRegistry);
+
+		PathPatternParser parser = PathPatternParser.defaultInstance;
+		this.rules = List.of(
+				new Rule(HttpMethod.POST, parser.parse("/api/flight/booking/{flightId}"), booking, meterRegistry),
+				new Rule(HttpMethod.DELETE, parser.parse("/api/flight/booking/cancel/{pnr}"), booking,
+						meterRegistry),
+				new Rule(HttpMethod.POST, parser.parse("/api/flight/search"), search, meterRegistry),
+				new Rule(HttpMethod.POST, parser.parse("/api/flight/search/window"), search, meterRegistry),
+				new Rule(HttpMethod.POST, parser.parse("/api/flight/fare-calendar"), search, meterRegistry),
+				new Rule(HttpMethod.GET, parser.parse("/api/flight/ticket/{pnr}"), read, meterRegistry),
+				new Rule(HttpMethod.GET, parser.parse("/api/flight/booking/history/{email}"), read, meterRegistry));
+	}
+
+	@Override
+	public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+
+		if (!properties.isEnabled()) {
+			return chain.filter(exchange);
+		}
+
+		ServerHttpRequest request = exchange.getRequest();
+		for (Rule rule : rules) {
+			if (rule.method != request.getMethod()) {
+				continue;
+			}
+			PathPattern.PathMatchInfo match = rule.pattern.matchAndExtract(request.getPath().pathWithinApplication());
+			if (match != null) {
+				return admit(exchange, chain, rule, clientKey(request, match.getUriVariables()));
+			}
+		}
+		return chain.filter(exchange);
+	}
+
+	private Mono<Void> admit(ServerWebExchange exchange, WebFilterChain chain, Rule rule, String client) {
+
+		EndpointLimiter limiter = rule.limiter;
+
+		long waitNanos = limiter.tryAcquireRate(client, System.nanoTime());
+		if (waitNanos > 0) {
+			rule.rateRejected.increment();
+			log.debug("Rate limited {} on {}", client, limiter.name());
+			return reject(exchange, Duration.ofNanos(waitNanos));
+		}
+
+		if (!limiter.tryAcquireSlot()) {
+			rule.concurrencyRejected.increment();
+			log.debug("Shedding {} request: {} in flight, limit {}", limiter.name(), limiter.inFlight(),
+					limiter.currentLimit());
+			return reject(exchange, properties.getRetryAfter());
+		}
+
+		// doFinally also runs on cancel (client went away), so the slot is never leaked
+		return chain.filter(exchange).doFinally(signal -> limiter.release());
+	}
+
+	private Mono<Void> reject(ServerWebExchange exchange, Duration retryAfter) {
+		ServerHttpResponse response = exchange.getResponse();
+		response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+		// Retry-After is whole seconds; round up so clients don't come back too early
+		long seconds = Math.max(1, (retryAfter.toMillis() + 999) / 1000);
+		response.getHeaders().set(HttpHeaders.RETRY_AFTER, Long.toString(seconds));
+		response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+		return response.writeWith(Mono.fromSupplier(() -> response.bufferFactory().wrap(TOO_MANY_REQUESTS)));
+	}
+
+	private String clientKey(ServerHttpRequest request, Map<String, String> pathVariables) {
+		String email = pathVariables.get("email");
+		if (email != null) {
+			return email.toLowerCase();
+		}
+		InetSocketAddress remote = request.getRemoteAddress();
+		if (remote == null) {
+			return "unknown";
+		}
+		String address = remote.getHostString();
+		if (!trustedProxies.contains(address)) {
+			// Straight from the client: its headers are whatever it wants a fresh bucket to be keyed on
+			return address;
+		}
+		String header = request.getHeaders().getFirst(properties.getClientHeader());
+		if (header != null && !header.isBlank()) {
+			return header;
+		}
+		return forwardedClient(request, address);
+	}
+
+	// Walks X-Forwarded-For from the right: each hop was appended by the proxy it reached, so the
+	// first one that isn't ours is the client. Anything further left is whatever the client sent.
+	private String forwardedClient(ServerHttpRequest request, String proxy) {
+		String client = proxy;
+		List<String> headers = request.getHeaders().getOrEmpty(FORWARDED_FOR);
+		for (int h = headers.size() - 1; h >= 0; h--) {
+			String[] hops = headers.get(h).split(",");
+			for (int i = hops.length - 1; i >= 0; i--) {
+				String hop = hops[i].trim();
+				if (hop.isEmpty()) {
+					continue;
+				}
+				client = hop;
+				if (!trustedProxies.contains(hop)) {
+					return hop;
+				}
+			}
+		}
+		return client;
+	}
+
+	private EndpointLimiter limiter(String name, AdmissionProperties.Limits limits, MongoLatencyTracker tracker,
+			MeterRegistry registry) {
+		EndpointLimiter limiter = new EndpointLimiter(name, limits, properties, tracker);
+		Gauge.builder("flightapp.admission.in_flight", limiter, EndpointLimiter::inFlight).tag("endpoint", name)
+				.register(registry);
+		Gauge.builder("flightapp.admission.limit", limiter, EndpointLimiter::currentLimit).tag("endpoint", name)
+				.register(registry);
+		return limiter;
+	}
+
+	private static final class Rule {
+
+		final HttpMethod method;
+		final PathPattern pattern;
+		final EndpointLimiter limiter;
+		final Counter rateRejected;
+		final Counter concurrencyRejected;
+
+		Rule(HttpMethod method, PathPattern pattern, EndpointLimiter limiter, MeterRegistry registry) {
+			this.method = method;
+			this.pattern = pattern;
+			this.limiter = limiter;
+			this.rateRejected = rejected(registry, limiter, "rate");
+			this.concurrencyRejected = rejected(registry, limiter, "concurrency");
+		}
+
+		private static Counter rejected(MeterRegistry registry, EndpointLimiter limiter, String reason) {
+			return Counter.builder("flightapp.admission.rejected").tag("endpoint", limiter.name())
+					.tag("reason", reason).register(registry);
+		}
+	}
+}
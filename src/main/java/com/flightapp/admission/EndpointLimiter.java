@@ -0,0 +1,80 @@
+package com.flightapp.admission;
+
+import com.flightapp.config.AdmissionProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Limits for one endpoint class: an in-flight counter with an adaptive ceiling
+// plus a token bucket per client.
+
+class EndpointLimiter {
+
+	private final String name;
+	private final AdmissionProperties.Limits limits;
+	private final AdmissionProperties properties;
+	private final MongoLatencyTracker latency;
+
+	private final AtomicInteger inFlight = new AtomicInteger();
+	private final Cache<String, TokenBucket> buckets;
+
+	EndpointLimiter(String name, AdmissionProperties.Limits limits, AdmissionProperties properties,
+			MongoLatencyTracker latency) {
+		this.name = name;
+		this.limits = limits;
+		this.properties = properties;
+		this.latency = latency;
+		this.buckets = Caffeine.newBuilder().maximumSize(properties.getMaxTrackedClients())
+				.expireAfterAccess(Duration.ofMinutes(10)).build();
+	}
+
+	String name() {
+		return name;
+	}
+
+	// 0 = admitted, otherwise nanos until this client gets another token
+	long tryAcquireRate(String client, long nowNanos) {
+		if (limits.getRatePerSecond() <= 0) {
+			return 0;
+		}
+		return buckets.get(client, c -> new TokenBucket(limits.getRatePerSecond(), limits.getBurst(), nowNanos))
+				.tryAcquire(nowNanos);
+	}
+
+	// Caller must release() exactly once when this returns true
+	boolean tryAcquireSlot() {
+		int limit = currentLimit();
+		while (true) {
+			int current = inFlight.get();
+			if (current >= limit) {
+				return false;
+			}
+			if (inFlight.compareAndSet(current, current + 1)) {
+				return true;
+			}
+		}
+	}
+
+	void release() {
+		inFlight.decrementAndGet();
+	}
+
+	int inFlight() {
+		return inFlight.get();
+	}
+
+	// Configured ceiling, scaled down by target/observed Mongo latency once the
+	// database is slower than the target
+	int currentLimit() {
+		int max = limits.getMaxConcurrent();
+		double observed = latency.averageNanos();
+		double target = properties.getTargetMongoLatency().toNanos();
+		if (observed <= target) {
+			return max;
+		}
+		int scaled = (int) (max * (target / observed));
+		return Math.max(Math.min(properties.getMinConcurrent(), max), scaled);
+	}
+}
@@ -0,0 +1,104 @@
+package com.flightapp.admission;
+
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import org.bson.BsonArray;
+import org.bson.BsonBoolean;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Exponentially weighted average of Mongo command latency, fed by the driver's
+// CommandListener hooks (registered on the client in AdmissionConfig).
+// Drives the adaptive concurrency limits.
+//
+// Tailable cursors (the Mongo invalidation bus) are left out: their getMore waits
+// server-side for new documents, so it takes as long as the await time whatever the
+// load, and would pin the limits at minConcurrent.
+
+public class MongoLatencyTracker implements CommandListener {
+
+	// ~ last 20 commands dominate
+	private static final double ALPHA = 0.05;
+
+	private final AtomicLong averageNanosBits = new AtomicLong(Double.doubleToLongBits(0));
+
+	// Requests not to record: tailable find (-> 0) or getMore (-> its cursor), and the open tailable cursors
+	private final Map<Integer, Long> tailableRequests = new ConcurrentHashMap<>();
+	private final Set<Long> tailableCursors = ConcurrentHashMap.newKeySet();
+
+	@Override
+	public void commandStarted(CommandStartedEvent event) {
+		BsonDocument command = event.getCommand();
+		switch (event.getCommandName()) {
+			case "find" -> {
+				if (command.getBoolean("tailable", BsonBoolean.FALSE).getValue()) {
+					tailableRequests.put(event.getRequestId(), 0L);
+				}
+			}
+			case "getMore" -> {
+				if (command.isInt64("getMore") && tailableCursors.contains(command.getInt64("getMore").getValue())) {
+					tailableRequests.put(event.getRequestId(), command.getInt64("getMore").getValue());
+				}
+			}
+			case "killCursors" -> command.getArray("cursors", new BsonArray()).stream().filter(BsonValue::isInt64)
+					.forEach(id -> tailableCursors.remove(id.asInt64().getValue()));
+			default -> {
+			}
+		}
+	}
+
+	@Override
+	public void commandSucceeded(CommandSucceededEvent event) {
+		Long cursor = tailableRequests.remove(event.getRequestId());
+		if (cursor == null) {
+			record(event.getElapsedTime(TimeUnit.NANOSECONDS));
+			return;
+		}
+		// The find opens the cursor; a getMore answering with id 0 means it is exhausted
+		long id = cursorId(event.getResponse());
+		if (id != 0) {
+			tailableCursors.add(id);
+		} else {
+			tailableCursors.remove(cursor);
+		}
+	}
+
+	@Override
+	public void commandFailed(CommandFailedEvent event) {
+		Long cursor = tailableRequests.remove(event.getRequestId());
+		if (cursor == null) {
+			record(event.getElapsedTime(TimeUnit.NANOSECONDS));
+		} else {
+			tailableCursors.remove(cursor);
+		}
+	}
+
+	public void record(long elapsedNanos) {
+		averageNanosBits.updateAndGet(bits -> {
+			double avg = Double.longBitsToDouble(bits);
+			double next = avg == 0 ? elapsedNanos : avg + ALPHA * (elapsedNanos - avg);
+			return Double.doubleToLongBits(next);
+		});
+	}
+
+	// 0 until the first command completes
+	public double averageNanos() {
+		return Double.longBitsToDouble(averageNanosBits.get());
+	}
+
+	private static long cursorId(BsonDocument response) {
+		BsonValue cursor = response == null ? null : response.get("cursor");
+		if (cursor == null || !cursor.isDocument() || !cursor.asDocument().isInt64("id")) {
+			return 0;
+		}
+		return cursor.asDocument().getInt64("id").getValue();
+	}
+}
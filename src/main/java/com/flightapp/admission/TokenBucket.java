@@ -0,0 +1,33 @@
+package com.flightapp.admission;
+
+// Classic token bucket. The critical section is a few arithmetic ops, so a
+// plain monitor is cheaper than anything clever and never blocks for long.
+
+class TokenBucket {
+
+	private final double ratePerNano;
+	private final double capacity;
+
+	private double tokens;
+	private long lastRefill;
+
+	TokenBucket(double ratePerSecond, int burst, long nowNanos) {
+		this.ratePerNano = ratePerSecond / 1_000_000_000d;
+		this.capacity = Math.max(1, burst);
+		this.tokens = capacity;
+		this.lastRefill = nowNanos;
+	}
+
+	// 0 = admitted, otherwise nanos until the next token is available
+	synchronized long tryAcquire(long nowNanos) {
+		if (nowNanos > lastRefill) {
+			tokens = Math.min(capacity, tokens + (nowNanos - lastRefill) * ratePerNano);
+			lastRefill = nowNanos;
+		}
+		if (tokens >= 1) {
+			tokens -= 1;
+			return 0;
+		}
+		return ratePerNano <= 0 ? Long.MAX_VALUE : (long) Math.ceil((1 - tokens) / ratePerNano);
+	}
+}
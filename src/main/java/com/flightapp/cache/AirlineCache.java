@@ -0,0 +1,61 @@
+package com.flightapp.cache;
+
+import com.flightapp.entity.Airline;
+import com.flightapp.repository.AirlineRepository;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// All airlines kept in memory by id. There are only a handful of them and they
+// never change after creation, so search can join name/logo without a query.
+
+@Component
+@Slf4j
+public class AirlineCache {
+
+	private final AirlineRepository airlineRepository;
+	private final Map<String, Airline> byId = new ConcurrentHashMap<>();
+
+	public AirlineCache(AirlineRepository airlineRepository) {
+		this.airlineRepository = airlineRepository;
+	}
+
+	// Warm the whole map once at startup; misses later are loaded one by one
+	@EventListener(ApplicationReadyEvent.class)
+	public void preload() {
+		airlineRepository.findAll().doOnNext(this::put).count()
+				.subscribe(n -> log.info("Airline cache preloaded with {} airlines", n),
+						ex -> log.warn("Airline cache preload failed, will load lazily: {}", ex.getMessage()));
+	}
+
+	// Empty Mono if the airline doesn't exist
+	public Mono<Airline> get(String airlineId) {
+
+		if (airlineId == null) {
+			return Mono.empty();
+		}
+
+		Airline cached = byId.get(airlineId);
+		if (cached != null) {
+			return Mono.just(cached);
+		}
+
+		return airlineRepository.findById(airlineId).doOnNext(this::put);
+	}
+
+	public void put(Airline airline) {
+		if (airline.getId() != null) {
+			byId.put(airline.getId(), airline);
+		}
+	}
+
+	public int size() {
+		return byId.size();
+	}
+}
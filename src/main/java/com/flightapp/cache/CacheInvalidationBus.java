@@ -0,0 +1,18 @@
+package com.flightapp.cache;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Broadcasts entity changes (seats changed, PNR canceled, inventory added)
+// to every node so local caches can be dropped without cross-node staleness.
+
+public interface CacheInvalidationBus {
+
+	// Never errors — a lost invalidation only means a cache entry lives until its TTL
+	Mono<Void> publish(CacheInvalidationEvent event);
+
+	// Every event seen by this node: its own (delivered immediately) and other nodes'
+	Flux<CacheInvalidationEvent> events();
+
+	String nodeId();
+}
@@ -0,0 +1,58 @@
+package com.flightapp.cache;
+
+import com.flightapp.entity.Flight;
+import lombok.*;
+import org.springframework.data.annotation.Id;
+
+import java.time.Instant;
+
+// One entity-change notification on the invalidation bus.
+// key is the flightId or PNR, route is "from|to|yyyy-MM-dd" for flight events
+// so route-level caches (search results etc.) know what to drop.
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CacheInvalidationEvent {
+
+	public enum Type {
+		FLIGHT_SEATS_CHANGED, PNR_CANCELED, INVENTORY_ADDED,
+		// never published: the Mongo bus delivers it locally when it may have missed events
+		FLUSH_ALL
+	}
+
+	@Id
+	private String id;
+
+	private Type type;
+	private String key;
+	private String route;
+
+	// Filled in by the bus — lets a node recognise its own events
+	private String nodeId;
+	private Instant createdAt;
+
+	public static CacheInvalidationEvent seatsChanged(Flight flight) {
+		return CacheInvalidationEvent.builder().type(Type.FLIGHT_SEATS_CHANGED).key(flight.getId())
+				.route(routeKey(flight)).build();
+	}
+
+	public static CacheInvalidationEvent inventoryAdded(Flight flight) {
+		return CacheInvalidationEvent.builder().type(Type.INVENTORY_ADDED).key(flight.getId())
+				.route(routeKey(flight)).build();
+	}
+
+	public static CacheInvalidationEvent pnrCanceled(String pnr) {
+		return CacheInvalidationEvent.builder().type(Type.PNR_CANCELED).key(pnr).build();
+	}
+
+	public static CacheInvalidationEvent flushAll() {
+		return CacheInvalidationEvent.builder().type(Type.FLUSH_ALL).createdAt(Instant.now()).build();
+	}
+
+	// Same shape search caches use for their keys
+	public static String routeKey(Flight flight) {
+		return flight.getFromPlace() + "|" + flight.getToPlace() + "|" + flight.getDepartureTime().toLocalDate();
+	}
+}
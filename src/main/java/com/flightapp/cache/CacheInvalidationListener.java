@@ -0,0 +1,52 @@
+package com.flightapp.cache;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+
+// Applies bus events to this node's local caches.
+
+@Component
+@Slf4j
+public class CacheInvalidationListener {
+
+	private final CacheInvalidationBus bus;
+	private final TicketCache ticketCache;
+
+	private Disposable subscription;
+
+	public CacheInvalidationListener(CacheInvalidationBus bus, TicketCache ticketCache) {
+		this.bus = bus;
+		this.ticketCache = ticketCache;
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void subscribe() {
+		subscription = bus.events().subscribe(this::onEvent);
+		log.info("Cache invalidation listener subscribed (node {})", bus.nodeId());
+	}
+
+	void onEvent(CacheInvalidationEvent event) {
+		try {
+			if (event.getType() == CacheInvalidationEvent.Type.PNR_CANCELED) {
+				ticketCache.evictLocal(event.getKey());
+			} else if (event.getType() == CacheInvalidationEvent.Type.FLUSH_ALL) {
+				ticketCache.evictAllLocal();
+			}
+			log.debug("Applied invalidation {} for {}", event.getType(), event.getKey());
+		} catch (RuntimeException ex) {
+			// one bad event must not kill the subscription
+			log.warn("Failed to apply invalidation {}: {}", event, ex.getMessage());
+		}
+	}
+
+	@PreDestroy
+	public void unsubscribe() {
+		if (subscription != null) {
+			subscription.dispose();
+		}
+	}
+}
@@ -0,0 +1,73 @@
+package com.flightapp.cache;
+
+import com.flightapp.dto.BookingResponse;
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// In-process stand-in for a distributed cache.
+// Several TicketCache instances can share one of these to behave like
+// separate nodes talking to the same Redis/Hazelcast/etc.
+
+public class InMemoryTicketCacheTier implements TicketCacheTier {
+
+	private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+	private final Clock clock;
+
+	public InMemoryTicketCacheTier() {
+		this(Clock.systemUTC());
+	}
+
+	public InMemoryTicketCacheTier(Clock clock) {
+		this.clock = clock;
+	}
+
+	@Override
+	public Mono<BookingResponse> get(String pnr) {
+		return Mono.fromSupplier(() -> {
+			Entry entry = entries.get(pnr);
+			if (entry == null) {
+				return null;
+			}
+			// Expired entries are dropped lazily on read
+			if (!entry.isLive(clock.instant())) {
+				entries.remove(pnr, entry);
+				return null;
+			}
+			// null for an evicted PNR
+			return entry.response();
+		});
+	}
+
+	@Override
+	public Mono<Void> put(String pnr, BookingResponse response, Duration ttl) {
+		return Mono.fromRunnable(() -> entries.compute(pnr, (key, old) -> {
+			Instant now = clock.instant();
+			boolean evicted = old != null && old.response() == null && old.isLive(now);
+			return evicted ? old : new Entry(response, now.plus(ttl));
+		}));
+	}
+
+	@Override
+	public Mono<Void> evict(String pnr, Duration holdFor) {
+		// a Redis tier would SET a marker with PX holdFor and guard its puts with a script
+		return Mono.fromRunnable(() -> entries.put(pnr, new Entry(null, clock.instant().plus(holdFor))));
+	}
+
+	// Cached tickets, not counting eviction markers
+	public int size() {
+		return (int) entries.values().stream().filter(entry -> entry.response() != null).count();
+	}
+
+	// response is null for an eviction marker
+	private record Entry(BookingResponse response, Instant expiresAt) {
+
+		boolean isLive(Instant now) {
+			return expiresAt.isAfter(now);
+		}
+	}
+}
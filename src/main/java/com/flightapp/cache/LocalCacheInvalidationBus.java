@@ -0,0 +1,48 @@
+package com.flightapp.cache;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+// Single-node bus: events only reach subscribers in this JVM.
+// Also the base for the Mongo-backed bus, which feeds remote events into the same sink.
+
+public class LocalCacheInvalidationBus implements CacheInvalidationBus {
+
+	private final String nodeId = UUID.randomUUID().toString();
+	private final Sinks.Many<CacheInvalidationEvent> sink = Sinks.many().multicast().directBestEffort();
+
+	@Override
+	public Mono<Void> publish(CacheInvalidationEvent event) {
+		return Mono.fromRunnable(() -> {
+			stamp(event);
+			deliver(event);
+		});
+	}
+
+	@Override
+	public Flux<CacheInvalidationEvent> events() {
+		return sink.asFlux();
+	}
+
+	@Override
+	public String nodeId() {
+		return nodeId;
+	}
+
+	protected void stamp(CacheInvalidationEvent event) {
+		event.setNodeId(nodeId);
+		if (event.getCreatedAt() == null) {
+			event.setCreatedAt(Instant.now());
+		}
+	}
+
+	// Publishers run on many threads, so spin briefly instead of failing on concurrent emits
+	protected void deliver(CacheInvalidationEvent event) {
+		sink.emitNext(event, Sinks.EmitFailureHandler.busyLooping(Duration.ofMillis(100)));
+	}
+}
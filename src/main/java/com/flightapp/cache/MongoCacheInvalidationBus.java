@@ -0,0 +1,158 @@
+package com.flightapp.cache;
+
+import com.flightapp.config.InvalidationBusProperties;
+
+import com.mongodb.MongoException;
+
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.CollectionOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+// Cluster-wide bus on top of a capped collection + tailable cursor.
+// publish() delivers locally right away and inserts into the capped collection;
+// every node tails that collection and re-emits events written by OTHER nodes.
+//
+// A re-tail asks for ids after the last event it saw. ObjectIds are only ordered by the
+// publisher's clock, so it starts maxClockSkew before that one: the events in that window are
+// delivered again, which is harmless (evicting twice is). If the last event seen has already
+// rolled out of the capped collection, events may have been missed, so local caches get a
+// FLUSH_ALL before the tail resumes.
+
+@Slf4j
+public class MongoCacheInvalidationBus extends LocalCacheInvalidationBus implements SmartLifecycle {
+
+	private static final String NATURAL = "$natural";
+
+	// NamespaceExists: another node created the collection first
+	private static final int NAMESPACE_EXISTS = 48;
+
+	private final ReactiveMongoTemplate mongoTemplate;
+	private final InvalidationBusProperties properties;
+
+	// Tail resumes after the last event we saw; the first tail starts after the newest event
+	// already there, so a starting node doesn't replay the whole collection
+	private final AtomicReference<String> lastSeenId = new AtomicReference<>();
+	private volatile boolean positioned;
+	private volatile Disposable tailSubscription;
+
+	public MongoCacheInvalidationBus(ReactiveMongoTemplate mongoTemplate, InvalidationBusProperties properties) {
+		this.mongoTemplate = mongoTemplate;
+		this.properties = properties;
+	}
+
+	@Override
+	public Mono<Void> publish(CacheInvalidationEvent event) {
+		return Mono.defer(() -> {
+			stamp(event);
+			deliver(event);
+			return mongoTemplate.insert(event, properties.getCollection()).then();
+		}).onErrorResume(ex -> {
+			log.warn("Could not broadcast {} for {}: {}", event.getType(), event.getKey(), ex.getMessage());
+			return Mono.empty();
+		});
+	}
+
+	@Override
+	public void start() {
+		log.info("Starting Mongo invalidation bus on '{}' (node {})", properties.getCollection(), nodeId());
+
+		tailSubscription = ensureCappedCollection().then(position()).thenMany(Flux.defer(this::tailAfterLastSeen))
+				// A tailable cursor on an empty collection closes straight away — just re-open it
+				.repeatWhen(done -> done.delayElements(properties.getRetryDelay()))
+				.retryWhen(Retry.backoff(Long.MAX_VALUE, properties.getRetryDelay())
+						.maxBackoff(properties.getRetryDelay().multipliedBy(30))
+						.doBeforeRetry(sig -> log.warn("Invalidation bus tail failed, retrying: {}",
+								sig.failure().getMessage())))
+				.subscribe(this::onRemote);
+	}
+
+	private Mono<Void> position() {
+		if (positioned) {
+			return Mono.empty();
+		}
+		Query newest = new Query().with(Sort.by(Sort.Direction.DESC, NATURAL)).limit(1);
+		return mongoTemplate.findOne(newest, CacheInvalidationEvent.class, properties.getCollection())
+				.doOnNext(event -> lastSeenId.compareAndSet(null, event.getId()))
+				.doOnSuccess(event -> positioned = true).then();
+	}
+
+	private Flux<CacheInvalidationEvent> tailAfterLastSeen() {
+		String after = lastSeenId.get();
+		if (after == null || !ObjectId.isValid(after)) {
+			return mongoTemplate.tail(new Query(), CacheInvalidationEvent.class, properties.getCollection());
+		}
+		ObjectId lastSeen = new ObjectId(after);
+		Query newer = Query.query(Criteria.where("_id").gt(resumeFrom(lastSeen)));
+		return mongoTemplate.exists(Query.query(Criteria.where("_id").is(lastSeen)), properties.getCollection())
+				.flatMapMany(present -> {
+					if (!present) {
+						log.warn("Last seen invalidation {} rolled out of '{}', flushing local caches", after,
+								properties.getCollection());
+						deliver(CacheInvalidationEvent.flushAll());
+					}
+					return mongoTemplate.tail(newer, CacheInvalidationEvent.class, properties.getCollection());
+				});
+	}
+
+	// Smallest ObjectId maxClockSkew before the last one seen
+	ObjectId resumeFrom(ObjectId lastSeen) {
+		long seconds = Math.max(0, lastSeen.getTimestamp() - properties.getMaxClockSkew().toSeconds());
+		return new ObjectId(String.format("%08x%016x", seconds, 0));
+	}
+
+	private void onRemote(CacheInvalidationEvent event) {
+		lastSeenId.set(event.getId());
+		// Our own events were already delivered by publish()
+		if (nodeId().equals(event.getNodeId())) {
+			return;
+		}
+		log.debug("Remote invalidation from node {}: {} {}", event.getNodeId(), event.getType(), event.getKey());
+		deliver(event);
+	}
+
+	private Mono<Void> ensureCappedCollection() {
+		String name = properties.getCollection();
+		return mongoTemplate.collectionExists(name).flatMap(exists -> exists ? Mono.<Void>empty()
+				: mongoTemplate.createCollection(name, CollectionOptions.empty().capped()
+						.size(properties.getCappedSizeBytes()).maxDocuments(properties.getCappedMaxDocuments()))
+						.doOnSuccess(c -> log.info("Created capped collection {}", name)).then()
+						// another node may have created it in the meantime; anything else is retried by start()
+						.onErrorResume(MongoCacheInvalidationBus::alreadyExists, ex -> Mono.empty())
+						.doOnError(ex -> log.error("Could not create capped collection {}: {}", name,
+								ex.getMessage())));
+	}
+
+	private static boolean alreadyExists(Throwable ex) {
+		for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+			if (cause instanceof MongoException mongo && mongo.getCode() == NAMESPACE_EXISTS) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public void stop() {
+		Disposable subscription = tailSubscription;
+		if (subscription != null) {
+			subscription.dispose();
+		}
+		tailSubscription = null;
+	}
+
+	@Override
+	public boolean isRunning() {
+		return tailSubscription != null && !tailSubscription.isDisposed();
+	}
+}
@@ -0,0 +1,31 @@
+package com.flightapp.cache;
+
+import com.flightapp.dto.BookingResponse;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+// Shared tier that stores nothing — the default for single-node setups.
+
+final class NoOpTicketCacheTier implements TicketCacheTier {
+
+	static final NoOpTicketCacheTier INSTANCE = new NoOpTicketCacheTier();
+
+	private NoOpTicketCacheTier() {
+	}
+
+	@Override
+	public Mono<BookingResponse> get(String pnr) {
+		return Mono.empty();
+	}
+
+	@Override
+	public Mono<Void> put(String pnr, BookingResponse response, Duration ttl) {
+		return Mono.empty();
+	}
+
+	@Override
+	public Mono<Void> evict(String pnr, Duration holdFor) {
+		return Mono.empty();
+	}
+}
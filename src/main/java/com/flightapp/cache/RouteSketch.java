@@ -0,0 +1,96 @@
+package com.flightapp.cache;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+// Approximate top-K of search keys in bounded memory (Space-Saving, Metwally et al.).
+//
+// At most `capacity` counters. A key that isn't tracked takes over the smallest counter and
+// inherits its count, which it remembers as `error`: counts are over-estimated by at most that,
+// and any key searched more than total/capacity times is guaranteed to be in the sketch.
+// One lock around a map + a sorted set — O(log capacity) per search.
+
+public class RouteSketch {
+
+	public record Hit(String key, long count, long error) {
+	}
+
+	private static final class Counter {
+		private final String key;
+		private long count;
+		private long error;
+
+		private Counter(String key, long count, long error) {
+			this.key = key;
+			this.count = count;
+			this.error = error;
+		}
+	}
+
+	private static final Comparator<Counter> BY_COUNT = Comparator.<Counter>comparingLong(c -> c.count)
+			.thenComparing(c -> c.key);
+
+	private final int capacity;
+	private final Map<String, Counter> counters = new HashMap<>();
+	private final TreeSet<Counter> byCount = new TreeSet<>(BY_COUNT);
+
+	public RouteSketch(int capacity) {
+		if (capacity <= 0) {
+			throw new IllegalArgumentException("capacity must be > 0");
+		}
+		this.capacity = capacity;
+	}
+
+	public synchronized void record(String key) {
+		Counter counter = counters.get(key);
+		if (counter != null) {
+			byCount.remove(counter);
+		} else if (counters.size() < capacity) {
+			counter = new Counter(key, 0, 0);
+			counters.put(key, counter);
+		} else {
+			Counter smallest = byCount.pollFirst();
+			counters.remove(smallest.key);
+			counter = new Counter(key, smallest.count, smallest.count);
+			counters.put(key, counter);
+		}
+		counter.count++;
+		byCount.add(counter);
+	}
+
+	// Highest counts first
+	public synchronized List<Hit> top(int n) {
+		List<Hit> top = new ArrayList<>(Math.min(n, counters.size()));
+		Iterator<Counter> it = byCount.descendingIterator();
+		while (it.hasNext() && top.size() < n) {
+			Counter c = it.next();
+			top.add(new Hit(c.key, c.count, c.error));
+		}
+		return top;
+	}
+
+	// Halves every count (and error bound) so the ranking follows recent traffic, not all-time
+	// totals; counters that reach zero are freed
+	public synchronized void decay() {
+		List<Counter> all = new ArrayList<>(byCount);
+		byCount.clear();
+		for (Counter c : all) {
+			c.count /= 2;
+			c.error /= 2;
+			if (c.count == 0) {
+				counters.remove(c.key);
+			} else {
+				byCount.add(c);
+			}
+		}
+	}
+
+	public synchronized int size() {
+		return counters.size();
+	}
+}
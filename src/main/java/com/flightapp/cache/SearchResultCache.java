@@ -0,0 +1,103 @@
+package com.flightapp.cache;
+
+import com.flightapp.config.SearchCacheProperties;
+import com.flightapp.entity.Airline;
+import com.flightapp.entity.Flight;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+// Last successful result list per route + day. Search does not read from it on the
+// happy path — it's the fallback while Mongo reads are failing fast.
+//
+// Separately, the precomputed ("warm") results for the most searched route + days, which
+// search does serve first. SearchWarmer fills those from the popularity sketch kept here.
+//
+// Both hold the flights and their airline, not priced results: fares move with every booking and
+// quotes are locked from the moment they are shown, so search prices each listing when it serves it.
+
+public class SearchResultCache {
+
+	// A flight (projected) and its airline, null if it was deleted
+	public record Listing(Flight flight, Airline airline) {
+	}
+
+	private final SearchCacheProperties properties;
+	private final Cache<String, List<Listing>> results;
+	private final Cache<String, List<Listing>> warm;
+	private final RouteSketch popularity;
+
+	public SearchResultCache(SearchCacheProperties properties, MeterRegistry meterRegistry) {
+		this.properties = properties;
+		this.results = Caffeine.newBuilder().maximumSize(properties.getMaxSize())
+				.expireAfterWrite(properties.getTtl()).recordStats().build();
+		CaffeineCacheMetrics.monitor(meterRegistry, results, "search_results");
+
+		SearchCacheProperties.Warm warming = properties.getWarm();
+		this.warm = Caffeine.newBuilder().maximumSize(warming.getTopK())
+				.expireAfterWrite(warming.getMaxAge()).recordStats().build();
+		CaffeineCacheMetrics.monitor(meterRegistry, warm, "search_warm");
+		this.popularity = new RouteSketch(warming.getSketchCapacity());
+	}
+
+	public static String key(String fromPlace, String toPlace, LocalDate date) {
+		return fromPlace + "|" + toPlace + "|" + date;
+	}
+
+	public Optional<List<Listing>> get(String key) {
+		return properties.isEnabled() ? Optional.ofNullable(results.getIfPresent(key)) : Optional.empty();
+	}
+
+	public void put(String key, List<Listing> list) {
+		if (properties.isEnabled()) {
+			results.put(key, List.copyOf(list));
+		}
+	}
+
+	public long size() {
+		return results.estimatedSize();
+	}
+
+	// --- popular routes ---
+
+	public void recordSearch(String key) {
+		if (properties.getWarm().isEnabled()) {
+			popularity.record(key);
+		}
+	}
+
+	public List<RouteSketch.Hit> popularKeys(int n) {
+		return popularity.top(n);
+	}
+
+	public void decayPopularity() {
+		popularity.decay();
+	}
+
+	public Optional<List<Listing>> getWarm(String key) {
+		return properties.getWarm().isEnabled() ? Optional.ofNullable(warm.getIfPresent(key)) : Optional.empty();
+	}
+
+	public void putWarm(String key, List<Listing> list) {
+		warm.put(key, List.copyOf(list));
+	}
+
+	public boolean isWarm(String key) {
+		return warm.getIfPresent(key) != null;
+	}
+
+	public Set<String> warmKeys() {
+		return Set.copyOf(warm.asMap().keySet());
+	}
+
+	public long warmSize() {
+		return warm.estimatedSize();
+	}
+}
@@ -0,0 +1,138 @@
+package com.flightapp.cache;
+
+import com.flightapp.config.SearchCacheProperties;
+import com.flightapp.service.FlightService;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Keeps the search results for the most searched route + days precomputed, so peak-hour searches
+// on hot routes are answered from memory.
+//
+// Every interval: take the topK from|to|date keys from the popularity sketch (travel dates from
+// today up to `days` ahead), load each one's flights from Mongo and store them as a warm entry, then
+// halve the sketch's counts. Entries are priced per search, so fares stay current between reloads.
+// In between, FLIGHT_SEATS_CHANGED / INVENTORY_ADDED on a warm route + day (from
+// any node, via the invalidation bus) mark it dirty; dirty keys are reloaded every refreshDelay,
+// so a burst of bookings on one flight costs one search, not one per booking.
+
+@Component
+@ConditionalOnProperty(prefix = "flightapp.cache.search.warm", name = "enabled")
+@Slf4j
+public class SearchWarmer implements SmartLifecycle {
+
+	private final FlightService flightService;
+	private final SearchResultCache searchResultCache;
+	private final CacheInvalidationBus invalidationBus;
+	private final SearchCacheProperties.Warm properties;
+
+	private final Set<String> dirty = ConcurrentHashMap.newKeySet();
+
+	private volatile Disposable subscription;
+
+	public SearchWarmer(FlightService flightService, SearchResultCache searchResultCache,
+			CacheInvalidationBus invalidationBus, SearchCacheProperties properties) {
+		this.flightService = flightService;
+		this.searchResultCache = searchResultCache;
+		this.invalidationBus = invalidationBus;
+		this.properties = properties.getWarm();
+	}
+
+	// Loads the current top list, returns how many keys were warmed
+	public Mono<Long> warmPopular() {
+		return Flux.defer(() -> Flux.fromIterable(popularKeys())).flatMap(this::warm, properties.getConcurrency())
+				.count().doOnNext(warmed -> {
+					searchResultCache.decayPopularity();
+					log.debug("Warmed {} popular searches ({} cached)", warmed, searchResultCache.warmSize());
+				});
+	}
+
+	// Reloads the warm keys that changed since the last call
+	public Mono<Long> refreshDirty() {
+		return Flux.defer(() -> {
+			List<String> keys = new ArrayList<>(dirty);
+			dirty.removeAll(keys);
+			return Flux.fromIterable(keys);
+		}).flatMap(this::warm, properties.getConcurrency()).count();
+	}
+
+	void onEvent(CacheInvalidationEvent event) {
+		if (event.getType() == CacheInvalidationEvent.Type.FLUSH_ALL) {
+			dirty.addAll(searchResultCache.warmKeys());
+		} else if ((event.getType() == CacheInvalidationEvent.Type.FLIGHT_SEATS_CHANGED
+				|| event.getType() == CacheInvalidationEvent.Type.INVENTORY_ADDED) && event.getRoute() != null
+				&& searchResultCache.isWarm(event.getRoute())) {
+			dirty.add(event.getRoute());
+		}
+	}
+
+	private List<String> popularKeys() {
+		LocalDate today = LocalDate.now();
+		LocalDate last = today.plusDays(properties.getDays());
+		// the sketch also holds past and far-out dates; over-fetch a little so those don't eat the top list
+		return searchResultCache.popularKeys(properties.getTopK() * 2).stream().map(RouteSketch.Hit::key)
+				.filter(key -> {
+					LocalDate date = travelDate(key);
+					return date != null && !date.isBefore(today) && !date.isAfter(last);
+				}).limit(properties.getTopK()).toList();
+	}
+
+	// A failed load keeps the previous warm copy until it expires (maxAge)
+	private Mono<Boolean> warm(String key) {
+		String[] parts = key.split("\\|", 3);
+		return flightService.loadListings(parts[0], parts[1], LocalDate.parse(parts[2]))
+				.doOnNext(listings -> searchResultCache.putWarm(key, listings)).thenReturn(true)
+				.onErrorResume(ex -> {
+					log.debug("Could not warm search {}: {}", key, ex.getMessage());
+					return Mono.empty();
+				});
+	}
+
+	private static LocalDate travelDate(String key) {
+		int at = key.lastIndexOf('|');
+		try {
+			return at < 0 ? null : LocalDate.parse(key.substring(at + 1));
+		} catch (RuntimeException ex) {
+			return null;
+		}
+	}
+
+	@Override
+	public void start() {
+		log.info("Search warmer: top {} searches over the next {} days, every {}", properties.getTopK(),
+				properties.getDays(), properties.getInterval());
+
+		Flux<Long> cycles = Flux.interval(properties.getInterval()).onBackpressureDrop()
+				.concatMap(tick -> warmPopular());
+		Flux<Long> refreshes = Flux.interval(properties.getRefreshDelay()).onBackpressureDrop()
+				.concatMap(tick -> refreshDirty());
+
+		subscription = Flux.merge(invalidationBus.events().doOnNext(this::onEvent).then(Mono.<Long>empty()),
+				cycles, refreshes).subscribe();
+	}
+
+	@Override
+	public void stop() {
+		Disposable running = subscription;
+		if (running != null) {
+			running.dispose();
+		}
+		subscription = null;
+	}
+
+	@Override
+	public boolean isRunning() {
+		return subscription != null && !subscription.isDisposed();
+	}
+}
@@ -0,0 +1,130 @@
+package com.flightapp.cache;
+
+import com.flightapp.config.TicketCacheProperties;
+import com.flightapp.dto.BookingResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Cache of assembled BookingResponse objects keyed by PNR.
+// Saves the findByPnr + findByBookingId round trips for repeated ticket lookups
+// (check-in, itinerary pages...). Local Caffeine cache first, then the optional
+// shared tier. bookTicket writes through, cancelBooking invalidates.
+//
+// A lookup that read the booking before a cancel can finish after the cancel's evict. Each evict
+// takes a generation number and remembers it per PNR for one TTL; a lookup takes generation()
+// before it reads Mongo, and its put is dropped if the PNR was evicted since.
+
+@Slf4j
+public class TicketCache {
+
+	private final TicketCacheProperties properties;
+	private final TicketCacheTier tier;
+	private final Cache<String, BookingResponse> local;
+	private final Cache<String, Long> evictedAt;
+	private final AtomicLong generation = new AtomicLong();
+	private volatile long flushedAt;
+
+	private final Counter tierHits;
+	private final Counter tierMisses;
+
+	public TicketCache(TicketCacheProperties properties, TicketCacheTier tier, MeterRegistry meterRegistry) {
+		this.properties = properties;
+		this.tier = tier;
+		this.local = Caffeine.newBuilder().maximumSize(properties.getMaxSize()).expireAfterWrite(properties.getTtl())
+				.recordStats().build();
+		this.evictedAt = Caffeine.newBuilder().maximumSize(properties.getMaxSize())
+				.expireAfterWrite(properties.getTtl()).build();
+
+		// cache.gets{result=hit|miss}, cache.evictions, cache.size ... tagged cache=tickets
+		CaffeineCacheMetrics.monitor(meterRegistry, local, "tickets");
+		this.tierHits = Counter.builder("flightapp.cache.ticket.tier").tag("result", "hit").register(meterRegistry);
+		this.tierMisses = Counter.builder("flightapp.cache.ticket.tier").tag("result", "miss").register(meterRegistry);
+	}
+
+	// Empty Mono on a miss in both tiers
+	public Mono<BookingResponse> get(String pnr) {
+
+		if (!properties.isEnabled()) {
+			return Mono.empty();
+		}
+
+		BookingResponse cached = local.getIfPresent(pnr);
+		if (cached != null) {
+			log.debug("Ticket cache hit (local) for PNR {}", pnr);
+			return Mono.just(cached);
+		}
+
+		return tier.get(pnr).doOnNext(resp -> {
+			log.debug("Ticket cache hit (shared tier) for PNR {}", pnr);
+			tierHits.increment();
+			local.put(pnr, resp);
+		}).switchIfEmpty(Mono.fromRunnable(tierMisses::increment));
+	}
+
+	// Take this before reading the booking and pass it to put(response, generation)
+	public long generation() {
+		return generation.get();
+	}
+
+	// Write-through: local + shared tier (the writer's own response, never stale)
+	public Mono<Void> put(BookingResponse response) {
+		return put(response, generation());
+	}
+
+	// Write-through of a response read at the given generation; dropped if the PNR was evicted since
+	public Mono<Void> put(BookingResponse response, long readAt) {
+
+		if (!properties.isEnabled() || response.getPnr() == null) {
+			return Mono.empty();
+		}
+
+		return Mono.defer(() -> {
+			String pnr = response.getPnr();
+			local.put(pnr, response);
+			// checked after the put so an evict landing in between still wins
+			if (evictedSince(pnr, readAt)) {
+				local.asMap().remove(pnr, response);
+				log.debug("Dropped stale ticket for PNR {}: evicted while it was being read", pnr);
+				return Mono.empty();
+			}
+			return tier.put(pnr, response, properties.getTtl());
+		});
+	}
+
+	// Invalidate everywhere (used by the node that changed the booking)
+	public Mono<Void> evict(String pnr) {
+		return Mono.defer(() -> {
+			evictLocal(pnr);
+			return tier.evict(pnr, properties.getTtl());
+		});
+	}
+
+	// Local-only invalidation, e.g. when another node already cleared the shared tier
+	public void evictLocal(String pnr) {
+		evictedAt.put(pnr, generation.incrementAndGet());
+		local.invalidate(pnr);
+	}
+
+	// Local-only, every PNR: the invalidation bus may have missed some cancels
+	public void evictAllLocal() {
+		flushedAt = generation.incrementAndGet();
+		local.invalidateAll();
+	}
+
+	private boolean evictedSince(String pnr, long readAt) {
+		Long evicted = evictedAt.getIfPresent(pnr);
+		return flushedAt > readAt || evicted != null && evicted > readAt;
+	}
+
+	public long localSize() {
+		return local.estimatedSize();
+	}
+}
@@ -0,0 +1,27 @@
+package com.flightapp.cache;
+
+import com.flightapp.dto.BookingResponse;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+// Second-level (shared) tier behind the local ticket cache.
+// For multi-node deployments this would be backed by something like Redis;
+// the local cache always sits in front of it.
+
+public interface TicketCacheTier {
+
+	// Empty Mono when the PNR is not in the shared tier
+	Mono<BookingResponse> get(String pnr);
+
+	Mono<Void> put(String pnr, BookingResponse response, Duration ttl);
+
+	// Drops the entry and ignores puts for the PNR for holdFor, so a node whose lookup read the
+	// booking before the change (and hasn't seen the invalidation yet) can't write it back
+	Mono<Void> evict(String pnr, Duration holdFor);
+
+	// Used when no shared tier is configured
+	static TicketCacheTier none() {
+		return NoOpTicketCacheTier.INSTANCE;
+	}
+}
@@ -0,0 +1,27 @@
+package com.flightapp.config;
+
+import com.flightapp.admission.MongoLatencyTracker;
+
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Wiring for the admission-control filter: the Mongo latency signal its adaptive
+// limits are based on.
+
+@Configuration
+@EnableConfigurationProperties(AdmissionProperties.class)
+public class AdmissionConfig {
+
+	@Bean
+	public MongoLatencyTracker mongoLatencyTracker() {
+		return new MongoLatencyTracker();
+	}
+
+	// Boot applies every customizer to the auto-configured (reactive) MongoClient
+	@Bean
+	public MongoClientSettingsBuilderCustomizer mongoLatencyListener(MongoLatencyTracker tracker) {
+		return builder -> builder.addCommandListener(tracker);
+	}
+}
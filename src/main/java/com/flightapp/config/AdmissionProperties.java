@@ -0,0 +1,55 @@
+package com.flightapp.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.List;
+
+// Admission control for the public endpoints (flightapp.admission.*).
+
+@Data
+@ConfigurationProperties(prefix = "flightapp.admission")
+public class AdmissionProperties {
+
+	private boolean enabled = true;
+
+	// Seat-changing writes: POST /booking/{flightId}, DELETE /booking/cancel/{pnr}
+	private Limits booking = new Limits(64, 0, 5);
+
+	// POST /search, POST /fare-calendar
+	private Limits search = new Limits(256, 0, 40);
+
+	// GET /ticket/{pnr}, GET /booking/history/{email}
+	private Limits read = new Limits(256, 0, 40);
+
+	// Concurrency limits shrink in proportion once Mongo's average command latency
+	// goes above this, but never below minConcurrent
+	private Duration targetMongoLatency = Duration.ofMillis(50);
+	private int minConcurrent = 4;
+
+	// Rate limits are per client: the email in the path if there is one, else the remote address.
+	// This header (and X-Forwarded-For) only counts on requests from a trusted proxy, which sets it
+	private String clientHeader = "X-Client-Id";
+
+	// Load balancers / proxies in front of the app. For a request from one of these the client
+	// is the right-most X-Forwarded-For address that isn't one of them; without it every client
+	// behind the balancer would share its bucket
+	private List<String> trustedProxies = List.of();
+	private long maxTrackedClients = 100_000;
+
+	// Retry-After sent when a concurrency limit (not a rate limit) rejects
+	private Duration retryAfter = Duration.ofSeconds(1);
+
+	@Data
+	@NoArgsConstructor
+	@AllArgsConstructor
+	public static class Limits {
+		private int maxConcurrent;
+		// 0 = no per-client rate limit (off by default: turn on once clients can be told apart)
+		private double ratePerSecond;
+		private int burst;
+	}
+}
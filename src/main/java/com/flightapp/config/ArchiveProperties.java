@@ -0,0 +1,24 @@
+package com.flightapp.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+// Archival of departed flights with their bookings + passengers (flightapp.archive.*).
+
+@Data
+@ConfigurationProperties(prefix = "flightapp.archive")
+public class ArchiveProperties {
+
+	private boolean enabled = false;
+
+	// Flights that departed longer ago than this are moved to the *_archive collections
+	private Duration retention = Duration.ofDays(30);
+
+	// Flights per batch; each batch is one read + one bulk write + one delete per collection
+	private int batchSize = 100;
+
+	private Duration initialDelay = Duration.ofMinutes(1);
+	private Duration interval = Duration.ofHours(6);
+}
@@ -0,0 +1,22 @@
+package com.flightapp.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+// booking_history read model rebuild (flightapp.history.rebuild.*).
+
+@Data
+@ConfigurationProperties(prefix = "flightapp.history.rebuild")
+public class BookingHistoryProperties {
+
+	// Regenerate the whole read model from bookings + passengers once the app is up
+	private boolean onStartup = false;
+
+	// Emails per round trip: one passengers $in query and one bulk write per chunk
+	private int chunkSize = 200;
+
+	// How often progress (emails, bookings, bookings/s) is logged while it runs
+	private Duration progressInterval = Duration.ofSeconds(5);
+}
@@ -0,0 +1,65 @@
+package com.flightapp.config;
+
+import com.flightapp.cache.CacheInvalidationBus;
+import com.flightapp.cache.InMemoryTicketCacheTier;
+import com.flightapp.cache.LocalCacheInvalidationBus;
+import com.flightapp.cache.MongoCacheInvalidationBus;
+import com.flightapp.cache.SearchResultCache;
+import com.flightapp.cache.TicketCache;
+import com.flightapp.cache.TicketCacheTier;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+
+// Wiring for the application-level caches.
+
+@Configuration
+@EnableConfigurationProperties({ TicketCacheProperties.class, InvalidationBusProperties.class,
+		SearchCacheProperties.class })
+@Slf4j
+public class CacheConfig {
+
+	// In-process stand-in for the shared tier (flightapp.cache.ticket.tier=in-memory).
+	// A real distributed tier just needs to be another TicketCacheTier bean.
+	@Bean
+	@ConditionalOnProperty(prefix = "flightapp.cache.ticket", name = "tier", havingValue = "in-memory")
+	public TicketCacheTier inMemoryTicketCacheTier() {
+		return new InMemoryTicketCacheTier();
+	}
+
+	@Bean
+	public TicketCache ticketCache(TicketCacheProperties properties, ObjectProvider<TicketCacheTier> tier,
+			MeterRegistry meterRegistry) {
+
+		TicketCacheTier sharedTier = tier.getIfAvailable(TicketCacheTier::none);
+		log.info("Ticket cache: enabled={}, maxSize={}, ttl={}, tier={}", properties.isEnabled(),
+				properties.getMaxSize(), properties.getTtl(), sharedTier.getClass().getSimpleName());
+
+		return new TicketCache(properties, sharedTier, meterRegistry);
+	}
+
+	@Bean
+	public SearchResultCache searchResultCache(SearchCacheProperties properties, MeterRegistry meterRegistry) {
+		return new SearchResultCache(properties, meterRegistry);
+	}
+
+	// Multi-instance deployments: flightapp.cache.bus.mode=mongo
+	@Bean
+	@ConditionalOnProperty(prefix = "flightapp.cache.bus", name = "mode", havingValue = "mongo")
+	public CacheInvalidationBus mongoCacheInvalidationBus(ReactiveMongoTemplate mongoTemplate,
+			InvalidationBusProperties properties) {
+		return new MongoCacheInvalidationBus(mongoTemplate, properties);
+	}
+
+	@Bean
+	@ConditionalOnProperty(prefix = "flightapp.cache.bus", name = "mode", havingValue = "local", matchIfMissing = true)
+	public CacheInvalidationBus localCacheInvalidationBus() {
+		return new LocalCacheInvalidationBus();
+	}
+}
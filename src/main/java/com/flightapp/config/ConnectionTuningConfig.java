@@ -0,0 +1,78 @@
+package com.flightapp.config;
+
+import com.mongodb.MongoCompressor;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.netty.resources.LoopResources;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Event-loop and Mongo connection-pool tuning. Every knob is a property, so
+// loadtest/sweep.sh can vary them per run without rebuilding.
+
+@Configuration
+@EnableConfigurationProperties({ MongoClientTuningProperties.class, NettyProperties.class })
+@Slf4j
+public class ConnectionTuningConfig {
+
+	@Bean(destroyMethod = "dispose")
+	public LoopResources httpLoopResources(NettyProperties properties) {
+		int workers = properties.resolvedWorkerThreads();
+		log.info("HTTP event loops: {} workers, {} select", workers, properties.getSelectThreads());
+		return properties.getSelectThreads() > 0
+				? LoopResources.create("flightapp-http", properties.getSelectThreads(), workers, true)
+				: LoopResources.create("flightapp-http", workers, true);
+	}
+
+	@Bean
+	public WebServerFactoryCustomizer<NettyReactiveWebServerFactory> httpEventLoops(LoopResources httpLoopResources) {
+		return factory -> factory.addServerCustomizers(server -> server.runOn(httpLoopResources));
+	}
+
+	@Bean
+	public MongoPoolMetrics mongoPoolMetrics(MeterRegistry meterRegistry) {
+		return new MongoPoolMetrics(meterRegistry);
+	}
+
+	// Runs after Boot's own customizer (which applies the URI), so these settings win
+	@Bean
+	public MongoClientSettingsBuilderCustomizer mongoClientTuning(MongoClientTuningProperties properties,
+			MongoPoolMetrics poolMetrics) {
+
+		MongoClientTuningProperties.Pool pool = properties.getPool();
+		MongoClientTuningProperties.Socket socket = properties.getSocket();
+		List<MongoCompressor> compressors = properties.getCompressors().stream()
+				.map(ConnectionTuningConfig::compressor).toList();
+
+		log.info("Mongo pool: min={}, max={}, maxWait={}, maxConnecting={}; compressors={}", pool.getMinSize(),
+				pool.getMaxSize(), pool.getMaxWaitTime(), pool.getMaxConnecting(), properties.getCompressors());
+
+		return builder -> builder.applyToConnectionPoolSettings(b -> b.minSize(pool.getMinSize())
+				.maxSize(pool.getMaxSize()).maxWaitTime(pool.getMaxWaitTime().toMillis(), TimeUnit.MILLISECONDS)
+				.maxConnecting(pool.getMaxConnecting())
+				.maxConnectionIdleTime(pool.getMaxIdleTime().toMillis(), TimeUnit.MILLISECONDS)
+				.maxConnectionLifeTime(pool.getMaxLifeTime().toMillis(), TimeUnit.MILLISECONDS)
+				.addConnectionPoolListener(poolMetrics))
+				.applyToSocketSettings(b -> b
+						.connectTimeout((int) socket.getConnectTimeout().toMillis(), TimeUnit.MILLISECONDS)
+						.readTimeout((int) socket.getReadTimeout().toMillis(), TimeUnit.MILLISECONDS))
+				.compressorList(compressors);
+	}
+
+	static MongoCompressor compressor(String name) {
+		return switch (name.trim().toLowerCase()) {
+		case "zstd" -> MongoCompressor.createZstdCompressor();
+		case "snappy" -> MongoCompressor.createSnappyCompressor();
+		case "zlib" -> MongoCompressor.createZlibCompressor();
+		default -> throw new IllegalArgumentException("Unknown Mongo compressor: " + name);
+		};
+	}
+}
@@ -0,0 +1,22 @@
+package com.flightapp.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+// Fare calendar settings (flightapp.fare-calendar.*).
+
+@Data
+@ConfigurationProperties(prefix = "flightapp.fare-calendar")
+public class FareCalendarProperties {
+
+	// Longest range one request may ask for
+	private int maxDays = 92;
+
+	// Serve reads from the precomputed fare_calendar collection, kept up to date by
+	// addInventory and booking/cancel seat changes. Off = live aggregation per request.
+	private boolean materialized = false;
+
+	// Rebuild the materialization from the flights collection at startup
+	// (needed once when switching it on for existing data)
+	private boolean rebuildOnStartup = false;
+}
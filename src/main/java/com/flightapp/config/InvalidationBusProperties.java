@@ -0,0 +1,29 @@
+package com.flightapp.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+// Settings for the cache invalidation bus (flightapp.cache.bus.*).
+
+@Data
+@ConfigurationProperties(prefix = "flightapp.cache.bus")
+public class InvalidationBusProperties {
+
+	// "local" (single node) or "mongo" (capped collection + tailable cursor)
+	private String mode = "local";
+
+	private String collection = "cache_invalidations";
+
+	// Capped collection limits — only the last few minutes of events matter
+	private long cappedSizeBytes = 16 * 1024 * 1024;
+	private long cappedMaxDocuments = 100_000;
+
+	// Delay before re-opening a closed tail / first retry after an error
+	private Duration retryDelay = Duration.ofSeconds(1);
+
+	// How far apart the nodes' clocks may be. Event ids carry the publisher's clock, so a re-tail
+	// reads back this far before the last event seen (those are delivered twice, which is harmless)
+	private Duration maxClockSkew = Duration.ofSeconds(5);
+}
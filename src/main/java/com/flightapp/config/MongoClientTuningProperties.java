@@ -0,0 +1,52 @@
+package com.flightapp.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+// Mongo driver pool / socket / compression settings (flightapp.mongo.client.*).
+// Applied after the URI, so these win over the equivalent URI options.
+
+@Data
+@ConfigurationProperties(prefix = "flightapp.mongo.client")
+public class MongoClientTuningProperties {
+
+	private Pool pool = new Pool();
+	private Socket socket = new Socket();
+
+	// Wire compression, in order of preference: zstd, snappy, zlib. The server picks
+	// the first one it supports; empty = no compression.
+	private List<String> compressors = new ArrayList<>(List.of("zstd", "snappy"));
+
+	@Data
+	public static class Pool {
+
+		// Warm connections kept per server so a burst doesn't pay for TCP + TLS + auth
+		private int minSize = 10;
+
+		// Upper bound per server. Keep the read + write bulkheads (flightapp.resilience.*) below this.
+		private int maxSize = 100;
+
+		// How long a request may wait for a free connection. The driver default is
+		// 2 minutes, far longer than any of our operation timeouts.
+		private Duration maxWaitTime = Duration.ofSeconds(2);
+
+		// Connections being established concurrently (driver default 2)
+		private int maxConnecting = 4;
+
+		private Duration maxIdleTime = Duration.ofMinutes(5);
+		private Duration maxLifeTime = Duration.ofMinutes(30);
+	}
+
+	@Data
+	public static class Socket {
+
+		private Duration connectTimeout = Duration.ofSeconds(3);
+
+		// Backstop only — operations are bounded by MongoGuard timeouts first
+		private Duration readTimeout = Duration.ofSeconds(10);
+	}
+}
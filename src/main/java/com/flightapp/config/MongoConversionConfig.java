@@ -0,0 +1,63 @@
+package com.flightapp.config;
+
+import com.flightapp.entity.Money;
+
+import org.bson.Document;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.data.convert.ReadingConverter;
+import org.springframework.data.convert.WritingConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+
+import java.util.List;
+
+// Custom Mongo conversions. Money is written as { minorUnits, currency }; reads also
+// accept the bare Float/Double prices written before Money existed, so old flights,
+// bookings and calendar cells stay readable without a migration.
+
+@Configuration
+public class MongoConversionConfig {
+
+	@Bean
+	public MongoCustomConversions mongoCustomConversions() {
+		return new MongoCustomConversions(converters());
+	}
+
+	static List<Converter<?, ?>> converters() {
+		return List.of(MoneyWriter.INSTANCE, MoneyReader.INSTANCE, LegacyMoneyReader.INSTANCE);
+	}
+
+	@WritingConverter
+	enum MoneyWriter implements Converter<Money, Document> {
+		INSTANCE;
+
+		@Override
+		public Document convert(Money money) {
+			return new Document("minorUnits", money.minorUnits()).append("currency", money.currency());
+		}
+	}
+
+	@ReadingConverter
+	enum MoneyReader implements Converter<Document, Money> {
+		INSTANCE;
+
+		@Override
+		public Money convert(Document source) {
+			String currency = source.getString("currency");
+			return Money.ofMinor(((Number) source.get("minorUnits")).longValue(),
+					currency == null ? Money.DEFAULT_CURRENCY : currency);
+		}
+	}
+
+	// Legacy documents: price was a major-unit Float (stored as a double)
+	@ReadingConverter
+	enum LegacyMoneyReader implements Converter<Number, Money> {
+		INSTANCE;
+
+		@Override
+		public Money convert(Number source) {
+			return Money.of(source.doubleValue(), Money.DEFAULT_CURRENCY);
+		}
+	}
+}
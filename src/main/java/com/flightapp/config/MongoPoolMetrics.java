@@ -0,0 +1,85 @@
+package com.flightapp.config;
+
+import com.mongodb.event.ConnectionCheckOutFailedEvent;
+import com.mongodb.event.ConnectionCheckedInEvent;
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.ConnectionCheckedOutEvent;
+import com.mongodb.event.ConnectionPoolClosedEvent;
+import com.mongodb.event.ConnectionPoolCreatedEvent;
+import com.mongodb.event.ConnectionPoolListener;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Pool wait time and saturation. Boot's own mongodb.driver.pool.* meters give sizes
+// per server; these add how long requests wait for a connection and how close the
+// pool is to its max (checked out / max size, over all servers). A server that leaves the
+// topology closes its pool, and its max size comes off the total.
+
+public class MongoPoolMetrics implements ConnectionPoolListener {
+
+	private final Timer waitSuccess;
+	private final Timer waitFailed;
+	private final Counter waitTimeouts;
+
+	private final AtomicInteger checkedOut = new AtomicInteger();
+	private final AtomicInteger maxSize = new AtomicInteger();
+	private final Map<ServerId, Integer> poolMaxSizes = new ConcurrentHashMap<>();
+
+	public MongoPoolMetrics(MeterRegistry registry) {
+		this.waitSuccess = Timer.builder("flightapp.mongo.pool.wait").tag("outcome", "success")
+				.publishPercentiles(0.5, 0.99).register(registry);
+		this.waitFailed = Timer.builder("flightapp.mongo.pool.wait").tag("outcome", "failed")
+				.register(registry);
+		this.waitTimeouts = Counter.builder("flightapp.mongo.pool.wait.timeouts").register(registry);
+
+		Gauge.builder("flightapp.mongo.pool.checked_out", checkedOut, AtomicInteger::get).register(registry);
+		Gauge.builder("flightapp.mongo.pool.saturation", this, MongoPoolMetrics::saturation).register(registry);
+	}
+
+	@Override
+	public void connectionPoolCreated(ConnectionPoolCreatedEvent event) {
+		int poolMax = event.getSettings().getMaxSize();
+		Integer previous = poolMaxSizes.put(event.getServerId(), poolMax);
+		maxSize.addAndGet(poolMax - (previous == null ? 0 : previous));
+	}
+
+	@Override
+	public void connectionPoolClosed(ConnectionPoolClosedEvent event) {
+		Integer poolMax = poolMaxSizes.remove(event.getServerId());
+		if (poolMax != null) {
+			maxSize.addAndGet(-poolMax);
+		}
+	}
+
+	@Override
+	public void connectionCheckedOut(ConnectionCheckedOutEvent event) {
+		checkedOut.incrementAndGet();
+		waitSuccess.record(event.getElapsedTime(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+	}
+
+	@Override
+	public void connectionCheckOutFailed(ConnectionCheckOutFailedEvent event) {
+		waitFailed.record(event.getElapsedTime(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+		if (event.getReason() == ConnectionCheckOutFailedEvent.Reason.TIMEOUT) {
+			waitTimeouts.increment();
+		}
+	}
+
+	@Override
+	public void connectionCheckedIn(ConnectionCheckedInEvent event) {
+		checkedOut.decrementAndGet();
+	}
+
+	double saturation() {
+		int max = maxSize.get();
+		return max == 0 ? 0 : (double) checkedOut.get() / max;
+	}
+}
@@ -0,0 +1,66 @@
+package com.flightapp.config;
+
+import com.flightapp.cache.CacheInvalidationEvent;
+import com.flightapp.dto.BookingRequest;
+import com.flightapp.dto.BookingResponse;
+import com.flightapp.dto.BookingView;
+import com.flightapp.dto.FareCalendarDay;
+import com.flightapp.dto.FareCalendarRequest;
+import com.flightapp.dto.FlightInventoryRequest;
+import com.flightapp.dto.FlightResponse;
+import com.flightapp.dto.FlightSearchRequest;
+import com.flightapp.dto.FlightSearchResult;
+import com.flightapp.dto.FlightWindowSearchRequest;
+import com.flightapp.dto.PassengerRequest;
+import com.flightapp.dto.PlaceSuggestion;
+import com.flightapp.entity.Airline;
+import com.flightapp.entity.Booking;
+import com.flightapp.entity.BookingEvent;
+import com.flightapp.entity.BookingHistory;
+import com.flightapp.entity.FareCalendarEntry;
+import com.flightapp.entity.Flight;
+import com.flightapp.entity.Passenger;
+
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+import java.util.List;
+
+// Reflection metadata for the native image.
+//
+// DTOs: Jackson binds request bodies through the Lombok no-arg constructor + setters
+// and writes responses through getters — BindingReflectionHintsRegistrar covers that
+// (and nested types like List<PassengerRequest>).
+// Entities: Spring Data's mapping reads/writes fields and calls the all-args/no-args
+// constructors reflectively in a native image (no generated instantiators there).
+// places.csv is read from the classpath by PlaceRegistry, so it has to be included as a resource.
+
+public class NativeHints implements RuntimeHintsRegistrar {
+
+	static final List<Class<?>> DTOS = List.of(BookingRequest.class, BookingResponse.class, PassengerRequest.class,
+			FlightInventoryRequest.class, FlightSearchRequest.class, FlightSearchResult.class,
+			FlightWindowSearchRequest.class, FareCalendarRequest.class, FareCalendarDay.class, BookingView.class, PlaceSuggestion.class,
+			FlightResponse.class,
+			// the booking event stream returns this entity as-is
+			BookingEvent.class);
+
+	static final List<Class<?>> ENTITIES = List.of(Flight.class, Booking.class, Passenger.class, Airline.class,
+			FareCalendarEntry.class, CacheInvalidationEvent.class, BookingEvent.class, BookingHistory.class,
+			BookingHistory.Entry.class, BookingHistory.Traveller.class);
+
+	@Override
+	public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+
+		new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(),
+				DTOS.toArray(Class<?>[]::new));
+
+		for (Class<?> entity : ENTITIES) {
+			hints.reflection().registerType(entity, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+					MemberCategory.INVOKE_PUBLIC_METHODS, MemberCategory.DECLARED_FIELDS);
+		}
+
+		hints.resources().registerPattern("places.csv");
+	}
+}
@@ -0,0 +1,23 @@
+package com.flightapp.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+// Reactor Netty event loops for the HTTP server (flightapp.netty.*).
+
+@Data
+@ConfigurationProperties(prefix = "flightapp.netty")
+public class NettyProperties {
+
+	// Worker (I/O) threads. 0 = one per core, at least 4 (Reactor Netty's own default).
+	// Nothing blocks on these threads, so more than the core count rarely helps.
+	private int workerThreads = 0;
+
+	// Dedicated accept threads. 0 = workers also accept connections (fine unless
+	// connection churn is very high).
+	private int selectThreads = 0;
+
+	public int resolvedWorkerThreads() {
+		return workerThreads > 0 ? workerThreads : Math.max(4, Runtime.getRuntime().availableProcessors());
+	}
+}
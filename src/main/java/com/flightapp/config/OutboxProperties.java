@@ -0,0 +1,33 @@
+package com.flightapp.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+// Booking event outbox publisher (flightapp.outbox.*).
+
+@Data
+@ConfigurationProperties(prefix = "flightapp.outbox")
+public class OutboxProperties {
+
+	// Off = events are still written (and relayed), but this node doesn't tail or stream them
+	private boolean enabled = true;
+
+	// One outbox query per interval per node, however many consumers are attached
+	private Duration pollInterval = Duration.ofMillis(500);
+	private int batchSize = 200;
+
+	// A missing seq is normally a write still in flight; after this long the publisher closes it
+	// with a tombstone, and an event that turns up later is appended again under a new seq
+	private Duration gapTimeout = Duration.ofSeconds(5);
+
+	// Pending events still sitting on a booking/flight this long after they were written were
+	// missed by the inline relay (node died, Mongo blipped) — the relay sweep picks them up.
+	// Runs on every node, whether or not the publisher is enabled.
+	private Duration relayDelay = Duration.ofSeconds(5);
+	private Duration relayInterval = Duration.ofSeconds(5);
+
+	// Recent events kept in memory so a consumer switching from catch-up to live misses nothing
+	private int replayBuffer = 1024;
+}
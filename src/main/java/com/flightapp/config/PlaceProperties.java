@@ -0,0 +1,21 @@
+package com.flightapp.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+// Canonical places and the autocomplete index (flightapp.places.*).
+
+@Data
+@ConfigurationProperties(prefix = "flightapp.places")
+public class PlaceProperties {
+
+	// code,name,aliases per line (see places.csv)
+	private String registry = "classpath:places.csv";
+
+	// Most suggestions one autocomplete call returns (also what each index node keeps)
+	private int suggestions = 10;
+
+	// At startup, rewrite flights stored under a non-canonical spelling ("DELHI", "DEL") to the
+	// canonical place, so normalized searches find them
+	private boolean backfill = true;
+}
@@ -0,0 +1,57 @@
+package com.flightapp.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+// Fare buckets for the pricing engine (flightapp.pricing.*).
+// Fare = base price (Flight.price) x load-factor multiplier x departure multiplier.
+
+@Data
+@ConfigurationProperties(prefix = "flightapp.pricing")
+public class PricingProperties {
+
+	// Off = everybody pays the static base price
+	private boolean enabled = true;
+
+	// Share of seats already sold (1 - available/total) -> multiplier.
+	// First bucket whose upTo >= load factor wins; keep them sorted by upTo.
+	private List<LoadFactorBucket> loadFactorBuckets = new ArrayList<>(List.of(new LoadFactorBucket(0.5, 1.0),
+			new LoadFactorBucket(0.75, 1.15), new LoadFactorBucket(0.9, 1.35), new LoadFactorBucket(1.0, 1.6)));
+
+	// Days left until departure -> multiplier. First bucket whose withinDays >= days left
+	// wins; no match = 1.0. Keep them sorted by withinDays.
+	private List<DepartureBucket> departureBuckets = new ArrayList<>(List.of(new DepartureBucket(1, 1.5),
+			new DepartureBucket(3, 1.3), new DepartureBucket(7, 1.15), new DepartureBucket(21, 1.05)));
+
+	// How long after it was quoted a fare is still honoured at booking, even if the price moved
+	private Duration quoteLock = Duration.ofMinutes(10);
+
+	// Signs the token each quote carries. Nodes behind one balancer must share it so a quote
+	// from one is honoured by the others; unset = a random key per node
+	private String quoteKey;
+
+	// Quote cache bound (one entry per flight)
+	private long maxCachedQuotes = 100_000;
+
+	@Data
+	@NoArgsConstructor
+	@AllArgsConstructor
+	public static class LoadFactorBucket {
+		private double upTo;
+		private double multiplier;
+	}
+
+	@Data
+	@NoArgsConstructor
+	@AllArgsConstructor
+	public static class DepartureBucket {
+		private int withinDays;
+		private double multiplier;
+	}
+}
@@ -0,0 +1,48 @@
+package com.flightapp.config;
+
+import com.mongodb.ReadPreference;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+// Decides where staleness-tolerant reads (search, history, flight display) go.
+// The repositories' *OnReplica methods attach this read preference per query,
+// everything else keeps the connection default (primary).
+
+@Component
+@EnableConfigurationProperties(ReadRoutingProperties.class)
+@Slf4j
+public class ReadRouting {
+
+	static final long MIN_STALENESS_SECONDS = 90;
+
+	private final ReadPreference replicaReads;
+
+	public ReadRouting(ReadRoutingProperties properties) {
+		this.replicaReads = resolve(properties);
+		log.info("Replica reads routed with read preference {}", replicaReads);
+	}
+
+	public ReadPreference replicaReads() {
+		return replicaReads;
+	}
+
+	static ReadPreference resolve(ReadRoutingProperties properties) {
+
+		if (!properties.isEnabled()) {
+			return ReadPreference.primary();
+		}
+
+		long staleness = properties.getMaxStaleness().toSeconds();
+		if (staleness < MIN_STALENESS_SECONDS) {
+			log.warn("max-staleness {}s is below MongoDB's minimum, using {}s", staleness, MIN_STALENESS_SECONDS);
+			staleness = MIN_STALENESS_SECONDS;
+		}
+
+		// secondaryPreferred so reads still work while no secondary is available
+		return ReadPreference.secondaryPreferred(staleness, TimeUnit.SECONDS);
+	}
+}
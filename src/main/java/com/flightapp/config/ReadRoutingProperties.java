@@ -0,0 +1,21 @@
+package com.flightapp.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+// Read-replica routing for staleness-tolerant reads (flightapp.mongo.replica-reads.*).
+// Seat checks and writes never use this — they stay on the primary.
+
+@Data
+@ConfigurationProperties(prefix = "flightapp.mongo.replica-reads")
+public class ReadRoutingProperties {
+
+	// Off by default so a standalone mongod (no secondaries) behaves exactly as before
+	private boolean enabled = false;
+
+	// Max replication lag a secondary may have before we skip it.
+	// MongoDB does not accept anything below 90 seconds.
+	private Duration maxStaleness = Duration.ofSeconds(90);
+}
@@ -0,0 +1,71 @@
+package com.flightapp.config;
+
+import com.flightapp.resilience.MongoGuard;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+// Timeouts, bulkheads and circuit breakers around Mongo work (flightapp.resilience.*).
+
+@Data
+@ConfigurationProperties(prefix = "flightapp.resilience")
+public class ResilienceProperties {
+
+	// Whole-operation budgets, e.g. flightapp.resilience.timeouts.search=2s
+	private Map<MongoGuard.Operation, Duration> timeouts = new EnumMap<>(Map.of(MongoGuard.Operation.SEARCH,
+			Duration.ofSeconds(2), MongoGuard.Operation.FARE_CALENDAR, Duration.ofSeconds(3),
+			MongoGuard.Operation.FLIGHT_LOOKUP, Duration.ofSeconds(2), MongoGuard.Operation.TICKET,
+			Duration.ofSeconds(2), MongoGuard.Operation.HISTORY, Duration.ofSeconds(3), MongoGuard.Operation.BOOKING,
+			Duration.ofSeconds(5), MongoGuard.Operation.CANCEL, Duration.ofSeconds(5), MongoGuard.Operation.INVENTORY,
+			Duration.ofSeconds(5)));
+	private Duration defaultTimeout = Duration.ofSeconds(3);
+
+	// Reads and writes get separate budgets so a slow search pattern can't use up
+	// everything bookings need. Keep read + write below the driver's maxPoolSize.
+	private Budget reads = new Budget(60);
+	private Budget writes = new Budget(30);
+
+	// Version conflicts on flight/booking saves (see MongoGuard.retryOnConflict)
+	private ConflictRetry conflictRetry = new ConflictRetry();
+
+	@Data
+	public static class Budget {
+
+		private int maxConcurrent;
+
+		// Breaker opens when either rate is exceeded over the last slidingWindowSize calls
+		private float failureRateThreshold = 50;
+		private float slowCallRateThreshold = 80;
+		private Duration slowCallDuration = Duration.ofSeconds(1);
+		private int slidingWindowSize = 50;
+		private int minimumNumberOfCalls = 20;
+
+		// How long to fail fast before letting a few probe calls through
+		private Duration waitInOpenState = Duration.ofSeconds(10);
+		private int permittedCallsInHalfOpenState = 5;
+
+		public Budget() {
+		}
+
+		public Budget(int maxConcurrent) {
+			this.maxConcurrent = maxConcurrent;
+		}
+	}
+
+	@Data
+	public static class ConflictRetry {
+
+		// Retries after the first attempt; exhausted -> 409
+		private int maxRetries = 5;
+
+		// Exponential backoff between these bounds, each delay randomized by +/- jitter
+		// so the writers that just collided don't collide again on the next round
+		private Duration minBackoff = Duration.ofMillis(5);
+		private Duration maxBackoff = Duration.ofMillis(200);
+		private double jitter = 0.5;
+	}
+}
@@ -0,0 +1,51 @@
+package com.flightapp.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+// Last-known-good search results (flightapp.cache.search.*), served while the
+// read circuit breaker is open, plus the precomputed results for popular routes.
+
+@Data
+@ConfigurationProperties(prefix = "flightapp.cache.search")
+public class SearchCacheProperties {
+
+	private boolean enabled = true;
+
+	// One entry per from|to|date
+	private long maxSize = 10_000;
+
+	// Older results are not worth serving even as a fallback
+	private Duration ttl = Duration.ofMinutes(5);
+
+	// flightapp.cache.search.warm.* (see SearchWarmer)
+	private Warm warm = new Warm();
+
+	@Data
+	public static class Warm {
+
+		private boolean enabled = false;
+
+		// How many from|to|date combinations are kept precomputed, and how many the
+		// popularity sketch tracks to pick them (more counters = more accurate top list)
+		private int topK = 200;
+		private int sketchCapacity = 2_000;
+
+		// Only travel dates from today up to this many days ahead are warmed
+		private int days = 14;
+
+		// Full recompute of the top list; popularity counts are halved after each one
+		private Duration interval = Duration.ofMinutes(1);
+
+		// Seat/inventory changes on a warmed route+day are collected and recomputed this often
+		private Duration refreshDelay = Duration.ofSeconds(1);
+
+		// Mongo searches in flight at once while warming
+		private int concurrency = 4;
+
+		// A precomputed result older than this is dropped, so a stopped warmer can't leave stale pages behind
+		private Duration maxAge = Duration.ofMinutes(3);
+	}
+}
@@ -0,0 +1,17 @@
+package com.flightapp.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+// Multi-place departure-window search (flightapp.search.window.*).
+
+@Data
+@ConfigurationProperties(prefix = "flightapp.search.window")
+public class SearchWindowProperties {
+
+	// Longest departureFrom..departureTo accepted; results are streamed, but a month of a busy
+	// metro-to-metro pair is still a lot of index to walk
+	private Duration maxDuration = Duration.ofDays(7);
+}
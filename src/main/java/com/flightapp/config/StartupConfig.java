@@ -0,0 +1,30 @@
+package com.flightapp.config;
+
+import com.flightapp.admission.AdmissionControlFilter;
+import com.flightapp.cache.CacheInvalidationBus;
+import com.flightapp.cache.CacheInvalidationListener;
+import com.flightapp.controller.FlightController;
+import com.flightapp.exception.GlobalErrorHandler;
+import com.flightapp.repository.VersionBackfill;
+import com.flightapp.service.BookingService;
+import com.flightapp.service.FlightService;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// With spring.main.lazy-initialization=true (prod profile) everything is created on
+// first use — except the booking/search path listed here, so the first booking after
+// a cold start doesn't pay for wiring controllers, services, repositories and caches,
+// and the version backfill, which has to run before the first request.
+
+@Configuration
+public class StartupConfig {
+
+	@Bean
+	static LazyInitializationExcludeFilter eagerHotPath() {
+		return LazyInitializationExcludeFilter.forBeanTypes(FlightController.class, FlightService.class,
+				BookingService.class, GlobalErrorHandler.class, AdmissionControlFilter.class,
+				CacheInvalidationBus.class, CacheInvalidationListener.class, VersionBackfill.class);
+	}
+}
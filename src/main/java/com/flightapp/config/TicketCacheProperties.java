@@ -0,0 +1,27 @@
+package com.flightapp.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+// Settings for the PNR -> BookingResponse cache (flightapp.cache.ticket.*).
+// Defaults are sized for a single node; tune per deployment.
+
+@Data
+@ConfigurationProperties(prefix = "flightapp.cache.ticket")
+public class TicketCacheProperties {
+
+	// Turn the whole cache off (every lookup goes to Mongo again)
+	private boolean enabled = true;
+
+	// Max number of tickets kept in the local (per-node) cache
+	private long maxSize = 10_000;
+
+	// How long a ticket stays cached after it was written
+	private Duration ttl = Duration.ofMinutes(10);
+
+	// Optional shared tier: "none" or "in-memory" (in-process stand-in for a
+	// distributed cache, handy for tests and local multi-node experiments)
+	private String tier = "none";
+}
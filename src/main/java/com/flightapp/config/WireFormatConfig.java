@@ -0,0 +1,81 @@
+package com.flightapp.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+
+import org.reactivestreams.Publisher;
+import org.springframework.boot.web.codec.CodecCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.codec.json.Jackson2SmileDecoder;
+import org.springframework.http.codec.json.Jackson2SmileEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.lang.Nullable;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+
+// Smile next to JSON for high-volume clients: same controllers, picked by
+// Accept / Content-Type: application/x-jackson-smile.
+//
+// WebFlux registers a Smile codec on its own once jackson-dataformat-smile is present, but
+// with a bare mapper (LocalDateTime as arrays, none of spring.jackson.*). Swap in one built
+// from Boot's builder so both formats carry the same fields and date format.
+//
+// Flux responses: the stock encoder joins elements with JSON "[", "," and "]" bytes even for
+// Smile, which no Smile parser accepts. SmileArrayEncoder collects the Flux and writes one
+// real Smile array instead. application/stream+x-jackson-smile still streams (one value per
+// element).
+
+@Configuration
+public class WireFormatConfig {
+
+	// Passing a mapper drops the codec's default types, so restate them
+	static final MimeType[] SMILE_TYPES = { new MimeType("application", "x-jackson-smile"),
+			new MimeType("application", "*+x-jackson-smile") };
+
+	@Bean
+	public CodecCustomizer smileCodecCustomizer(Jackson2ObjectMapperBuilder builder) {
+
+		ObjectMapper smileMapper = smileMapper(builder);
+		return configurer -> {
+			configurer.defaultCodecs().jackson2SmileEncoder(new SmileArrayEncoder(smileMapper));
+			configurer.defaultCodecs().jackson2SmileDecoder(new Jackson2SmileDecoder(smileMapper, SMILE_TYPES));
+		};
+	}
+
+	// Builder bean is prototype-scoped, so changing the factory doesn't touch the JSON mapper.
+	// Shared string values: history repeats email / flightId / meal on every booking.
+	public static ObjectMapper smileMapper(Jackson2ObjectMapperBuilder builder) {
+		return builder
+				.factory(SmileFactory.builder().enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES).build())
+				.build();
+	}
+
+	static class SmileArrayEncoder extends Jackson2SmileEncoder {
+
+		SmileArrayEncoder(ObjectMapper mapper) {
+			super(mapper, SMILE_TYPES);
+		}
+
+		@Override
+		public Flux<DataBuffer> encode(Publisher<?> inputStream, DataBufferFactory bufferFactory,
+				ResolvableType elementType, @Nullable MimeType mimeType, @Nullable Map<String, Object> hints) {
+
+			if (inputStream instanceof Mono || getStreamingMediaTypeSeparator(mimeType) != null) {
+				return super.encode(inputStream, bufferFactory, elementType, mimeType, hints);
+			}
+
+			ResolvableType listType = ResolvableType.forClassWithGenerics(List.class, elementType);
+			return Flux.from(inputStream).collectList()
+					.map(list -> encodeValue(list, bufferFactory, listType, mimeType, hints)).flux();
+		}
+	}
+}
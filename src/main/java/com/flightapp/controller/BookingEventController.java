@@ -0,0 +1,55 @@
+package com.flightapp.controller;
+
+import com.flightapp.entity.BookingEvent;
+import com.flightapp.outbox.OutboxPublisher;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+
+// Booking lifecycle events (created / canceled / seats changed) as Server-Sent Events.
+// Every event carries its seq as the SSE id, so a client that reconnects with Last-Event-ID
+// (browsers do this on their own) picks up right after the last event it got.
+
+@RestController
+@RequestMapping("/api/flight")
+@Slf4j
+public class BookingEventController {
+
+	// Comment lines every so often so proxies don't drop a quiet stream
+	private static final Duration HEARTBEAT = Duration.ofSeconds(15);
+
+	private final OutboxPublisher outboxPublisher;
+
+	public BookingEventController(OutboxPublisher outboxPublisher) {
+		this.outboxPublisher = outboxPublisher;
+	}
+
+	// 7) BOOKING EVENTS
+	// ?after=<seq> or Last-Event-ID: resume after that seq; neither = only new events from now on
+	@GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	public Flux<ServerSentEvent<BookingEvent>> bookingEvents(
+			@RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId,
+			@RequestParam(value = "after", required = false) Long after) {
+
+		long from = after != null ? after : lastEventId != null ? lastEventId : -1;
+		log.info("Booking event stream opened after seq {}", from);
+
+		Flux<ServerSentEvent<BookingEvent>> events = outboxPublisher.events(from)
+				.map(event -> ServerSentEvent.builder(event).id(String.valueOf(event.getSeq()))
+						.event(event.getType().name()).build());
+		Flux<ServerSentEvent<BookingEvent>> heartbeats = Flux.interval(HEARTBEAT)
+				.map(tick -> ServerSentEvent.<BookingEvent>builder().comment("keep-alive").build());
+
+		return Flux.merge(events, heartbeats)
+				.doFinally(signal -> log.info("Booking event stream after seq {} closed ({})", from, signal));
+	}
+}
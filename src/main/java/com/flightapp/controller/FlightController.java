@@ -1,19 +1,23 @@
 package com.flightapp.controller;
 
 import com.flightapp.dto.*;
-import com.flightapp.entity.Flight;
 import com.flightapp.service.BookingService;
+import com.flightapp.service.FareCalendarService;
 import com.flightapp.service.FlightService;
 
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
 
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.Optional;
+
 // This is the main controller for all flight + booking operations.
 
 @RestController
@@ -23,33 +27,39 @@ public class FlightController {
 
 	private final FlightService flightService;
 	private final BookingService bookingService;
+	private final FareCalendarService fareCalendarService;
 
 	// Constructor injection so it's easier to test later
-	public FlightController(FlightService flightService, BookingService bookingService) {
+	public FlightController(FlightService flightService, BookingService bookingService,
+			FareCalendarService fareCalendarService) {
 		this.flightService = flightService;
 		this.bookingService = bookingService;
+		this.fareCalendarService = fareCalendarService;
 	}
 
 	// 1) ADD NEW FLIGHT INVENTORY
 	// This endpoint is used by admin to add flights.
 	// I return 201 CREATED because it’s the correct HTTP code.
 	@PostMapping("/airline/inventory/add")
-	public Mono<ResponseEntity<Flight>> addInventory(@Valid @RequestBody Mono<FlightInventoryRequest> reqMono) {
+	// No @Valid: the service runs RequestValidators first thing, before any Mongo call.
+	public Mono<ResponseEntity<FlightResponse>> addInventory(@RequestBody Mono<FlightInventoryRequest> reqMono) {
 
 		log.info("Received request to add flight inventory");
 
 		// reqMono is basically the request body as a reactive stream.
-		return reqMono.doOnNext(req -> log.debug("Add Inventory Request: {}", req)).flatMap(flightService::addInventory)
+		return reqMono.doOnNext(req -> log.debug("Add Inventory Request: {}", req))
+				.flatMap(flightService::addInventory)
 				.doOnSuccess(saved -> log.info("Flight inventory added successfully with ID: {}", saved.getId()))
-				.map(savedFlight -> ResponseEntity.status(HttpStatus.CREATED).body(savedFlight))
+				.map(savedFlight -> ResponseEntity.status(HttpStatus.CREATED).body(FlightResponse.of(savedFlight)))
 				.doOnError(ex -> log.error("Error adding inventory: {}", ex.getMessage()));
 	}
 
 	// 2) SEARCH FLIGHTS
 	// Users search for flights by sending fromPlace, toPlace, and travelDate.
-	// I return Flux<Flight> because there can be multiple matching flights.
+	// I return Flux<FlightSearchResult> because there can be multiple matching flights;
+	// each result already carries the airline name/logo.
 	@PostMapping("/search")
-	public Flux<Flight> searchFlights(@Valid @RequestBody Mono<FlightSearchRequest> reqMono) {
+	public Flux<FlightSearchResult> searchFlights(@Valid @RequestBody Mono<FlightSearchRequest> reqMono) {
 		log.info("Received flight search request");
 
 		// flatMapMany converts Mono -> Flux while calling the service.
@@ -58,12 +68,38 @@ public class FlightController {
 				.doOnError(ex -> log.error("Error searching flights: {}", ex.getMessage()));
 	}
 
+	// 2a) WINDOW SEARCH
+	// Several origins / destinations at once (all of a city's airports, say) over any departure
+	// window. Streamed in departure order, so the first flights show up before the query finishes.
+	@PostMapping("/search/window")
+	public Flux<FlightSearchResult> searchFlightWindow(@Valid @RequestBody Mono<FlightWindowSearchRequest> reqMono) {
+		log.info("Received window search request");
+
+		return reqMono.doOnNext(req -> log.debug("Window Search Request: {}", req))
+				.flatMapMany(flightService::searchFlightWindow).doOnComplete(() -> log.info("Window search completed"))
+				.doOnError(ex -> log.error("Error in window search: {}", ex.getMessage()));
+	}
+
+	// 2b) FARE CALENDAR
+	// Cheapest fare + seats left per day for a route over a date range,
+	// so the "flexible dates" screen needs one call instead of one search per day.
+	@PostMapping("/fare-calendar")
+	public Flux<FareCalendarDay> fareCalendar(@Valid @RequestBody Mono<FareCalendarRequest> reqMono) {
+		log.info("Received fare calendar request");
+
+		return reqMono.doOnNext(req -> log.debug("Fare Calendar Request: {}", req))
+				.flatMapMany(fareCalendarService::getFareCalendar)
+				.doOnComplete(() -> log.info("Fare calendar completed"))
+				.doOnError(ex -> log.error("Error building fare calendar: {}", ex.getMessage()));
+	}
+
 	// 3) BOOK TICKET
 	// This endpoint books seats on a particular flight ID.
 	// The service handles heavy logic like seat checking, saving passengers, etc.
 	@PostMapping("/booking/{flightId}")
+	// Validated in the service, like addInventory: a bad request never reaches Mongo.
 	public Mono<ResponseEntity<BookingResponse>> bookTicket(@PathVariable String flightId,
-			@Valid @RequestBody Mono<BookingRequest> reqMono) {
+			@RequestBody Mono<BookingRequest> reqMono) {
 
 		log.info("Received booking request for flightId: {}", flightId);
 
@@ -76,26 +112,64 @@ public class FlightController {
 
 	// 4) GET TICKET BY PNR
 	// When the user enters a PNR, we return booking details + passengers.
+	// Conditional GET: the version stamp is checked first, so a refresh with a matching
+	// If-None-Match / If-Modified-Since gets a 304 without the ticket being assembled.
 	@GetMapping("/ticket/{pnr}")
-	public Mono<BookingResponse> getTicket(@PathVariable String pnr) {
+	public Mono<ResponseEntity<BookingResponse>> getTicket(@PathVariable String pnr, ServerWebExchange exchange) {
 
 		log.info("Fetching ticket for PNR: {}", pnr);
 
-		return bookingService.getTicketByPnr(pnr)
-				.doOnSuccess(resp -> log.info("Ticket details fetched for PNR: {}", pnr))
+		// No stamp means no such PNR: fall through to the normal lookup, which reports it
+		return bookingService.getTicketValidators(pnr)
+				.map(Optional::of).defaultIfEmpty(Optional.empty())
+				.flatMap(validators -> {
+					if (validators.isPresent() && notModified(exchange, validators.get(), pnr)) {
+						return Mono.just(ResponseEntity.status(HttpStatus.NOT_MODIFIED).<BookingResponse>build());
+					}
+					return bookingService.getTicketByPnr(pnr)
+							.doOnSuccess(resp -> log.info("Ticket details fetched for PNR: {}", pnr))
+							.map(resp -> validators.map(FlightController::withValidators)
+									.orElseGet(ResponseEntity::ok).body(resp));
+				})
 				.doOnError(ex -> log.error("Error fetching ticket for PNR {}: {}", pnr, ex.getMessage()));
 	}
 
 	// 5) BOOKING HISTORY
 	// Shows all the bookings a user has done, using their email.
+	// Same conditional-GET handling as the ticket, over all of the user's bookings.
 	@GetMapping("/booking/history/{email}")
-	public Flux<BookingResponse> bookingHistory(@PathVariable String email) {
+	public Mono<ResponseEntity<Flux<BookingView>>> bookingHistory(@PathVariable String email,
+			ServerWebExchange exchange) {
 
 		log.info("Fetching booking history for email: {}", email);
 
-		return bookingService.getBookingHistory(email)
-				.doOnComplete(() -> log.info("Fetched booking history for {}", email))
-				.doOnError(ex -> log.error("Error fetching booking history for {}: {}", email, ex.getMessage()));
+		return bookingService.getHistoryValidators(email).map(validators -> {
+			if (notModified(exchange, validators, email)) {
+				return ResponseEntity.status(HttpStatus.NOT_MODIFIED).<Flux<BookingView>>build();
+			}
+			Flux<BookingView> history = bookingService.getBookingHistory(email)
+					.doOnComplete(() -> log.info("Fetched booking history for {}", email)).doOnError(
+							ex -> log.error("Error fetching booking history for {}: {}", email, ex.getMessage()));
+			return withValidators(validators).body(history);
+		});
+	}
+
+	private static boolean notModified(ServerWebExchange exchange, CacheValidators validators, String key) {
+		boolean notModified = validators.lastModified() == null ? exchange.checkNotModified(validators.etag())
+				: exchange.checkNotModified(validators.etag(), validators.lastModified());
+		if (notModified) {
+			log.info("Not modified: {} ({})", key, validators.etag());
+		}
+		return notModified;
+	}
+
+	// Vary: Accept — JSON and Smile share the weak ETag but are different bodies for a cache
+	private static ResponseEntity.BodyBuilder withValidators(CacheValidators validators) {
+		ResponseEntity.BodyBuilder builder = ResponseEntity.ok().eTag(validators.etag()).varyBy(HttpHeaders.ACCEPT);
+		if (validators.lastModified() != null) {
+			builder.lastModified(validators.lastModified());
+		}
+		return builder;
 	}
 
 	// 6) CANCEL BOOKING
@@ -0,0 +1,33 @@
+package com.flightapp.controller;
+
+import com.flightapp.dto.PlaceSuggestion;
+import com.flightapp.place.PlaceRegistry;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+// Place autocomplete for the from/to fields, one call per keystroke.
+// Answered from the in-memory index — no Mongo, so no admission limits either.
+
+@RestController
+@RequestMapping("/api/flight")
+public class PlaceController {
+
+	private final PlaceRegistry placeRegistry;
+
+	public PlaceController(PlaceRegistry placeRegistry) {
+		this.placeRegistry = placeRegistry;
+	}
+
+	// GET /api/flight/places?prefix=del&limit=5 — an empty prefix gives the busiest places
+	@GetMapping("/places")
+	public Mono<List<PlaceSuggestion>> places(@RequestParam(defaultValue = "") String prefix,
+			@RequestParam(defaultValue = "10") int limit) {
+		return Mono.fromSupplier(() -> placeRegistry.suggest(prefix, limit));
+	}
+}
@@ -1,5 +1,6 @@
 package com.flightapp.dto;
 
+import java.math.BigDecimal;
 import java.util.List;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Email;
@@ -13,7 +14,7 @@ import lombok.Builder;
 
 // This DTO is what the user sends when they want to book a ticket.
 // Basically contains email + how many seats + passenger details.
-// I added validation annotations so that bad data doesn't even reach the service layer.
+// The annotations document the contract; BookingRequestValidator enforces it (kept in step by RequestValidatorsTest).
 
 @Data
 @NoArgsConstructor
@@ -34,4 +35,11 @@ public class BookingRequest {
 	@Valid
 	@NotEmpty(message = "Passenger list cannot be empty")
 	private List<PassengerRequest> passengers;
+
+	// Optional: the per-seat price search showed. Honoured if the fare moved
+	// less than the quote-lock window ago; otherwise the current fare applies.
+	private BigDecimal quotedFare;
+
+	// Optional: the fareQuoteToken search returned with that fare, so any node honours it
+	private String fareQuoteToken;
 }
@@ -1,6 +1,7 @@
 package com.flightapp.dto;
 
 import lombok.*;
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -21,6 +22,11 @@ public class BookingResponse {
 	private LocalDateTime bookingTime;
 	private Boolean canceled;
 
+	// What was charged: per seat and for the whole booking
+	private BigDecimal farePerSeat;
+	private BigDecimal totalFare;
+	private String currency;
+
 	// Just returning the passenger details back
 	private List<PassengerRequest> passengers;
 }
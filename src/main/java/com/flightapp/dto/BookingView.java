@@ -0,0 +1,36 @@
+package com.flightapp.dto;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.flightapp.entity.Booking;
+import com.flightapp.entity.Money;
+import com.flightapp.entity.Passenger;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// A booking exactly as loaded: the entity plus its passengers, no copies.
+// Jackson writes it through BookingViewSerializer straight from the entities into the
+// output buffer, in the same JSON shape as BookingResponse. Booking history streams
+// these; toResponse() is only for the paths that keep an assembled DTO (ticket cache).
+
+@JsonSerialize(using = BookingViewSerializer.class)
+public record BookingView(Booking booking, List<Passenger> passengers) {
+
+	public BookingResponse toResponse() {
+
+		List<PassengerRequest> passengerDtos = new ArrayList<>(passengers.size());
+		for (Passenger p : passengers) {
+			passengerDtos.add(new PassengerRequest(p.getName(), p.getGender(), p.getAge() == null ? 0 : p.getAge(),
+					p.getSeatNumber(), p.getMeal()));
+		}
+
+		// Total is multiplied in minor units, so it is exact
+		Money fare = booking.getFarePerSeat();
+
+		return BookingResponse.builder().pnr(booking.getPnr()).email(booking.getEmail()).flightId(booking.getFlightId())
+				.seatsBooked(booking.getSeatsBooked()).bookingTime(booking.getBookingTime())
+				.canceled(booking.isCanceled()).farePerSeat(fare == null ? null : fare.toBigDecimal())
+				.totalFare(fare == null ? null : fare.times(booking.getSeatsBooked()).toBigDecimal())
+				.currency(fare == null ? null : fare.currency()).passengers(passengerDtos).build();
+	}
+}
@@ -0,0 +1,64 @@
+package com.flightapp.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.flightapp.entity.Booking;
+import com.flightapp.entity.Money;
+import com.flightapp.entity.Passenger;
+
+import java.io.IOException;
+import java.util.List;
+
+// Hand-written writer for BookingView. Field names and order match BookingResponse /
+// PassengerRequest (BookingViewSerializerTest pins that), so clients can't tell which
+// path produced the JSON. No bean introspection, no intermediate objects per passenger.
+
+public class BookingViewSerializer extends StdSerializer<BookingView> {
+
+	public BookingViewSerializer() {
+		super(BookingView.class);
+	}
+
+	@Override
+	public void serialize(BookingView view, JsonGenerator gen, SerializerProvider provider) throws IOException {
+
+		Booking booking = view.booking();
+		Money fare = booking.getFarePerSeat();
+
+		gen.writeStartObject();
+		gen.writeStringField("pnr", booking.getPnr());
+		gen.writeStringField("email", booking.getEmail());
+		gen.writeStringField("flightId", booking.getFlightId());
+		gen.writeNumberField("seatsBooked", booking.getSeatsBooked());
+		// Same date format as everything else the ObjectMapper writes
+		provider.defaultSerializeField("bookingTime", booking.getBookingTime(), gen);
+		gen.writeBooleanField("canceled", booking.isCanceled());
+
+		if (fare == null) {
+			gen.writeNullField("farePerSeat");
+			gen.writeNullField("totalFare");
+			gen.writeNullField("currency");
+		} else {
+			gen.writeNumberField("farePerSeat", fare.toBigDecimal());
+			gen.writeNumberField("totalFare", fare.times(booking.getSeatsBooked()).toBigDecimal());
+			gen.writeStringField("currency", fare.currency());
+		}
+
+		gen.writeArrayFieldStart("passengers");
+		List<Passenger> passengers = view.passengers();
+		for (int i = 0; i < passengers.size(); i++) {
+			Passenger p = passengers.get(i);
+			gen.writeStartObject();
+			gen.writeStringField("name", p.getName());
+			gen.writeStringField("gender", p.getGender());
+			gen.writeNumberField("age", p.getAge() == null ? 0 : p.getAge());
+			gen.writeStringField("seatNumber", p.getSeatNumber());
+			gen.writeStringField("meal", p.getMeal());
+			gen.writeEndObject();
+		}
+		gen.writeEndArray();
+
+		gen.writeEndObject();
+	}
+}
@@ -0,0 +1,46 @@
+package com.flightapp.dto;
+
+import com.flightapp.repository.BookingStamp;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Comparator;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+// ETag + Last-Modified for the ticket and history GETs, built from version stamps only.
+// Weak tags: the same booking version is equally valid as JSON or Smile, gzip'd or not.
+
+public record CacheValidators(String etag, Instant lastModified) {
+
+	public static CacheValidators of(BookingStamp stamp) {
+		String etag = "W/\"" + stamp.pnr() + "-" + stamp.version() + (stamp.canceled() ? "-c" : "") + "\"";
+		return new CacheValidators(etag, toInstant(stamp.lastModified()));
+	}
+
+	// History: checksum over every (pnr, version, canceled) — any new, changed or removed booking moves it
+	public static CacheValidators of(List<BookingStamp> stamps) {
+
+		CRC32 crc = new CRC32();
+		LocalDateTime latest = null;
+		List<BookingStamp> sorted = stamps.stream().sorted(Comparator.comparing(BookingStamp::pnr)).toList();
+		for (BookingStamp stamp : sorted) {
+			crc.update((stamp.pnr() + ':' + stamp.version() + ':' + stamp.canceled() + ';').getBytes(UTF_8));
+			LocalDateTime modified = stamp.lastModified();
+			if (modified != null && (latest == null || modified.isAfter(latest))) {
+				latest = modified;
+			}
+		}
+
+		String etag = "W/\"h" + stamps.size() + "-" + Long.toHexString(crc.getValue()) + "\"";
+		return new CacheValidators(etag, toInstant(latest));
+	}
+
+	// LocalDateTime is the JVM's local time everywhere in this app
+	private static Instant toInstant(LocalDateTime time) {
+		return time == null ? null : time.atZone(ZoneId.systemDefault()).toInstant();
+	}
+}
@@ -0,0 +1,20 @@
+package com.flightapp.dto;
+
+import lombok.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// One day of the fare calendar: cheapest fare + seats left across that day's flights.
+// Days without bookable flights are simply not returned.
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FareCalendarDay {
+
+	private LocalDate date;
+	private BigDecimal minPrice;
+	private Integer availableSeats;
+	private Integer flights;
+}
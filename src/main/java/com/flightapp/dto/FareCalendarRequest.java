@@ -0,0 +1,26 @@
+package com.flightapp.dto;
+
+import lombok.*;
+import jakarta.validation.constraints.*;
+import java.time.LocalDate;
+
+// "Flexible dates" request: one route + a date range (both ends inclusive).
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FareCalendarRequest {
+
+	@NotBlank
+	private String fromPlace;
+
+	@NotBlank
+	private String toPlace;
+
+	@NotNull
+	private LocalDate startDate;
+
+	@NotNull
+	private LocalDate endDate;
+}
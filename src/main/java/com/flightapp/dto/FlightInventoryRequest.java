@@ -2,10 +2,11 @@ package com.flightapp.dto;
 
 import lombok.*;
 import jakarta.validation.constraints.*;
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 // This DTO is used when adding inventory (admin side).
-// Basically everything needed to create a flight.
+// Basically everything needed to create a flight. Checked by FlightInventoryRequestValidator, not @Valid.
 
 @Data
 @NoArgsConstructor
@@ -31,8 +32,9 @@ public class FlightInventoryRequest {
 	@NotNull
 	private LocalDateTime arrivalTime;
 
+	// Base fare in rupees; stored exactly as paise
 	@NotNull
-	private Float price;
+	private BigDecimal price;
 
 	@NotNull
 	@Min(1)
@@ -0,0 +1,42 @@
+package com.flightapp.dto;
+
+import com.flightapp.entity.Flight;
+
+import lombok.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// What addInventory returns for the flight it stored: the fields clients have always seen,
+// with the base fare as a plain decimal. Version, seat map and pending events stay internal.
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FlightResponse {
+
+	private String id;
+	private String flightNumber;
+	private String fromPlace;
+	private String toPlace;
+
+	private LocalDateTime departureTime;
+	private LocalDateTime arrivalTime;
+
+	private BigDecimal price;
+	private String currency;
+	private Integer totalSeats;
+	private Integer availableSeats;
+
+	private String airlineId;
+
+	public static FlightResponse of(Flight flight) {
+		return FlightResponse.builder().id(flight.getId()).flightNumber(flight.getFlightNumber())
+				.fromPlace(flight.getFromPlace()).toPlace(flight.getToPlace())
+				.departureTime(flight.getDepartureTime()).arrivalTime(flight.getArrivalTime())
+				.price(flight.getPrice() == null ? null : flight.getPrice().toBigDecimal())
+				.currency(flight.getPrice() == null ? null : flight.getPrice().currency())
+				.totalSeats(flight.getTotalSeats()).availableSeats(flight.getAvailableSeats())
+				.airlineId(flight.getAirlineId()).build();
+	}
+}
@@ -0,0 +1,36 @@
+package com.flightapp.dto;
+
+import lombok.*;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+// What search returns for each flight: only what the results list shows,
+// with the airline name/logo already joined in so the client doesn't need
+// a second call per airline.
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FlightSearchResult {
+
+	private String flightId;
+	private String flightNumber;
+	private String fromPlace;
+	private String toPlace;
+
+	private LocalDateTime departureTime;
+	private LocalDateTime arrivalTime;
+
+	// Current dynamic fare; booking with quotedFare=price and this fareQuoteToken is
+	// honoured until fareLockedUntil
+	private BigDecimal price;
+	private String currency;
+	private Instant fareLockedUntil;
+	private String fareQuoteToken;
+	private Integer availableSeats;
+
+	private String airlineName;
+	private String airlineLogoUrl;
+}
@@ -0,0 +1,32 @@
+package com.flightapp.dto;
+
+import lombok.*;
+import jakarta.validation.constraints.*;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Search over several origins and destinations at once (e.g. every airport of a metro area)
+// and any departure window, not just one calendar day.
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FlightWindowSearchRequest {
+
+	@NotEmpty
+	@Size(max = 10)
+	private List<@NotBlank String> fromPlaces;
+
+	@NotEmpty
+	@Size(max = 10)
+	private List<@NotBlank String> toPlaces;
+
+	// Inclusive
+	@NotNull
+	private LocalDateTime departureFrom;
+
+	// Exclusive
+	@NotNull
+	private LocalDateTime departureTo;
+}
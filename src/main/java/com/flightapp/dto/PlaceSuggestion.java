@@ -0,0 +1,16 @@
+package com.flightapp.dto;
+
+import lombok.*;
+
+// One autocomplete hit: the canonical place name to search with, and its airport code if known.
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PlaceSuggestion {
+
+	private String name;
+
+	private String code;
+}
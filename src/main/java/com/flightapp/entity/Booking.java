@@ -2,35 +2,57 @@ package com.flightapp.entity;
 
 import lombok.*;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 // This class represents a booking. 
+// email_bookingTime: a user's bookings in booking order (history queries, history rebuild).
+// pending_events: documents with outbox events not relayed yet (sparse — almost none have any).
 
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 @Document(collection = "bookings")
+@CompoundIndex(name = "email_bookingTime", def = "{'email': 1, 'bookingTime': 1}")
+@CompoundIndex(name = "pending_events", def = "{'pendingEvents.occurredAt': 1}", sparse = true)
 public class Booking {
 
 	@Id
 	private String id; // Mongo ID
 
-	// PNR is manually generated (UUID trimmed)
+	// PNR is manually generated (UUID trimmed); the unique index catches the rare repeat
+	@Indexed(name = "unique_pnr", unique = true)
 	private String pnr;
 	private String email;
 
-	// Linking to flight using flightId (string)
+	// Linking to flight using flightId (string); indexed for the archiver, which moves bookings by flight
+	@Indexed(name = "booking_flight")
 	private String flightId;
 
 	// number of seats booked
-	private Integer seatsBooked;
+	private int seatsBooked;
+
+	// Fare charged per seat (dynamic price at booking time, or the locked quote)
+	private Money farePerSeat;
 
 	private LocalDateTime bookingTime;
 
 	// If user cancels ticket, I mark canceled=true.
-	private Boolean canceled;
+	private boolean canceled;
 	private LocalDateTime canceledAt;
+
+	// Optimistic locking, same as Flight: two concurrent cancels can't both win.
+	// Also what the ticket/history ETags are built from (0 on insert, +1 per save).
+	@Version
+	private Long version;
+
+	// Outbox events written with this booking's insert / cancel, until they're relayed to
+	// booking_events (BookingEventLog.relayFrom)
+	private List<BookingEvent> pendingEvents;
 }
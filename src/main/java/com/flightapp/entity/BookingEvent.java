@@ -0,0 +1,83 @@
+package com.flightapp.entity;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.UUID;
+
+// One booking lifecycle event in the outbox (booking_events).
+// seq comes from a counter (BookingEventLog) and only ever goes up; consumers resume from the
+// last seq they processed.
+//
+// Events are first written inside the document whose change they describe (Booking/Flight
+// pendingEvents, same write as the change itself) and relayed into booking_events from there.
+// The id is drawn when the event is created, so relaying the same event twice inserts it once.
+// GAP is a tombstone for a seq that was handed out but never used; it is never streamed.
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Document(collection = "booking_events")
+public class BookingEvent {
+
+	public enum Type {
+		BOOKING_CREATED, BOOKING_CANCELED, SEATS_CHANGED, GAP
+	}
+
+	@Id
+	private String id;
+
+	@Indexed(name = "unique_seq", unique = true)
+	private long seq;
+
+	private Type type;
+
+	private String pnr;
+	private String email;
+	private String flightId;
+
+	// Seats booked / released by this change (negative when seats were taken)
+	private int seatDelta;
+
+	// SEATS_CHANGED: what's left on the flight after the change. pnr is null when the seats of a
+	// booking that never got stored were given back.
+	private int availableSeats;
+
+	private Instant occurredAt;
+
+	public static BookingEvent created(Booking booking) {
+		return BookingEvent.builder().id(newId()).type(Type.BOOKING_CREATED).pnr(booking.getPnr())
+				.email(booking.getEmail()).flightId(booking.getFlightId()).seatDelta(-booking.getSeatsBooked())
+				.occurredAt(Instant.now()).build();
+	}
+
+	public static BookingEvent canceled(Booking booking) {
+		return BookingEvent.builder().id(newId()).type(Type.BOOKING_CANCELED).pnr(booking.getPnr())
+				.email(booking.getEmail()).flightId(booking.getFlightId()).seatDelta(booking.getSeatsBooked())
+				.occurredAt(Instant.now()).build();
+	}
+
+	public static BookingEvent seatsChanged(Flight flight, Booking cause, int seatDelta) {
+		return BookingEvent.builder().id(newId()).type(Type.SEATS_CHANGED).pnr(cause.getPnr())
+				.flightId(flight.getId()).seatDelta(seatDelta).availableSeats(flight.getAvailableSeats())
+				.occurredAt(Instant.now()).build();
+	}
+
+	// Seats going back to the flight; availableSeats is filled in by the update that releases them
+	public static BookingEvent seatsReleased(String flightId, String pnr, int seats) {
+		return BookingEvent.builder().id(newId()).type(Type.SEATS_CHANGED).pnr(pnr).flightId(flightId)
+				.seatDelta(seats).occurredAt(Instant.now()).build();
+	}
+
+	public static BookingEvent gap(long seq) {
+		return BookingEvent.builder().id("gap-" + seq).seq(seq).type(Type.GAP).occurredAt(Instant.now()).build();
+	}
+
+	private static String newId() {
+		return UUID.randomUUID().toString();
+	}
+}
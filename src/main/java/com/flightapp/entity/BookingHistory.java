@@ -0,0 +1,98 @@
+package com.flightapp.entity;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Read model for booking history: one document per email with every booking and its passengers
+// already joined, so the history page is a single _id lookup instead of bookings + N passenger queries.
+// Kept up to date by bookTicket/cancelBooking; BookingHistoryRebuild regenerates it from
+// bookings + passengers.
+// Only a complete document is served. One created by an incremental update (an email whose older bookings
+// were never rebuilt into it) or one an update failed to reach is served from the join instead, until the
+// join or a rebuild completes it.
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Document(collection = "booking_history")
+public class BookingHistory {
+
+	@Id
+	private String email;
+
+	// In booking order
+	private List<Entry> bookings;
+
+	private LocalDateTime updatedAt;
+
+	// Holds every booking of the email (rebuilt, or completed from a join)
+	private boolean complete;
+
+	@Data
+	@NoArgsConstructor
+	@AllArgsConstructor
+	@Builder
+	public static class Entry {
+
+		private String bookingId;
+		private String pnr;
+		private String flightId;
+		private int seatsBooked;
+		private Money farePerSeat;
+		private LocalDateTime bookingTime;
+		private boolean canceled;
+		private LocalDateTime canceledAt;
+
+		// Booking version this entry was built from; an older write never overwrites a newer one
+		private long version;
+
+		private List<Traveller> passengers;
+
+		public static Entry of(Booking booking, List<Passenger> passengers) {
+			List<Traveller> travellers = new ArrayList<>(passengers.size());
+			for (Passenger p : passengers) {
+				travellers.add(new Traveller(p.getName(), p.getGender(), p.getAge(), p.getSeatNumber(), p.getMeal()));
+			}
+			return new Entry(booking.getId(), booking.getPnr(), booking.getFlightId(), booking.getSeatsBooked(),
+					booking.getFarePerSeat(), booking.getBookingTime(), booking.isCanceled(), booking.getCanceledAt(),
+					booking.getVersion() == null ? 0 : booking.getVersion(), travellers);
+		}
+
+		// Back to the entities the history serializer writes from
+		public Booking toBooking(String email) {
+			return Booking.builder().id(bookingId).pnr(pnr).email(email).flightId(flightId).seatsBooked(seatsBooked)
+					.farePerSeat(farePerSeat).bookingTime(bookingTime).canceled(canceled).canceledAt(canceledAt)
+					.version(version).build();
+		}
+
+		public List<Passenger> toPassengers() {
+			List<Passenger> list = new ArrayList<>(passengers == null ? 0 : passengers.size());
+			if (passengers != null) {
+				for (Traveller t : passengers) {
+					list.add(Passenger.builder().name(t.getName()).gender(t.getGender()).age(t.getAge())
+							.seatNumber(t.getSeatNumber()).meal(t.getMeal()).bookingId(bookingId).build());
+				}
+			}
+			return list;
+		}
+	}
+
+	// Passenger without its own id / bookingId — it lives inside the entry
+	@Data
+	@NoArgsConstructor
+	@AllArgsConstructor
+	@Builder
+	public static class Traveller {
+		private String name;
+		private String gender;
+		private Integer age;
+		private String seatNumber;
+		private String meal;
+	}
+}
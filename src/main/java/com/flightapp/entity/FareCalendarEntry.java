@@ -0,0 +1,36 @@
+package com.flightapp.entity;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+// Precomputed fare-calendar cell: one route on one day.
+// The id is "from|to|yyyy-MM-dd", so a date range for a route is a plain
+// range scan on _id (no extra index needed).
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Document(collection = "fare_calendar")
+public class FareCalendarEntry {
+
+	@Id
+	private String id;
+
+	private String fromPlace;
+	private String toPlace;
+	private String day; // yyyy-MM-dd
+
+	private Money minPrice;
+	private Integer availableSeats;
+	private Integer flights;
+
+	private LocalDateTime updatedAt;
+
+	public static String key(String fromPlace, String toPlace, String day) {
+		return fromPlace + "|" + toPlace + "|" + day;
+	}
+}
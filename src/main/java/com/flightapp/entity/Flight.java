@@ -1,11 +1,16 @@
 package com.flightapp.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.*;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
 import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
 
 // This is the Flight document. No relationships,
 // just storing airlineId directly.
@@ -16,6 +21,10 @@ import java.time.LocalDateTime;
 @Builder
 @Document(collection = "flights")
 @CompoundIndex(name = "unique_flight_departure", def = "{'flightNumber': 1, 'departureTime': 1}", unique = true)
+// Search: equality (or $in) on the route, then the departure range, already in departure order
+@CompoundIndex(name = "route_departure", def = "{'fromPlace': 1, 'toPlace': 1, 'departureTime': 1}")
+// Outbox relay: flights holding events not relayed yet (sparse — almost none have any)
+@CompoundIndex(name = "pending_events", def = "{'pendingEvents.occurredAt': 1}", sparse = true)
 public class Flight {
 
 	@Id
@@ -25,12 +34,33 @@ public class Flight {
 	private String fromPlace;
 	private String toPlace;
 
+	// Indexed on its own for the archiver's "departed before" scan
+	@Indexed(name = "flight_departure")
 	private LocalDateTime departureTime;
 	private LocalDateTime arrivalTime;
 
-	private Float price;
-	private Integer totalSeats;
-	private Integer availableSeats;
+	// Base fare per seat; the dynamic fare is derived from it (see PricingEngine)
+	private Money price;
+
+	// Primitives: every seat check in booking/cancel reads these
+	private int totalSeats;
+	private int availableSeats;
+
+	// Seat numbers held by active bookings. Lives on the flight so that taking seats and checking
+	// they're free is one versioned save — two bookings can't both get 1A.
+	// Null on flights booked before it existed: the next booking rebuilds it from their passengers.
+	private Set<String> bookedSeats;
 
 	private String airlineId;
+
+	// Optimistic locking: a save only applies if nobody saved the flight since it was read,
+	// otherwise OptimisticLockingFailureException (MongoGuard.retryOnConflict re-reads and retries).
+	// Null = not yet inserted; VersionBackfill sets 0 on flights written before this field existed.
+	@Version
+	private Long version;
+
+	// SEATS_CHANGED events written by the update that gave seats back, until they're relayed to
+	// booking_events (BookingEventLog.relayFrom). Internal, never part of an API response.
+	@JsonIgnore
+	private List<BookingEvent> pendingEvents;
 }
@@ -0,0 +1,72 @@
+package com.flightapp.entity;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Currency;
+import java.util.Objects;
+
+// Fixed-point money: a whole number of minor units (paise, cents) plus the ISO currency.
+// Fares are computed on the long, so there is no float rounding and nothing to unbox;
+// BigDecimal only shows up at the API edge. Stored in Mongo as
+// { minorUnits: <long>, currency: "INR" } — see MongoConversionConfig for the legacy Float reads.
+
+public record Money(long minorUnits, String currency) implements Comparable<Money> {
+
+	// Everything priced before currencies were stored is in rupees
+	public static final String DEFAULT_CURRENCY = "INR";
+
+	public Money {
+		Objects.requireNonNull(currency, "currency");
+	}
+
+	public static Money ofMinor(long minorUnits, String currency) {
+		return new Money(minorUnits, currency);
+	}
+
+	// Extra decimals beyond the currency's minor unit are rounded half-even
+	public static Money of(BigDecimal amount, String currency) {
+		int digits = fractionDigits(currency);
+		return new Money(amount.setScale(digits, RoundingMode.HALF_EVEN).movePointRight(digits).longValueExact(),
+				currency);
+	}
+
+	// Old documents stored the price as a Float (4999.99f is 4999.990234375 as a double);
+	// rounding to the minor unit takes that noise back out
+	public static Money of(double amount, String currency) {
+		return of(BigDecimal.valueOf(amount), currency);
+	}
+
+	public BigDecimal toBigDecimal() {
+		return BigDecimal.valueOf(minorUnits, fractionDigits(currency));
+	}
+
+	public Money times(int quantity) {
+		return new Money(Math.multiplyExact(minorUnits, (long) quantity), currency);
+	}
+
+	// Fare multipliers: rounded to the nearest minor unit
+	public Money scale(double factor) {
+		return factor == 1.0 ? this : new Money(Math.round(minorUnits * factor), currency);
+	}
+
+	public boolean isPositive() {
+		return minorUnits > 0;
+	}
+
+	@Override
+	public int compareTo(Money other) {
+		if (!currency.equals(other.currency)) {
+			throw new IllegalArgumentException("Cannot compare " + currency + " with " + other.currency);
+		}
+		return Long.compare(minorUnits, other.minorUnits);
+	}
+
+	@Override
+	public String toString() {
+		return currency + " " + toBigDecimal().toPlainString();
+	}
+
+	private static int fractionDigits(String currency) {
+		return Math.max(Currency.getInstance(currency).getDefaultFractionDigits(), 0);
+	}
+}
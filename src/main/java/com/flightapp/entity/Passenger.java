@@ -2,6 +2,7 @@ package com.flightapp.entity;
 
 import lombok.*;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 // This class stores passenger information for each booking.
@@ -23,5 +24,6 @@ public class Passenger {
 	private String meal;
 
 	// Connects the passenger to a booking.
+	@Indexed(name = "passenger_booking")
 	private String bookingId;
 }
@@ -3,6 +3,9 @@ package com.flightapp.exception;
 // This is my custom exception class.
 // I throw this whenever I want to show a proper error message to the user.
 // Using a custom exception makes the GlobalErrorHandler catch it easily.
+//
+// Business failures are expected, so no stack trace is captured (and nothing can be attached
+// to one: suppression is off too, which is what lets ErrorCode share instances).
 
 public class ApiException extends RuntimeException {
 
@@ -11,8 +14,19 @@ public class ApiException extends RuntimeException {
 	 */
 	private static final long serialVersionUID = 1L;
 
+	private final ErrorCode code;
+
 	// Just passing the message to the parent RuntimeException
 	public ApiException(String message) {
-		super(message);
+		this(ErrorCode.BAD_REQUEST, message);
+	}
+
+	public ApiException(ErrorCode code, String message) {
+		super(message, null, false, false);
+		this.code = code;
+	}
+
+	public ErrorCode getCode() {
+		return code;
 	}
 }
@@ -0,0 +1,62 @@
+package com.flightapp.exception;
+
+import org.springframework.http.HttpStatus;
+
+// Every business error the API returns: a stable code clients can switch on (sent as "code"
+// next to "error"), the HTTP status and the default message.
+// 404 = the thing isn't there, 409 = conflicts with the current state (seats, duplicates),
+// 422 = well-formed but against the rules. BAD_REQUEST is for ApiExceptions without a code.
+//
+// Fixed-message failures are thrown as one preallocated, stackless instance per code (see
+// exception()): a sold-out flight rejects thousands of bookings and each used to fill in a
+// stack trace nobody reads.
+
+public enum ErrorCode {
+
+	BAD_REQUEST(HttpStatus.BAD_REQUEST, "Bad request"),
+	VALIDATION_FAILED(HttpStatus.BAD_REQUEST, "Validation failed"),
+	INVALID_RANGE(HttpStatus.UNPROCESSABLE_ENTITY, "Invalid date range"),
+	SAME_ORIGIN_DESTINATION(HttpStatus.UNPROCESSABLE_ENTITY, "From and to must be different places"),
+
+	FLIGHT_NOT_FOUND(HttpStatus.NOT_FOUND, "Flight not found"),
+	PNR_NOT_FOUND(HttpStatus.NOT_FOUND, "PNR not found"),
+
+	SEATS_UNAVAILABLE(HttpStatus.CONFLICT, "Not enough seats available"),
+	SEAT_TAKEN(HttpStatus.CONFLICT, "Seat is already booked"),
+	DUPLICATE_FLIGHT(HttpStatus.CONFLICT, "Flight already exists with same flight number"),
+	ALREADY_CANCELED(HttpStatus.CONFLICT, "Already canceled"),
+
+	FLIGHT_DEPARTED(HttpStatus.UNPROCESSABLE_ENTITY, "Cannot book a ticket for a past flight"),
+	CANCEL_AFTER_DEPARTURE(HttpStatus.UNPROCESSABLE_ENTITY, "Cannot cancel — flight already departed"),
+	CANCEL_WINDOW_CLOSED(HttpStatus.UNPROCESSABLE_ENTITY, "Cannot cancel within 24 hours of departure"),
+
+	EVENT_STREAM_UNAVAILABLE(HttpStatus.SERVICE_UNAVAILABLE, "Booking event stream is not available on this node");
+
+	private final HttpStatus status;
+	private final String message;
+	private final ApiException shared;
+
+	ErrorCode(HttpStatus status, String message) {
+		this.status = status;
+		this.message = message;
+		this.shared = new ApiException(this, message);
+	}
+
+	public HttpStatus status() {
+		return status;
+	}
+
+	public String message() {
+		return message;
+	}
+
+	// The preallocated instance: immutable (no stack, no suppressed, no cause), safe to share
+	public ApiException exception() {
+		return shared;
+	}
+
+	// Same code with a message naming the flight/seat/limit; still stackless, just not shared
+	public ApiException exception(String message) {
+		return new ApiException(this, message);
+	}
+}
@@ -1,5 +1,9 @@
 package com.flightapp.exception;
 
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -8,6 +12,7 @@ import org.springframework.web.bind.support.WebExchangeBindException;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeoutException;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -21,12 +26,15 @@ public class GlobalErrorHandler {
 
 	// This catches my custom ApiException.
 	// I mostly use this for business logic failures like "Not enough seats".
+	// Status and "code" come from its ErrorCode (plain ApiExceptions are 400 / BAD_REQUEST).
 	@ExceptionHandler(ApiException.class)
 	public Mono<ResponseEntity<Map<String, String>>> handleApiException(ApiException ex) {
 
-		log.warn("API exception occurred: {}", ex.getMessage());
+		ErrorCode code = ex.getCode();
+		log.warn("API exception occurred: {} ({})", ex.getMessage(), code);
 
-		return Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", ex.getMessage())));
+		return Mono.just(ResponseEntity.status(code.status())
+				.body(Map.of("error", ex.getMessage(), "code", code.name())));
 	}
 
 	// This is triggered when validation annotations fail.
@@ -44,6 +52,38 @@ public class GlobalErrorHandler {
 		return Mono.just(ResponseEntity.badRequest().body(errors));
 	}
 
+	// Same body, from the request validators that replaced @Valid on the hot endpoints
+	@ExceptionHandler(ValidationException.class)
+	public Mono<ResponseEntity<Map<String, String>>> handleRequestValidation(ValidationException ex) {
+
+		log.warn("Validation failed with errors: {}", ex.getErrors());
+
+		return Mono.just(ResponseEntity.badRequest().body(ex.getErrors()));
+	}
+
+	// Mongo is slow or failing and MongoGuard is failing fast (breaker open, bulkhead
+	// full or operation timed out). 503 + Retry-After tells clients to back off.
+	@ExceptionHandler({ CallNotPermittedException.class, BulkheadFullException.class, TimeoutException.class })
+	public Mono<ResponseEntity<Map<String, String>>> handleUnavailable(Exception ex) {
+
+		log.warn("Failing fast: {}", ex.getMessage());
+
+		return Mono.just(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "5")
+				.body(Map.of("error", "Service temporarily unavailable, please retry later")));
+	}
+
+	// Someone else kept updating the same flight/booking and MongoGuard ran out of retries.
+	// Nothing was applied and nothing is wrong with the request: 503 + Retry-After, not a 409,
+	// which clients read as "seat taken / already canceled".
+	@ExceptionHandler(OptimisticLockingFailureException.class)
+	public Mono<ResponseEntity<Map<String, String>>> handleConflict(OptimisticLockingFailureException ex) {
+
+		log.warn("Version conflict: {}", ex.getMessage());
+
+		return Mono.just(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1")
+				.body(Map.of("error", "Too many concurrent updates, please retry")));
+	}
+
 	// This is a safety net — catches literally ANY exception that we didn't handle
 	// above.
 	@ExceptionHandler(Exception.class)
@@ -0,0 +1,25 @@
+package com.flightapp.exception;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// A request that failed the request-only checks (see com.flightapp.validation).
+// Carries field -> message like a bind error; the message is the first one, so code that
+// only knows ApiException still gets something readable.
+
+public class ValidationException extends ApiException {
+
+	private static final long serialVersionUID = 1L;
+
+	private final Map<String, String> errors;
+
+	public ValidationException(Map<String, String> errors) {
+		super(ErrorCode.VALIDATION_FAILED, errors.values().iterator().next());
+		this.errors = Collections.unmodifiableMap(new LinkedHashMap<>(errors));
+	}
+
+	public Map<String, String> getErrors() {
+		return errors;
+	}
+}
@@ -0,0 +1,212 @@
+package com.flightapp.outbox;
+
+import com.flightapp.config.OutboxProperties;
+import com.flightapp.entity.BookingEvent;
+import com.flightapp.exception.ErrorCode;
+import com.flightapp.repository.BookingEventRepository;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Streams the booking_events outbox, in seq order, to whoever is listening on this node.
+//
+// One poller per node reads the next batch after the last published seq from a secondary (never the
+// primary) and pushes it into a replay sink; every consumer shares that one query. Consumers pass the
+// last seq they processed: anything older than the live feed is read back from the log first, then
+// they switch over to live. A consumer that reconnects with its last seq therefore sees every event
+// at least once, and never out of order.
+//
+// Seqs are handed out before the insert, so a missing seq usually means a write still in flight
+// (or not replicated yet). The poller holds at the gap for gapTimeout, then closes it with a GAP
+// tombstone on the primary (BookingEventLog.claimGap) and moves past it. An event that was only
+// late finds its seq taken and is appended again under a new one, so nothing is skipped for good;
+// if the event is already there (just not on this secondary yet) the claim fails and we keep
+// waiting. Tombstones move the cursor but are never streamed.
+
+@Component
+@EnableConfigurationProperties(OutboxProperties.class)
+@Slf4j
+public class OutboxPublisher implements SmartLifecycle {
+
+	private final BookingEventRepository eventRepository;
+	private final OutboxProperties properties;
+
+	private final Sinks.Many<BookingEvent> live;
+
+	// Highest seq pushed to the live feed; -1 until the poller has found the head of the log
+	private final AtomicLong published = new AtomicLong(-1);
+
+	// Head of the log when the poller started: only later events ever went through the live feed
+	private volatile long liveFrom = -1;
+
+	// When the poller first got stuck on the current gap (0 = no gap)
+	private volatile long gapSinceNanos;
+
+	private volatile Disposable pollSubscription;
+
+	public OutboxPublisher(BookingEventRepository eventRepository, OutboxProperties properties) {
+		this.eventRepository = eventRepository;
+		this.properties = properties;
+		this.live = Sinks.many().replay().limit(properties.getReplayBuffer());
+	}
+
+	// Events after afterSeq, oldest first, then live ones as they're written.
+	// afterSeq < 0 means "from now on".
+	public Flux<BookingEvent> events(long afterSeq) {
+		return Flux.defer(() -> {
+			if (!isRunning() || published.get() < 0) {
+				return Flux.error(ErrorCode.EVENT_STREAM_UNAVAILABLE.exception());
+			}
+			AtomicLong last = new AtomicLong(afterSeq < 0 ? published.get() : afterSeq);
+			return catchUp(last).filter(event -> event.getSeq() > last.get())
+					.doOnNext(event -> last.set(event.getSeq())).filter(OutboxPublisher::isEvent);
+		});
+	}
+
+	// Read the log until we're close enough to the head for the replay buffer to cover the rest
+	// (whatever gets published while we switch over), then follow the live feed
+	private Flux<BookingEvent> catchUp(AtomicLong last) {
+		return Flux.defer(() -> {
+			long head = published.get();
+			if (last.get() >= liveFrom && head - last.get() <= properties.getReplayBuffer() / 2) {
+				return live.asFlux();
+			}
+			return backlog(last.get(), head).concatWith(Flux.defer(() -> {
+				// seqs the poller skipped as lost don't exist in the log either
+				last.accumulateAndGet(head, Math::max);
+				return catchUp(last);
+			}));
+		});
+	}
+
+	// Same stream, grouped: up to batchSize events, or whatever arrived within one poll interval
+	public Flux<List<BookingEvent>> batches(long afterSeq) {
+		return events(afterSeq).bufferTimeout(properties.getBatchSize(), properties.getPollInterval());
+	}
+
+	public long lastPublishedSeq() {
+		return published.get();
+	}
+
+	// Page through the log from afterSeq up to upToSeq (inclusive)
+	private Flux<BookingEvent> backlog(long afterSeq, long upToSeq) {
+		if (afterSeq >= upToSeq) {
+			return Flux.empty();
+		}
+		int limit = properties.getBatchSize();
+		return Flux.defer(() -> eventRepository.readOnReplica(afterSeq, upToSeq, limit).collectList())
+				.concatMap(page -> {
+					if (page.isEmpty()) {
+						return Flux.empty();
+					}
+					long lastSeq = page.get(page.size() - 1).getSeq();
+					return Flux.fromIterable(page)
+							.concatWith(page.size() < limit ? Flux.empty() : backlog(lastSeq, upToSeq));
+				});
+	}
+
+	@Override
+	public void start() {
+		if (!properties.isEnabled()) {
+			log.info("Booking event outbox publisher disabled");
+			return;
+		}
+
+		// Start at the head of the log: consumers that want older events ask for them by seq
+		pollSubscription = Mono.defer(eventRepository::lastSeq)
+				.doOnNext(head -> {
+					liveFrom = head;
+					published.compareAndSet(-1, head);
+					log.info("Booking event outbox publisher started at seq {}", published.get());
+				})
+				.thenMany(Flux.interval(properties.getPollInterval()).onBackpressureDrop().concatMap(tick -> poll()))
+				.retryWhen(Retry.backoff(Long.MAX_VALUE, properties.getPollInterval())
+						.maxBackoff(properties.getPollInterval().multipliedBy(30))
+						.doBeforeRetry(sig -> log.warn("Booking event outbox poll failed, retrying: {}",
+								sig.failure().getMessage())))
+				.subscribe(this::emit);
+	}
+
+	// One batch after the last published seq; only the contiguous run is published. Stuck on a gap
+	// for gapTimeout: claim the missing seqs, in order, up to the first one a real event holds.
+	Flux<BookingEvent> poll() {
+		long after = published.get();
+		return eventRepository.readOnReplica(after, Long.MAX_VALUE, properties.getBatchSize()).collectList()
+				.flatMapMany(batch -> {
+					List<BookingEvent> ready = contiguous(after, batch);
+					if (!ready.isEmpty() || !gapTimedOut()) {
+						return Flux.fromIterable(ready);
+					}
+					long next = batch.get(0).getSeq();
+					return Flux.range(0, (int) Math.min(next - after - 1, properties.getBatchSize()))
+							.map(i -> after + 1 + i)
+							.concatMap(seq -> eventRepository.claimGap(seq).map(claimed -> claimed ? seq : -1L))
+							.takeWhile(seq -> seq > 0).map(seq -> {
+								log.warn("Booking event seq {} never arrived after {}, closed it", seq,
+										properties.getGapTimeout());
+								return BookingEvent.gap(seq);
+							}).doOnComplete(() -> gapSinceNanos = 0);
+				});
+	}
+
+	private List<BookingEvent> contiguous(long after, List<BookingEvent> batch) {
+		List<BookingEvent> ready = new ArrayList<>(batch.size());
+		long expected = after + 1;
+		for (BookingEvent event : batch) {
+			if (event.getSeq() != expected) {
+				break;
+			}
+			ready.add(event);
+			expected++;
+		}
+
+		if (ready.size() == batch.size()) {
+			gapSinceNanos = 0;
+		} else if (!ready.isEmpty() || gapSinceNanos == 0) {
+			// Publish up to the gap now; the next poll starts right at it
+			gapSinceNanos = System.nanoTime();
+		}
+		return ready;
+	}
+
+	private boolean gapTimedOut() {
+		return gapSinceNanos != 0 && System.nanoTime() - gapSinceNanos >= properties.getGapTimeout().toNanos();
+	}
+
+	private static boolean isEvent(BookingEvent event) {
+		return event.getType() != BookingEvent.Type.GAP;
+	}
+
+	private void emit(BookingEvent event) {
+		published.set(event.getSeq());
+		if (isEvent(event)) {
+			live.emitNext(event, Sinks.EmitFailureHandler.busyLooping(Duration.ofMillis(100)));
+		}
+	}
+
+	@Override
+	public void stop() {
+		Disposable subscription = pollSubscription;
+		if (subscription != null) {
+			subscription.dispose();
+		}
+		pollSubscription = null;
+	}
+
+	@Override
+	public boolean isRunning() {
+		return pollSubscription != null && !pollSubscription.isDisposed();
+	}
+}
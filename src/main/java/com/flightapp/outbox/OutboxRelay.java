@@ -0,0 +1,69 @@
+package com.flightapp.outbox;
+
+import com.flightapp.config.OutboxProperties;
+import com.flightapp.repository.BookingEventRepository;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+
+// Second half of the transactional outbox. Bookings and cancels write their events into the
+// booking/flight document they change and relay them to booking_events straight after; if that
+// relay never happens (node died, Mongo blipped, request cancelled) the events stay on the
+// document, and this sweep relays them once they're relayDelay old.
+
+@Component
+@EnableConfigurationProperties(OutboxProperties.class)
+@Slf4j
+public class OutboxRelay implements SmartLifecycle {
+
+	private final BookingEventRepository eventRepository;
+	private final OutboxProperties properties;
+
+	private volatile Disposable schedule;
+
+	public OutboxRelay(BookingEventRepository eventRepository, OutboxProperties properties) {
+		this.eventRepository = eventRepository;
+		this.properties = properties;
+	}
+
+	@Override
+	public void start() {
+		schedule = Flux.interval(properties.getRelayInterval(), properties.getRelayInterval()).onBackpressureDrop()
+				// a failed sweep is logged and the next one finds the same documents
+				.concatMap(tick -> sweep().onErrorResume(ex -> {
+					log.warn("Booking event relay sweep failed: {}", ex.getMessage());
+					return Mono.empty();
+				})).subscribe();
+	}
+
+	// One batch per tick: a backlog drains over a few ticks instead of in one long burst
+	Mono<Long> sweep() {
+		return Mono.defer(() -> eventRepository.relayStale(Instant.now().minus(properties.getRelayDelay()),
+				properties.getBatchSize())).doOnNext(relayed -> {
+					if (relayed > 0) {
+						log.warn("Relayed {} pending booking events the inline relay missed", relayed);
+					}
+				});
+	}
+
+	@Override
+	public void stop() {
+		Disposable subscription = schedule;
+		if (subscription != null) {
+			subscription.dispose();
+		}
+		schedule = null;
+	}
+
+	@Override
+	public boolean isRunning() {
+		return schedule != null && !schedule.isDisposed();
+	}
+}
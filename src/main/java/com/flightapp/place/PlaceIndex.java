@@ -0,0 +1,107 @@
+package com.flightapp.place;
+
+import com.flightapp.dto.PlaceSuggestion;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Immutable prefix trie over folded place terms (name, each word of it, code, aliases).
+// Every node already holds the best suggestions below it, ranked by flight count, so a lookup
+// is one walk down the prefix (a binary search per character) and a sublist: no traversal of
+// the subtree, no sorting. Rebuilt and swapped whole when a new place shows up.
+
+final class PlaceIndex {
+
+	record Entry(PlaceSuggestion suggestion, long weight, List<String> terms) {
+	}
+
+	private static final Comparator<Entry> RANKING = Comparator.comparingLong(Entry::weight).reversed()
+			.thenComparing(entry -> entry.suggestion().getName());
+
+	static final PlaceIndex EMPTY = build(List.of(), 1);
+
+	private final Node root;
+	private final int places;
+
+	private PlaceIndex(Node root, int places) {
+		this.root = root;
+		this.places = places;
+	}
+
+	static PlaceIndex build(Collection<Entry> entries, int perNode) {
+		List<Entry> ranked = entries.stream().sorted(RANKING).toList();
+		Builder root = new Builder();
+		// best-ranked first, so the first perNode distinct places offered to a node are its top list
+		for (Entry entry : ranked) {
+			for (String term : entry.terms()) {
+				Builder node = root;
+				node.offer(entry.suggestion(), perNode);
+				for (int i = 0; i < term.length(); i++) {
+					node = node.children.computeIfAbsent(term.charAt(i), c -> new Builder());
+					node.offer(entry.suggestion(), perNode);
+				}
+			}
+		}
+		return new PlaceIndex(root.freeze(), ranked.size());
+	}
+
+	// prefix must already be folded the way the terms were
+	List<PlaceSuggestion> suggest(String prefix, int limit) {
+		Node node = root;
+		for (int i = 0; i < prefix.length() && node != null; i++) {
+			node = node.child(prefix.charAt(i));
+		}
+		if (node == null) {
+			return List.of();
+		}
+		return node.top.size() <= limit ? node.top : node.top.subList(0, limit);
+	}
+
+	int places() {
+		return places;
+	}
+
+	private static final class Node {
+		private final char[] labels;
+		private final Node[] children;
+		private final List<PlaceSuggestion> top;
+
+		private Node(char[] labels, Node[] children, List<PlaceSuggestion> top) {
+			this.labels = labels;
+			this.children = children;
+			this.top = top;
+		}
+
+		private Node child(char c) {
+			int at = Arrays.binarySearch(labels, c);
+			return at < 0 ? null : children[at];
+		}
+	}
+
+	private static final class Builder {
+		private final Map<Character, Builder> children = new TreeMap<>();
+		private final List<PlaceSuggestion> top = new ArrayList<>();
+
+		private void offer(PlaceSuggestion suggestion, int perNode) {
+			if (top.size() < perNode && !top.contains(suggestion)) {
+				top.add(suggestion);
+			}
+		}
+
+		private Node freeze() {
+			char[] labels = new char[children.size()];
+			Node[] nodes = new Node[children.size()];
+			int i = 0;
+			for (Map.Entry<Character, Builder> child : children.entrySet()) {
+				labels[i] = child.getKey();
+				nodes[i++] = child.getValue().freeze();
+			}
+			return new Node(labels, nodes, List.copyOf(top));
+		}
+	}
+}
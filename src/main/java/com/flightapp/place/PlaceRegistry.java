@@ -0,0 +1,204 @@
+package com.flightapp.place;
+
+import com.flightapp.config.PlaceProperties;
+import com.flightapp.dto.PlaceSuggestion;
+import com.flightapp.repository.FlightRepository;
+import com.flightapp.repository.PlaceCount;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+// fromPlace/toPlace are compared exactly in Mongo, so "Delhi", "DELHI", "DEL" and "New Delhi" must
+// all be stored and searched as the same string. normalize() maps a free-form place to that
+// canonical name: the registry (places.csv) knows codes and aliases, and anything else is matched
+// ignoring case, accents, punctuation and extra spaces against the places flights already use.
+//
+// Also feeds the autocomplete index: places that have flights, ranked by how many. Loaded from
+// the flights collection at startup (and backfilled to canonical names), kept up to date by
+// addInventory.
+
+@Component
+@EnableConfigurationProperties(PlaceProperties.class)
+@Slf4j
+public class PlaceRegistry {
+
+	private record Place(String code, String name, List<String> aliases) {
+	}
+
+	private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+	private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+	private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+	private final FlightRepository flightRepository;
+	private final PlaceProperties properties;
+
+	// folded code / name / alias -> registry place
+	private final Map<String, Place> registry = new HashMap<>();
+
+	// folded -> first spelling seen, for places that aren't in the registry
+	private final Map<String, String> unlisted = new ConcurrentHashMap<>();
+
+	// canonical name -> flights using it
+	private final Map<String, Long> flightCounts = new ConcurrentHashMap<>();
+
+	private volatile PlaceIndex index = PlaceIndex.EMPTY;
+
+	public PlaceRegistry(FlightRepository flightRepository, PlaceProperties properties) {
+		this.flightRepository = flightRepository;
+		this.properties = properties;
+		loadRegistry(new DefaultResourceLoader().getResource(properties.getRegistry()));
+	}
+
+	// Canonical spelling of a place (blank stays blank)
+	public String normalize(String raw) {
+		if (raw == null || raw.isBlank()) {
+			return raw;
+		}
+		String folded = fold(raw);
+		Place known = registry.get(folded);
+		if (known != null) {
+			return known.name();
+		}
+		String seen = unlisted.get(folded);
+		return seen != null ? seen : tidy(raw);
+	}
+
+	// Best places starting with prefix (any word of the name, the code or an alias), most flights first
+	public List<PlaceSuggestion> suggest(String prefix, int limit) {
+		int max = Math.max(1, Math.min(limit, properties.getSuggestions()));
+		return index.suggest(prefix == null ? "" : fold(prefix), max);
+	}
+
+	// A new flight was stored under this (canonical) place
+	public void addFlight(String place) {
+		if (!registry.containsKey(fold(place))) {
+			unlisted.putIfAbsent(fold(place), place);
+		}
+		if (flightCounts.merge(place, 1L, Long::sum) == 1L) {
+			rebuildIndex();
+		}
+	}
+
+	public int indexedPlaces() {
+		return index.places();
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void loadOnStartup() {
+		load().subscribe(renamed -> log.info("Place index built: {} places, {} flights renamed to canonical places",
+				index.places(), renamed), ex -> log.warn("Could not load places from flights: {}", ex.getMessage()));
+	}
+
+	// Counts flights per place, indexes them, and (backfill) renames non-canonical spellings.
+	// Returns how many flights were renamed.
+	public Mono<Long> load() {
+		return Flux.defer(flightRepository::countPlacesOnReplica).collectList().flatMap(counts -> {
+			List<PlaceCount> renames = new ArrayList<>();
+			for (PlaceCount count : counts) {
+				String canonical = normalize(count.place());
+				if (!registry.containsKey(fold(canonical))) {
+					unlisted.putIfAbsent(fold(canonical), canonical);
+				}
+				flightCounts.merge(canonical, count.flights(), Long::sum);
+				if (!canonical.equals(count.place())) {
+					renames.add(count);
+				}
+			}
+			rebuildIndex();
+
+			if (!properties.isBackfill() || renames.isEmpty()) {
+				return Mono.just(0L);
+			}
+			return Flux.fromIterable(renames).concatMap(count -> {
+				String canonical = normalize(count.place());
+				log.info("Renaming place '{}' to '{}' on {} flights", count.place(), canonical, count.flights());
+				return flightRepository.renamePlace(count.place(), canonical);
+			}).reduce(0L, Long::sum);
+		});
+	}
+
+	private synchronized void rebuildIndex() {
+		List<PlaceIndex.Entry> entries = new ArrayList<>(flightCounts.size());
+		flightCounts.forEach((name, flights) -> {
+			String folded = fold(name);
+			Place known = registry.get(folded);
+			Set<String> terms = new LinkedHashSet<>();
+			terms.add(folded);
+			// "new delhi" is also found from "delhi"
+			terms.addAll(Arrays.asList(folded.split(" ")));
+			if (known != null) {
+				terms.add(fold(known.code()));
+				known.aliases().forEach(alias -> terms.add(fold(alias)));
+			}
+			entries.add(new PlaceIndex.Entry(new PlaceSuggestion(name, known == null ? null : known.code()),
+					flights, List.copyOf(terms)));
+		});
+		index = PlaceIndex.build(entries, properties.getSuggestions());
+	}
+
+	private void loadRegistry(Resource resource) {
+		try (BufferedReader reader = new BufferedReader(
+				new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				if (line.isBlank() || line.startsWith("#")) {
+					continue;
+				}
+				String[] fields = line.split(",", -1);
+				List<String> aliases = fields.length < 3 || fields[2].isBlank() ? List.of()
+						: List.of(fields[2].trim().split("\\s*\\|\\s*"));
+				Place place = new Place(fields[0].trim(), fields[1].trim(), aliases);
+				registry.put(fold(place.code()), place);
+				registry.put(fold(place.name()), place);
+				aliases.forEach(alias -> registry.put(fold(alias), place));
+			}
+		} catch (IOException ex) {
+			throw new UncheckedIOException("Could not read place registry " + properties.getRegistry(), ex);
+		}
+		log.info("Place registry: {} names and codes from {}", registry.size(), properties.getRegistry());
+	}
+
+	// "  São-Paulo " -> "sao paulo": what two spellings of the same place have in common
+	static String fold(String raw) {
+		String stripped = MARKS.matcher(Normalizer.normalize(raw, Normalizer.Form.NFD)).replaceAll("");
+		return SEPARATORS.matcher(stripped.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+	}
+
+	// Unknown place: trimmed, single spaces, each word capitalized ("new  YORK" -> "New York")
+	private static String tidy(String raw) {
+		String[] words = WHITESPACE.split(raw.trim());
+		StringBuilder tidy = new StringBuilder(raw.length());
+		for (String word : words) {
+			if (!tidy.isEmpty()) {
+				tidy.append(' ');
+			}
+			tidy.append(word.substring(0, 1).toUpperCase(Locale.ROOT))
+					.append(word.substring(1).toLowerCase(Locale.ROOT));
+		}
+		return tidy.toString();
+	}
+}
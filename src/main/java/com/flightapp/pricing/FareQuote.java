@@ -0,0 +1,11 @@
+package com.flightapp.pricing;
+
+import com.flightapp.entity.Money;
+
+import java.time.Instant;
+
+// A fare quoted for one seat on a flight and until when booking at it is guaranteed.
+// token proves the quote to whichever node takes the booking (null when pricing is off).
+
+public record FareQuote(String flightId, Money fare, Instant validUntil, String token) {
+}
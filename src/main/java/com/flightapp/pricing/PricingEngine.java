@@ -0,0 +1,298 @@
+package com.flightapp.pricing;
+
+import com.flightapp.config.PricingProperties;
+import com.flightapp.entity.Flight;
+import com.flightapp.entity.Money;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Dynamic fares from load factor + time to departure.
+//
+// Fares are cached per flight together with the seat count and departure bucket they
+// were computed for, so search is a map lookup + two int compares. A fare is only
+// recomputed when one of those changes (bookTicket/cancelBooking call reprice()).
+// Each quote locks its fare for the quote-lock window from when it was given; when the
+// fare moves, every earlier fare stays bookable until the last lock on it runs out.
+//
+// Those locks live in this node's memory, so each quote also carries a token: the fare and
+// its expiry signed with quote-key. Any node sharing the key honours it at booking, whichever
+// node served the search.
+
+@Component
+@EnableConfigurationProperties(PricingProperties.class)
+@Slf4j
+public class PricingEngine {
+
+	private final PricingProperties properties;
+	private final Clock clock;
+	private final Cache<String, QuoteEntry> quotes;
+	private final SecretKeySpec quoteKey;
+	private final ThreadLocal<Mac> macs;
+
+	// Buckets copied into arrays once — no boxing/iterators on the hot path
+	private final double[] loadFactorUpTo;
+	private final double[] loadFactorMultiplier;
+	private final int[] departureWithinDays;
+	private final double[] departureMultiplier;
+
+	@Autowired
+	public PricingEngine(PricingProperties properties) {
+		this(properties, Clock.systemDefaultZone());
+	}
+
+	PricingEngine(PricingProperties properties, Clock clock) {
+		this.properties = properties;
+		this.clock = clock;
+		this.quotes = Caffeine.newBuilder().maximumSize(properties.getMaxCachedQuotes())
+				.expireAfterAccess(Duration.ofHours(6)).build();
+		this.quoteKey = new SecretKeySpec(quoteKey(properties), "HmacSHA256");
+		this.macs = ThreadLocal.withInitial(this::newMac);
+
+		List<PricingProperties.LoadFactorBucket> lf = properties.getLoadFactorBuckets();
+		this.loadFactorUpTo = lf.stream().mapToDouble(PricingProperties.LoadFactorBucket::getUpTo).toArray();
+		this.loadFactorMultiplier = lf.stream().mapToDouble(PricingProperties.LoadFactorBucket::getMultiplier)
+				.toArray();
+
+		List<PricingProperties.DepartureBucket> dep = properties.getDepartureBuckets();
+		this.departureWithinDays = dep.stream().mapToInt(PricingProperties.DepartureBucket::getWithinDays).toArray();
+		this.departureMultiplier = dep.stream().mapToDouble(PricingProperties.DepartureBucket::getMultiplier)
+				.toArray();
+	}
+
+	// Current fare for one seat, bookable for the quote-lock window from now. Cheap on a cache hit;
+	// used for every search result.
+	public FareQuote quote(Flight flight) {
+
+		if (!properties.isEnabled()) {
+			return new FareQuote(flight.getId(), flight.getPrice(), null, null);
+		}
+
+		Instant lockedUntil = clock.instant().plus(properties.getQuoteLock());
+		QuoteEntry entry = entry(flight);
+		entry.promise(lockedUntil);
+		return new FareQuote(flight.getId(), entry.fare, lockedUntil,
+				token(flight.getId(), entry.fare, lockedUntil.toEpochMilli()));
+	}
+
+	// Seats changed: recompute now; fares quoted before stay bookable until their locks run out
+	public void reprice(Flight flight) {
+		if (properties.isEnabled()) {
+			reprice(flight, quotes.getIfPresent(flight.getId()), departureBucket(flight.getDepartureTime()));
+		}
+	}
+
+	public Money fareForBooking(Flight flight, BigDecimal quotedFare) {
+		return fareForBooking(flight, quotedFare, null);
+	}
+
+	// Fare charged per seat at booking: the customer's quoted fare if it is the current
+	// fare, carries an unexpired token for it, or is an earlier fare whose lock on this
+	// node hasn't run out; otherwise the current fare.
+	public Money fareForBooking(Flight flight, BigDecimal quotedFare, String quoteToken) {
+
+		if (!properties.isEnabled()) {
+			return flight.getPrice();
+		}
+
+		QuoteEntry entry = entry(flight);
+		if (quotedFare == null) {
+			return entry.fare;
+		}
+
+		Money quoted = Money.of(quotedFare, entry.fare.currency());
+		if (quoted.equals(entry.fare)) {
+			return entry.fare;
+		}
+
+		Instant now = clock.instant();
+		if (quoteToken != null && verify(quoteToken, flight.getId(), quoted, now)) {
+			log.debug("Honouring quoted fare {} for flight {} by token (current {})", quoted, flight.getId(),
+					entry.fare);
+			return quoted;
+		}
+		for (FareQuote locked : entry.locked) {
+			if (locked.fare().equals(quoted) && locked.validUntil().isAfter(now)) {
+				log.debug("Honouring locked fare {} for flight {} (current {})", quoted, flight.getId(), entry.fare);
+				return locked.fare();
+			}
+		}
+
+		return entry.fare;
+	}
+
+	public void evict(String flightId) {
+		quotes.invalidate(flightId);
+	}
+
+	// "<expiry epoch millis>.<HMAC of flight|fare|expiry>", URL-safe
+	private String token(String flightId, Money fare, long validUntil) {
+		return validUntil + "." + Base64.getUrlEncoder().withoutPadding().encodeToString(sign(flightId, fare,
+				validUntil));
+	}
+
+	private boolean verify(String token, String flightId, Money fare, Instant now) {
+		int dot = token.indexOf('.');
+		long validUntil;
+		byte[] signature;
+		try {
+			validUntil = Long.parseLong(token.substring(0, Math.max(dot, 0)));
+			signature = Base64.getUrlDecoder().decode(token.substring(dot + 1));
+		} catch (IllegalArgumentException ex) {
+			return false;
+		}
+		return Instant.ofEpochMilli(validUntil).isAfter(now)
+				&& MessageDigest.isEqual(signature, sign(flightId, fare, validUntil));
+	}
+
+	private byte[] sign(String flightId, Money fare, long validUntil) {
+		String payload = flightId + '|' + fare.minorUnits() + '|' + fare.currency() + '|' + validUntil;
+		return macs.get().doFinal(payload.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private Mac newMac() {
+		try {
+			Mac mac = Mac.getInstance("HmacSHA256");
+			mac.init(quoteKey);
+			return mac;
+		} catch (GeneralSecurityException ex) {
+			throw new IllegalStateException("HmacSHA256 unavailable", ex);
+		}
+	}
+
+	// Unset = a random key: tokens are then only honoured by the node that signed them
+	private static byte[] quoteKey(PricingProperties properties) {
+		if (properties.getQuoteKey() != null && !properties.getQuoteKey().isBlank()) {
+			return properties.getQuoteKey().getBytes(StandardCharsets.UTF_8);
+		}
+		log.warn("flightapp.pricing.quote-key is not set: fare quotes will only be honoured by this node");
+		byte[] key = new byte[32];
+		new SecureRandom().nextBytes(key);
+		return key;
+	}
+
+	private QuoteEntry entry(Flight flight) {
+
+		int departureBucket = departureBucket(flight.getDepartureTime());
+
+		QuoteEntry entry = quotes.getIfPresent(flight.getId());
+		if (entry != null && entry.availableSeats == flight.getAvailableSeats()
+				&& entry.departureBucket == departureBucket && entry.basePrice.equals(flight.getPrice())) {
+			return entry;
+		}
+
+		return reprice(flight, entry, departureBucket);
+	}
+
+	private QuoteEntry reprice(Flight flight, QuoteEntry previousEntry, int departureBucket) {
+
+		Instant now = clock.instant();
+		Money fare = computeFare(flight, departureBucket);
+
+		// Every fare handed out recently stays bookable until its own lock runs out: the one that
+		// was current until now (if it changed) and the earlier ones still inside their windows
+		List<FareQuote> locked = new ArrayList<>();
+		if (previousEntry != null) {
+			for (FareQuote earlier : previousEntry.locked) {
+				lock(locked, earlier, fare, now);
+			}
+			Instant promised = previousEntry.promisedUntil.get();
+			if (promised != null) {
+				lock(locked, new FareQuote(flight.getId(), previousEntry.fare, promised, null), fare, now);
+			}
+		}
+
+		QuoteEntry entry = new QuoteEntry(flight.getAvailableSeats(), departureBucket, flight.getPrice(), fare,
+				List.copyOf(locked));
+		quotes.put(flight.getId(), entry);
+		return entry;
+	}
+
+	// One lock per fare, the later one wins; the current fare and expired locks aren't kept
+	private static void lock(List<FareQuote> locked, FareQuote quote, Money current, Instant now) {
+		if (quote.fare().equals(current) || !quote.validUntil().isAfter(now)) {
+			return;
+		}
+		for (int i = 0; i < locked.size(); i++) {
+			if (locked.get(i).fare().equals(quote.fare())) {
+				if (quote.validUntil().isAfter(locked.get(i).validUntil())) {
+					locked.set(i, quote);
+				}
+				return;
+			}
+		}
+		locked.add(quote);
+	}
+
+	Money computeFare(Flight flight, int departureBucket) {
+
+		double loadFactor = flight.getTotalSeats() <= 0 ? 1.0
+				: 1.0 - (double) flight.getAvailableSeats() / flight.getTotalSeats();
+
+		double multiplier = departureBucket < departureMultiplier.length ? departureMultiplier[departureBucket] : 1.0;
+		for (int i = 0; i < loadFactorUpTo.length; i++) {
+			if (loadFactor <= loadFactorUpTo[i]) {
+				multiplier *= loadFactorMultiplier[i];
+				break;
+			}
+		}
+
+		// Rounded to whole paise/cents on the long — no float in between
+		return flight.getPrice().scale(multiplier);
+	}
+
+	// Index of the departure bucket; departureWithinDays.length = "further out than any bucket"
+	int departureBucket(LocalDateTime departureTime) {
+		long daysLeft = Duration.between(LocalDateTime.now(clock), departureTime).toDays();
+		for (int i = 0; i < departureWithinDays.length; i++) {
+			if (daysLeft <= departureWithinDays[i]) {
+				return i;
+			}
+		}
+		return departureWithinDays.length;
+	}
+
+	// The fare for one seat count / departure bucket / base price, until when it has been quoted,
+	// and the earlier fares still locked for someone
+	private static final class QuoteEntry {
+
+		final int availableSeats;
+		final int departureBucket;
+		final Money basePrice;
+		final Money fare;
+		final List<FareQuote> locked;
+		final AtomicReference<Instant> promisedUntil = new AtomicReference<>();
+
+		QuoteEntry(int availableSeats, int departureBucket, Money basePrice, Money fare, List<FareQuote> locked) {
+			this.availableSeats = availableSeats;
+			this.departureBucket = departureBucket;
+			this.basePrice = basePrice;
+			this.fare = fare;
+			this.locked = locked;
+		}
+
+		void promise(Instant until) {
+			promisedUntil.accumulateAndGet(until, (a, b) -> a == null || b.isAfter(a) ? b : a);
+		}
+	}
+}
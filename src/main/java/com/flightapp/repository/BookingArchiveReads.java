@@ -0,0 +1,15 @@
+package com.flightapp.repository;
+
+import com.flightapp.entity.Booking;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Bookings of archived (long departed) flights, from bookings_archive. Never change, so a
+// secondary is always fine.
+
+public interface BookingArchiveReads {
+
+	Flux<Booking> findByEmailInArchive(String email);
+
+	Mono<Booking> findByPnrInArchive(String pnr);
+}
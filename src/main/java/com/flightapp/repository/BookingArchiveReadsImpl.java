@@ -0,0 +1,36 @@
+package com.flightapp.repository;
+
+import com.flightapp.config.ReadRouting;
+import com.flightapp.entity.Booking;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+class BookingArchiveReadsImpl implements BookingArchiveReads {
+
+	private final ReactiveMongoTemplate mongoTemplate;
+	private final ReadRouting readRouting;
+
+	BookingArchiveReadsImpl(ReactiveMongoTemplate mongoTemplate, ReadRouting readRouting) {
+		this.mongoTemplate = mongoTemplate;
+		this.readRouting = readRouting;
+	}
+
+	@Override
+	public Flux<Booking> findByEmailInArchive(String email) {
+		Query query = Query.query(Criteria.where("email").is(email)).with(Sort.by("bookingTime"));
+		return mongoTemplate.find(query.withReadPreference(readRouting.replicaReads()), Booking.class,
+				FlightArchiver.BOOKINGS_ARCHIVE);
+	}
+
+	@Override
+	public Mono<Booking> findByPnrInArchive(String pnr) {
+		Query query = Query.query(Criteria.where("pnr").is(pnr));
+		return mongoTemplate.findOne(query.withReadPreference(readRouting.replicaReads()), Booking.class,
+				FlightArchiver.BOOKINGS_ARCHIVE);
+	}
+}
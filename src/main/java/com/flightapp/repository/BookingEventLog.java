@@ -0,0 +1,45 @@
+package com.flightapp.repository;
+
+import com.flightapp.entity.Booking;
+import com.flightapp.entity.BookingEvent;
+import com.flightapp.entity.Flight;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.List;
+
+// The outbox: append numbered lifecycle events, read them back in seq order.
+//
+// Bookings and cancels don't append directly: their events are written into the booking/flight
+// document in the same write as the change, and relayed from there (relayFrom right after the
+// write, relayStale for whatever that missed). So an event exists exactly when its change does.
+
+public interface BookingEventLog {
+
+	// Numbers the events with consecutive seqs (one counter update for the lot) and inserts them.
+	// Idempotent by event id: events already in the log are left alone. An event whose seq was
+	// claimed as a gap in the meantime (claimGap) takes a new one.
+	Flux<BookingEvent> append(List<BookingEvent> events);
+
+	// Append the document's pending events, then take them off the document
+	Mono<Void> relayFrom(Booking booking);
+
+	Mono<Void> relayFrom(Flight flight);
+
+	// Relay bookings and flights whose pending events are older than olderThan (the write that
+	// made them never got to relay them) — at most limit documents of each. Counts the events that
+	// weren't in the log yet; the rest were relayed already and only needed taking off.
+	Mono<Long> relayStale(Instant olderThan, int limit);
+
+	// Events with afterSeq < seq <= upToSeq, oldest first, at most limit of them.
+	// May be served by a secondary — the publisher tails here instead of on the primary.
+	Flux<BookingEvent> readOnReplica(long afterSeq, long upToSeq, int limit);
+
+	// Close a seq that was handed out but never written with a GAP tombstone — primary.
+	// True if seq now holds a tombstone, false if a real event got there first.
+	Mono<Boolean> claimGap(long seq);
+
+	// Highest seq handed out so far (0 before the first event) — primary
+	Mono<Long> lastSeq();
+}
@@ -0,0 +1,154 @@
+package com.flightapp.repository;
+
+import com.flightapp.config.ReadRouting;
+import com.flightapp.entity.Booking;
+import com.flightapp.entity.BookingEvent;
+import com.flightapp.entity.Flight;
+
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Slf4j
+class BookingEventLogImpl implements BookingEventLog {
+
+	// counters: { _id: "booking_events", seq: <last seq handed out> }
+	static final String COUNTERS = "counters";
+	static final String COUNTER_ID = "booking_events";
+
+	static final String PENDING_EVENTS = "pendingEvents";
+
+	private final ReactiveMongoTemplate mongoTemplate;
+	private final ReadRouting readRouting;
+
+	BookingEventLogImpl(ReactiveMongoTemplate mongoTemplate, ReadRouting readRouting) {
+		this.mongoTemplate = mongoTemplate;
+		this.readRouting = readRouting;
+	}
+
+	@Override
+	public Flux<BookingEvent> append(List<BookingEvent> events) {
+		if (events.isEmpty()) {
+			return Flux.empty();
+		}
+		// A relay can run twice for the same document (inline + sweep, two nodes): skip what's in
+		Query relayed = Query.query(Criteria.where("_id").in(ids(events)));
+		relayed.fields().include("_id");
+		return mongoTemplate.find(relayed, BookingEvent.class).map(BookingEvent::getId).collect(Collectors.toSet())
+				.flatMapMany(present -> {
+					List<BookingEvent> missing = events.stream().filter(e -> !present.contains(e.getId())).toList();
+					if (missing.isEmpty()) {
+						return Flux.empty();
+					}
+					return nextSeq(missing.size()).flatMapMany(first -> {
+						long seq = first;
+						for (BookingEvent event : missing) {
+							event.setSeq(seq++);
+						}
+						return Flux.fromIterable(missing).concatMap(this::insert);
+					});
+				});
+	}
+
+	// One at a time, so a clash only affects the event that had it
+	private Mono<BookingEvent> insert(BookingEvent event) {
+		return mongoTemplate.insert(event).onErrorResume(DuplicateKeyException.class,
+				clash -> mongoTemplate.exists(Query.query(Criteria.where("_id").is(event.getId())), BookingEvent.class)
+						.flatMap(relayed -> {
+							if (relayed) {
+								// relayed by someone else meanwhile: the seq we took stays unused, close it now
+								// instead of leaving the publisher to wait it out
+								return claimGap(event.getSeq()).then(Mono.<BookingEvent>empty());
+							}
+							// the publisher gave up waiting for our seq and closed it: take a new one
+							log.warn("Booking event {} lost seq {} to a gap claim, renumbering", event.getId(),
+									event.getSeq());
+							return nextSeq(1).flatMap(seq -> {
+								event.setSeq(seq);
+								return insert(event);
+							});
+						}));
+	}
+
+	// First of count fresh seqs
+	private Mono<Long> nextSeq(int count) {
+		return mongoTemplate
+				.findAndModify(counter(), new Update().inc("seq", count),
+						FindAndModifyOptions.options().returnNew(true).upsert(true), Document.class, COUNTERS)
+				.map(counter -> ((Number) counter.get("seq")).longValue() - count + 1);
+	}
+
+	@Override
+	public Mono<Void> relayFrom(Booking booking) {
+		return relay(booking.getId(), booking.getPendingEvents(), Booking.class).then();
+	}
+
+	@Override
+	public Mono<Void> relayFrom(Flight flight) {
+		return relay(flight.getId(), flight.getPendingEvents(), Flight.class).then();
+	}
+
+	// $pull by event id, no version bump: a versioned save that read the document before the pull
+	// puts them back, and the next relay skips them as already in the log. Count newly appended.
+	private Mono<Long> relay(String id, List<BookingEvent> pending, Class<?> owner) {
+		if (pending == null || pending.isEmpty()) {
+			return Mono.just(0L);
+		}
+		Update pull = new Update().pull(PENDING_EVENTS, new Document("_id", new Document("$in", ids(pending))));
+		return append(pending).count().flatMap(appended -> mongoTemplate
+				.updateFirst(Query.query(Criteria.where("_id").is(id)), pull, owner).thenReturn(appended));
+	}
+
+	@Override
+	public Mono<Long> relayStale(Instant olderThan, int limit) {
+		Query stale = Query.query(Criteria.where(PENDING_EVENTS + ".occurredAt").lt(olderThan)).limit(limit);
+		stale.fields().include(PENDING_EVENTS);
+		return Flux.concat(
+				mongoTemplate.find(stale, Booking.class)
+						.concatMap(b -> relay(b.getId(), b.getPendingEvents(), Booking.class)),
+				mongoTemplate.find(stale, Flight.class)
+						.concatMap(f -> relay(f.getId(), f.getPendingEvents(), Flight.class)))
+				.reduce(0L, Long::sum);
+	}
+
+	@Override
+	public Flux<BookingEvent> readOnReplica(long afterSeq, long upToSeq, int limit) {
+		Query query = Query.query(Criteria.where("seq").gt(afterSeq).lte(upToSeq)).with(Sort.by("seq")).limit(limit);
+		return mongoTemplate.find(query.withReadPreference(readRouting.replicaReads()), BookingEvent.class);
+	}
+
+	// Another node may have claimed it first: still a tombstone, still true
+	@Override
+	public Mono<Boolean> claimGap(long seq) {
+		return mongoTemplate.insert(BookingEvent.gap(seq)).thenReturn(true).onErrorResume(DuplicateKeyException.class,
+				clash -> mongoTemplate.findOne(Query.query(Criteria.where("seq").is(seq)), BookingEvent.class)
+						.map(holder -> holder.getType() == BookingEvent.Type.GAP).defaultIfEmpty(false));
+	}
+
+	@Override
+	public Mono<Long> lastSeq() {
+		return mongoTemplate.findOne(counter(), Document.class, COUNTERS)
+				.map(counter -> ((Number) counter.get("seq")).longValue()).defaultIfEmpty(0L);
+	}
+
+	private static Query counter() {
+		return Query.query(Criteria.where("_id").is(COUNTER_ID));
+	}
+
+	private static Set<String> ids(List<BookingEvent> events) {
+		return events.stream().map(BookingEvent::getId).collect(Collectors.toSet());
+	}
+}
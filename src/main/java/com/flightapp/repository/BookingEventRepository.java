@@ -0,0 +1,9 @@
+package com.flightapp.repository;
+
+import com.flightapp.entity.BookingEvent;
+
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+
+// Outbox of booking lifecycle events; everything goes through BookingEventLog.
+public interface BookingEventRepository extends ReactiveMongoRepository<BookingEvent, String>, BookingEventLog {
+}
@@ -0,0 +1,148 @@
+package com.flightapp.repository;
+
+import com.flightapp.config.BookingHistoryProperties;
+import com.flightapp.entity.Booking;
+import com.flightapp.entity.BookingHistory;
+import com.flightapp.entity.Passenger;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+// Regenerates booking_history from bookings + passengers, for the first deploy and whenever the
+// read model is suspected to have drifted (an incremental update that failed, a manual fix in Mongo).
+//
+// One pass over bookings + bookings_archive, both sorted by email (email_bookingTime index) and merged,
+// grouped per email; per chunk of emails one passengers $in query per collection (bookingId index)
+// and one unordered bulk replace.
+// Documents not rewritten by the pass belong to emails with no bookings left and are removed.
+// A booking changed while the rebuild runs can be written back at its older version — run it
+// again, or off-peak.
+
+@Component
+@EnableConfigurationProperties(BookingHistoryProperties.class)
+@Slf4j
+public class BookingHistoryRebuild {
+
+	private static final Comparator<Booking> BY_EMAIL = Comparator.comparing(Booking::getEmail)
+			.thenComparing(Booking::getBookingTime, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+	private final ReactiveMongoTemplate mongoTemplate;
+	private final BookingHistoryProperties properties;
+
+	public BookingHistoryRebuild(ReactiveMongoTemplate mongoTemplate, BookingHistoryProperties properties) {
+		this.mongoTemplate = mongoTemplate;
+		this.properties = properties;
+	}
+
+	public record Report(long emails, long bookings, long removed, Duration elapsed) {
+
+		public double bookingsPerSecond() {
+			return rate(bookings, elapsed.toNanos());
+		}
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void rebuildOnStartup() {
+		if (properties.isOnStartup()) {
+			rebuild().subscribe(report -> {
+			}, ex -> log.error("Booking history rebuild failed: {}", ex.getMessage()));
+		}
+	}
+
+	public Mono<Report> rebuild() {
+		return Mono.defer(() -> {
+			long started = System.nanoTime();
+			LocalDateTime startedAt = LocalDateTime.now();
+			AtomicLong emails = new AtomicLong();
+			AtomicLong bookings = new AtomicLong();
+			AtomicLong lastProgress = new AtomicLong(started);
+
+			log.info("Booking history rebuild started");
+
+			// In booking order within each email, straight off the email_bookingTime indexes. A booking
+			// that is being archived right now can come from both; the copies end up next to each other.
+			Query all = new Query().with(Sort.by("email", "bookingTime"));
+			Flux<Booking> source = Flux.mergeComparing(BY_EMAIL, mongoTemplate.find(all, Booking.class),
+					mongoTemplate.find(all, Booking.class, FlightArchiver.BOOKINGS_ARCHIVE))
+					.distinctUntilChanged(Booking::getId);
+
+			return source.bufferUntilChanged(Booking::getEmail)
+					.buffer(properties.getChunkSize()).concatMap(chunk -> writeChunk(chunk, startedAt))
+					.doOnNext(chunk -> {
+						emails.addAndGet(chunk.emails());
+						bookings.addAndGet(chunk.bookings());
+						long now = System.nanoTime();
+						long last = lastProgress.get();
+						if (now - last >= properties.getProgressInterval().toNanos()
+								&& lastProgress.compareAndSet(last, now)) {
+							log.info("Booking history rebuild: {} emails, {} bookings, {} bookings/s", emails.get(),
+									bookings.get(), String.format("%.0f", rate(bookings.get(), now - started)));
+						}
+					})
+					.then(Mono.defer(() -> mongoTemplate.remove(
+							Query.query(Criteria.where("updatedAt").lt(startedAt)), BookingHistory.class)))
+					.map(removed -> new Report(emails.get(), bookings.get(), removed.getDeletedCount(),
+							Duration.ofNanos(System.nanoTime() - started)))
+					.doOnNext(report -> log.info(
+							"Booking history rebuild done: {} emails, {} bookings, {} stale removed in {} ms "
+									+ "({} bookings/s)",
+							report.emails(), report.bookings(), report.removed(), report.elapsed().toMillis(),
+							String.format("%.0f", report.bookingsPerSecond())));
+		});
+	}
+
+	private record Chunk(int emails, int bookings) {
+	}
+
+	private Mono<Chunk> writeChunk(List<List<Booking>> byEmail, LocalDateTime rebuiltAt) {
+
+		List<String> bookingIds = byEmail.stream().flatMap(List::stream).map(Booking::getId).toList();
+
+		Query ofChunk = Query.query(Criteria.where("bookingId").in(bookingIds));
+		return Flux.concat(mongoTemplate.find(ofChunk, Passenger.class),
+				mongoTemplate.find(ofChunk, Passenger.class, FlightArchiver.PASSENGERS_ARCHIVE))
+				.distinct(Passenger::getId)
+				.collect(Collectors.groupingBy(Passenger::getBookingId)).flatMap(passengers -> {
+
+					var bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, BookingHistory.class);
+					for (List<Booking> group : byEmail) {
+						bulk.replaceOne(Query.query(Criteria.where("_id").is(group.get(0).getEmail())),
+								history(group, passengers, rebuiltAt), FindAndReplaceOptions.options().upsert());
+					}
+					return bulk.execute().thenReturn(new Chunk(byEmail.size(), bookingIds.size()));
+				});
+	}
+
+	private static BookingHistory history(List<Booking> group, Map<String, List<Passenger>> passengers,
+			LocalDateTime rebuiltAt) {
+		List<BookingHistory.Entry> entries = new ArrayList<>(group.size());
+		for (Booking booking : group) {
+			entries.add(BookingHistory.Entry.of(booking, passengers.getOrDefault(booking.getId(), List.of())));
+		}
+		return new BookingHistory(group.get(0).getEmail(), entries, rebuiltAt, true);
+	}
+
+	private static double rate(long bookings, long nanos) {
+		return nanos <= 0 ? bookings : bookings * 1e9 / nanos;
+	}
+}
@@ -0,0 +1,10 @@
+package com.flightapp.repository;
+
+import com.flightapp.entity.BookingHistory;
+
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+
+// booking_history read model, keyed by email.
+public interface BookingHistoryRepository
+		extends ReactiveMongoRepository<BookingHistory, String>, BookingHistoryUpdates {
+}
@@ -0,0 +1,25 @@
+package com.flightapp.repository;
+
+import com.flightapp.entity.BookingHistory;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+// Incremental upkeep + point reads for the booking_history read model.
+
+public interface BookingHistoryUpdates {
+
+	// Adds the entry, or replaces the one with the same PNR if this one is newer (by booking version).
+	// A document created this way is incomplete: older bookings of the email aren't in it
+	Mono<Void> upsertEntry(String email, BookingHistory.Entry entry);
+
+	// After an update failed: reads go back to the join until the document is completed again
+	Mono<Void> markIncomplete(String email);
+
+	// Writes the joined entries merged with the ones already there and marks the document complete, only if
+	// nothing wrote to it since it was read as seen (null: there was no document). False if something did
+	Mono<Boolean> complete(String email, BookingHistory seen, List<BookingHistory.Entry> joined);
+
+	// History for one email, possibly from a secondary
+	Mono<BookingHistory> findByEmailOnReplica(String email);
+}
@@ -0,0 +1,97 @@
+package com.flightapp.repository;
+
+import com.flightapp.config.ReadRouting;
+import com.flightapp.entity.BookingHistory;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+class BookingHistoryUpdatesImpl implements BookingHistoryUpdates {
+
+	private final ReactiveMongoTemplate mongoTemplate;
+	private final ReadRouting readRouting;
+
+	BookingHistoryUpdatesImpl(ReactiveMongoTemplate mongoTemplate, ReadRouting readRouting) {
+		this.mongoTemplate = mongoTemplate;
+		this.readRouting = readRouting;
+	}
+
+	@Override
+	public Mono<Void> upsertEntry(String email, BookingHistory.Entry entry) {
+
+		// 1) the PNR is there at an older version: replace it in place
+		Query older = Query.query(Criteria.where("_id").is(email).and("bookings")
+				.elemMatch(Criteria.where("pnr").is(entry.getPnr()).and("version").lt(entry.getVersion())));
+		Update replace = new Update().set("bookings.$", entry).set("updatedAt", LocalDateTime.now());
+
+		// 2) the PNR isn't there: append (creating an incomplete document if there was none)
+		Query missing = Query.query(Criteria.where("_id").is(email).and("bookings.pnr").ne(entry.getPnr()));
+		Update append = new Update().push("bookings", entry).set("updatedAt", LocalDateTime.now())
+				.setOnInsert("complete", false);
+
+		return mongoTemplate.updateFirst(older, replace, BookingHistory.class)
+				.flatMap(result -> result.getModifiedCount() > 0 ? Mono.empty()
+						: mongoTemplate.upsert(missing, append, BookingHistory.class))
+				// upsert hit an existing document: the PNR is already there at the same or a newer version
+				.onErrorResume(DuplicateKeyException.class, ex -> Mono.empty()).then();
+	}
+
+	@Override
+	public Mono<Void> markIncomplete(String email) {
+		// updatedAt moves too, so a completion working from what was there before doesn't land
+		Update update = new Update().set("complete", false).set("updatedAt", LocalDateTime.now());
+		return mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(email)), update, BookingHistory.class)
+				.then();
+	}
+
+	@Override
+	public Mono<Boolean> complete(String email, BookingHistory seen, List<BookingHistory.Entry> joined) {
+
+		// The join can come from a secondary that is behind: per PNR keep the newer of the two
+		Map<String, BookingHistory.Entry> byPnr = new LinkedHashMap<>();
+		List<BookingHistory.Entry> present = seen == null || seen.getBookings() == null ? List.of()
+				: seen.getBookings();
+		for (BookingHistory.Entry entry : present) {
+			byPnr.merge(entry.getPnr(), entry, BookingHistoryUpdatesImpl::newer);
+		}
+		for (BookingHistory.Entry entry : joined) {
+			byPnr.merge(entry.getPnr(), entry, BookingHistoryUpdatesImpl::newer);
+		}
+		List<BookingHistory.Entry> entries = new ArrayList<>(byPnr.values());
+		entries.sort(Comparator.comparing(BookingHistory.Entry::getBookingTime,
+				Comparator.nullsFirst(Comparator.naturalOrder())));
+		LocalDateTime now = LocalDateTime.now();
+
+		if (seen == null) {
+			// someone else created it meanwhile: leave it for the next read
+			return mongoTemplate.insert(new BookingHistory(email, entries, now, true)).thenReturn(true)
+					.onErrorResume(DuplicateKeyException.class, ex -> Mono.just(false));
+		}
+		// every write moves updatedAt, so an unchanged one means nothing landed since it was read
+		Query unchanged = Query.query(Criteria.where("_id").is(email).and("updatedAt").is(seen.getUpdatedAt()));
+		Update update = new Update().set("bookings", entries).set("updatedAt", now).set("complete", true);
+		return mongoTemplate.updateFirst(unchanged, update, BookingHistory.class)
+				.map(result -> result.getModifiedCount() > 0);
+	}
+
+	private static BookingHistory.Entry newer(BookingHistory.Entry a, BookingHistory.Entry b) {
+		return b.getVersion() > a.getVersion() ? b : a;
+	}
+
+	@Override
+	public Mono<BookingHistory> findByEmailOnReplica(String email) {
+		Query query = Query.query(Criteria.where("_id").is(email));
+		return mongoTemplate.findOne(query.withReadPreference(readRouting.replicaReads()), BookingHistory.class);
+	}
+}
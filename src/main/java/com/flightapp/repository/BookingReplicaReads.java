@@ -0,0 +1,11 @@
+package com.flightapp.repository;
+
+import com.flightapp.entity.Booking;
+import reactor.core.publisher.Flux;
+
+// Booking reads that may be served by a secondary (booking history).
+
+public interface BookingReplicaReads {
+
+	Flux<Booking> findByEmailOnReplica(String email);
+}
@@ -0,0 +1,26 @@
+package com.flightapp.repository;
+
+import com.flightapp.config.ReadRouting;
+import com.flightapp.entity.Booking;
+
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Flux;
+
+class BookingReplicaReadsImpl implements BookingReplicaReads {
+
+	private final ReactiveMongoTemplate mongoTemplate;
+	private final ReadRouting readRouting;
+
+	BookingReplicaReadsImpl(ReactiveMongoTemplate mongoTemplate, ReadRouting readRouting) {
+		this.mongoTemplate = mongoTemplate;
+		this.readRouting = readRouting;
+	}
+
+	@Override
+	public Flux<Booking> findByEmailOnReplica(String email) {
+		Query query = Query.query(Criteria.where("email").is(email));
+		return mongoTemplate.find(query.withReadPreference(readRouting.replicaReads()), Booking.class);
+	}
+}
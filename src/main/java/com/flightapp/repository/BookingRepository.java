@@ -6,11 +6,15 @@ import reactor.core.publisher.Mono;
 import reactor.core.publisher.Flux;
 
 // This repo manages all Booking documents.
-public interface BookingRepository extends ReactiveMongoRepository<Booking, String> {
+public interface BookingRepository
+		extends ReactiveMongoRepository<Booking, String>, BookingReplicaReads, BookingStampQueries, BookingArchiveReads {
 
 	// Find booking by its PNR. Used for ticket lookup.
 	Mono<Booking> findByPnr(String pnr);
 
 	// List all bookings done by a particular user (emailId)
 	Flux<Booking> findByEmail(String email);
+
+	// Live bookings on a flight (booking_flight index); seeds the seat map of flights that predate it
+	Flux<Booking> findByFlightIdAndCanceledFalse(String flightId);
 }
@@ -0,0 +1,16 @@
+package com.flightapp.repository;
+
+import java.time.LocalDateTime;
+
+// Just enough of a booking to answer a conditional GET: who, which version, when it last changed.
+
+public record BookingStamp(String pnr, long version, boolean canceled, LocalDateTime bookingTime,
+		LocalDateTime canceledAt) {
+
+	// Projection used by BookingStampQueriesImpl — nothing else is read from Mongo
+	static final String[] FIELDS = { "pnr", "version", "canceled", "bookingTime", "canceledAt" };
+
+	public LocalDateTime lastModified() {
+		return canceledAt != null ? canceledAt : bookingTime;
+	}
+}
@@ -0,0 +1,15 @@
+package com.flightapp.repository;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Version stamps for conditional GETs — a few fields per booking, never the passengers.
+
+public interface BookingStampQueries {
+
+	// Primary: a ticket page must see its own cancel straight away
+	Mono<BookingStamp> findStampByPnr(String pnr);
+
+	// Same routing as findByEmailOnReplica, so the ETag describes the body history returns
+	Flux<BookingStamp> findStampsByEmailOnReplica(String email);
+}
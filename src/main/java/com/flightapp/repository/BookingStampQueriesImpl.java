@@ -0,0 +1,45 @@
+package com.flightapp.repository;
+
+import com.flightapp.config.ReadRouting;
+import com.flightapp.entity.Booking;
+
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+class BookingStampQueriesImpl implements BookingStampQueries {
+
+	private final ReactiveMongoTemplate mongoTemplate;
+	private final ReadRouting readRouting;
+
+	BookingStampQueriesImpl(ReactiveMongoTemplate mongoTemplate, ReadRouting readRouting) {
+		this.mongoTemplate = mongoTemplate;
+		this.readRouting = readRouting;
+	}
+
+	@Override
+	public Mono<BookingStamp> findStampByPnr(String pnr) {
+		return mongoTemplate.findOne(stampQuery(Criteria.where("pnr").is(pnr)), Booking.class)
+				.map(BookingStampQueriesImpl::toStamp);
+	}
+
+	@Override
+	public Flux<BookingStamp> findStampsByEmailOnReplica(String email) {
+		Query query = stampQuery(Criteria.where("email").is(email)).withReadPreference(readRouting.replicaReads());
+		return mongoTemplate.find(query, Booking.class).map(BookingStampQueriesImpl::toStamp);
+	}
+
+	private static Query stampQuery(Criteria criteria) {
+		Query query = Query.query(criteria);
+		query.fields().include(BookingStamp.FIELDS).exclude("_id");
+		return query;
+	}
+
+	private static BookingStamp toStamp(Booking booking) {
+		long version = booking.getVersion() == null ? 0 : booking.getVersion();
+		return new BookingStamp(booking.getPnr(), version, booking.isCanceled(),
+				booking.getBookingTime(), booking.getCanceledAt());
+	}
+}
@@ -0,0 +1,17 @@
+package com.flightapp.repository;
+
+import com.flightapp.entity.FareCalendarEntry;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Flux;
+
+// Materialized fare calendar (fare_calendar collection).
+
+public interface FareCalendarRepository
+		extends ReactiveMongoRepository<FareCalendarEntry, String>, FareCalendarUpdates {
+
+	// Keys are "from|to|day", so one route's date range is a contiguous _id range.
+	// Cells with no bookable flight left (flights = 0) are kept as markers, not returned
+	@Query(value = "{ '_id': { $gte: ?0, $lte: ?1 }, 'flights': { $gt: 0 } }", sort = "{ '_id': 1 }")
+	Flux<FareCalendarEntry> findByKeyRange(String firstKey, String lastKey);
+}
@@ -0,0 +1,13 @@
+package com.flightapp.repository;
+
+import com.flightapp.entity.FareCalendarEntry;
+import reactor.core.publisher.Mono;
+
+// Conditional writes for the materialized fare calendar.
+
+public interface FareCalendarUpdates {
+
+	// Stores the cell as computed by a read that started at its updatedAt, unless the stored cell comes from a
+	// later read. False if it does: that one is kept
+	Mono<Boolean> saveIfNewer(FareCalendarEntry entry);
+}
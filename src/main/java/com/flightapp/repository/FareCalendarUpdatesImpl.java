@@ -0,0 +1,35 @@
+package com.flightapp.repository;
+
+import com.flightapp.entity.FareCalendarEntry;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Mono;
+
+class FareCalendarUpdatesImpl implements FareCalendarUpdates {
+
+	private final ReactiveMongoTemplate mongoTemplate;
+
+	FareCalendarUpdatesImpl(ReactiveMongoTemplate mongoTemplate) {
+		this.mongoTemplate = mongoTemplate;
+	}
+
+	@Override
+	public Mono<Boolean> saveIfNewer(FareCalendarEntry entry) {
+
+		// Only over an older cell (or one written before cells were stamped)
+		Query older = Query.query(Criteria.where("_id").is(entry.getId()).orOperator(
+				Criteria.where("updatedAt").lt(entry.getUpdatedAt()), Criteria.where("updatedAt").exists(false)));
+		Update update = new Update().set("fromPlace", entry.getFromPlace()).set("toPlace", entry.getToPlace())
+				.set("day", entry.getDay()).set("minPrice", entry.getMinPrice())
+				.set("availableSeats", entry.getAvailableSeats()).set("flights", entry.getFlights())
+				.set("updatedAt", entry.getUpdatedAt());
+
+		return mongoTemplate.upsert(older, update, FareCalendarEntry.class).thenReturn(true)
+				// upsert hit the existing cell: it is from a later read
+				.onErrorResume(DuplicateKeyException.class, ex -> Mono.just(false));
+	}
+}
@@ -0,0 +1,219 @@
+package com.flightapp.repository;
+
+import com.flightapp.config.ArchiveProperties;
+import com.flightapp.entity.Booking;
+import com.flightapp.entity.Flight;
+import com.flightapp.entity.Passenger;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Function;
+
+// Moves flights that departed more than `retention` ago, with their bookings and passengers, into
+// flights_archive / bookings_archive / passengers_archive. Departed flights are never searched or
+// booked again, so this keeps the live collections (and the search index) down to what's hot.
+//
+// Per batch of flights: relay any outbox events still pending on them or their bookings (the
+// delete would take those with it, and the outbox sweep doesn't look at the archive), copy flights,
+// bookings, passengers into the archive (upserts by _id), then delete bookings, passengers, flights
+// from the live collections. Every step is idempotent — a run that dies half way is finished by the
+// next one. In between, a booking can briefly be in both places; readers prefer the live copy.
+// Booking history (read model + archive fallback) and ticket lookups keep seeing archived bookings.
+
+@Component
+@ConditionalOnProperty(prefix = "flightapp.archive", name = "enabled")
+@EnableConfigurationProperties(ArchiveProperties.class)
+@Slf4j
+public class FlightArchiver implements SmartLifecycle {
+
+	public static final String FLIGHTS_ARCHIVE = "flights_archive";
+	public static final String BOOKINGS_ARCHIVE = "bookings_archive";
+	public static final String PASSENGERS_ARCHIVE = "passengers_archive";
+
+	private final ReactiveMongoTemplate mongoTemplate;
+	private final BookingEventRepository eventRepository;
+	private final ArchiveProperties properties;
+	private final MeterRegistry meterRegistry;
+
+	private volatile Disposable schedule;
+
+	public FlightArchiver(ReactiveMongoTemplate mongoTemplate, BookingEventRepository eventRepository,
+			ArchiveProperties properties, MeterRegistry meterRegistry) {
+		this.mongoTemplate = mongoTemplate;
+		this.eventRepository = eventRepository;
+		this.properties = properties;
+		this.meterRegistry = meterRegistry;
+	}
+
+	public record Report(long flights, long bookings, long passengers, Duration elapsed) {
+
+		Report plus(Report batch) {
+			return new Report(flights + batch.flights, bookings + batch.bookings, passengers + batch.passengers,
+					elapsed);
+		}
+	}
+
+	@Override
+	public void start() {
+		log.info("Flight archiver: flights departed more than {} ago, every {}", properties.getRetention(),
+				properties.getInterval());
+
+		schedule = ensureArchiveIndexes()
+				.thenMany(Flux.interval(properties.getInitialDelay(), properties.getInterval())
+						.onBackpressureDrop()
+						// a failed run is logged and the next one picks up where it stopped
+						.concatMap(tick -> archive().onErrorResume(ex -> {
+							log.error("Flight archiving failed: {}", ex.getMessage());
+							return Mono.empty();
+						})))
+				.subscribe();
+	}
+
+	// Everything departed before now - retention, batch after batch until nothing is left
+	public Mono<Report> archive() {
+		return Mono.defer(() -> {
+			LocalDateTime cutoff = LocalDateTime.now().minus(properties.getRetention());
+			long started = System.nanoTime();
+
+			// a short batch means that was the last of them
+			return Mono.defer(() -> archiveBatch(cutoff)).repeat()
+					.takeUntil(batch -> batch.flights() < properties.getBatchSize())
+					.reduce(new Report(0, 0, 0, Duration.ZERO), Report::plus)
+					.map(total -> new Report(total.flights(), total.bookings(), total.passengers(),
+							Duration.ofNanos(System.nanoTime() - started)))
+					.doOnNext(report -> {
+						if (report.flights() > 0) {
+							log.info("Archived {} flights, {} bookings, {} passengers departed before {} in {} ms",
+									report.flights(), report.bookings(), report.passengers(), cutoff,
+									report.elapsed().toMillis());
+						}
+					});
+		});
+	}
+
+	Mono<Report> archiveBatch(LocalDateTime cutoff) {
+
+		Query departed = Query.query(Criteria.where("departureTime").lt(cutoff)).with(Sort.by("departureTime"))
+				.limit(properties.getBatchSize());
+
+		return mongoTemplate.find(departed, Flight.class).collectList().flatMap(flights -> {
+			if (flights.isEmpty()) {
+				return Mono.just(new Report(0, 0, 0, Duration.ZERO));
+			}
+			List<String> flightIds = ids(flights, Flight::getId);
+
+			return mongoTemplate.find(Query.query(Criteria.where("flightId").in(flightIds)), Booking.class)
+					.collectList()
+					.flatMap(bookings -> mongoTemplate
+							.find(Query.query(Criteria.where("bookingId").in(ids(bookings, Booking::getId))),
+									Passenger.class)
+							.collectList().flatMap(passengers -> move(flights, bookings, passengers)));
+		}).doOnNext(this::count);
+	}
+
+	private Mono<Report> move(List<Flight> flights, List<Booking> bookings, List<Passenger> passengers) {
+		return relayPending(flights, bookings)
+				.then(copy(flights, Flight::getId, Flight.class, FLIGHTS_ARCHIVE))
+				.then(copy(bookings, Booking::getId, Booking.class, BOOKINGS_ARCHIVE))
+				.then(copy(passengers, Passenger::getId, Passenger.class, PASSENGERS_ARCHIVE))
+				// live deletes only after all three copies landed; bookings first, so a reader
+				// never finds a live booking without its passengers
+				.then(delete(ids(bookings, Booking::getId), Booking.class))
+				.then(delete(ids(passengers, Passenger::getId), Passenger.class))
+				.then(delete(ids(flights, Flight::getId), Flight.class))
+				.thenReturn(new Report(flights.size(), bookings.size(), passengers.size(), Duration.ZERO));
+	}
+
+	// A failed relay fails the batch before anything is copied; the archive copies carry no pending events
+	private Mono<Void> relayPending(List<Flight> flights, List<Booking> bookings) {
+		return Flux.concat(
+				Flux.fromIterable(bookings).filter(booking -> hasPending(booking.getPendingEvents()))
+						.concatMap(booking -> eventRepository.relayFrom(booking)
+								.doOnSuccess(relayed -> booking.setPendingEvents(null))),
+				Flux.fromIterable(flights).filter(flight -> hasPending(flight.getPendingEvents()))
+						.concatMap(flight -> eventRepository.relayFrom(flight)
+								.doOnSuccess(relayed -> flight.setPendingEvents(null))))
+				.then();
+	}
+
+	private static boolean hasPending(List<?> pendingEvents) {
+		return pendingEvents != null && !pendingEvents.isEmpty();
+	}
+
+	private static <T> List<String> ids(List<T> documents, Function<T, String> id) {
+		return documents.stream().map(id).toList();
+	}
+
+	private <T> Mono<Void> copy(List<T> documents, Function<T, String> id, Class<T> type, String collection) {
+		if (documents.isEmpty()) {
+			return Mono.empty();
+		}
+		// built on subscribe: the documents are mapped after relayPending has cleared their events
+		return Mono.defer(() -> {
+			var bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, type, collection);
+			for (T document : documents) {
+				bulk.replaceOne(Query.query(Criteria.where("_id").is(id.apply(document))), document,
+						FindAndReplaceOptions.options().upsert());
+			}
+			return bulk.execute().then();
+		});
+	}
+
+	private Mono<Void> delete(List<String> ids, Class<?> type) {
+		return ids.isEmpty() ? Mono.empty()
+				: Mono.defer(() -> mongoTemplate.remove(Query.query(Criteria.where("_id").in(ids)), type)).then();
+	}
+
+	// What the archive-side reads filter and sort on
+	private Mono<Void> ensureArchiveIndexes() {
+		return Flux.concat(
+				mongoTemplate.indexOps(BOOKINGS_ARCHIVE).ensureIndex(
+						new Index().on("email", Sort.Direction.ASC).on("bookingTime", Sort.Direction.ASC)),
+				mongoTemplate.indexOps(BOOKINGS_ARCHIVE).ensureIndex(new Index().on("pnr", Sort.Direction.ASC)),
+				mongoTemplate.indexOps(PASSENGERS_ARCHIVE)
+						.ensureIndex(new Index().on("bookingId", Sort.Direction.ASC)))
+				.then().onErrorResume(ex -> {
+					log.warn("Could not create archive indexes: {}", ex.getMessage());
+					return Mono.empty();
+				});
+	}
+
+	private void count(Report batch) {
+		meterRegistry.counter("flightapp.archive.documents", "collection", "flights").increment(batch.flights());
+		meterRegistry.counter("flightapp.archive.documents", "collection", "bookings").increment(batch.bookings());
+		meterRegistry.counter("flightapp.archive.documents", "collection", "passengers")
+				.increment(batch.passengers());
+	}
+
+	@Override
+	public void stop() {
+		Disposable subscription = schedule;
+		if (subscription != null) {
+			subscription.dispose();
+		}
+		schedule = null;
+	}
+
+	@Override
+	public boolean isRunning() {
+		return schedule != null && !schedule.isDisposed();
+	}
+}
@@ -0,0 +1,24 @@
+package com.flightapp.repository;
+
+import com.flightapp.entity.FareCalendarEntry;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDate;
+
+// Fare-calendar aggregations over the flights collection.
+// One pipeline groups a whole date range by day: min price, seats left, flight count.
+// Only flights with seats left count.
+
+public interface FlightFareQueries {
+
+	// For reads — may be served by a secondary
+	Flux<FareCalendarEntry> aggregateFareCalendarOnReplica(String fromPlace, String toPlace, LocalDate firstDay,
+			LocalDate lastDay);
+
+	// For maintaining the materialization right after a write — primary
+	Flux<FareCalendarEntry> aggregateFareCalendar(String fromPlace, String toPlace, LocalDate firstDay,
+			LocalDate lastDay);
+
+	// Every route from firstDay on (bulk rebuild of the materialization) — primary
+	Flux<FareCalendarEntry> aggregateFareCalendarFrom(LocalDate firstDay);
+}
@@ -0,0 +1,101 @@
+package com.flightapp.repository;
+
+import com.flightapp.config.ReadRouting;
+import com.flightapp.entity.FareCalendarEntry;
+import com.flightapp.entity.Flight;
+import com.flightapp.entity.Money;
+import com.mongodb.ReadPreference;
+
+import org.bson.Document;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationExpression;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
+import org.springframework.data.mongodb.core.aggregation.ArithmeticOperators;
+import org.springframework.data.mongodb.core.aggregation.ComparisonOperators;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.aggregation.DataTypeOperators;
+import org.springframework.data.mongodb.core.aggregation.DateOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+class FlightFareQueriesImpl implements FlightFareQueries {
+
+	private final ReactiveMongoTemplate mongoTemplate;
+	private final ReadRouting readRouting;
+
+	FlightFareQueriesImpl(ReactiveMongoTemplate mongoTemplate, ReadRouting readRouting) {
+		this.mongoTemplate = mongoTemplate;
+		this.readRouting = readRouting;
+	}
+
+	@Override
+	public Flux<FareCalendarEntry> aggregateFareCalendarOnReplica(String fromPlace, String toPlace,
+			LocalDate firstDay, LocalDate lastDay) {
+		return aggregate(routeBetween(fromPlace, toPlace, firstDay, lastDay), readRouting.replicaReads());
+	}
+
+	@Override
+	public Flux<FareCalendarEntry> aggregateFareCalendar(String fromPlace, String toPlace, LocalDate firstDay,
+			LocalDate lastDay) {
+		return aggregate(routeBetween(fromPlace, toPlace, firstDay, lastDay), ReadPreference.primary());
+	}
+
+	@Override
+	public Flux<FareCalendarEntry> aggregateFareCalendarFrom(LocalDate firstDay) {
+		return aggregate(Criteria.where("departureTime").gte(firstDay.atStartOfDay()), ReadPreference.primary());
+	}
+
+	private static Criteria routeBetween(String fromPlace, String toPlace, LocalDate firstDay, LocalDate lastDay) {
+		LocalDateTime start = firstDay.atStartOfDay();
+		LocalDateTime end = lastDay.plusDays(1).atStartOfDay();
+		return Criteria.where("fromPlace").is(fromPlace).and("toPlace").is(toPlace).and("departureTime").gte(start)
+				.lt(end);
+	}
+
+	static Aggregation fareCalendarPipeline(Criteria match, ReadPreference readPreference) {
+
+		// LocalDateTime is stored as a UTC instant of the JVM's local time,
+		// so bucket by day in that same zone
+		DateOperators.Timezone zone = DateOperators.Timezone.valueOf(ZoneId.systemDefault().getId());
+
+		return Aggregation.newAggregation(Aggregation.match(match.and("availableSeats").gt(0)),
+				Aggregation.project("fromPlace", "toPlace", "availableSeats").and(priceMinorUnits()).as("priceMinor")
+						.and(ConditionalOperators.ifNull("price.currency").then(Money.DEFAULT_CURRENCY)).as("currency")
+						.and(DateOperators.dateOf("departureTime").withTimezone(zone).toString("%Y-%m-%d")).as("day"),
+				Aggregation.group("fromPlace", "toPlace", "day").min("priceMinor").as("minPrice").first("currency")
+						.as("currency").sum("availableSeats").as("availableSeats").count().as("flights"),
+				Aggregation.sort(Sort.by("fromPlace", "toPlace", "day")))
+				.withOptions(AggregationOptions.builder().readPreference(readPreference).build());
+	}
+
+	// price is either a Money subdocument or, on flights stored before Money, a Float in rupees
+	private static AggregationExpression priceMinorUnits() {
+		return ConditionalOperators
+				.when(ComparisonOperators.valueOf(DataTypeOperators.Type.typeOf("price")).equalToValue("object"))
+				.thenValueOf("price.minorUnits")
+				.otherwiseValueOf(
+						ArithmeticOperators.valueOf(ArithmeticOperators.valueOf("price").multiplyBy(100)).round());
+	}
+
+	private Flux<FareCalendarEntry> aggregate(Criteria match, ReadPreference readPreference) {
+		return mongoTemplate.aggregate(fareCalendarPipeline(match, readPreference), Flight.class, Document.class)
+				.map(FlightFareQueriesImpl::toEntry);
+	}
+
+	private static FareCalendarEntry toEntry(Document doc) {
+		Document id = doc.get("_id", Document.class);
+		String from = id.getString("fromPlace");
+		String to = id.getString("toPlace");
+		String day = id.getString("day");
+		return FareCalendarEntry.builder().id(FareCalendarEntry.key(from, to, day)).fromPlace(from).toPlace(to)
+				.day(day).minPrice(Money.ofMinor(((Number) doc.get("minPrice")).longValue(), doc.getString("currency")))
+				.availableSeats(((Number) doc.get("availableSeats")).intValue())
+				.flights(((Number) doc.get("flights")).intValue()).build();
+	}
+}
@@ -0,0 +1,15 @@
+package com.flightapp.repository;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// The places flights are stored under, for the place registry and its autocomplete index.
+
+public interface FlightPlaceQueries {
+
+	// Every distinct fromPlace/toPlace with its flight count — may be served by a secondary
+	Flux<PlaceCount> countPlacesOnReplica();
+
+	// Rewrites fromPlace/toPlace == place to canonical on every flight, returns flights changed
+	Mono<Long> renamePlace(String place, String canonical);
+}
@@ -0,0 +1,51 @@
+package com.flightapp.repository;
+
+import com.flightapp.config.ReadRouting;
+import com.flightapp.entity.Flight;
+import com.mongodb.ReadPreference;
+
+import org.bson.Document;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+class FlightPlaceQueriesImpl implements FlightPlaceQueries {
+
+	private final ReactiveMongoTemplate mongoTemplate;
+	private final ReadRouting readRouting;
+
+	FlightPlaceQueriesImpl(ReactiveMongoTemplate mongoTemplate, ReadRouting readRouting) {
+		this.mongoTemplate = mongoTemplate;
+		this.readRouting = readRouting;
+	}
+
+	@Override
+	public Flux<PlaceCount> countPlacesOnReplica() {
+		return mongoTemplate.aggregate(placeCountPipeline(readRouting.replicaReads()), Flight.class, Document.class)
+				.map(doc -> new PlaceCount(doc.getString("_id"), ((Number) doc.get("flights")).longValue()));
+	}
+
+	@Override
+	public Mono<Long> renamePlace(String place, String canonical) {
+		return Flux.just("fromPlace", "toPlace")
+				.concatMap(field -> mongoTemplate.updateMulti(Query.query(Criteria.where(field).is(place)),
+						Update.update(field, canonical), Flight.class))
+				.reduce(0L, (changed, result) -> changed + result.getModifiedCount());
+	}
+
+	// Both ends of every flight in one array, unwound and counted: project -> unwind -> group
+	static Aggregation placeCountPipeline(ReadPreference readPreference) {
+		return Aggregation.newAggregation(
+				context -> new Document("$project",
+						new Document("_id", 0).append("places", List.of("$fromPlace", "$toPlace"))),
+				Aggregation.unwind("places"), Aggregation.group("places").count().as("flights"))
+				.withOptions(AggregationOptions.builder().readPreference(readPreference).build());
+	}
+}
@@ -0,0 +1,25 @@
+package com.flightapp.repository;
+
+import com.flightapp.entity.Flight;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+// Flight reads that may be served by a secondary (a few seconds stale is fine).
+// Never use these for seat checks before a write.
+
+public interface FlightReplicaReads {
+
+	// One route, start <= departureTime < end, in departure order. Projected: only the fields a
+	// search result needs (+ airlineId for the join) are populated
+	Flux<Flight> searchOnReplica(String fromPlace, String toPlace, LocalDateTime start, LocalDateTime end);
+
+	// Same, for any of fromPlaces to any of toPlaces, as one query. Still in departure order: on the
+	// route_departure index Mongo merges the already-sorted range of each from/to pair.
+	Flux<Flight> searchWindowOnReplica(Collection<String> fromPlaces, Collection<String> toPlaces,
+			LocalDateTime start, LocalDateTime end);
+
+	Mono<Flight> findByIdOnReplica(String id);
+}
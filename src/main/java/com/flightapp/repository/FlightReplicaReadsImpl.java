@@ -0,0 +1,56 @@
+package com.flightapp.repository;
+
+import com.flightapp.config.ReadRouting;
+import com.flightapp.entity.Flight;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+// Spring Data picks this up as the implementation of FlightReplicaReads.
+
+class FlightReplicaReadsImpl implements FlightReplicaReads {
+
+	// Fields FlightSearchResult is built from — everything else stays on the server.
+	// totalSeats is needed by the pricing engine (load factor).
+	static final String[] SEARCH_RESULT_FIELDS = { "flightNumber", "fromPlace", "toPlace", "departureTime",
+			"arrivalTime", "price", "totalSeats", "availableSeats", "airlineId" };
+
+	private final ReactiveMongoTemplate mongoTemplate;
+	private final ReadRouting readRouting;
+
+	FlightReplicaReadsImpl(ReactiveMongoTemplate mongoTemplate, ReadRouting readRouting) {
+		this.mongoTemplate = mongoTemplate;
+		this.readRouting = readRouting;
+	}
+
+	@Override
+	public Flux<Flight> searchOnReplica(String fromPlace, String toPlace, LocalDateTime start, LocalDateTime end) {
+		return search(Criteria.where("fromPlace").is(fromPlace).and("toPlace").is(toPlace), start, end);
+	}
+
+	@Override
+	public Flux<Flight> searchWindowOnReplica(Collection<String> fromPlaces, Collection<String> toPlaces,
+			LocalDateTime start, LocalDateTime end) {
+		return search(Criteria.where("fromPlace").in(fromPlaces).and("toPlace").in(toPlaces), start, end);
+	}
+
+	// Half-open window, so back-to-back windows (days) neither overlap nor drop a flight at the boundary
+	private Flux<Flight> search(Criteria route, LocalDateTime start, LocalDateTime end) {
+		Query query = Query.query(route.and("departureTime").gte(start).lt(end)).with(Sort.by("departureTime"));
+		query.fields().include(SEARCH_RESULT_FIELDS);
+		return mongoTemplate.find(query.withReadPreference(readRouting.replicaReads()), Flight.class);
+	}
+
+	@Override
+	public Mono<Flight> findByIdOnReplica(String id) {
+		Query query = Query.query(Criteria.where("_id").is(id));
+		return mongoTemplate.findOne(query.withReadPreference(readRouting.replicaReads()), Flight.class);
+	}
+}
@@ -8,8 +8,12 @@ import reactor.core.publisher.Mono;
 import java.time.LocalDateTime;
 
 // This repo is for the flights collection.
+// FlightReplicaReads adds the staleness-tolerant reads that may go to a secondary,
+// FlightFareQueries the fare-calendar aggregations, FlightSeatUpdates the atomic seat hold/release,
+// FlightPlaceQueries the distinct places for the place registry.
 
-public interface FlightRepository extends ReactiveMongoRepository<Flight, String> {
+public interface FlightRepository extends ReactiveMongoRepository<Flight, String>, FlightReplicaReads,
+		FlightFareQueries, FlightSeatUpdates, FlightPlaceQueries {
 
 	// MongoDB method to search flights inside a date range.
 	Flux<Flight> findByFromPlaceAndToPlaceAndDepartureTimeBetween(String fromPlace, String toPlace, LocalDateTime start,
@@ -0,0 +1,26 @@
+package com.flightapp.repository;
+
+import com.flightapp.entity.BookingEvent;
+import com.flightapp.entity.Flight;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+
+// Seat changes done as one atomic update on the primary instead of read-modify-save: the condition
+// a booking checks is part of the update's filter, so concurrent bookings of different seats don't
+// conflict. Still bumps the version, so a concurrent versioned save (a legacy flight getting its seat
+// map) conflicts and re-reads.
+
+public interface FlightSeatUpdates {
+
+	// Take seats and seat numbers for a booking, only if the flight still has that many seats left and
+	// none of the numbers is held. Returns the flight as updated; empty if either no longer holds (or the
+	// flight has no seat map yet, or doesn't exist) — re-read to find out which.
+	Mono<Flight> holdSeats(String flightId, int seats, Collection<String> seatNumbers);
+
+	// Give seats and seat numbers back (cancellation, or a booking that failed after taking them).
+	// Can't lose a race, so it never needs a retry. seatsChanged (BookingEvent.seatsReleased) goes
+	// into the flight's pendingEvents in the same update, with the availableSeats it leaves behind.
+	// Empty if the flight doesn't exist.
+	Mono<Flight> releaseSeats(String flightId, int seats, Collection<String> seatNumbers, BookingEvent seatsChanged);
+}
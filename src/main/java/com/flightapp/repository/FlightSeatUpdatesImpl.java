@@ -0,0 +1,74 @@
+package com.flightapp.repository;
+
+import com.flightapp.entity.BookingEvent;
+import com.flightapp.entity.Flight;
+
+import org.bson.Document;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+class FlightSeatUpdatesImpl implements FlightSeatUpdates {
+
+	private final ReactiveMongoTemplate mongoTemplate;
+
+	FlightSeatUpdatesImpl(ReactiveMongoTemplate mongoTemplate) {
+		this.mongoTemplate = mongoTemplate;
+	}
+
+	// { availableSeats: { $gte: n }, bookedSeats: { $exists: true, $nin: [...] } } -> $inc + $addToSet
+	@Override
+	public Mono<Flight> holdSeats(String flightId, int seats, Collection<String> seatNumbers) {
+		Query free = Query.query(Criteria.where("_id").is(flightId).and("availableSeats").gte(seats)
+				.and("bookedSeats").exists(true).nin(seatNumbers));
+		Update take = new Update().inc("availableSeats", -seats).inc("version", 1).addToSet("bookedSeats")
+				.each(seatNumbers.toArray());
+		return mongoTemplate.findAndModify(free, take, FindAndModifyOptions.options().returnNew(true), Flight.class);
+	}
+
+	// A pipeline update, so the event can carry the availableSeats this very update produces:
+	// every expression in the $set sees the flight as it was before it.
+	@Override
+	public Mono<Flight> releaseSeats(String flightId, int seats, Collection<String> seatNumbers,
+			BookingEvent seatsChanged) {
+		Document set = new Document("availableSeats", new Document("$add", List.of("$availableSeats", seats)))
+				.append("version", new Document("$add", List.of(new Document("$ifNull", List.of("$version", 0)), 1)))
+				.append("pendingEvents", new Document("$concatArrays",
+						List.of(new Document("$ifNull", List.of("$pendingEvents", List.of())),
+								List.of(pendingEvent(seatsChanged, seats)))));
+		if (!seatNumbers.isEmpty()) {
+			// flights without a seat map keep none
+			set.append("bookedSeats", new Document("$cond", List.of(new Document("$isArray", "$bookedSeats"),
+					new Document("$setDifference", List.of("$bookedSeats", literal(List.copyOf(seatNumbers)))),
+					"$bookedSeats")));
+		}
+		return mongoTemplate.findAndModify(Query.query(Criteria.where("_id").is(flightId)),
+				AggregationUpdate.from(List.of(context -> new Document("$set", set))),
+				FindAndModifyOptions.options().returnNew(true), Flight.class);
+	}
+
+	// The event as stored, every value taken literally except availableSeats
+	private Document pendingEvent(BookingEvent event, int seats) {
+		Document stored = new Document();
+		mongoTemplate.getConverter().write(event, stored);
+		stored.remove("_class");
+
+		Document expression = new Document();
+		for (Map.Entry<String, Object> field : stored.entrySet()) {
+			expression.append(field.getKey(), literal(field.getValue()));
+		}
+		return expression.append("availableSeats", new Document("$add", List.of("$availableSeats", seats)));
+	}
+
+	private static Document literal(Object value) {
+		return new Document("$literal", value);
+	}
+}
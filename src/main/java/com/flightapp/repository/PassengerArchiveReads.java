@@ -0,0 +1,11 @@
+package com.flightapp.repository;
+
+import com.flightapp.entity.Passenger;
+import reactor.core.publisher.Flux;
+
+// Passengers of archived bookings, from passengers_archive (secondary is fine).
+
+public interface PassengerArchiveReads {
+
+	Flux<Passenger> findByBookingIdInArchive(String bookingId);
+}
@@ -0,0 +1,27 @@
+package com.flightapp.repository;
+
+import com.flightapp.config.ReadRouting;
+import com.flightapp.entity.Passenger;
+
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Flux;
+
+class PassengerArchiveReadsImpl implements PassengerArchiveReads {
+
+	private final ReactiveMongoTemplate mongoTemplate;
+	private final ReadRouting readRouting;
+
+	PassengerArchiveReadsImpl(ReactiveMongoTemplate mongoTemplate, ReadRouting readRouting) {
+		this.mongoTemplate = mongoTemplate;
+		this.readRouting = readRouting;
+	}
+
+	@Override
+	public Flux<Passenger> findByBookingIdInArchive(String bookingId) {
+		Query query = Query.query(Criteria.where("bookingId").is(bookingId));
+		return mongoTemplate.find(query.withReadPreference(readRouting.replicaReads()), Passenger.class,
+				FlightArchiver.PASSENGERS_ARCHIVE);
+	}
+}
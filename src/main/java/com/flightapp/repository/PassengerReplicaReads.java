@@ -0,0 +1,11 @@
+package com.flightapp.repository;
+
+import com.flightapp.entity.Passenger;
+import reactor.core.publisher.Flux;
+
+// Passenger reads that may be served by a secondary (booking history).
+
+public interface PassengerReplicaReads {
+
+	Flux<Passenger> findByBookingIdOnReplica(String bookingId);
+}
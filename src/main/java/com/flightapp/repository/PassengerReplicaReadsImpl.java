@@ -0,0 +1,26 @@
+package com.flightapp.repository;
+
+import com.flightapp.config.ReadRouting;
+import com.flightapp.entity.Passenger;
+
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Flux;
+
+class PassengerReplicaReadsImpl implements PassengerReplicaReads {
+
+	private final ReactiveMongoTemplate mongoTemplate;
+	private final ReadRouting readRouting;
+
+	PassengerReplicaReadsImpl(ReactiveMongoTemplate mongoTemplate, ReadRouting readRouting) {
+		this.mongoTemplate = mongoTemplate;
+		this.readRouting = readRouting;
+	}
+
+	@Override
+	public Flux<Passenger> findByBookingIdOnReplica(String bookingId) {
+		Query query = Query.query(Criteria.where("bookingId").is(bookingId));
+		return mongoTemplate.find(query.withReadPreference(readRouting.replicaReads()), Passenger.class);
+	}
+}
@@ -4,11 +4,17 @@ import com.flightapp.entity.Passenger;
 import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
 import reactor.core.publisher.Flux;
 
+import java.util.Collection;
+
 // Repo for passenger documents.
 // Each passenger belongs to a booking, so I fetch passengers using bookingId.
 
-public interface PassengerRepository extends ReactiveMongoRepository<Passenger, String> {
+public interface PassengerRepository
+		extends ReactiveMongoRepository<Passenger, String>, PassengerReplicaReads, PassengerArchiveReads {
 
 	// Finds all passengers belonging to one booking
 	Flux<Passenger> findByBookingId(String bookingId);
+
+	// Passengers of several bookings in one query
+	Flux<Passenger> findByBookingIdIn(Collection<String> bookingIds);
 }
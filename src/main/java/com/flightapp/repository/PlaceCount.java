@@ -0,0 +1,6 @@
+package com.flightapp.repository;
+
+// One distinct fromPlace/toPlace value and how many flights use it (as origin or destination).
+
+public record PlaceCount(String place, long flights) {
+}
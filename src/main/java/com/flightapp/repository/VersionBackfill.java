@@ -0,0 +1,75 @@
+package com.flightapp.repository;
+
+import com.flightapp.entity.Booking;
+import com.flightapp.entity.Flight;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.env.Environment;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+// Flights and bookings written before @Version have no version field. Spring Data reads that
+// as null = "new", so saving one would try an insert (duplicate _id) instead of an update.
+// Give them version 0 once at startup; already-migrated documents aren't touched, so this is
+// a no-op on every later start. Turn off with flightapp.mongo.version-backfill.enabled=false.
+//
+// It blocks startup: the web server only starts once every singleton is created, so no request
+// can save a legacy document before this has run, and a backfill that fails stops the node
+// instead of leaving it to serve. Kept eager under lazy initialization (StartupConfig).
+//
+// Skipped when the context only refreshes and exits (spring.context.exit=onRefresh: the CDS training
+// run) — that run never serves, and shouldn't need or write to a database. The enabled flag is
+// checked again here because an AOT-built context has already evaluated @ConditionalOnProperty.
+
+@Component
+@ConditionalOnProperty(prefix = "flightapp.mongo.version-backfill", name = "enabled", matchIfMissing = true)
+@Slf4j
+public class VersionBackfill implements SmartInitializingSingleton {
+
+	// Two updateMulti on a collection scan each; generous, a node that can't finish shouldn't serve
+	private static final Duration TIMEOUT = Duration.ofMinutes(5);
+
+	static final String ENABLED = "flightapp.mongo.version-backfill.enabled";
+
+	private final ReactiveMongoTemplate mongoTemplate;
+	private final Environment environment;
+
+	public VersionBackfill(ReactiveMongoTemplate mongoTemplate, Environment environment) {
+		this.mongoTemplate = mongoTemplate;
+		this.environment = environment;
+	}
+
+	@Override
+	public void afterSingletonsInstantiated() {
+		if (!environment.getProperty(ENABLED, Boolean.class, true)) {
+			return;
+		}
+		if ("onRefresh".equalsIgnoreCase(environment.getProperty("spring.context.exit"))) {
+			log.info("Version backfill skipped: the context exits on refresh");
+			return;
+		}
+		Long count = backfill().block(TIMEOUT);
+		if (count != null && count > 0) {
+			log.info("Version backfill: {} legacy flights/bookings set to version 0", count);
+		}
+	}
+
+	public Mono<Long> backfill() {
+		return Flux.just(Flight.class, Booking.class).concatMap(this::backfill).reduce(0L, Long::sum);
+	}
+
+	private Mono<Long> backfill(Class<?> entity) {
+		Query legacy = Query.query(Criteria.where("version").exists(false));
+		return mongoTemplate.updateMulti(legacy, Update.update("version", 0L), entity)
+				.map(result -> result.getModifiedCount());
+	}
+}
@@ -0,0 +1,158 @@
+package com.flightapp.resilience;
+
+import com.flightapp.config.ResilienceProperties;
+import com.flightapp.exception.ApiException;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+
+// Timeout + bulkhead + circuit breaker around a service operation's Mongo work.
+//
+// Reads and writes each have their own bulkhead and breaker, so a slow read
+// pattern can trip the read breaker / fill the read bulkhead without touching
+// bookings. Breaker is checked first (fail fast), then the bulkhead, then the
+// operation runs under its timeout. Business errors (ApiException) don't count
+// as failures.
+//
+// Fail-fast errors: CallNotPermittedException (open), BulkheadFullException,
+// TimeoutException — GlobalErrorHandler maps them to 503.
+//
+// retryOnConflict: optimistic-locking conflicts are contention, not a sick database, so
+// they're retried (jittered backoff, bounded) inside the guard and never count against the
+// breaker. Every conflict is counted in flightapp.mongo.version.conflicts.
+
+@Component
+@EnableConfigurationProperties(ResilienceProperties.class)
+@Slf4j
+public class MongoGuard {
+
+	public enum Operation {
+		SEARCH(false), FARE_CALENDAR(false), FLIGHT_LOOKUP(false), TICKET(false), HISTORY(false), BOOKING(true),
+		CANCEL(true), INVENTORY(true);
+
+		private final boolean write;
+
+		Operation(boolean write) {
+			this.write = write;
+		}
+
+		public boolean isWrite() {
+			return write;
+		}
+	}
+
+	private final ResilienceProperties properties;
+	private final MeterRegistry meterRegistry;
+
+	private final CircuitBreaker readBreaker;
+	private final CircuitBreaker writeBreaker;
+	private final Bulkhead readBulkhead;
+	private final Bulkhead writeBulkhead;
+
+	public MongoGuard(ResilienceProperties properties, MeterRegistry meterRegistry) {
+		this.properties = properties;
+		this.meterRegistry = meterRegistry;
+
+		CircuitBreakerRegistry breakers = CircuitBreakerRegistry.ofDefaults();
+		BulkheadRegistry bulkheads = BulkheadRegistry.ofDefaults();
+
+		this.readBreaker = breakers.circuitBreaker("mongo-reads", breakerConfig(properties.getReads()));
+		this.writeBreaker = breakers.circuitBreaker("mongo-writes", breakerConfig(properties.getWrites()));
+		this.readBulkhead = bulkheads.bulkhead("mongo-reads", bulkheadConfig(properties.getReads()));
+		this.writeBulkhead = bulkheads.bulkhead("mongo-writes", bulkheadConfig(properties.getWrites()));
+
+		for (CircuitBreaker breaker : new CircuitBreaker[] { readBreaker, writeBreaker }) {
+			breaker.getEventPublisher().onStateTransition(e -> log.warn("Circuit breaker {}: {}",
+					e.getCircuitBreakerName(), e.getStateTransition()));
+		}
+
+		TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(breakers).bindTo(meterRegistry);
+		TaggedBulkheadMetrics.ofBulkheadRegistry(bulkheads).bindTo(meterRegistry);
+	}
+
+	public <T> Mono<T> guard(Operation operation, Mono<T> call) {
+		return call.timeout(timeout(operation))
+				.transformDeferred(BulkheadOperator.of(bulkhead(operation)))
+				.transformDeferred(CircuitBreakerOperator.of(circuitBreaker(operation)));
+	}
+
+	// The timeout covers the whole stream, not each element
+	public <T> Flux<T> guard(Operation operation, Flux<T> call) {
+		Duration timeout = timeout(operation);
+		return call
+				.takeUntilOther(Mono.delay(timeout).then(Mono.error(
+						() -> new TimeoutException(operation + " did not complete within " + timeout))))
+				.transformDeferred(BulkheadOperator.of(bulkhead(operation)))
+				.transformDeferred(CircuitBreakerOperator.of(circuitBreaker(operation)));
+	}
+
+	// attempt must re-read what it saves (Mono.defer around the find), so a retry sees
+	// the winner's write. Exhausted -> the last OptimisticLockingFailureException (503, retryable).
+	public <T> Mono<T> retryOnConflict(Operation operation, Mono<T> attempt) {
+		ResilienceProperties.ConflictRetry policy = properties.getConflictRetry();
+		Retry retry = Retry.backoff(policy.getMaxRetries(), policy.getMinBackoff())
+				.maxBackoff(policy.getMaxBackoff()).jitter(policy.getJitter())
+				.filter(OptimisticLockingFailureException.class::isInstance)
+				.doBeforeRetry(signal -> conflict(operation, "retried"))
+				.onRetryExhaustedThrow((spec, signal) -> {
+					conflict(operation, "exhausted");
+					log.warn("{}: still conflicting after {} retries", operation, signal.totalRetries());
+					return signal.failure();
+				});
+		return attempt.retryWhen(retry);
+	}
+
+	private void conflict(Operation operation, String outcome) {
+		meterRegistry.counter("flightapp.mongo.version.conflicts", "operation", operation.name().toLowerCase(),
+				"outcome", outcome).increment();
+	}
+
+	public CircuitBreaker circuitBreaker(Operation operation) {
+		return operation.isWrite() ? writeBreaker : readBreaker;
+	}
+
+	Bulkhead bulkhead(Operation operation) {
+		return operation.isWrite() ? writeBulkhead : readBulkhead;
+	}
+
+	Duration timeout(Operation operation) {
+		return properties.getTimeouts().getOrDefault(operation, properties.getDefaultTimeout());
+	}
+
+	private static CircuitBreakerConfig breakerConfig(ResilienceProperties.Budget budget) {
+		return CircuitBreakerConfig.custom().failureRateThreshold(budget.getFailureRateThreshold())
+				.slowCallRateThreshold(budget.getSlowCallRateThreshold())
+				.slowCallDurationThreshold(budget.getSlowCallDuration())
+				.slidingWindowSize(budget.getSlidingWindowSize())
+				.minimumNumberOfCalls(budget.getMinimumNumberOfCalls())
+				.waitDurationInOpenState(budget.getWaitInOpenState())
+				.permittedNumberOfCallsInHalfOpenState(budget.getPermittedCallsInHalfOpenState())
+				.automaticTransitionFromOpenToHalfOpenEnabled(true)
+				.ignoreExceptions(ApiException.class, OptimisticLockingFailureException.class).build();
+	}
+
+	// maxWaitDuration 0: a full bulkhead rejects straight away instead of queueing
+	private static BulkheadConfig bulkheadConfig(ResilienceProperties.Budget budget) {
+		return BulkheadConfig.custom().maxConcurrentCalls(budget.getMaxConcurrent()).maxWaitDuration(Duration.ZERO)
+				.build();
+	}
+}
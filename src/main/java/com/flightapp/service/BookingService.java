@@ -3,6 +3,8 @@ package com.flightapp.service;
 //Basically similar to the previous Assignment
 import com.flightapp.dto.BookingRequest;
 import com.flightapp.dto.BookingResponse;
+import com.flightapp.dto.BookingView;
+import com.flightapp.dto.CacheValidators;
 import reactor.core.publisher.Mono;
 import reactor.core.publisher.Flux;
 
@@ -17,7 +19,13 @@ public interface BookingService {
 	Mono<BookingResponse> getTicketByPnr(String pnr);
 
 	// Get the booking history of a user (by email)
-	Flux<BookingResponse> getBookingHistory(String email);
+	Flux<BookingView> getBookingHistory(String email);
+
+	// ETag / Last-Modified for the ticket and history pages, without loading passengers.
+	// Empty when the PNR doesn't exist (the normal lookup then reports it).
+	Mono<CacheValidators> getTicketValidators(String pnr);
+
+	Mono<CacheValidators> getHistoryValidators(String email);
 
 	// Cancel a booking (only allowed before 24h of flight departure)
 	Mono<Void> cancelBooking(String pnr);
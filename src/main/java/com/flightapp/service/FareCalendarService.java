@@ -0,0 +1,22 @@
+package com.flightapp.service;
+
+import com.flightapp.dto.FareCalendarDay;
+import com.flightapp.dto.FareCalendarRequest;
+import com.flightapp.entity.Flight;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Cheapest fare + seats left per day for a route, for "flexible dates" screens.
+
+public interface FareCalendarService {
+
+	// One aggregation (or one range read of the materialization) for the whole range
+	Flux<FareCalendarDay> getFareCalendar(FareCalendarRequest request);
+
+	// Recompute the materialized cell for this flight's route/day after its seats or
+	// price changed. No-op when the materialization is off; never errors.
+	Mono<Void> refresh(Flight flight);
+
+	// Recompute every future cell from the flights collection, returns cells written
+	Mono<Long> rebuild();
+}
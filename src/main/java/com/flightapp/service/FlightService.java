@@ -1,12 +1,18 @@
 package com.flightapp.service;
 
 // Basically similar to previous Assignment
+import com.flightapp.cache.SearchResultCache;
 import com.flightapp.dto.FlightInventoryRequest;
 import com.flightapp.dto.FlightSearchRequest;
+import com.flightapp.dto.FlightSearchResult;
+import com.flightapp.dto.FlightWindowSearchRequest;
 import com.flightapp.entity.Flight;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.LocalDate;
+import java.util.List;
+
 // This interface defines what my Flight service should do.
 // Basically all the flight-related business logic.
 
@@ -15,8 +21,16 @@ public interface FlightService {
 	// Add new flight inventory (admin functionality)
 	Mono<Flight> addInventory(FlightInventoryRequest request);
 
-	// Search flights based on from/to/date
-	Flux<Flight> searchFlights(FlightSearchRequest req);
+	// Search flights based on from/to/date (lightweight results with airline joined in)
+	Flux<FlightSearchResult> searchFlights(FlightSearchRequest req);
+
+	// Any of several origins to any of several destinations, departing in [departureFrom, departureTo),
+	// streamed in departure order
+	Flux<FlightSearchResult> searchFlightWindow(FlightWindowSearchRequest req);
+
+	// One route + day (canonical place names) straight from Mongo, skipping the precomputed results;
+	// unpriced, search quotes each one when serving it. The search warmer uses this.
+	Mono<List<SearchResultCache.Listing>> loadListings(String fromPlace, String toPlace, LocalDate date);
 
 	// Get a specific flight (useful for booking)
 	Mono<Flight> getFlightById(String id);
@@ -1,21 +1,50 @@
 package com.flightapp.service.impl;
 
+import com.flightapp.cache.CacheInvalidationBus;
+import com.flightapp.cache.CacheInvalidationEvent;
+import com.flightapp.cache.TicketCache;
 import com.flightapp.dto.*;
 import com.flightapp.entity.Booking;
+import com.flightapp.entity.BookingEvent;
+import com.flightapp.entity.BookingHistory;
+import com.flightapp.entity.Flight;
+import com.flightapp.entity.Money;
 import com.flightapp.entity.Passenger;
+import com.flightapp.pricing.PricingEngine;
+import com.flightapp.repository.BookingEventRepository;
+import com.flightapp.repository.BookingHistoryRepository;
 import com.flightapp.repository.BookingRepository;
+import com.flightapp.repository.BookingStamp;
 import com.flightapp.repository.FlightRepository;
 import com.flightapp.repository.PassengerRepository;
+import com.flightapp.resilience.MongoGuard;
 import com.flightapp.service.BookingService;
-import com.flightapp.exception.ApiException;
+import com.flightapp.service.FareCalendarService;
+import com.flightapp.validation.RequestValidators;
+import com.flightapp.exception.ErrorCode;
+import com.flightapp.exception.ValidationException;
 
 import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.retry.Retry;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 
 // Booking is the most complex logic in the app,
@@ -24,15 +53,34 @@ import java.util.stream.Collectors;
 @Slf4j
 public class BookingServiceImpl implements BookingService {
 
+	private static final int PNR_ATTEMPTS = 3;
+	private static final int RELEASE_RETRIES = 3;
+
 	private final BookingRepository bookingRepository;
 	private final FlightRepository flightRepository;
 	private final PassengerRepository passengerRepository;
+	private final BookingEventRepository eventRepository;
+	private final BookingHistoryRepository historyRepository;
+	private final TicketCache ticketCache;
+	private final CacheInvalidationBus invalidationBus;
+	private final FareCalendarService fareCalendarService;
+	private final PricingEngine pricingEngine;
+	private final MongoGuard mongoGuard;
 
 	public BookingServiceImpl(BookingRepository bookingRepository, FlightRepository flightRepository,
-			PassengerRepository passengerRepository) {
+			PassengerRepository passengerRepository, BookingEventRepository eventRepository,
+			BookingHistoryRepository historyRepository, TicketCache ticketCache, CacheInvalidationBus invalidationBus,
+			FareCalendarService fareCalendarService, PricingEngine pricingEngine, MongoGuard mongoGuard) {
 		this.bookingRepository = bookingRepository;
 		this.flightRepository = flightRepository;
 		this.passengerRepository = passengerRepository;
+		this.eventRepository = eventRepository;
+		this.historyRepository = historyRepository;
+		this.ticketCache = ticketCache;
+		this.invalidationBus = invalidationBus;
+		this.fareCalendarService = fareCalendarService;
+		this.pricingEngine = pricingEngine;
+		this.mongoGuard = mongoGuard;
 	}
 
 	@Override
@@ -41,10 +89,21 @@ public class BookingServiceImpl implements BookingService {
 		log.info("Booking request received for flightId: {}", flightId);
 		log.debug("BookingRequest payload: {}", request);
 
-		// Step 1: Check if flight exists
-		return flightRepository.findById(flightId)
+		// Passenger count, distinct seat numbers and the field checks need no flight: reject first
+		ValidationException invalid = RequestValidators.BOOKING.violations(request);
+		if (invalid != null) {
+			log.warn("Invalid booking request: {}", invalid.getErrors());
+			return Mono.error(invalid);
+		}
+
+		// Steps 1-4 are one attempt: read the flight, validate, price it and take the seats.
+		// Taking them is one conditional update (enough seats left, none of ours held), so bookings of
+		// different seats don't get in each other's way. If it doesn't apply, the flight changed in a way
+		// that matters since our read: the attempt runs again on a fresh read, which then rejects with
+		// the actual reason — before anything else is written.
+		Mono<SeatHold> holdSeats = Mono.defer(() -> flightRepository.findById(flightId))
 				.doOnSubscribe(s -> log.info("Checking flight availability for flightId: {}", flightId))
-				.switchIfEmpty(Mono.error(new ApiException("Flight not found")))
+				.switchIfEmpty(Mono.error(ErrorCode.FLIGHT_NOT_FOUND.exception()))
 				.doOnNext(f -> log.debug("Flight found: {}", f)).flatMap(flight -> {
 
 					LocalDateTime now = LocalDateTime.now();
@@ -53,76 +112,173 @@ public class BookingServiceImpl implements BookingService {
 					if (!flight.getDepartureTime().isAfter(now)) {
 						log.warn("Attempted booking for a past flight. Departure: {}, Now: {}",
 								flight.getDepartureTime(), now);
-						return Mono.error(new ApiException("Cannot book a ticket for a past flight"));
+						return Mono.error(ErrorCode.FLIGHT_DEPARTED.exception());
 					}
 
 					// Step 2: Validate seat counts
 					if (flight.getAvailableSeats() < request.getNumberOfSeats()) {
 						log.warn("Not enough seats available. Requested: {}, Available: {}", request.getNumberOfSeats(),
 								flight.getAvailableSeats());
-						return Mono.error(new ApiException("Not enough seats available"));
+						return Mono.error(ErrorCode.SEATS_UNAVAILABLE.exception());
 					}
 
-					// Step 3: Passenger count must match seats
-					if (request.getPassengers() == null
-							|| request.getPassengers().size() != request.getNumberOfSeats()) {
+					// Step 3: Requested seats not already held by another booking on this flight
+					return seatsHeld(flight).flatMap(bookedSeats -> {
+						for (PassengerRequest passenger : request.getPassengers()) {
+							if (bookedSeats.contains(passenger.getSeatNumber())) {
+								log.warn("Seat {} on flight {} is already booked", passenger.getSeatNumber(),
+										flightId);
+								return Mono.error(ErrorCode.SEAT_TAKEN
+										.exception("Seat " + passenger.getSeatNumber() + " is already booked"));
+							}
+						}
+
+						// Price at the current load factor, or the customer's quote if it is still locked
+						// (priced before the seats are taken, like before)
+						Money fare = pricingEngine.fareForBooking(flight, request.getQuotedFare(),
+								request.getFareQuoteToken());
+
+						// Step 4: Reduce available seats and hold the seat numbers
+						Set<String> seats = request.getPassengers().stream().map(PassengerRequest::getSeatNumber)
+								.collect(Collectors.toSet());
+						Mono<Flight> held;
+						if (flight.getBookedSeats() != null) {
+							held = flightRepository.holdSeats(flightId, request.getNumberOfSeats(), seats)
+									.switchIfEmpty(Mono.error(() -> new OptimisticLockingFailureException(
+											"Flight " + flightId + " changed since it was read")));
+						} else {
+							// legacy flight: its rebuilt seat map goes in with one versioned save
+							flight.setAvailableSeats(flight.getAvailableSeats() - request.getNumberOfSeats());
+							bookedSeats.addAll(seats);
+							flight.setBookedSeats(bookedSeats);
+							held = flightRepository.save(flight);
+						}
+						return held.doOnSuccess(f -> log.info("Updated available seats for flight {} -> {}",
+								f.getId(), f.getAvailableSeats())).map(saved -> new SeatHold(saved, fare));
+					});
+				});
+
+		// Steps 5-6 commit the booking (see storeBooking). If that fails once the seats are held —
+		// including running out of PNR draws — the seats go back before the error is passed on.
+		//
+		// The guard's timeout cancels whatever it wraps, yet a write that was already sent can still
+		// land, so hold + commit + give-back run to the end on their own instead of being cancelled
+		// halfway. A request that timed out before the booking went in doesn't book behind the
+		// client's back: the seats go straight back.
+		Mono<BookedSeats> commit = Mono.defer(() -> {
+			AtomicBoolean abandoned = new AtomicBoolean();
+			Mono<BookedSeats> detached = mongoGuard.retryOnConflict(MongoGuard.Operation.BOOKING, holdSeats)
+					.flatMap(hold -> (abandoned.get()
+							? Mono.<BookedSeats>error(new CancellationException("Booking for flight " + flightId
+									+ " abandoned before it was stored"))
+							: storeBooking(hold, request))
+							.onErrorResume(ex -> giveSeatsBack(hold, request).then(Mono.error(ex))));
+			Sinks.One<BookedSeats> outcome = Sinks.one();
+			detached.subscribe(outcome::tryEmitValue, outcome::tryEmitError, outcome::tryEmitEmpty);
+			return outcome.asMono().doOnCancel(() -> abandoned.set(true));
+		});
+
+		return mongoGuard.guard(MongoGuard.Operation.BOOKING, commit).flatMap(this::afterBooking)
+				.doOnError(ex -> log.error("Error while booking ticket: {}", ex.getMessage()));
+	}
 
-						log.warn("Passenger count mismatch. Expected: {}, Actual: {}", request.getNumberOfSeats(),
-								request.getPassengers() == null ? 0 : request.getPassengers().size());
+	// Flights booked before the seat map existed have none: rebuild it from the passengers of their
+	// live bookings. The legacy hold's versioned save stores it with the flight, so this happens once
+	// per flight; from then on holdSeats applies.
+	private Mono<Set<String>> seatsHeld(Flight flight) {
+		if (flight.getBookedSeats() != null) {
+			return Mono.just(flight.getBookedSeats());
+		}
+		return bookingRepository.findByFlightIdAndCanceledFalse(flight.getId()).map(Booking::getId).collectList()
+				.flatMapMany(ids -> ids.isEmpty() ? Flux.<Passenger>empty()
+						: passengerRepository.findByBookingIdIn(ids))
+				.map(Passenger::getSeatNumber).filter(Objects::nonNull)
+				.collect(Collectors.toCollection(HashSet::new));
+	}
 
-						return Mono.error(new ApiException("Passenger list size must equal numberOfSeats"));
-					}
+	// Passengers go in first, under a booking id drawn here, then the booking itself: its insert
+	// is the commit point. Until it lands nothing points at the passengers.
+	private Mono<BookedSeats> storeBooking(SeatHold hold, BookingRequest request) {
 
-					// Step 4: Ensure unique seat numbers
-					long distinctSeats = request.getPassengers().stream().map(PassengerRequest::getSeatNumber)
-							.distinct().count();
+		Flight flight = hold.flight();
+		String bookingId = new ObjectId().toHexString();
 
-					if (distinctSeats != request.getPassengers().size()) {
-						log.warn("Duplicate seat numbers detected in booking request");
-						return Mono.error(new ApiException("Duplicate seat numbers in request"));
-					}
+		// Step 5: Convert PassengerRequest → Passenger entity and save them
+		List<Passenger> passengerDocs = request.getPassengers().stream()
+				.map(p -> Passenger.builder().name(p.getName()).gender(p.getGender()).age(p.getAge())
+						.meal(p.getMeal()).seatNumber(p.getSeatNumber()).bookingId(bookingId).build())
+				.collect(Collectors.toList());
 
-					// Generate PNR (I used a trimmed UUID)
-					String pnr = UUID.randomUUID().toString().substring(0, 8).toUpperCase();
-					log.info("Generated PNR: {}", pnr);
-
-					Booking booking = Booking.builder().pnr(pnr).email(request.getEmail()).flightId(flight.getId())
-							.seatsBooked(request.getNumberOfSeats()).bookingTime(LocalDateTime.now()).canceled(false)
-							.build();
-
-					// Step 5: Save booking
-					return bookingRepository.save(booking)
-							.doOnSuccess(b -> log.info("Booking saved in DB with id: {}", b.getId()))
-							.flatMap(savedBooking -> {
-
-								// Step 6: Convert PassengerRequest → Passenger entity
-								var passengerDocs = request.getPassengers().stream()
-										.map(p -> Passenger.builder().name(p.getName()).gender(p.getGender())
-												.age(p.getAge()).meal(p.getMeal()).seatNumber(p.getSeatNumber())
-												.bookingId(savedBooking.getId()).build())
-										.collect(Collectors.toList());
-
-								log.debug("Passenger entities created: {}", passengerDocs);
-
-								// Step 7: Save passengers
-								return passengerRepository.saveAll(passengerDocs).collectList()
-										.doOnSuccess(list -> log.info("Saved {} passengers", list.size()))
-										.flatMap(savedPassengers -> {
-
-											// Step 8: Reduce available seats
-											flight.setAvailableSeats(
-													flight.getAvailableSeats() - request.getNumberOfSeats());
-											log.info("Updated available seats for flight {} -> {}", flight.getId(),
-													flight.getAvailableSeats());
-
-											// Step 9: Save updated flight and return response
-											return flightRepository.save(flight)
-													.doOnSuccess(
-															f -> log.info("Flight seat count updated successfully"))
-													.thenReturn(toResponse(savedBooking, savedPassengers));
-										});
-							});
-				}).doOnError(ex -> log.error("Error while booking ticket: {}", ex.getMessage()));
+		log.debug("Passenger entities created: {}", passengerDocs);
+
+		// Step 6: Save booking under a fresh PNR (I used a trimmed UUID). 8 hex chars
+		// repeat now and then at volume — the unique index rejects it and we draw again.
+		// Its outbox events (created + the seats the hold took) go in with it.
+		Mono<Booking> saveBooking = Mono.defer(() -> {
+			String pnr = UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+			log.info("Generated PNR: {}, fare per seat: {}", pnr, hold.fare());
+
+			Booking booking = Booking.builder().id(bookingId).pnr(pnr).email(request.getEmail())
+					.flightId(flight.getId()).seatsBooked(request.getNumberOfSeats()).farePerSeat(hold.fare())
+					.bookingTime(LocalDateTime.now()).canceled(false).build();
+			booking.setPendingEvents(new ArrayList<>(List.of(BookingEvent.created(booking),
+					BookingEvent.seatsChanged(flight, booking, -booking.getSeatsBooked()))));
+			return bookingRepository.save(booking);
+		}).retryWhen(Retry.max(PNR_ATTEMPTS - 1).filter(DuplicateKeyException.class::isInstance)
+				.onRetryExhaustedThrow((spec, signal) -> signal.failure()));
+
+		return passengerRepository.saveAll(passengerDocs).collectList()
+				.doOnSuccess(list -> log.info("Saved {} passengers", list.size()))
+				.flatMap(savedPassengers -> saveBooking
+						.doOnSuccess(b -> log.info("Booking saved in DB with id: {}", b.getId()))
+						.map(savedBooking -> new BookedSeats(flight, savedBooking, savedPassengers))
+						.onErrorResume(ex -> bestEffort("remove passengers of unstored booking " + bookingId,
+								passengerRepository.deleteAll(savedPassengers)).then(Mono.error(ex))));
+	}
+
+	// Compensation for a hold whose booking never made it: the same atomic release a cancel uses,
+	// so it can't lose a race with other bookings. Retried, and loud if it still fails. No PNR on
+	// its SEATS_CHANGED: there is no booking.
+	private Mono<Void> giveSeatsBack(SeatHold hold, BookingRequest request) {
+		Set<String> seats = request.getPassengers().stream().map(PassengerRequest::getSeatNumber)
+				.collect(Collectors.toSet());
+		return releaseSeats(hold.flight().getId(), null, request.getNumberOfSeats(), seats)
+				.doOnNext(f -> log.warn("Booking failed after the hold: gave {} seats {} back to flight {}",
+						request.getNumberOfSeats(), seats, f.getId()))
+				.flatMap(f -> bestEffort("relay seat change for flight " + f.getId(), eventRepository.relayFrom(f)))
+				.doOnError(ex -> log.error("Could not give seats {} back to flight {}: {}", seats,
+						hold.flight().getId(), ex.getMessage()))
+				.onErrorResume(ex -> Mono.empty()).then();
+	}
+
+	// $inc/$pull with the SEATS_CHANGED event in the same update. Retried: by the time this runs
+	// the booking is canceled (or never stored) and the seats have to come back.
+	private Mono<Flight> releaseSeats(String flightId, String pnr, int seats, Set<String> seatNumbers) {
+		return Mono.defer(() -> flightRepository.releaseSeats(flightId, seats, seatNumbers,
+				BookingEvent.seatsReleased(flightId, pnr, seats)))
+				.retryWhen(Retry.backoff(RELEASE_RETRIES, Duration.ofMillis(100))
+						.onRetryExhaustedThrow((spec, signal) -> signal.failure()));
+	}
+
+	// Step 7: the booking is stored, nothing from here on can fail it. Relay its events to the
+	// outbox (OutboxRelay retries whatever this misses), add it to the user's history,
+	// write-through so the first PNR lookup is already cached, refresh the fare calendar and tell
+	// the other nodes this flight's seats changed. Load factor moved — requote once here, not on
+	// every search.
+	private Mono<BookingResponse> afterBooking(BookedSeats booked) {
+
+		Flight flight = booked.flight();
+		Booking savedBooking = booked.booking();
+		BookingResponse response = new BookingView(savedBooking, booked.passengers()).toResponse();
+
+		pricingEngine.reprice(flight);
+		return bestEffort("relay booking events for " + savedBooking.getPnr(), eventRepository.relayFrom(savedBooking))
+				.then(updateHistory(savedBooking, booked.passengers()))
+				.then(bestEffort("cache ticket " + savedBooking.getPnr(), ticketCache.put(response)))
+				.then(fareCalendarService.refresh(flight))
+				.then(bestEffort("publish seat change for flight " + flight.getId(),
+						invalidationBus.publish(CacheInvalidationEvent.seatsChanged(flight))))
+				.thenReturn(response);
 	}
 
 	@Override
@@ -130,41 +286,99 @@ public class BookingServiceImpl implements BookingService {
 
 		log.info("Fetching ticket for PNR: {}", pnr);
 
-		// Fetch booking + passengers and merge them into one response
-		return bookingRepository.findByPnr(pnr).switchIfEmpty(Mono.error(new ApiException("PNR not found")))
-				.doOnNext(b -> log.info("Booking found for PNR {}", pnr))
+		// Cached response first; otherwise fetch booking + passengers (from the archive if the
+		// flight has been archived), merge them into one response and cache it for the next lookup
+		Mono<BookingView> live = Mono.defer(() -> bookingRepository.findByPnr(pnr))
 				.flatMap(booking -> passengerRepository.findByBookingId(booking.getId()).collectList()
-						.doOnSuccess(
-								list -> log.debug("Fetched {} passengers for booking {}", list.size(), booking.getId()))
-						.map(passengers -> toResponse(booking, passengers)))
+						.map(passengers -> new BookingView(booking, passengers)));
+		Mono<BookingView> archived = Mono.defer(() -> bookingRepository.findByPnrInArchive(pnr))
+				.flatMap(booking -> passengerRepository.findByBookingIdInArchive(booking.getId()).collectList()
+						.map(passengers -> new BookingView(booking, passengers)));
+
+		Mono<BookingResponse> load = live.switchIfEmpty(archived)
+				.switchIfEmpty(Mono.error(ErrorCode.PNR_NOT_FOUND.exception()))
+				.doOnNext(view -> log.info("Booking found for PNR {} with {} passengers", pnr,
+						view.passengers().size()))
+				.map(BookingView::toResponse);
+
+		// The generation is taken before the read: if a cancel evicts the PNR meanwhile, this put is dropped
+		return ticketCache.get(pnr).switchIfEmpty(Mono.defer(() -> {
+			long generation = ticketCache.generation();
+			return mongoGuard.guard(MongoGuard.Operation.TICKET, load)
+					.flatMap(response -> ticketCache.put(response, generation).thenReturn(response));
+		}))
 				.doOnError(ex -> log.error("Error fetching ticket for PNR {}: {}", pnr, ex.getMessage()));
 	}
 
 	@Override
-	public Flux<BookingResponse> getBookingHistory(String email) {
+	public Flux<BookingView> getBookingHistory(String email) {
 
 		log.info("Fetching booking history for email: {}", email);
 
-		// Returns list of bookings merged with passengers
-		return bookingRepository.findByEmail(email).doOnNext(b -> log.debug("Processing booking id: {}", b.getId()))
-				.flatMap(booking -> passengerRepository.findByBookingId(booking.getId()).collectList()
-						.map(list -> toResponse(booking, list)))
+		// One lookup in the booking_history read model. Emails without a complete document (never
+		// rebuilt, or an update missed it) fall back to joining bookings + passengers, archived ones first,
+		// and the join completes the document for the next read. Either way serialized straight from the
+		// entities, possibly from a secondary.
+		Flux<BookingView> archived = Flux.defer(() -> bookingRepository.findByEmailInArchive(email))
+				.flatMapSequential(booking -> passengerRepository.findByBookingIdInArchive(booking.getId())
+						.collectList().map(list -> new BookingView(booking, list)));
+		Flux<BookingView> live = Flux.defer(() -> bookingRepository.findByEmailOnReplica(email))
+				.doOnNext(b -> log.debug("Processing booking id: {}", b.getId()))
+				.flatMap(booking -> passengerRepository.findByBookingIdOnReplica(booking.getId()).collectList()
+						.map(list -> new BookingView(booking, list)));
+		// a booking being archived right now can be in both for a moment
+		Flux<BookingView> joined = Flux.concat(archived, live).distinct(view -> view.booking().getId())
+				.doOnSubscribe(s -> log.debug("No complete booking history document for {}, joining", email));
+
+		Flux<BookingView> history = Mono.defer(() -> historyRepository.findByEmailOnReplica(email))
+				.map(Optional::of).defaultIfEmpty(Optional.empty())
+				.flatMapMany(seen -> seen.filter(BookingHistory::isComplete)
+						.map(document -> Flux.fromIterable(document.getBookings())
+								.map(entry -> new BookingView(entry.toBooking(email), entry.toPassengers())))
+						.orElseGet(() -> joined.collectList().flatMapMany(views -> completeHistory(email,
+								seen.orElse(null), views).thenMany(Flux.fromIterable(views)))));
+
+		return mongoGuard.guard(MongoGuard.Operation.HISTORY, history)
 				.doOnComplete(() -> log.info("Completed fetching booking history for {}", email))
 				.doOnError(ex -> log.error("Error fetching booking history for {}: {}", email, ex.getMessage()));
 	}
 
+	@Override
+	public Mono<CacheValidators> getTicketValidators(String pnr) {
+		return mongoGuard.guard(MongoGuard.Operation.TICKET,
+				Mono.defer(() -> bookingRepository.findStampByPnr(pnr)).map(CacheValidators::of));
+	}
+
+	// Same source as the history itself, so the ETag always describes what would be sent
+	@Override
+	public Mono<CacheValidators> getHistoryValidators(String email) {
+		Mono<List<BookingStamp>> fromBookings = Mono
+				.defer(() -> bookingRepository.findStampsByEmailOnReplica(email).collectList());
+		return mongoGuard.guard(MongoGuard.Operation.HISTORY,
+				Mono.defer(() -> historyRepository.findByEmailOnReplica(email))
+						.filter(BookingHistory::isComplete)
+						.map(history -> history.getBookings().stream()
+								.map(e -> new BookingStamp(e.getPnr(), e.getVersion(), e.isCanceled(),
+										e.getBookingTime(), e.getCanceledAt()))
+								.toList())
+						.switchIfEmpty(fromBookings).map(CacheValidators::of));
+	}
+
 	@Override
 	public Mono<Void> cancelBooking(String pnr) {
 
 		log.info("Received cancellation request for PNR: {}", pnr);
 
-		// Fetch booking first
-		return bookingRepository.findByPnr(pnr).switchIfEmpty(Mono.error(new ApiException("PNR not found")))
+		// Fetch the booking, check the rules and mark it canceled. The booking save is
+		// versioned — of two concurrent cancels only one lands; the other re-reads and gets
+		// "Already canceled" instead of giving the seats back a second time.
+		Mono<Booking> markCanceled = Mono.defer(() -> bookingRepository.findByPnr(pnr))
+				.switchIfEmpty(Mono.error(ErrorCode.PNR_NOT_FOUND.exception()))
 				.doOnNext(b -> log.debug("Found booking {} for cancellation", b.getId())).flatMap(booking -> {
 
-					if (Boolean.TRUE.equals(booking.getCanceled())) {
+					if (booking.isCanceled()) {
 						log.warn("Booking already cancelled for PNR: {}", pnr);
-						return Mono.error(new ApiException("Already canceled"));
+						return Mono.error(ErrorCode.ALREADY_CANCELED.exception());
 					}
 
 					// Fetch the flight to validate 24-hour rule
@@ -178,51 +392,101 @@ public class BookingServiceImpl implements BookingService {
 								if (!flight.getDepartureTime().isAfter(now)) {
 									log.warn("Cancellation refused: flight {} already departed at {}", flight.getId(),
 											flight.getDepartureTime());
-									return Mono.error(new ApiException("Cannot cancel — flight already departed"));
+									return Mono.error(ErrorCode.CANCEL_AFTER_DEPARTURE.exception());
 								}
 
 								// VALIDATION: Within 24 hours
 								if (!flight.getDepartureTime().isAfter(now.plusHours(24))) {
 									log.warn("Cancellation refused: flight {} departs within 24 hours at {}",
 											flight.getId(), flight.getDepartureTime());
-									return Mono.error(new ApiException("Cannot cancel within 24 hours of departure"));
+									return Mono.error(ErrorCode.CANCEL_WINDOW_CLOSED.exception());
 								}
 
-								// Mark canceled
+								// Mark canceled; BOOKING_CANCELED goes in with it
 								booking.setCanceled(true);
 								booking.setCanceledAt(LocalDateTime.now());
+								List<BookingEvent> pending = booking.getPendingEvents() == null ? new ArrayList<>()
+										: new ArrayList<>(booking.getPendingEvents());
+								pending.add(BookingEvent.canceled(booking));
+								booking.setPendingEvents(pending);
 
 								log.info("Marking booking {} as canceled", booking.getId());
 
 								return bookingRepository.save(booking)
-										.doOnSuccess(b -> log.info("Booking canceled in DB")).flatMap(saved -> {
+										.doOnSuccess(b -> log.info("Booking canceled in DB"));
+							});
+				});
+
+		// Then give the seats and seat numbers back. The cancel has already landed, so this
+		// must not fail on contention: an atomic $inc/$pull instead of another versioned save.
+		// After that the cancel stands whatever else fails.
+		return mongoGuard.guard(MongoGuard.Operation.CANCEL,
+				mongoGuard.retryOnConflict(MongoGuard.Operation.CANCEL, markCanceled)
+						.flatMap(canceled -> passengerRepository.findByBookingId(canceled.getId()).collectList()
+								.flatMap(passengers -> releaseSeats(canceled.getFlightId(), pnr,
+										canceled.getSeatsBooked(),
+										passengers.stream().map(Passenger::getSeatNumber).collect(Collectors.toSet()))
+										.doOnNext(f -> log.info("Re-added {} seats to flight {}",
+												canceled.getSeatsBooked(), f.getId()))
+										.map(flight -> new CanceledSeats(flight, canceled, passengers)))))
+				.flatMap(this::afterCancel)
+				.doOnError(ex -> log.error("Error canceling booking for PNR {}: {}", pnr, ex.getMessage()));
+	}
 
-											// Add seats back after cancellation
-											flight.setAvailableSeats(
-													flight.getAvailableSeats() + booking.getSeatsBooked());
+	// Outbox and history first, then the caches. Cached ticket still says canceled=false, so drop
+	// it here and on every other node
+	private Mono<Void> afterCancel(CanceledSeats canceledSeats) {
+
+		Flight flight = canceledSeats.flight();
+		Booking canceled = canceledSeats.booking();
+		String pnr = canceled.getPnr();
+
+		pricingEngine.reprice(flight);
+		return bestEffort("relay cancel events for " + pnr, eventRepository.relayFrom(canceled))
+				.then(bestEffort("relay seat change for flight " + flight.getId(), eventRepository.relayFrom(flight)))
+				.then(updateHistory(canceled, canceledSeats.passengers()))
+				.then(bestEffort("evict ticket " + pnr, ticketCache.evict(pnr)))
+				.then(fareCalendarService.refresh(flight))
+				.then(bestEffort("publish cancel of " + pnr,
+						invalidationBus.publish(CacheInvalidationEvent.pnrCanceled(pnr))))
+				.then(bestEffort("publish seat change for flight " + flight.getId(),
+						invalidationBus.publish(CacheInvalidationEvent.seatsChanged(flight))));
+	}
 
-											log.info("Re-added {} seats to flight {}", booking.getSeatsBooked(),
-													flight.getId());
+	// The history read model is derived data: if this write fails the booking/cancel still stands. The
+	// document is marked incomplete instead, so the next read joins and puts the entry right
+	private Mono<Void> updateHistory(Booking booking, List<Passenger> passengers) {
+		return bestEffort("update booking history for " + booking.getPnr(),
+				historyRepository.upsertEntry(booking.getEmail(), BookingHistory.Entry.of(booking, passengers))
+						.onErrorResume(ex -> historyRepository.markIncomplete(booking.getEmail())
+								.then(Mono.error(ex))));
+	}
 
-											return flightRepository.save(flight).doOnSuccess(
-													f -> log.info("Flight updated successfully after cancellation"))
-													.then();
-										});
-							});
-				}).doOnError(ex -> log.error("Error canceling booking for PNR {}: {}", pnr, ex.getMessage()));
+	// Lost to a concurrent write (the next read tries again) or failed, the joined history is still served
+	private Mono<Void> completeHistory(String email, BookingHistory seen, List<BookingView> views) {
+		List<BookingHistory.Entry> entries = views.stream()
+				.map(view -> BookingHistory.Entry.of(view.booking(), view.passengers())).toList();
+		return bestEffort("complete booking history for " + email,
+				historyRepository.complete(email, seen, entries).then());
 	}
 
-	// Helper method to convert Booking + Passenger list → BookingResponse DTO
-	private BookingResponse toResponse(Booking booking, java.util.List<Passenger> passengers) {
+	// A follow-up write whose failure must not fail a booking that is already stored
+	private static Mono<Void> bestEffort(String what, Mono<Void> step) {
+		return step.onErrorResume(ex -> {
+			log.warn("Could not {}: {}", what, ex.getMessage());
+			return Mono.empty();
+		});
+	}
 
-		log.debug("Converting booking {} + {} passengers into response", booking.getId(), passengers.size());
+	// Flight as saved after taking the seats + the fare that was charged for them
+	private record SeatHold(Flight flight, Money fare) {
+	}
 
-		var passengerDtos = passengers.stream().map(p -> PassengerRequest.builder().name(p.getName())
-				.gender(p.getGender()).age(p.getAge()).meal(p.getMeal()).seatNumber(p.getSeatNumber()).build())
-				.collect(Collectors.toList());
+	// What a stored booking hands to the follow-up steps
+	private record BookedSeats(Flight flight, Booking booking, List<Passenger> passengers) {
+	}
 
-		return BookingResponse.builder().pnr(booking.getPnr()).email(booking.getEmail()).flightId(booking.getFlightId())
-				.seatsBooked(booking.getSeatsBooked()).bookingTime(booking.getBookingTime())
-				.canceled(booking.getCanceled()).passengers(passengerDtos).build();
+	// Same for a cancel, with the flight as the release left it
+	private record CanceledSeats(Flight flight, Booking booking, List<Passenger> passengers) {
 	}
 }
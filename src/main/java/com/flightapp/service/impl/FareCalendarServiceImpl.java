@@ -0,0 +1,145 @@
+package com.flightapp.service.impl;
+
+import com.flightapp.config.FareCalendarProperties;
+import com.flightapp.dto.FareCalendarDay;
+import com.flightapp.dto.FareCalendarRequest;
+import com.flightapp.entity.FareCalendarEntry;
+import com.flightapp.entity.Flight;
+import com.flightapp.exception.ErrorCode;
+import com.flightapp.place.PlaceRegistry;
+import com.flightapp.repository.FareCalendarRepository;
+import com.flightapp.repository.FlightRepository;
+import com.flightapp.resilience.MongoGuard;
+import com.flightapp.service.FareCalendarService;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+// Fare calendar: live aggregation by default, or the incrementally maintained
+// fare_calendar collection when flightapp.fare-calendar.materialized=true.
+
+@Service
+@EnableConfigurationProperties(FareCalendarProperties.class)
+@Slf4j
+public class FareCalendarServiceImpl implements FareCalendarService {
+
+	private static final int REBUILD_CONCURRENCY = 16;
+
+	private final FlightRepository flightRepository;
+	private final FareCalendarRepository fareCalendarRepository;
+	private final FareCalendarProperties properties;
+	private final MongoGuard mongoGuard;
+	private final PlaceRegistry placeRegistry;
+
+	public FareCalendarServiceImpl(FlightRepository flightRepository, FareCalendarRepository fareCalendarRepository,
+			FareCalendarProperties properties, MongoGuard mongoGuard, PlaceRegistry placeRegistry) {
+		this.flightRepository = flightRepository;
+		this.fareCalendarRepository = fareCalendarRepository;
+		this.properties = properties;
+		this.mongoGuard = mongoGuard;
+		this.placeRegistry = placeRegistry;
+	}
+
+	@Override
+	public Flux<FareCalendarDay> getFareCalendar(FareCalendarRequest request) {
+
+		log.info("Fare calendar {} -> {} from {} to {}", request.getFromPlace(), request.getToPlace(),
+				request.getStartDate(), request.getEndDate());
+
+		if (request.getEndDate().isBefore(request.getStartDate())) {
+			return Flux.error(ErrorCode.INVALID_RANGE.exception("endDate must not be before startDate"));
+		}
+
+		long days = ChronoUnit.DAYS.between(request.getStartDate(), request.getEndDate()) + 1;
+		if (days > properties.getMaxDays()) {
+			log.warn("Fare calendar range of {} days exceeds max {}", days, properties.getMaxDays());
+			return Flux.error(ErrorCode.INVALID_RANGE
+					.exception("Date range must be at most " + properties.getMaxDays() + " days"));
+		}
+
+		// same canonical names the flights (and materialized cells) are stored under
+		String fromPlace = placeRegistry.normalize(request.getFromPlace());
+		String toPlace = placeRegistry.normalize(request.getToPlace());
+
+		Flux<FareCalendarEntry> entries = properties.isMaterialized()
+				? fareCalendarRepository.findByKeyRange(
+						FareCalendarEntry.key(fromPlace, toPlace, request.getStartDate().toString()),
+						FareCalendarEntry.key(fromPlace, toPlace, request.getEndDate().toString()))
+				: flightRepository.aggregateFareCalendarOnReplica(fromPlace, toPlace, request.getStartDate(),
+						request.getEndDate());
+
+		return mongoGuard.guard(MongoGuard.Operation.FARE_CALENDAR, entries).map(FareCalendarServiceImpl::toDay)
+				.doOnComplete(() -> log.debug("Fare calendar completed (materialized={})", properties.isMaterialized()))
+				.doOnError(ex -> log.error("Error building fare calendar: {}", ex.getMessage()));
+	}
+
+	@Override
+	public Mono<Void> refresh(Flight flight) {
+
+		if (!properties.isMaterialized()) {
+			return Mono.empty();
+		}
+
+		LocalDate day = flight.getDepartureTime().toLocalDate();
+		String key = FareCalendarEntry.key(flight.getFromPlace(), flight.getToPlace(), day.toString());
+
+		// Recompute just this one cell from the primary. Refreshes for the same cell can finish out of
+		// order (two bookings on different nodes): each is stamped with when its read started and only
+		// replaces an older one. No bookable flights left -> an empty cell (flights = 0), not a delete,
+		// so a slower refresh from before can't bring the day back.
+		return Mono.defer(() -> {
+			LocalDateTime readAt = LocalDateTime.now();
+			return flightRepository.aggregateFareCalendar(flight.getFromPlace(), flight.getToPlace(), day, day)
+					.next()
+					.defaultIfEmpty(FareCalendarEntry.builder().id(key).fromPlace(flight.getFromPlace())
+							.toPlace(flight.getToPlace()).day(day.toString()).availableSeats(0).flights(0).build())
+					.flatMap(entry -> {
+						entry.setUpdatedAt(readAt);
+						return fareCalendarRepository.saveIfNewer(entry);
+					});
+		}).doOnNext(saved -> log.debug("Fare calendar cell {} {}", key, saved ? "refreshed" : "already newer"))
+				.onErrorResume(ex -> {
+					// The flight write already happened — a stale cell is fixed by the next refresh/rebuild
+					log.warn("Could not refresh fare calendar cell {}: {}", key, ex.getMessage());
+					return Mono.empty();
+				}).then();
+	}
+
+	@Override
+	public Mono<Long> rebuild() {
+
+		long started = System.nanoTime();
+		LocalDateTime readAt = LocalDateTime.now();
+
+		// Same conditional write as refresh, so cells refreshed while the rebuild runs are not overwritten
+		// with what it read before them. One upsert per cell, a few at a time.
+		return flightRepository.aggregateFareCalendarFrom(LocalDate.now())
+				.doOnNext(entry -> entry.setUpdatedAt(readAt))
+				.flatMap(fareCalendarRepository::saveIfNewer, REBUILD_CONCURRENCY)
+				.filter(Boolean::booleanValue).count().doOnSuccess(count -> log.info(
+						"Fare calendar rebuilt: {} cells in {} ms", count, (System.nanoTime() - started) / 1_000_000));
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void rebuildOnStartup() {
+		if (properties.isMaterialized() && properties.isRebuildOnStartup()) {
+			rebuild().subscribe(count -> {
+			}, ex -> log.error("Fare calendar rebuild failed: {}", ex.getMessage()));
+		}
+	}
+
+	private static FareCalendarDay toDay(FareCalendarEntry entry) {
+		return FareCalendarDay.builder().date(LocalDate.parse(entry.getDay()))
+				.minPrice(entry.getMinPrice().toBigDecimal()).availableSeats(entry.getAvailableSeats())
+				.flights(entry.getFlights()).build();
+	}
+}
@@ -1,34 +1,76 @@
 package com.flightapp.service.impl;
 
+import com.flightapp.cache.AirlineCache;
+import com.flightapp.cache.CacheInvalidationBus;
+import com.flightapp.cache.CacheInvalidationEvent;
+import com.flightapp.cache.SearchResultCache;
+import com.flightapp.config.SearchWindowProperties;
 import com.flightapp.dto.FlightInventoryRequest;
 import com.flightapp.dto.FlightSearchRequest;
+import com.flightapp.dto.FlightSearchResult;
+import com.flightapp.dto.FlightWindowSearchRequest;
 import com.flightapp.entity.Airline;
 import com.flightapp.entity.Flight;
-import com.flightapp.exception.ApiException;
+import com.flightapp.entity.Money;
+import com.flightapp.exception.ErrorCode;
+import com.flightapp.exception.ValidationException;
+import com.flightapp.place.PlaceRegistry;
+import com.flightapp.pricing.FareQuote;
+import com.flightapp.pricing.PricingEngine;
 import com.flightapp.repository.AirlineRepository;
 import com.flightapp.repository.FlightRepository;
+import com.flightapp.resilience.MongoGuard;
+import com.flightapp.service.FareCalendarService;
 import com.flightapp.service.FlightService;
+import com.flightapp.validation.RequestValidators;
 
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
 
 // This service handles all the "flight" logic.
 
 @Service
 @Slf4j
+@EnableConfigurationProperties(SearchWindowProperties.class)
 public class FlightServiceImpl implements FlightService {
 
 	private final FlightRepository flightRepository;
 	private final AirlineRepository airlineRepository;
+	private final CacheInvalidationBus invalidationBus;
+	private final AirlineCache airlineCache;
+	private final FareCalendarService fareCalendarService;
+	private final PricingEngine pricingEngine;
+	private final MongoGuard mongoGuard;
+	private final SearchResultCache searchResultCache;
+	private final PlaceRegistry placeRegistry;
+	private final SearchWindowProperties windowProperties;
 
-	public FlightServiceImpl(FlightRepository flightRepository, AirlineRepository airlineRepository) {
+	public FlightServiceImpl(FlightRepository flightRepository, AirlineRepository airlineRepository,
+			CacheInvalidationBus invalidationBus, AirlineCache airlineCache, FareCalendarService fareCalendarService,
+			PricingEngine pricingEngine, MongoGuard mongoGuard, SearchResultCache searchResultCache,
+			PlaceRegistry placeRegistry, SearchWindowProperties windowProperties) {
 		this.flightRepository = flightRepository;
 		this.airlineRepository = airlineRepository;
+		this.invalidationBus = invalidationBus;
+		this.airlineCache = airlineCache;
+		this.fareCalendarService = fareCalendarService;
+		this.pricingEngine = pricingEngine;
+		this.mongoGuard = mongoGuard;
+		this.searchResultCache = searchResultCache;
+		this.placeRegistry = placeRegistry;
+		this.windowProperties = windowProperties;
 	}
 
 	@Override
@@ -37,38 +79,28 @@ public class FlightServiceImpl implements FlightService {
 		log.info("Received request to add new flight inventory");
 		log.debug("FlightInventoryRequest payload: {}", request);
 
-		// I added some basic validations here.
-		if (request.getDepartureTime().isAfter(request.getArrivalTime())) {
-			log.warn("Invalid time range: departure {} is after arrival {}", request.getDepartureTime(),
-					request.getArrivalTime());
-			return Mono.error(new ApiException("Departure time must be before arrival time"));
+		// Everything that only needs the request, before any Mongo call
+		ValidationException invalid = RequestValidators.INVENTORY.violations(request);
+		if (invalid != null) {
+			log.warn("Invalid inventory request: {}", invalid.getErrors());
+			return Mono.error(invalid);
 		}
 
-		if (request.getTotalSeats() <= 0) {
-			log.warn("Invalid totalSeats: {}", request.getTotalSeats());
-			return Mono.error(new ApiException("Total seats must be > 0"));
-		}
-
-		if (request.getPrice() <= 0) {
-			log.warn("Invalid price: {}", request.getPrice());
-			return Mono.error(new ApiException("Price must be > 0"));
-		}
-
-		// Prevent adding flights in the past
-		LocalDateTime now = LocalDateTime.now();
-		if (!request.getDepartureTime().isAfter(now)) {
-			log.warn("Attempted to add flight with past departure time. Departure: {}, Now: {}",
-					request.getDepartureTime(), now);
-			return Mono.error(new ApiException("Cannot add flight with past departure time"));
+		// "DEL", "delhi" and "New Delhi" are all stored as "Delhi", so searches find each other's flights
+		String fromPlace = placeRegistry.normalize(request.getFromPlace());
+		String toPlace = placeRegistry.normalize(request.getToPlace());
+		if (fromPlace.equals(toPlace)) {
+			log.warn("Same origin and destination: {} / {}", request.getFromPlace(), request.getToPlace());
+			return Mono.error(ErrorCode.SAME_ORIGIN_DESTINATION.exception());
 		}
 
 		// Check if same flight already exists
-		return flightRepository
+		return mongoGuard.guard(MongoGuard.Operation.INVENTORY, flightRepository
 				.findByFlightNumberAndDepartureTime(request.getFlightNumber(), request.getDepartureTime())
 				.flatMap(existing -> {
 					log.warn("Duplicate flight found: flightNumber={}, departure={}", request.getFlightNumber(),
 							request.getDepartureTime());
-					return Mono.error(new ApiException("Flight already exists with same flight number"));
+					return Mono.error(ErrorCode.DUPLICATE_FLIGHT.exception());
 				}).switchIfEmpty(Mono.defer(() -> {
 
 					log.info("Flight does not exist, proceeding to create a new one");
@@ -82,49 +114,153 @@ public class FlightServiceImpl implements FlightService {
 										.save(Airline.builder().name(request.getAirlineName())
 												.logoUrl(request.getAirlineLogoUrl()).build())
 										.doOnSuccess(a -> log.info("New airline saved with id {}", a.getId()));
-							}));
+							}))
+							// keep the in-memory airline cache in sync for search results
+							.doOnNext(airlineCache::put);
 
 					// After we get the airline, create a flight
 					return airlineMono.flatMap(airline -> {
 
 						Flight flight = Flight.builder().flightNumber(request.getFlightNumber())
-								.fromPlace(request.getFromPlace()).toPlace(request.getToPlace())
+								.fromPlace(fromPlace).toPlace(toPlace)
 								.departureTime(request.getDepartureTime()).arrivalTime(request.getArrivalTime())
-								.price(request.getPrice()).totalSeats(request.getTotalSeats())
-								.availableSeats(request.getTotalSeats()).airlineId(airline.getId()).build();
+								.price(Money.of(request.getPrice(), Money.DEFAULT_CURRENCY))
+								.totalSeats(request.getTotalSeats()).availableSeats(request.getTotalSeats())
+								.bookedSeats(new HashSet<>()).airlineId(airline.getId()).build();
 
 						log.debug("Saving new flight for airline {}: {}", airline.getName(), flight);
 
+						// New inventory on a route makes cached search results and that
+						// day's fare-calendar cell stale
 						return flightRepository.save(flight)
-								.doOnSuccess(f -> log.info("Flight saved successfully with id {}", f.getId()));
+								.doOnSuccess(f -> log.info("Flight saved successfully with id {}", f.getId()))
+								.doOnNext(saved -> {
+									placeRegistry.addFlight(saved.getFromPlace());
+									placeRegistry.addFlight(saved.getToPlace());
+								})
+								.flatMap(saved -> fareCalendarService.refresh(saved)
+										.then(invalidationBus.publish(CacheInvalidationEvent.inventoryAdded(saved)))
+										.thenReturn(saved));
 					});
-				})).cast(Flight.class);
+				})).cast(Flight.class));
 	}
 
 	@Override
-	public Flux<Flight> searchFlights(FlightSearchRequest req) {
+	public Flux<FlightSearchResult> searchFlights(FlightSearchRequest req) {
 
 		log.info("Searching flights from {} to {} on {}", req.getFromPlace(), req.getToPlace(), req.getTravelDate());
 
-		// Converting the LocalDate into a start & end range.
+		// Flights are stored under canonical place names; so are the cache and popularity keys
+		String fromPlace = placeRegistry.normalize(req.getFromPlace());
+		String toPlace = placeRegistry.normalize(req.getToPlace());
 		LocalDate date = req.getTravelDate();
-		LocalDateTime start = date.atStartOfDay();
-		LocalDateTime end = date.atTime(23, 59, 59);
+		String cacheKey = SearchResultCache.key(fromPlace, toPlace, date);
+
+		// Counts towards the popular-routes list; those route + days are served precomputed
+		searchResultCache.recordSearch(cacheKey);
+		Mono<List<SearchResultCache.Listing>> listings = searchResultCache.getWarm(cacheKey).map(warm -> {
+			log.debug("Serving precomputed search results for {}", cacheKey);
+			return Mono.just(warm);
+		}).orElseGet(() -> loadListings(fromPlace, toPlace, date)
+				// while the read breaker is open we serve the last good copy instead of failing (if we have one)
+				.onErrorResume(CallNotPermittedException.class, ex -> searchResultCache.get(cacheKey).map(cached -> {
+					log.warn("Reads failing fast, serving cached search results for {}", cacheKey);
+					return Mono.just(cached);
+				}).orElseGet(() -> Mono.error(ex))));
 
-		// This calls my method in FlightRepository.
-		return flightRepository
-				.findByFromPlaceAndToPlaceAndDepartureTimeBetween(req.getFromPlace(), req.getToPlace(), start, end)
+		// Priced here, wherever the listings came from: the current fare, locked from now
+		return listings.flatMapIterable(list -> list).map(listing -> toResult(listing.flight(), listing.airline()))
 				.doOnComplete(() -> log.info("Flight search completed"))
 				.doOnError(ex -> log.error("Error during flight search: {}", ex.getMessage()));
 	}
 
+	@Override
+	public Flux<FlightSearchResult> searchFlightWindow(FlightWindowSearchRequest req) {
+
+		log.info("Searching flights from {} to {} departing {} .. {}", req.getFromPlaces(), req.getToPlaces(),
+				req.getDepartureFrom(), req.getDepartureTo());
+
+		LocalDateTime start = req.getDepartureFrom();
+		LocalDateTime end = req.getDepartureTo();
+		if (!end.isAfter(start)) {
+			log.warn("Invalid search window: {} .. {}", start, end);
+			return Flux.error(ErrorCode.INVALID_RANGE.exception("departureTo must be after departureFrom"));
+		}
+		Duration maxDuration = windowProperties.getMaxDuration();
+		if (Duration.between(start, end).compareTo(maxDuration) > 0) {
+			log.warn("Search window too long: {} .. {}", start, end);
+			return Flux.error(ErrorCode.INVALID_RANGE
+					.exception("Search window must not be longer than " + maxDuration.toHours() + " hours"));
+		}
+
+		// "BOM" and "Mumbai" in the same list are the same place; one $in entry each
+		Set<String> fromPlaces = normalizeAll(req.getFromPlaces());
+		Set<String> toPlaces = normalizeAll(req.getToPlaces());
+
+		// One query for every from/to pair, merged by Mongo in departure order; not cached or warmed,
+		// windows are too free-form to share. Results go out as they arrive.
+		Flux<FlightSearchResult> results = flightRepository.searchWindowOnReplica(fromPlaces, toPlaces, start, end)
+				.concatMap(flight -> airlineCache.get(flight.getAirlineId()).map(airline -> toResult(flight, airline))
+						.defaultIfEmpty(toResult(flight, null)));
+
+		return mongoGuard.guard(MongoGuard.Operation.SEARCH, results)
+				.doOnComplete(() -> log.info("Window search completed"))
+				.doOnError(ex -> log.error("Error during window search: {}", ex.getMessage()));
+	}
+
+	private Set<String> normalizeAll(List<String> places) {
+		Set<String> normalized = new LinkedHashSet<>();
+		places.forEach(place -> normalized.add(placeRegistry.normalize(place)));
+		return normalized;
+	}
+
+	@Override
+	public Mono<List<SearchResultCache.Listing>> loadListings(String fromPlace, String toPlace, LocalDate date) {
+
+		// The whole day: midnight up to (not including) the next midnight
+		LocalDateTime start = date.atStartOfDay();
+		LocalDateTime end = date.plusDays(1).atStartOfDay();
+
+		// Search tolerates a few seconds of staleness, so it may be served by a secondary.
+		// Airline name/logo come from the in-memory airline cache (concatMap keeps Mongo's order);
+		// the fare is left to searchFlights.
+		Mono<List<SearchResultCache.Listing>> live = flightRepository
+				.searchOnReplica(fromPlace, toPlace, start, end)
+				.concatMap(flight -> airlineCache.get(flight.getAirlineId())
+						.map(airline -> new SearchResultCache.Listing(flight, airline))
+						.defaultIfEmpty(new SearchResultCache.Listing(flight, null)))
+				.collectList();
+
+		// Every successful search refreshes the fallback copy
+		String cacheKey = SearchResultCache.key(fromPlace, toPlace, date);
+		return mongoGuard.guard(MongoGuard.Operation.SEARCH, live)
+				.doOnNext(listings -> searchResultCache.put(cacheKey, listings));
+	}
+
 	@Override
 	public Mono<Flight> getFlightById(String id) {
 
 		log.info("Fetching flight by id {}", id);
 
-		return flightRepository.findById(id).doOnNext(f -> log.debug("Flight found: {}", f))
-				.switchIfEmpty(Mono.error(new ApiException("Flight not found: " + id)))
+		// Display read — may come from a secondary. Booking does its own primary read.
+		return mongoGuard
+				.guard(MongoGuard.Operation.FLIGHT_LOOKUP,
+						flightRepository.findByIdOnReplica(id).doOnNext(f -> log.debug("Flight found: {}", f)))
+				.switchIfEmpty(Mono.error(ErrorCode.FLIGHT_NOT_FOUND.exception("Flight not found: " + id)))
 				.doOnError(ex -> log.error("Error fetching flight {}: {}", id, ex.getMessage()));
 	}
+
+	// Flight (projected) + Airline → FlightSearchResult, priced by the pricing engine's per-flight quote
+	// cache. airline may be null if it was deleted.
+	private FlightSearchResult toResult(Flight flight, Airline airline) {
+		FareQuote quote = pricingEngine.quote(flight);
+		return FlightSearchResult.builder().flightId(flight.getId()).flightNumber(flight.getFlightNumber())
+				.fromPlace(flight.getFromPlace()).toPlace(flight.getToPlace()).departureTime(flight.getDepartureTime())
+				.arrivalTime(flight.getArrivalTime()).price(quote.fare().toBigDecimal())
+				.currency(quote.fare().currency()).fareLockedUntil(quote.validUntil())
+				.fareQuoteToken(quote.token())
+				.availableSeats(flight.getAvailableSeats())
+				.airlineName(airline == null ? null : airline.getName())
+				.airlineLogoUrl(airline == null ? null : airline.getLogoUrl()).build();
+	}
 }
@@ -0,0 +1,72 @@
+package com.flightapp.validation;
+
+import com.flightapp.dto.BookingRequest;
+import com.flightapp.dto.PassengerRequest;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static com.flightapp.validation.RequestValidators.isBlank;
+
+// BookingRequest + its passengers. Passenger count and distinct seat numbers used to be
+// checked only after the flight was read; they don't need the flight.
+
+final class BookingRequestValidator implements RequestValidator<BookingRequest> {
+
+	@Override
+	public void validate(BookingRequest request, Violations violations) {
+
+		String email = request.getEmail();
+		if (isBlank(email)) {
+			violations.reject("email", "Email is required");
+		} else if (!RequestValidators.EMAIL.matcher(email).matches()) {
+			violations.reject("email", "Invalid email format");
+		}
+
+		if (request.getNumberOfSeats() < 1) {
+			violations.reject("numberOfSeats", "must be greater than or equal to 1");
+		}
+
+		List<PassengerRequest> passengers = request.getPassengers();
+		if (passengers == null || passengers.isEmpty()) {
+			violations.reject("passengers", "Passenger list cannot be empty");
+			return;
+		}
+
+		Set<String> seats = new HashSet<>();
+		boolean duplicateSeat = false;
+		for (int i = 0; i < passengers.size(); i++) {
+			PassengerRequest passenger = passengers.get(i);
+			String prefix = "passengers[" + i + "].";
+			if (passenger == null) {
+				violations.reject("passengers[" + i + "]", RequestValidators.NOT_NULL);
+				continue;
+			}
+			if (isBlank(passenger.getName())) {
+				violations.reject(prefix + "name", "Passenger name cannot be blank");
+			}
+			if (isBlank(passenger.getGender())) {
+				violations.reject(prefix + "gender", "Gender is required");
+			}
+			if (passenger.getAge() < 1) {
+				violations.reject(prefix + "age", "Age must be positive");
+			}
+			if (isBlank(passenger.getSeatNumber())) {
+				violations.reject(prefix + "seatNumber", "Seat number is required");
+			} else if (!seats.add(passenger.getSeatNumber())) {
+				duplicateSeat = true;
+			}
+			if (isBlank(passenger.getMeal())) {
+				violations.reject(prefix + "meal", "Meal preference is required");
+			}
+		}
+
+		if (passengers.size() != request.getNumberOfSeats()) {
+			violations.reject("passengers", "Passenger list size must equal numberOfSeats");
+		}
+		if (duplicateSeat) {
+			violations.reject("passengers", "Duplicate seat numbers in request");
+		}
+	}
+}
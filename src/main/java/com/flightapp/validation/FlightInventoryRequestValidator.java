@@ -0,0 +1,67 @@
+package com.flightapp.validation;
+
+import com.flightapp.dto.FlightInventoryRequest;
+
+import java.time.LocalDateTime;
+import java.util.regex.Pattern;
+
+import static com.flightapp.validation.RequestValidators.NOT_BLANK;
+import static com.flightapp.validation.RequestValidators.NOT_NULL;
+import static com.flightapp.validation.RequestValidators.isBlank;
+
+// FlightInventoryRequest: the field constraints, then the timing/price/seat rules addInventory
+// used to check itself. Places are only checked for presence; origin == destination needs
+// the place registry and stays in the service.
+
+final class FlightInventoryRequestValidator implements RequestValidator<FlightInventoryRequest> {
+
+	private static final Pattern FLIGHT_NUMBER = Pattern.compile("^[A-Z0-9]{3,10}$");
+
+	@Override
+	public void validate(FlightInventoryRequest request, Violations violations) {
+
+		String flightNumber = request.getFlightNumber();
+		if (isBlank(flightNumber)) {
+			violations.reject("flightNumber", NOT_BLANK);
+		} else if (!FLIGHT_NUMBER.matcher(flightNumber).matches()) {
+			violations.reject("flightNumber", "Flight number must be 3–10 characters (uppercase letters or digits)");
+		}
+
+		if (isBlank(request.getFromPlace())) {
+			violations.reject("fromPlace", NOT_BLANK);
+		}
+		if (isBlank(request.getToPlace())) {
+			violations.reject("toPlace", NOT_BLANK);
+		}
+		if (isBlank(request.getAirlineName())) {
+			violations.reject("airlineName", NOT_BLANK);
+		}
+
+		LocalDateTime departure = request.getDepartureTime();
+		LocalDateTime arrival = request.getArrivalTime();
+		if (departure == null) {
+			violations.reject("departureTime", NOT_NULL);
+		}
+		if (arrival == null) {
+			violations.reject("arrivalTime", NOT_NULL);
+		}
+		if (departure != null && arrival != null && departure.isAfter(arrival)) {
+			violations.reject("departureTime", "Departure time must be before arrival time");
+		}
+		if (departure != null && !departure.isAfter(LocalDateTime.now())) {
+			violations.reject("departureTime", "Cannot add flight with past departure time");
+		}
+
+		if (request.getPrice() == null) {
+			violations.reject("price", NOT_NULL);
+		} else if (request.getPrice().signum() <= 0) {
+			violations.reject("price", "Price must be > 0");
+		}
+
+		if (request.getTotalSeats() == null) {
+			violations.reject("totalSeats", NOT_NULL);
+		} else if (request.getTotalSeats() <= 0) {
+			violations.reject("totalSeats", "Total seats must be > 0");
+		}
+	}
+}
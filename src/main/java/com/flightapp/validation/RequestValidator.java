@@ -0,0 +1,27 @@
+package com.flightapp.validation;
+
+import com.flightapp.exception.ValidationException;
+
+import reactor.core.publisher.Mono;
+
+// Request-only checks, written out by hand: the bean constraints on the DTO plus the
+// cross-field rules the services used to apply after reading Mongo. No reflection and no
+// I/O, so they run on the event loop before anything else.
+
+@FunctionalInterface
+public interface RequestValidator<T> {
+
+	void validate(T request, Violations violations);
+
+	// null when the request is fine
+	default ValidationException violations(T request) {
+		Violations violations = new Violations();
+		validate(request, violations);
+		return violations.toException();
+	}
+
+	default Mono<T> check(T request) {
+		ValidationException invalid = violations(request);
+		return invalid == null ? Mono.just(request) : Mono.error(invalid);
+	}
+}
@@ -0,0 +1,32 @@
+package com.flightapp.validation;
+
+import com.flightapp.dto.BookingRequest;
+import com.flightapp.dto.FlightInventoryRequest;
+
+import java.util.regex.Pattern;
+
+// Shared validator instances (they're stateless) and the small checks they are built from.
+// Messages follow the DTO annotations, or Hibernate Validator's defaults where those have none,
+// so clients see the same errors as before.
+
+public final class RequestValidators {
+
+	public static final RequestValidator<BookingRequest> BOOKING = new BookingRequestValidator();
+
+	public static final RequestValidator<FlightInventoryRequest> INVENTORY = new FlightInventoryRequestValidator();
+
+	// Same shape Hibernate's @Email accepts: dot-atom local part, dot-separated domain labels
+	static final Pattern EMAIL = Pattern.compile(
+			"^[a-zA-Z0-9!#$%&'*+/=?^_`{|}~-]+(\\.[a-zA-Z0-9!#$%&'*+/=?^_`{|}~-]+)*"
+					+ "@[a-zA-Z0-9]([a-zA-Z0-9-]*[a-zA-Z0-9])?(\\.[a-zA-Z0-9]([a-zA-Z0-9-]*[a-zA-Z0-9])?)*$");
+
+	static final String NOT_BLANK = "must not be blank";
+	static final String NOT_NULL = "must not be null";
+
+	private RequestValidators() {
+	}
+
+	static boolean isBlank(String value) {
+		return value == null || value.isBlank();
+	}
+}
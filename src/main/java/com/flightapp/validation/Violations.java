@@ -0,0 +1,30 @@
+package com.flightapp.validation;
+
+import com.flightapp.exception.ValidationException;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Field errors collected by a RequestValidator, in check order. One message per field:
+// the first check a field fails is the one reported.
+
+public final class Violations {
+
+	private Map<String, String> errors;
+
+	public void reject(String field, String message) {
+		if (errors == null) {
+			errors = new LinkedHashMap<>();
+		}
+		errors.putIfAbsent(field, message);
+	}
+
+	public boolean isEmpty() {
+		return errors == null;
+	}
+
+	// null when nothing was rejected
+	public ValidationException toException() {
+		return errors == null ? null : new ValidationException(errors);
+	}
+}
@@ -5,7 +5,9 @@ import org.springframework.boot.test.context.SpringBootTest;
 
 import com.flightapp.FlightBookingWebfluxApplication;
 
-@SpringBootTest(classes = FlightBookingWebfluxApplication.class)
+// No Mongo here: the version backfill blocks startup until it has run, so it is left out
+@SpringBootTest(classes = FlightBookingWebfluxApplication.class,
+		properties = "flightapp.mongo.version-backfill.enabled=false")
 public class FlightBookingWebfluxApplicationTests {
 
 	@Test
@@ -0,0 +1,431 @@
+package com.flightapp;
+
+import com.flightapp.entity.Booking;
+import com.flightapp.entity.BookingEvent;
+import com.flightapp.entity.BookingHistory;
+import com.flightapp.entity.Flight;
+import com.flightapp.entity.Passenger;
+import com.flightapp.repository.BookingEventRepository;
+import com.flightapp.repository.BookingHistoryRepository;
+import com.flightapp.repository.BookingRepository;
+import com.flightapp.repository.FlightRepository;
+import com.flightapp.repository.PassengerRepository;
+import com.flightapp.repository.PlaceCount;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+// Flights, bookings, passengers, the booking event outbox and the history read model in maps,
+// behind the real repository interfaces, for concurrency tests and benchmarks that can't have a Mongo.
+//
+// Saves follow Spring Data's @Version rules (null version = insert at 0, otherwise the stored
+// version must match or OptimisticLockingFailureException). Reads and writes hand out copies
+// and hop to the parallel scheduler, so concurrent callers really work on stale snapshots.
+// versioned=false turns the version check off: last writer wins, like the old unversioned saves.
+
+public class InMemoryMongo {
+
+	private final boolean versioned;
+	private final Scheduler scheduler = Schedulers.parallel();
+
+	private final Map<String, Flight> flights = new ConcurrentHashMap<>();
+	private final Map<String, Booking> bookings = new ConcurrentHashMap<>();
+	private final Map<String, Passenger> passengers = new ConcurrentHashMap<>();
+
+	// booking_events by seq + the counter the seqs come from
+	private final ConcurrentSkipListMap<Long, BookingEvent> events = new ConcurrentSkipListMap<>();
+	private final AtomicLong eventSeq = new AtomicLong();
+
+	// booking_history by email
+	private final Map<String, BookingHistory> histories = new ConcurrentHashMap<>();
+
+	// unique_pnr index: pnr -> booking id
+	private final Map<String, String> pnrIndex = new ConcurrentHashMap<>();
+
+	// Lowest availableSeats ever written, across all flights
+	private final AtomicInteger lowestAvailableSeats = new AtomicInteger(Integer.MAX_VALUE);
+
+	private final FlightRepository flightRepository = mock(FlightRepository.class, withSettings().stubOnly());
+	private final BookingRepository bookingRepository = mock(BookingRepository.class, withSettings().stubOnly());
+	private final PassengerRepository passengerRepository = mock(PassengerRepository.class, withSettings().stubOnly());
+	private final BookingEventRepository eventRepository = mock(BookingEventRepository.class,
+			withSettings().stubOnly());
+	private final BookingHistoryRepository historyRepository = mock(BookingHistoryRepository.class,
+			withSettings().stubOnly());
+
+	public InMemoryMongo(boolean versioned) {
+		this.versioned = versioned;
+
+		when(flightRepository.findById(anyString()))
+				.thenAnswer(inv -> read(() -> copy(flights.get(inv.<String>getArgument(0)))));
+		when(flightRepository.save(any(Flight.class))).thenAnswer(inv -> write(() -> saveFlight(inv.getArgument(0))));
+
+		when(flightRepository.holdSeats(anyString(), anyInt(), anyCollection())).thenAnswer(
+				inv -> write(() -> holdSeats(inv.getArgument(0), inv.getArgument(1),
+						inv.<Collection<String>>getArgument(2))));
+		when(flightRepository.releaseSeats(anyString(), anyInt(), anyCollection(), any())).thenAnswer(
+				inv -> write(() -> releaseSeats(inv.getArgument(0), inv.getArgument(1),
+						inv.<Collection<String>>getArgument(2), inv.getArgument(3))));
+
+		when(flightRepository.countPlacesOnReplica()).thenAnswer(inv -> Flux.fromStream(flights.values().stream()
+				.flatMap(f -> Stream.of(f.getFromPlace(), f.getToPlace()))
+				.collect(Collectors.groupingBy(place -> place, Collectors.counting())).entrySet().stream()
+				.map(count -> new PlaceCount(count.getKey(), count.getValue()))).publishOn(scheduler));
+
+		when(bookingRepository.findByPnr(anyString()))
+				.thenAnswer(inv -> read(() -> copy(bookings.get(pnrIndex.getOrDefault(inv.getArgument(0), "")))));
+		when(bookingRepository.save(any(Booking.class)))
+				.thenAnswer(inv -> write(() -> saveBooking(inv.getArgument(0))));
+
+		when(passengerRepository.saveAll(anyIterable())).thenAnswer(inv -> {
+			List<Passenger> saved = new ArrayList<>();
+			for (Passenger passenger : inv.<Iterable<Passenger>>getArgument(0)) {
+				passenger.setId(UUID.randomUUID().toString());
+				passengers.put(passenger.getId(), passenger);
+				saved.add(passenger);
+			}
+			return Flux.fromIterable(saved).publishOn(scheduler);
+		});
+		when(passengerRepository.deleteAll(anyIterable())).thenAnswer(inv -> write(() -> {
+			inv.<Iterable<Passenger>>getArgument(0).forEach(passenger -> passengers.remove(passenger.getId()));
+			return true;
+		}).then());
+		when(passengerRepository.findByBookingId(anyString())).thenAnswer(inv -> Flux.fromIterable(passengers.values()
+				.stream().filter(p -> inv.getArgument(0).equals(p.getBookingId())).toList()).publishOn(scheduler));
+		when(passengerRepository.findByBookingIdIn(anyCollection())).thenAnswer(inv -> Flux.fromIterable(passengers
+				.values().stream().filter(p -> inv.<Collection<String>>getArgument(0).contains(p.getBookingId()))
+				.toList()).publishOn(scheduler));
+		when(bookingRepository.findByFlightIdAndCanceledFalse(anyString())).thenAnswer(inv -> Flux.fromIterable(
+				bookings.values().stream().filter(b -> !b.isCanceled() && inv.getArgument(0).equals(b.getFlightId()))
+						.map(InMemoryMongo::copy).toList()).publishOn(scheduler));
+
+		when(eventRepository.append(anyList())).thenAnswer(
+				inv -> write(() -> appendEvents(inv.getArgument(0))).flatMapIterable(appended -> appended));
+		when(eventRepository.readOnReplica(anyLong(), anyLong(), anyInt())).thenAnswer(inv -> Flux
+				.fromIterable(events.subMap(inv.<Long>getArgument(0), false, inv.<Long>getArgument(1), true).values()
+						.stream().limit(inv.<Integer>getArgument(2)).toList())
+				.publishOn(scheduler));
+		when(eventRepository.lastSeq()).thenAnswer(inv -> read(eventSeq::get));
+		when(eventRepository.claimGap(anyLong())).thenAnswer(inv -> write(() -> claimGap(inv.getArgument(0))));
+		when(eventRepository.relayFrom(any(Booking.class)))
+				.thenAnswer(inv -> relayFrom(inv.<Booking>getArgument(0)).then());
+		when(eventRepository.relayFrom(any(Flight.class)))
+				.thenAnswer(inv -> relayFrom(inv.<Flight>getArgument(0)).then());
+		when(eventRepository.relayStale(any(), anyInt())).thenAnswer(inv -> Flux.concat(
+				Flux.fromIterable(List.copyOf(bookings.values())).filter(b -> hasPending(b.getPendingEvents()))
+						.map(InMemoryMongo::copy).concatMap(this::relayFrom),
+				Flux.fromIterable(List.copyOf(flights.values())).filter(f -> hasPending(f.getPendingEvents()))
+						.map(InMemoryMongo::copy).concatMap(this::relayFrom))
+				.reduce(0L, Long::sum));
+
+		// nothing is ever archived here
+		when(bookingRepository.findByEmailInArchive(anyString())).thenReturn(Flux.empty());
+		when(bookingRepository.findByPnrInArchive(anyString())).thenReturn(Mono.empty());
+		when(passengerRepository.findByBookingIdInArchive(anyString())).thenReturn(Flux.empty());
+
+		when(historyRepository.upsertEntry(anyString(), any())).thenAnswer(
+				inv -> write(() -> upsertHistory(inv.getArgument(0), inv.getArgument(1))).then());
+		when(historyRepository.findByEmailOnReplica(anyString()))
+				.thenAnswer(inv -> read(() -> copy(histories.get(inv.<String>getArgument(0)))));
+		when(historyRepository.markIncomplete(anyString())).thenAnswer(inv -> write(() -> histories.computeIfPresent(
+				inv.getArgument(0), (id, h) -> new BookingHistory(id, h.getBookings(), LocalDateTime.now(), false)))
+				.then());
+		when(historyRepository.complete(anyString(), any(), anyList())).thenAnswer(
+				inv -> write(() -> completeHistory(inv.getArgument(0), inv.getArgument(1), inv.getArgument(2))));
+	}
+
+	public FlightRepository flights() {
+		return flightRepository;
+	}
+
+	public BookingRepository bookings() {
+		return bookingRepository;
+	}
+
+	public PassengerRepository passengers() {
+		return passengerRepository;
+	}
+
+	public BookingEventRepository bookingEvents() {
+		return eventRepository;
+	}
+
+	public BookingHistoryRepository bookingHistories() {
+		return historyRepository;
+	}
+
+	// Direct access for setup and invariant checks (no copies, no scheduler hop)
+	public void put(Flight flight) {
+		flight.setVersion(0L);
+		flights.put(flight.getId(), copy(flight));
+	}
+
+	public Flight flight(String id) {
+		return flights.get(id);
+	}
+
+	public Collection<Booking> allBookings() {
+		return bookings.values();
+	}
+
+	public Collection<Passenger> allPassengers() {
+		return passengers.values();
+	}
+
+	public Collection<BookingHistory> allHistories() {
+		return histories.values();
+	}
+
+	public Collection<BookingEvent> allEvents() {
+		return events.values();
+	}
+
+	// Events written with a booking/cancel but not relayed to the outbox yet
+	public long pendingEvents() {
+		return Stream.concat(bookings.values().stream().map(Booking::getPendingEvents),
+				flights.values().stream().map(Flight::getPendingEvents)).filter(InMemoryMongo::hasPending)
+				.mapToLong(List::size).sum();
+	}
+
+	public int lowestAvailableSeats() {
+		return lowestAvailableSeats.get();
+	}
+
+	private Flight saveFlight(Flight flight) {
+		return copy(flights.compute(flight.getId(), (id, stored) -> {
+			checkVersion(stored, stored == null ? null : stored.getVersion(), flight.getVersion(), "flight " + id);
+			Flight next = copy(flight);
+			next.setVersion(flight.getVersion() == null ? 0 : flight.getVersion() + 1);
+			lowestAvailableSeats.accumulateAndGet(next.getAvailableSeats(), Math::min);
+			return next;
+		}));
+	}
+
+	// The conditional $inc + $addToSet: null (no match) unless the seats are free; no version check,
+	// but the version moves
+	private Flight holdSeats(String flightId, int seats, Collection<String> seatNumbers) {
+		Flight[] held = new Flight[1];
+		flights.computeIfPresent(flightId, (id, stored) -> {
+			if (stored.getAvailableSeats() < seats || stored.getBookedSeats() == null
+					|| seatNumbers.stream().anyMatch(stored.getBookedSeats()::contains)) {
+				return stored;
+			}
+			Flight next = copy(stored);
+			next.setAvailableSeats(stored.getAvailableSeats() - seats);
+			next.getBookedSeats().addAll(seatNumbers);
+			next.setVersion(stored.getVersion() + 1);
+			lowestAvailableSeats.accumulateAndGet(next.getAvailableSeats(), Math::min);
+			held[0] = next;
+			return next;
+		});
+		return copy(held[0]);
+	}
+
+	// $inc + $pullAll + the event: no version check, but the version moves
+	private Flight releaseSeats(String flightId, int seats, Collection<String> seatNumbers, BookingEvent event) {
+		return copy(flights.computeIfPresent(flightId, (id, stored) -> {
+			Flight next = copy(stored);
+			next.setAvailableSeats(stored.getAvailableSeats() + seats);
+			if (next.getBookedSeats() != null) {
+				next.getBookedSeats().removeAll(seatNumbers);
+			}
+			next.setVersion(stored.getVersion() + 1);
+			event.setAvailableSeats(next.getAvailableSeats());
+			next.setPendingEvents(Stream.concat(
+					stored.getPendingEvents() == null ? Stream.empty() : stored.getPendingEvents().stream(),
+					Stream.of(copy(event))).collect(Collectors.toCollection(ArrayList::new)));
+			return next;
+		}));
+	}
+
+	private Booking saveBooking(Booking booking) {
+		if (booking.getId() == null) {
+			booking.setId(UUID.randomUUID().toString());
+		}
+		String indexed = pnrIndex.putIfAbsent(booking.getPnr(), booking.getId());
+		if (indexed != null && !indexed.equals(booking.getId())) {
+			throw new DuplicateKeyException("duplicate pnr " + booking.getPnr());
+		}
+		return copy(bookings.compute(booking.getId(), (id, stored) -> {
+			checkVersion(stored, stored == null ? null : stored.getVersion(), booking.getVersion(), "booking " + id);
+			Booking next = copy(booking);
+			next.setVersion(booking.getVersion() == null ? 0 : booking.getVersion() + 1);
+			return next;
+		}));
+	}
+
+	// Idempotent by event id, like the real log
+	private synchronized List<BookingEvent> appendEvents(List<BookingEvent> batch) {
+		Set<String> present = events.values().stream().map(BookingEvent::getId).collect(Collectors.toSet());
+		List<BookingEvent> missing = batch.stream().filter(e -> !present.contains(e.getId())).map(InMemoryMongo::copy)
+				.toList();
+		long seq = eventSeq.addAndGet(missing.size()) - missing.size();
+		for (BookingEvent event : missing) {
+			event.setSeq(++seq);
+			events.put(event.getSeq(), event);
+		}
+		return missing;
+	}
+
+	private synchronized boolean claimGap(long seq) {
+		BookingEvent holder = events.putIfAbsent(seq, BookingEvent.gap(seq));
+		return holder == null || holder.getType() == BookingEvent.Type.GAP;
+	}
+
+	private Mono<Long> relayFrom(Booking booking) {
+		return relay(booking.getPendingEvents(), ids -> bookings.computeIfPresent(booking.getId(),
+				(id, stored) -> withoutPending(stored, stored.getPendingEvents(), ids, stored::setPendingEvents)));
+	}
+
+	private Mono<Long> relayFrom(Flight flight) {
+		return relay(flight.getPendingEvents(), ids -> flights.computeIfPresent(flight.getId(),
+				(id, stored) -> withoutPending(stored, stored.getPendingEvents(), ids, stored::setPendingEvents)));
+	}
+
+	// append, then take the relayed events off the document; counts the ones that were new
+	private Mono<Long> relay(List<BookingEvent> pending, Consumer<Set<String>> pull) {
+		if (!hasPending(pending)) {
+			return Mono.just(0L);
+		}
+		Set<String> ids = pending.stream().map(BookingEvent::getId).collect(Collectors.toSet());
+		return write(() -> appendEvents(pending)).flatMap(appended -> write(() -> {
+			pull.accept(ids);
+			return (long) appended.size();
+		}));
+	}
+
+	private static <T> T withoutPending(T stored, List<BookingEvent> pending, Set<String> ids,
+			Consumer<List<BookingEvent>> set) {
+		if (pending != null) {
+			set.accept(pending.stream().filter(e -> !ids.contains(e.getId()))
+					.collect(Collectors.toCollection(ArrayList::new)));
+		}
+		return stored;
+	}
+
+	private static boolean hasPending(List<BookingEvent> pending) {
+		return pending != null && !pending.isEmpty();
+	}
+
+	// Same outcome as the two conditional updates: replace an older entry for the PNR, else append
+	private BookingHistory upsertHistory(String email, BookingHistory.Entry entry) {
+		return histories.compute(email, (id, stored) -> {
+			List<BookingHistory.Entry> entries = stored == null ? new ArrayList<>()
+					: new ArrayList<>(stored.getBookings());
+			merge(entries, entry);
+			return new BookingHistory(email, entries, LocalDateTime.now(), stored != null && stored.isComplete());
+		});
+	}
+
+	// Only if the stored document is still the one seen (or there still is none)
+	private boolean completeHistory(String email, BookingHistory seen, List<BookingHistory.Entry> joined) {
+		boolean[] written = new boolean[1];
+		histories.compute(email, (id, stored) -> {
+			boolean unchanged = stored == null ? seen == null
+					: seen != null && Objects.equals(stored.getUpdatedAt(), seen.getUpdatedAt());
+			if (!unchanged) {
+				return stored;
+			}
+			List<BookingHistory.Entry> entries = stored == null ? new ArrayList<>()
+					: new ArrayList<>(stored.getBookings());
+			joined.forEach(entry -> merge(entries, entry));
+			written[0] = true;
+			return new BookingHistory(email, entries, LocalDateTime.now(), true);
+		});
+		return written[0];
+	}
+
+	private static void merge(List<BookingHistory.Entry> entries, BookingHistory.Entry entry) {
+		int at = -1;
+		for (int i = 0; i < entries.size(); i++) {
+			if (entries.get(i).getPnr().equals(entry.getPnr())) {
+				at = i;
+			}
+		}
+		if (at < 0) {
+			entries.add(entry);
+		} else if (entries.get(at).getVersion() < entry.getVersion()) {
+			entries.set(at, entry);
+		}
+	}
+
+	private void checkVersion(Object stored, Long storedVersion, Long version, String what) {
+		if (version == null && stored != null) {
+			throw new DuplicateKeyException(what + " already exists");
+		}
+		if (versioned && version != null && !version.equals(storedVersion)) {
+			throw new OptimisticLockingFailureException(what + " is at version " + storedVersion + ", not " + version);
+		}
+	}
+
+	private <T> Mono<T> read(Supplier<T> value) {
+		return Mono.fromSupplier(value).publishOn(scheduler);
+	}
+
+	private <T> Mono<T> write(Supplier<T> value) {
+		return Mono.fromSupplier(value).subscribeOn(scheduler);
+	}
+
+	private static Flight copy(Flight f) {
+		return f == null ? null
+				: new Flight(f.getId(), f.getFlightNumber(), f.getFromPlace(), f.getToPlace(), f.getDepartureTime(),
+						f.getArrivalTime(), f.getPrice(), f.getTotalSeats(), f.getAvailableSeats(),
+						f.getBookedSeats() == null ? null : new HashSet<>(f.getBookedSeats()), f.getAirlineId(),
+						f.getVersion(), copy(f.getPendingEvents()));
+	}
+
+	private static BookingHistory copy(BookingHistory h) {
+		return h == null ? null : new BookingHistory(h.getEmail(), new ArrayList<>(h.getBookings()), h.getUpdatedAt(),
+				h.isComplete());
+	}
+
+	private static Booking copy(Booking b) {
+		return b == null ? null
+				: new Booking(b.getId(), b.getPnr(), b.getEmail(), b.getFlightId(), b.getSeatsBooked(),
+						b.getFarePerSeat(), b.getBookingTime(), b.isCanceled(), b.getCanceledAt(), b.getVersion(),
+						copy(b.getPendingEvents()));
+	}
+
+	private static List<BookingEvent> copy(List<BookingEvent> events) {
+		return events == null ? null
+				: events.stream().map(InMemoryMongo::copy).collect(Collectors.toCollection(ArrayList::new));
+	}
+
+	private static BookingEvent copy(BookingEvent e) {
+		return new BookingEvent(e.getId(), e.getSeq(), e.getType(), e.getPnr(), e.getEmail(), e.getFlightId(),
+				e.getSeatDelta(), e.getAvailableSeats(), e.getOccurredAt());
+	}
+}
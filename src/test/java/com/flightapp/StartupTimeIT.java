@@ -0,0 +1,41 @@
+package com.flightapp;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.ApplicationListener;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Startup regression check, run by failsafe in the "startup" profile:
+//   mvn -Pstartup verify [-Dstartup.max-millis=...]
+// Measures launch -> ApplicationReadyEvent with the prod profile (lazy init, no springdoc)
+// and the AOT-generated context. CDS needs a fresh JVM — see loadtest/startup.sh for that.
+
+public class StartupTimeIT {
+
+	@Test
+	void startsWithinBudget() {
+
+		long budget = Long.getLong("startup.max-millis", 15000);
+		AtomicLong readyAt = new AtomicLong();
+
+		SpringApplication app = new SpringApplication(FlightBookingWebfluxApplication.class);
+		app.setAdditionalProfiles("prod");
+		// AOT looks up its generated initializer by main class, which would otherwise be the test runner
+		app.setMainApplicationClass(FlightBookingWebfluxApplication.class);
+		app.addListeners((ApplicationListener<ApplicationReadyEvent>) e -> readyAt.set(System.nanoTime()));
+
+		long started = System.nanoTime();
+		// Startup time only: no database migration in the measurement, and no Mongo needed
+		try (ConfigurableApplicationContext ctx = app.run("--server.port=0",
+				"--flightapp.mongo.version-backfill.enabled=false")) {
+			long millis = (readyAt.get() - started) / 1_000_000;
+			System.out.printf("Startup to ready: %d ms (budget %d ms)%n", millis, budget);
+			assertTrue(millis <= budget, "Startup took " + millis + " ms, budget is " + budget + " ms");
+		}
+	}
+}
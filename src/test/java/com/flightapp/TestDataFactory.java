@@ -3,6 +3,7 @@ package com.flightapp;
 import com.flightapp.dto.*;
 import com.flightapp.entity.*;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -29,7 +30,8 @@ public class TestDataFactory {
 		LocalDateTime arrival = arrivalAfter(departure);
 
 		return FlightInventoryRequest.builder().flightNumber("AI101").fromPlace(placeString).toPlace(placeString2)
-				.departureTime(departure).arrivalTime(arrival).price(4500f).totalSeats(120).airlineName("Air India")
+				.departureTime(departure).arrivalTime(arrival).price(new BigDecimal("4500.00")).totalSeats(120)
+				.airlineName("Air India")
 				.airlineLogoUrl("https://airindia.com/logo.png").build();
 	}
 
@@ -44,7 +46,8 @@ public class TestDataFactory {
 		LocalDateTime arrival = arrivalAfter(departure);
 
 		return Flight.builder().id("flight-1").flightNumber("AI101").fromPlace(placeString).toPlace(placeString2)
-				.departureTime(departure).arrivalTime(arrival).price(4500f).totalSeats(120).availableSeats(120)
+				.departureTime(departure).arrivalTime(arrival).price(Money.ofMinor(450000, "INR")).totalSeats(120)
+				.availableSeats(120)
 				.airlineId("airline-1").build();
 	}
 
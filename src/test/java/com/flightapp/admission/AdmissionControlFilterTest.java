@@ -0,0 +1,265 @@
+package com.flightapp.admission;
+
+import com.flightapp.config.AdmissionProperties;
+import com.mongodb.ServerAddress;
+import com.mongodb.connection.ClusterId;
+import com.mongodb.connection.ConnectionDescription;
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.BsonArray;
+import org.bson.BsonBoolean;
+import org.bson.BsonDocument;
+import org.bson.BsonInt64;
+import org.bson.BsonString;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AdmissionControlFilterTest {
+
+	private AdmissionProperties properties;
+	private MongoLatencyTracker latencyTracker;
+	private SimpleMeterRegistry registry;
+	private AtomicInteger passed;
+
+	@BeforeEach
+	void setup() {
+		properties = new AdmissionProperties();
+		latencyTracker = new MongoLatencyTracker();
+		registry = new SimpleMeterRegistry();
+		passed = new AtomicInteger();
+	}
+
+	private AdmissionControlFilter filter() {
+		return new AdmissionControlFilter(properties, latencyTracker, registry);
+	}
+
+	private final WebFilterChain countingChain = exchange -> Mono.fromRunnable(() -> passed.incrementAndGet());
+
+	private MockServerWebExchange search(String client) {
+		return clientId("10.0.0.11", client);
+	}
+
+	// 1) token bucket per client — burst, then 429 with Retry-After
+	@Test
+	void rateLimitPerClient() {
+		properties.setSearch(new AdmissionProperties.Limits(100, 1, 2));
+		properties.setTrustedProxies(List.of("10.0.0.11"));
+		AdmissionControlFilter filter = filter();
+
+		for (int i = 0; i < 2; i++) {
+			StepVerifier.create(filter.filter(search("a"), countingChain)).verifyComplete();
+		}
+
+		MockServerWebExchange third = search("a");
+		StepVerifier.create(filter.filter(third, countingChain)).verifyComplete();
+		assertEquals(HttpStatus.TOO_MANY_REQUESTS, third.getResponse().getStatusCode());
+		assertEquals("1", third.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+
+		// another client has its own bucket
+		StepVerifier.create(filter.filter(search("b"), countingChain)).verifyComplete();
+		assertEquals(3, passed.get());
+		assertEquals(1.0, registry.get("flightapp.admission.rejected").tag("endpoint", "search").tag("reason", "rate")
+				.counter().count());
+	}
+
+	// 2) history is limited per email in the path
+	@Test
+	void historyKeyedByEmail() {
+		properties.setRead(new AdmissionProperties.Limits(100, 1, 1));
+		AdmissionControlFilter filter = filter();
+
+		var first = MockServerWebExchange.from(MockServerHttpRequest.get("/api/flight/booking/history/a@x.com"));
+		var second = MockServerWebExchange.from(MockServerHttpRequest.get("/api/flight/booking/history/A@x.com"));
+		var other = MockServerWebExchange.from(MockServerHttpRequest.get("/api/flight/booking/history/b@x.com"));
+
+		filter.filter(first, countingChain).block();
+		filter.filter(second, countingChain).block();
+		filter.filter(other, countingChain).block();
+
+		assertNull(first.getResponse().getStatusCode());
+		assertEquals(HttpStatus.TOO_MANY_REQUESTS, second.getResponse().getStatusCode());
+		assertNull(other.getResponse().getStatusCode());
+	}
+
+	// 3) in-flight limit — slot released when the request finishes or is cancelled
+	@Test
+	void concurrencyLimitShedsAndReleases() {
+		properties.setBooking(new AdmissionProperties.Limits(1, 0, 0));
+		AdmissionControlFilter filter = filter();
+
+		var booking = MockServerHttpRequest.post("/api/flight/booking/flight-1");
+		Disposable inFlight = filter.filter(MockServerWebExchange.from(booking), exchange -> Mono.never())
+				.subscribe();
+
+		MockServerWebExchange rejected = MockServerWebExchange.from(booking);
+		filter.filter(rejected, countingChain).block();
+		assertEquals(HttpStatus.TOO_MANY_REQUESTS, rejected.getResponse().getStatusCode());
+
+		inFlight.dispose();
+
+		MockServerWebExchange admitted = MockServerWebExchange.from(booking);
+		filter.filter(admitted, countingChain).block();
+		assertNull(admitted.getResponse().getStatusCode());
+		assertEquals(1, passed.get());
+	}
+
+	// 4) slow Mongo lowers the ceiling, never below minConcurrent
+	@Test
+	void adaptiveLimitFollowsMongoLatency() {
+		properties.setBooking(new AdmissionProperties.Limits(64, 0, 0));
+		EndpointLimiter limiter = new EndpointLimiter("booking", properties.getBooking(), properties, latencyTracker);
+
+		assertEquals(64, limiter.currentLimit());
+
+		latencyTracker.record(Duration.ofMillis(200).toNanos());
+		assertEquals(16, limiter.currentLimit());
+
+		latencyTracker.record(Duration.ofSeconds(60).toNanos());
+		assertEquals(properties.getMinConcurrent(), limiter.currentLimit());
+	}
+
+	// 5) everything else passes straight through
+	@Test
+	void unmatchedRequestsPassThrough() {
+		properties.setSearch(new AdmissionProperties.Limits(0, 0, 0));
+		AdmissionControlFilter filter = filter();
+
+		filter.filter(MockServerWebExchange.from(MockServerHttpRequest.get("/actuator/health")), countingChain)
+				.block();
+		filter.filter(MockServerWebExchange.from(MockServerHttpRequest.get("/api/flight/search")), countingChain)
+				.block();
+
+		assertEquals(2, passed.get());
+	}
+
+	// 6) behind a trusted proxy the client comes from X-Forwarded-For, not the proxy's address
+	@Test
+	void forwardedClientBehindTrustedProxy() {
+		properties.setSearch(new AdmissionProperties.Limits(100, 1, 1));
+		properties.setTrustedProxies(List.of("10.0.0.11"));
+		AdmissionControlFilter filter = filter();
+
+		// the left-most hop is whatever the client claims; the balancer appended the real one
+		MockServerWebExchange a = fromProxy("10.0.0.11", "1.1.1.1, 7.7.7.7");
+		MockServerWebExchange b = fromProxy("10.0.0.11", "7.7.7.7, 8.8.8.8");
+		MockServerWebExchange aAgain = fromProxy("10.0.0.11", "9.9.9.9, 7.7.7.7");
+		filter.filter(a, countingChain).block();
+		filter.filter(b, countingChain).block();
+		filter.filter(aAgain, countingChain).block();
+
+		assertNull(a.getResponse().getStatusCode());
+		assertNull(b.getResponse().getStatusCode());
+		assertEquals(HttpStatus.TOO_MANY_REQUESTS, aAgain.getResponse().getStatusCode());
+
+		// from an address that isn't a trusted proxy the header is ignored
+		MockServerWebExchange direct = fromProxy("5.5.5.5", "6.6.6.6");
+		MockServerWebExchange directAgain = fromProxy("5.5.5.5", "4.4.4.4");
+		filter.filter(direct, countingChain).block();
+		filter.filter(directAgain, countingChain).block();
+		assertEquals(HttpStatus.TOO_MANY_REQUESTS, directAgain.getResponse().getStatusCode());
+	}
+
+	// 7) per-client rate limits are off by default; only the concurrency ceiling applies
+	@Test
+	void noRateLimitByDefault() {
+		AdmissionControlFilter filter = filter();
+
+		for (int i = 0; i < 50; i++) {
+			filter.filter(fromProxy("10.0.0.11", null), countingChain).block();
+		}
+		assertEquals(50, passed.get());
+	}
+
+	// 8) the invalidation bus's tailable cursor waits server-side: its commands don't count as latency
+	@Test
+	void tailableCursorLeftOutOfLatency() {
+		BsonDocument tailableFind = new BsonDocument("find", new BsonString("cache_invalidations"))
+				.append("tailable", BsonBoolean.TRUE).append("awaitData", BsonBoolean.TRUE);
+		latencyTracker.commandStarted(started(1, "find", tailableFind));
+		latencyTracker.commandSucceeded(succeeded(1, "find", cursor(42), Duration.ofMillis(2)));
+
+		latencyTracker.commandStarted(started(2, "getMore", new BsonDocument("getMore", new BsonInt64(42))));
+		latencyTracker.commandSucceeded(succeeded(2, "getMore", cursor(42), Duration.ofSeconds(1)));
+		assertEquals(0, latencyTracker.averageNanos());
+
+		// an ordinary query's getMore is still measured
+		latencyTracker.commandStarted(started(3, "find", new BsonDocument("find", new BsonString("flights"))));
+		latencyTracker.commandSucceeded(succeeded(3, "find", cursor(7), Duration.ofMillis(5)));
+		latencyTracker.commandStarted(started(4, "getMore", new BsonDocument("getMore", new BsonInt64(7))));
+		latencyTracker.commandSucceeded(succeeded(4, "getMore", cursor(0), Duration.ofMillis(5)));
+		assertEquals(Duration.ofMillis(5).toNanos(), latencyTracker.averageNanos(), 1);
+
+		// once the tailable cursor is killed its id is forgotten
+		latencyTracker.commandStarted(started(5, "killCursors", new BsonDocument("killCursors",
+				new BsonString("cache_invalidations")).append("cursors", new BsonArray(List.of(new BsonInt64(42))))));
+		latencyTracker.commandStarted(started(6, "getMore", new BsonDocument("getMore", new BsonInt64(42))));
+		latencyTracker.commandSucceeded(succeeded(6, "getMore", cursor(0), Duration.ofMillis(5)));
+		assertEquals(Duration.ofMillis(5).toNanos(), latencyTracker.averageNanos(), 1);
+	}
+
+	// 9) a client id header straight from a client is ignored: rotating it doesn't buy a fresh bucket
+	@Test
+	void clientIdFromUntrustedPeerIgnored() {
+		properties.setSearch(new AdmissionProperties.Limits(100, 1, 1));
+		properties.setTrustedProxies(List.of("10.0.0.11"));
+		AdmissionControlFilter filter = filter();
+
+		MockServerWebExchange first = clientId("5.5.5.5", "spoof-1");
+		MockServerWebExchange second = clientId("5.5.5.5", "spoof-2");
+		filter.filter(first, countingChain).block();
+		filter.filter(second, countingChain).block();
+
+		assertNull(first.getResponse().getStatusCode());
+		assertEquals(HttpStatus.TOO_MANY_REQUESTS, second.getResponse().getStatusCode());
+		assertEquals(1, passed.get());
+	}
+
+	private static MockServerWebExchange clientId(String remote, String client) {
+		return MockServerWebExchange.from(MockServerHttpRequest.post("/api/flight/search")
+				.remoteAddress(new InetSocketAddress(remote, 40000)).header("X-Client-Id", client));
+	}
+
+	private static MockServerWebExchange fromProxy(String remote, String forwardedFor) {
+		var request = MockServerHttpRequest.post("/api/flight/search")
+				.remoteAddress(new InetSocketAddress(remote, 40000));
+		if (forwardedFor != null) {
+			request.header("X-Forwarded-For", forwardedFor);
+		}
+		return MockServerWebExchange.from(request);
+	}
+
+	private static final ConnectionDescription CONNECTION = new ConnectionDescription(
+			new ServerId(new ClusterId(), new ServerAddress()));
+
+	private static CommandStartedEvent started(int requestId, String name, BsonDocument command) {
+		return new CommandStartedEvent(null, requestId, requestId, CONNECTION, "flightapp", name, command);
+	}
+
+	private static CommandSucceededEvent succeeded(int requestId, String name, BsonDocument response,
+			Duration elapsed) {
+		return new CommandSucceededEvent(null, requestId, requestId, CONNECTION, "flightapp", name, response,
+				elapsed.toNanos());
+	}
+
+	private static BsonDocument cursor(long id) {
+		return new BsonDocument("cursor", new BsonDocument("id", new BsonInt64(id)));
+	}
+}
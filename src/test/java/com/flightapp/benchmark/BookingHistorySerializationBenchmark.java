@@ -0,0 +1,100 @@
+package com.flightapp.benchmark;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.flightapp.dto.BookingResponse;
+import com.flightapp.dto.BookingView;
+import com.flightapp.entity.Booking;
+import com.flightapp.entity.Money;
+import com.flightapp.entity.Passenger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Booking history serialization: DTO graph (BookingResponse + PassengerRequest copies,
+// bean serializer) vs BookingView written straight from the entities.
+// Run with -Pjmh; compare gc.alloc.rate.norm (bytes per op) between the two.
+// Each element goes through its own writeValue like the WebFlux JSON encoder does for a Flux.
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookingHistorySerializationBenchmark {
+
+	@Param({ "50", "1000" })
+	int bookings;
+
+	@Param({ "4" })
+	int passengersPerBooking;
+
+	private List<BookingView> history;
+	private ObjectMapper mapper;
+	private ObjectWriter responseWriter;
+	private ObjectWriter viewWriter;
+
+	@Setup
+	public void setup() {
+		mapper = Jackson2ObjectMapperBuilder.json().build();
+		responseWriter = mapper.writerFor(BookingResponse.class);
+		viewWriter = mapper.writerFor(BookingView.class);
+
+		history = new ArrayList<>(bookings);
+		LocalDateTime booked = LocalDateTime.of(2030, 1, 1, 10, 0);
+		for (int b = 0; b < bookings; b++) {
+			Booking booking = Booking.builder().id("b" + b).pnr(String.format("PNR%05d", b))
+					.email("frequent@example.com").flightId("flight-" + (b % 40)).seatsBooked(passengersPerBooking)
+					.farePerSeat(Money.ofMinor(450000 + b, "INR")).bookingTime(booked.plusHours(b))
+					.canceled(b % 10 == 0).build();
+
+			List<Passenger> passengers = new ArrayList<>(passengersPerBooking);
+			for (int p = 0; p < passengersPerBooking; p++) {
+				passengers.add(Passenger.builder().id("p" + b + "-" + p).name("Passenger " + p).gender("F").age(30 + p)
+						.seatNumber((p + 1) + "A").meal("veg").bookingId(booking.getId()).build());
+			}
+			history.add(new BookingView(booking, passengers));
+		}
+	}
+
+	@Benchmark
+	public void dtoMapping() throws IOException {
+		try (JsonGenerator gen = mapper.getFactory().createGenerator(OutputStream.nullOutputStream())) {
+			gen.writeStartArray();
+			for (BookingView view : history) {
+				responseWriter.writeValue(gen, view.toResponse());
+			}
+			gen.writeEndArray();
+		}
+	}
+
+	@Benchmark
+	public void viewSerializer() throws IOException {
+		try (JsonGenerator gen = mapper.getFactory().createGenerator(OutputStream.nullOutputStream())) {
+			gen.writeStartArray();
+			for (BookingView view : history) {
+				viewWriter.writeValue(gen, view);
+			}
+			gen.writeEndArray();
+		}
+	}
+}
@@ -0,0 +1,84 @@
+package com.flightapp.benchmark;
+
+import com.flightapp.config.PlaceProperties;
+import com.flightapp.dto.PlaceSuggestion;
+import com.flightapp.place.PlaceRegistry;
+import com.flightapp.repository.FlightRepository;
+import com.flightapp.repository.PlaceCount;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// One autocomplete lookup (fold the prefix, walk the trie, take the top list) over every registry
+// place plus `places` made-up ones, the way GET /places does it. SampleTime reports percentiles:
+// look at p0.99 per prefix — the target is well under a millisecond.
+// Prefixes cover a one-letter hit (biggest top list), code, alias, mid-name word and a miss.
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PlaceAutocompleteBenchmark {
+
+	@Param({ "5000" })
+	int places;
+
+	@Param({ "d", "bom", "bengal", "new d", "york", "qqq" })
+	String prefix;
+
+	private PlaceRegistry registry;
+
+	@Setup
+	public void setup() {
+		List<PlaceCount> counts = new ArrayList<>();
+		Random random = new Random(42);
+		for (String name : List.of("Delhi", "Mumbai", "Bangalore", "Chennai", "Kolkata", "Dubai", "New York",
+				"Doha", "Dehradun")) {
+			counts.add(new PlaceCount(name, 1_000 + random.nextInt(10_000)));
+		}
+		String letters = "abcdefghijklmnopqrstuvwxyz";
+		for (int i = 0; i < places; i++) {
+			StringBuilder name = new StringBuilder();
+			int words = 1 + random.nextInt(2);
+			for (int w = 0; w < words; w++) {
+				name.append(w == 0 ? "" : " ").append(Character.toUpperCase(letters.charAt(random.nextInt(26))));
+				for (int c = 0; c < 3 + random.nextInt(6); c++) {
+					name.append(letters.charAt(random.nextInt(26)));
+				}
+			}
+			counts.add(new PlaceCount(name.toString(), 1 + random.nextInt(500)));
+		}
+
+		FlightRepository flightRepository = mock(FlightRepository.class);
+		when(flightRepository.countPlacesOnReplica()).thenReturn(Flux.fromIterable(counts));
+		PlaceProperties properties = new PlaceProperties();
+		properties.setBackfill(false);
+		registry = new PlaceRegistry(flightRepository, properties);
+		registry.load().block();
+	}
+
+	@Benchmark
+	public List<PlaceSuggestion> suggest() {
+		return registry.suggest(prefix, 10);
+	}
+}
@@ -0,0 +1,99 @@
+package com.flightapp.benchmark;
+
+import com.flightapp.TestDataFactory;
+import com.flightapp.dto.BookingRequest;
+import com.flightapp.dto.FlightInventoryRequest;
+import com.flightapp.dto.PassengerRequest;
+import com.flightapp.validation.RequestValidator;
+import com.flightapp.validation.RequestValidators;
+
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Request validation per call: Hibernate Validator (what @Valid ran) vs the hand-written
+// RequestValidators now used on the booking and inventory endpoints. 4-passenger bookings
+// and inventory requests, valid or with two broken fields (the reject path builds messages).
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RequestValidationBenchmark {
+
+	@Param({ "booking", "inventory" })
+	String payload;
+
+	@Param({ "true", "false" })
+	boolean valid;
+
+	private ValidatorFactory factory;
+	private Validator beanValidator;
+	private RequestValidator<Object> requestValidator;
+	private Object request;
+
+	@Setup
+	@SuppressWarnings("unchecked")
+	public void setup() {
+		factory = Validation.buildDefaultValidatorFactory();
+		beanValidator = factory.getValidator();
+
+		if ("booking".equals(payload)) {
+			BookingRequest booking = TestDataFactory.sampleBookingRequest();
+			List<PassengerRequest> passengers = new ArrayList<>();
+			for (int i = 1; i <= 4; i++) {
+				passengers.add(PassengerRequest.builder().name("Passenger " + i).gender("F").age(30 + i)
+						.seatNumber(i + "C").meal("veg").build());
+			}
+			booking.setNumberOfSeats(4);
+			booking.setPassengers(passengers);
+			if (!valid) {
+				booking.setEmail("not-an-email");
+				passengers.get(2).setName("");
+			}
+			request = booking;
+			requestValidator = (RequestValidator<Object>) (RequestValidator<?>) RequestValidators.BOOKING;
+		} else {
+			FlightInventoryRequest inventory = TestDataFactory.sampleInventoryRequest();
+			if (!valid) {
+				inventory.setFlightNumber("ai-101");
+				inventory.setTotalSeats(0);
+			}
+			request = inventory;
+			requestValidator = (RequestValidator<Object>) (RequestValidator<?>) RequestValidators.INVENTORY;
+		}
+	}
+
+	@TearDown
+	public void tearDown() {
+		factory.close();
+	}
+
+	@Benchmark
+	public Object hibernateValidator() {
+		return beanValidator.validate(request);
+	}
+
+	@Benchmark
+	public Object requestValidators() {
+		return requestValidator.violations(request);
+	}
+}
@@ -0,0 +1,136 @@
+package com.flightapp.benchmark;
+
+import com.flightapp.InMemoryMongo;
+import com.flightapp.TestDataFactory;
+import com.flightapp.cache.LocalCacheInvalidationBus;
+import com.flightapp.cache.TicketCache;
+import com.flightapp.cache.TicketCacheTier;
+import com.flightapp.config.FareCalendarProperties;
+import com.flightapp.config.PlaceProperties;
+import com.flightapp.config.PricingProperties;
+import com.flightapp.config.ResilienceProperties;
+import com.flightapp.config.TicketCacheProperties;
+import com.flightapp.dto.BookingRequest;
+import com.flightapp.entity.Booking;
+import com.flightapp.entity.Flight;
+import com.flightapp.exception.ApiException;
+import com.flightapp.place.PlaceRegistry;
+import com.flightapp.pricing.PricingEngine;
+import com.flightapp.repository.FareCalendarRepository;
+import com.flightapp.resilience.MongoGuard;
+import com.flightapp.service.impl.BookingServiceImpl;
+import com.flightapp.service.impl.FareCalendarServiceImpl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.dao.OptimisticLockingFailureException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+
+// 1000 single-seat bookings fired at once at one flight with fewer seats than that, through
+// the real BookingServiceImpl on an in-memory store (InMemoryMongo) that enforces @Version.
+//
+// versioned=true: every seat is sold exactly once — no oversell, no lost seats. Throughput and
+// the conflict counters show what the retries cost; "conflicted" are the 409s left after
+// maxRetries. versioned=false: last writer wins on the flight document, the old behaviour;
+// "lostSeats" counts seats sold to someone but never taken off availableSeats.
+// Each invocation is one round of operations; look at the per-round time and the counters.
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 20)
+@Fork(1)
+public class SeatContentionBenchmark {
+
+	@Param({ "1000" })
+	int operations;
+
+	@Param({ "600" })
+	int seats;
+
+	@Param({ "true", "false" })
+	boolean versioned;
+
+	@Param({ "5", "20" })
+	int maxRetries;
+
+	private InMemoryMongo store;
+	private BookingServiceImpl bookingService;
+	private Flight flight;
+
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	@State(Scope.Thread)
+	public static class Outcome {
+		public long booked;
+		public long soldOut;
+		public long conflicted;
+		public long lostSeats;
+	}
+
+	@Setup(Level.Invocation)
+	public void setup() {
+		store = new InMemoryMongo(versioned);
+		flight = TestDataFactory.sampleFlight();
+		flight.setTotalSeats(seats);
+		flight.setAvailableSeats(seats);
+		store.put(flight);
+
+		ResilienceProperties resilience = new ResilienceProperties();
+		resilience.getConflictRetry().setMaxRetries(maxRetries);
+		resilience.getTimeouts().put(MongoGuard.Operation.BOOKING, Duration.ofMinutes(1));
+		resilience.getWrites().setMaxConcurrent(operations);
+		MongoGuard mongoGuard = new MongoGuard(resilience, new SimpleMeterRegistry());
+
+		FareCalendarServiceImpl fareCalendar = new FareCalendarServiceImpl(store.flights(),
+				mock(FareCalendarRepository.class), new FareCalendarProperties(), mongoGuard,
+				new PlaceRegistry(store.flights(), new PlaceProperties()));
+		bookingService = new BookingServiceImpl(store.bookings(), store.flights(), store.passengers(),
+				store.bookingEvents(), store.bookingHistories(),
+				new TicketCache(new TicketCacheProperties(), TicketCacheTier.none(), new SimpleMeterRegistry()),
+				new LocalCacheInvalidationBus(), fareCalendar, new PricingEngine(new PricingProperties()), mongoGuard);
+	}
+
+	@Benchmark
+	public void concurrentBookings(Outcome outcome) {
+		BookingRequest request = TestDataFactory.sampleBookingRequest();
+
+		Flux.range(0, operations)
+				.flatMap(i -> bookingService.bookTicket(flight.getId(), request).map(resp -> "booked")
+						.onErrorResume(ApiException.class, ex -> Mono.just("soldOut"))
+						.onErrorResume(OptimisticLockingFailureException.class, ex -> Mono.just("conflicted")),
+						operations)
+				.doOnNext(result -> {
+					switch (result) {
+					case "booked" -> outcome.booked++;
+					case "soldOut" -> outcome.soldOut++;
+					default -> outcome.conflicted++;
+					}
+				}).blockLast();
+
+		int sold = store.allBookings().stream().mapToInt(Booking::getSeatsBooked).sum();
+		int available = store.flight(flight.getId()).getAvailableSeats();
+		outcome.lostSeats += Math.max(0, sold + available - seats);
+		if (versioned && sold + available != seats) {
+			throw new IllegalStateException("seat invariant broken: sold " + sold + ", available " + available);
+		}
+	}
+}
@@ -0,0 +1,115 @@
+package com.flightapp.benchmark;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flightapp.config.WireFormatConfig;
+import com.flightapp.dto.BookingResponse;
+import com.flightapp.dto.BookingView;
+import com.flightapp.dto.FlightSearchResult;
+import com.flightapp.entity.Booking;
+import com.flightapp.entity.Money;
+import com.flightapp.entity.Passenger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// JSON vs Smile for the two high-volume responses: a search page and a booking history.
+// encode = what the server pays per response, decode = what an aggregator pays.
+// Payload sizes are printed once per trial (look for "payload bytes" in the output).
+// The Smile mapper is the one WireFormatConfig registers.
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WireFormatBenchmark {
+
+	@Param({ "search", "history" })
+	String payload;
+
+	@Param({ "json", "smile" })
+	String format;
+
+	private ObjectMapper mapper;
+	private Object value;
+	private JavaType readType;
+	private byte[] encoded;
+
+	@Setup
+	public void setup() throws IOException {
+		mapper = "smile".equals(format) ? WireFormatConfig.smileMapper(Jackson2ObjectMapperBuilder.json())
+				: Jackson2ObjectMapperBuilder.json().build();
+
+		if ("search".equals(payload)) {
+			value = searchPage(200);
+			readType = mapper.getTypeFactory().constructCollectionType(List.class, FlightSearchResult.class);
+		} else {
+			value = history(200, 3);
+			readType = mapper.getTypeFactory().constructCollectionType(List.class, BookingResponse.class);
+		}
+
+		encoded = mapper.writeValueAsBytes(value);
+		System.out.printf("%n%s/%s payload bytes: %d%n", payload, format, encoded.length);
+	}
+
+	@Benchmark
+	public byte[] encode() throws IOException {
+		return mapper.writeValueAsBytes(value);
+	}
+
+	@Benchmark
+	public Object decode() throws IOException {
+		return mapper.readValue(encoded, readType);
+	}
+
+	private static List<FlightSearchResult> searchPage(int size) {
+		List<FlightSearchResult> results = new ArrayList<>(size);
+		LocalDateTime departure = LocalDateTime.of(2030, 3, 1, 6, 0);
+		for (int i = 0; i < size; i++) {
+			results.add(FlightSearchResult.builder().flightId("65f0c0ffee" + i).flightNumber("AI" + (100 + i))
+					.fromPlace("Bangalore").toPlace("Mumbai").departureTime(departure.plusMinutes(7L * i))
+					.arrivalTime(departure.plusMinutes(7L * i + 105)).price(BigDecimal.valueOf(450000 + i, 2))
+					.currency("INR").fareLockedUntil(Instant.parse("2030-02-01T10:00:00Z"))
+					.availableSeats(120 - i % 120).airlineName("Air India")
+					.airlineLogoUrl("https://airindia.com/logo.png").build());
+		}
+		return results;
+	}
+
+	private static List<BookingView> history(int bookings, int passengersPerBooking) {
+		List<BookingView> views = new ArrayList<>(bookings);
+		LocalDateTime booked = LocalDateTime.of(2030, 1, 1, 10, 0);
+		for (int b = 0; b < bookings; b++) {
+			Booking booking = Booking.builder().id("b" + b).pnr(String.format("PNR%05d", b))
+					.email("aggregator@example.com").flightId("flight-" + (b % 40)).seatsBooked(passengersPerBooking)
+					.farePerSeat(Money.ofMinor(450000 + b, "INR")).bookingTime(booked.plusHours(b)).build();
+			List<Passenger> passengers = new ArrayList<>(passengersPerBooking);
+			for (int p = 0; p < passengersPerBooking; p++) {
+				passengers.add(Passenger.builder().name("Passenger " + p).gender("M").age(30 + p)
+						.seatNumber((p + 1) + "C").meal("veg").build());
+			}
+			views.add(new BookingView(booking, passengers));
+		}
+		return views;
+	}
+}
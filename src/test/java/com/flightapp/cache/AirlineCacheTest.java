@@ -0,0 +1,62 @@
+package com.flightapp.cache;
+
+import com.flightapp.entity.Airline;
+import com.flightapp.repository.AirlineRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledInNativeImage;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+@DisabledInNativeImage
+public class AirlineCacheTest {
+
+	private AirlineRepository airlineRepository;
+	private AirlineCache airlineCache;
+
+	@BeforeEach
+	void setup() {
+		airlineRepository = mock(AirlineRepository.class);
+		airlineCache = new AirlineCache(airlineRepository);
+	}
+
+	// 1) preload fills the map, no per-lookup queries afterwards
+	@Test
+	void testPreload_servesFromMemory() {
+		Airline a1 = Airline.builder().id("A1").name("Air India").build();
+		Airline a2 = Airline.builder().id("A2").name("IndiGo").build();
+		when(airlineRepository.findAll()).thenReturn(Flux.just(a1, a2));
+
+		airlineCache.preload();
+
+		assertEquals(2, airlineCache.size());
+		StepVerifier.create(airlineCache.get("A2")).expectNext(a2).verifyComplete();
+		verify(airlineRepository, never()).findById(anyString());
+	}
+
+	// 2) unknown id — loaded once, then cached
+	@Test
+	void testGet_missLoadsAndCaches() {
+		Airline a1 = Airline.builder().id("A1").name("Air India").build();
+		when(airlineRepository.findById("A1")).thenReturn(Mono.just(a1));
+
+		StepVerifier.create(airlineCache.get("A1")).expectNext(a1).verifyComplete();
+		StepVerifier.create(airlineCache.get("A1")).expectNext(a1).verifyComplete();
+
+		verify(airlineRepository, times(1)).findById("A1");
+	}
+
+	// 3) null / missing airline — empty
+	@Test
+	void testGet_missingAirline() {
+		when(airlineRepository.findById("NOPE")).thenReturn(Mono.empty());
+
+		StepVerifier.create(airlineCache.get(null)).verifyComplete();
+		StepVerifier.create(airlineCache.get("NOPE")).verifyComplete();
+	}
+}
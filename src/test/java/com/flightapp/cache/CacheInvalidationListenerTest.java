@@ -0,0 +1,84 @@
+package com.flightapp.cache;
+
+import com.flightapp.TestDataFactory;
+import com.flightapp.config.TicketCacheProperties;
+import com.flightapp.dto.BookingResponse;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class CacheInvalidationListenerTest {
+
+	private LocalCacheInvalidationBus bus;
+	private TicketCache ticketCache;
+	private CacheInvalidationListener listener;
+
+	@BeforeEach
+	void setup() {
+		bus = new LocalCacheInvalidationBus();
+		ticketCache = new TicketCache(new TicketCacheProperties(), TicketCacheTier.none(), new SimpleMeterRegistry());
+		listener = new CacheInvalidationListener(bus, ticketCache);
+		listener.subscribe();
+	}
+
+	@AfterEach
+	void teardown() {
+		listener.unsubscribe();
+	}
+
+	// 1) PNR_CANCELED from the bus drops the local ticket
+	@Test
+	void testPnrCanceled_evictsLocalTicket() {
+		StepVerifier.create(ticketCache.put(BookingResponse.builder().pnr("PNR1").build())).verifyComplete();
+		assertEquals(1, ticketCache.localSize());
+
+		StepVerifier.create(bus.publish(CacheInvalidationEvent.pnrCanceled("PNR1"))).verifyComplete();
+
+		StepVerifier.create(ticketCache.get("PNR1")).verifyComplete();
+	}
+
+	// 2) bus stamps node id + timestamp and builds the route key
+	@Test
+	void testPublish_stampsEvent() {
+		CacheInvalidationEvent event = CacheInvalidationEvent.seatsChanged(TestDataFactory.sampleFlight());
+
+		StepVerifier.create(bus.publish(event)).verifyComplete();
+
+		assertEquals(bus.nodeId(), event.getNodeId());
+		assertEquals("Bangalore|Mumbai|" + TestDataFactory.sampleFlight().getDepartureTime().toLocalDate(),
+				event.getRoute());
+	}
+
+	// 3) flight events leave tickets alone
+	@Test
+	void testSeatsChanged_keepsTickets() {
+		StepVerifier.create(ticketCache.put(BookingResponse.builder().pnr("PNR1").build())).verifyComplete();
+
+		StepVerifier.create(bus.publish(CacheInvalidationEvent.seatsChanged(TestDataFactory.sampleFlight())))
+				.verifyComplete();
+
+		StepVerifier.create(ticketCache.get("PNR1")).expectNextCount(1).verifyComplete();
+	}
+
+	// 4) FLUSH_ALL (the Mongo bus may have missed events) drops every local ticket
+	@Test
+	void testFlushAll_evictsAllLocalTickets() {
+		StepVerifier.create(ticketCache.put(BookingResponse.builder().pnr("PNR1").build())).verifyComplete();
+		StepVerifier.create(ticketCache.put(BookingResponse.builder().pnr("PNR2").build())).verifyComplete();
+		long readBeforeFlush = ticketCache.generation();
+
+		listener.onEvent(CacheInvalidationEvent.flushAll());
+
+		StepVerifier.create(ticketCache.get("PNR1")).verifyComplete();
+		StepVerifier.create(ticketCache.get("PNR2")).verifyComplete();
+		// a lookup that read before the flush doesn't put its ticket back
+		StepVerifier.create(ticketCache.put(BookingResponse.builder().pnr("PNR3").build(), readBeforeFlush))
+				.verifyComplete();
+		assertEquals(0, ticketCache.localSize());
+	}
+}
@@ -0,0 +1,152 @@
+package com.flightapp.cache;
+
+import com.flightapp.config.InvalidationBusProperties;
+
+import com.mongodb.MongoCommandException;
+import com.mongodb.ServerAddress;
+import org.bson.BsonDocument;
+import org.bson.BsonInt32;
+import org.bson.BsonString;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.UncategorizedMongoDbException;
+import org.springframework.data.mongodb.core.CollectionOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class MongoCacheInvalidationBusTest {
+
+	private static final String COLLECTION = "cache_invalidations";
+
+	private ReactiveMongoTemplate mongoTemplate;
+	private MongoCacheInvalidationBus bus;
+	private final List<String> delivered = new CopyOnWriteArrayList<>();
+
+	// ids a second apart, like three events published a second after each other
+	private final Instant t0 = Instant.parse("2030-01-01T00:00:00Z");
+	private final CacheInvalidationEvent e0 = event(t0);
+	private final CacheInvalidationEvent e1 = event(t0.plusSeconds(1));
+	private final CacheInvalidationEvent e2 = event(t0.plusSeconds(2));
+
+	@BeforeEach
+	void setup() {
+		mongoTemplate = mock(ReactiveMongoTemplate.class);
+		InvalidationBusProperties properties = new InvalidationBusProperties();
+		properties.setRetryDelay(Duration.ofMillis(10));
+		bus = new MongoCacheInvalidationBus(mongoTemplate, properties);
+		bus.events().subscribe(event -> delivered.add(
+				event.getType() == CacheInvalidationEvent.Type.FLUSH_ALL ? "flush" : event.getId()));
+
+		when(mongoTemplate.collectionExists(COLLECTION)).thenReturn(Mono.just(true));
+		when(mongoTemplate.findOne(any(Query.class), eq(CacheInvalidationEvent.class), eq(COLLECTION)))
+				.thenReturn(Mono.just(e0));
+	}
+
+	@AfterEach
+	void teardown() {
+		bus.stop();
+	}
+
+	// 1) starts after the newest event; a re-tail asks for ids after the last one seen, reaching
+	// back maxClockSkew for publishers whose clocks run behind
+	@Test
+	void retailResumesAfterLastSeenId() {
+		when(mongoTemplate.tail(any(Query.class), eq(CacheInvalidationEvent.class), eq(COLLECTION)))
+				.thenReturn(Flux.just(e1)).thenReturn(Flux.just(e1, e2).concatWith(Flux.never()));
+		when(mongoTemplate.exists(any(Query.class), eq(COLLECTION))).thenReturn(Mono.just(true));
+
+		bus.start();
+
+		verify(mongoTemplate, timeout(2000).times(2)).tail(any(Query.class), eq(CacheInvalidationEvent.class),
+				eq(COLLECTION));
+		waitFor(3);
+		// e1 came back inside the skew window: delivered twice, never lost
+		assertEquals(List.of(e1.getId(), e1.getId(), e2.getId()), delivered);
+
+		ArgumentCaptor<Query> tailed = ArgumentCaptor.forClass(Query.class);
+		verify(mongoTemplate, times(2)).tail(tailed.capture(), eq(CacheInvalidationEvent.class), eq(COLLECTION));
+		// the smallest id stamped 5s before e0
+		assertEquals(new ObjectId("70dbd87b0000000000000000"), idsAfter(tailed.getAllValues().get(0)));
+		assertEquals(t0.minusSeconds(4), idsAfter(tailed.getAllValues().get(1)).getDate().toInstant());
+		ArgumentCaptor<Query> newest = ArgumentCaptor.forClass(Query.class);
+		verify(mongoTemplate).findOne(newest.capture(), eq(CacheInvalidationEvent.class), eq(COLLECTION));
+		assertEquals(new Document("$natural", -1), newest.getValue().getSortObject());
+	}
+
+	// 2) last seen event rolled out of the capped collection: local caches are flushed, then the
+	// tail goes on after it
+	@Test
+	void retailFlushesWhenLastSeenRolledOut() {
+		when(mongoTemplate.tail(any(Query.class), eq(CacheInvalidationEvent.class), eq(COLLECTION)))
+				.thenReturn(Flux.just(e1)).thenReturn(Flux.just(e2).concatWith(Flux.never()));
+		when(mongoTemplate.exists(any(Query.class), eq(COLLECTION))).thenReturn(Mono.just(true))
+				.thenReturn(Mono.just(false));
+
+		bus.start();
+
+		waitFor(3);
+		assertEquals(List.of(e1.getId(), "flush", e2.getId()), delivered);
+	}
+
+	// 3) "already exists" from a racing node is fine; any other create failure is logged and retried
+	@Test
+	void cappedCollectionCreateFailuresRetried() {
+		when(mongoTemplate.collectionExists(COLLECTION)).thenReturn(Mono.just(false));
+		when(mongoTemplate.createCollection(eq(COLLECTION), any(CollectionOptions.class)))
+				.thenReturn(Mono.error(new UncategorizedMongoDbException("not authorized",
+						commandFailure(13, "not authorized on flightapp"))))
+				.thenReturn(Mono.error(new UncategorizedMongoDbException("exists",
+						commandFailure(48, "Collection already exists"))));
+		when(mongoTemplate.tail(any(Query.class), eq(CacheInvalidationEvent.class), eq(COLLECTION)))
+				.thenReturn(Flux.just(e1).concatWith(Flux.never()));
+		when(mongoTemplate.exists(any(Query.class), eq(COLLECTION))).thenReturn(Mono.just(true));
+
+		bus.start();
+
+		// (no verify(timeout): a failed poll prints the CollectionOptions argument, whose toString recurses)
+		waitFor(1);
+		assertEquals(List.of(e1.getId()), delivered);
+		assertEquals(2, mockingDetails(mongoTemplate).getInvocations().stream()
+				.filter(invocation -> invocation.getMethod().getName().equals("createCollection")).count());
+	}
+
+	private static ObjectId idsAfter(Query query) {
+		return (ObjectId) query.getQueryObject().get("_id", Document.class).get("$gt");
+	}
+
+	private void waitFor(int events) {
+		long deadline = System.nanoTime() + Duration.ofSeconds(2).toNanos();
+		while (delivered.size() < events && System.nanoTime() < deadline) {
+			Thread.onSpinWait();
+		}
+	}
+
+	private static CacheInvalidationEvent event(Instant createdAt) {
+		String id = new ObjectId(Date.from(createdAt)).toHexString();
+		return CacheInvalidationEvent.builder().id(id).type(CacheInvalidationEvent.Type.PNR_CANCELED).key(id)
+				.nodeId("other-node").createdAt(createdAt).build();
+	}
+
+	private static MongoCommandException commandFailure(int code, String message) {
+		BsonDocument response = new BsonDocument("ok", new BsonInt32(0)).append("code", new BsonInt32(code))
+				.append("errmsg", new BsonString(message));
+		return new MongoCommandException(response, new ServerAddress());
+	}
+}
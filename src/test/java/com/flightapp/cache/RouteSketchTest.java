@@ -0,0 +1,69 @@
+package com.flightapp.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RouteSketchTest {
+
+	// 1) under capacity: exact counts, highest first
+	@Test
+	void testTop_exactUnderCapacity() {
+		RouteSketch sketch = new RouteSketch(10);
+		record(sketch, "A", 5);
+		record(sketch, "B", 2);
+		record(sketch, "C", 9);
+
+		assertEquals(List.of(new RouteSketch.Hit("C", 9, 0), new RouteSketch.Hit("A", 5, 0)), sketch.top(2));
+	}
+
+	// 2) full sketch: a new key replaces the smallest counter and carries its count as error
+	@Test
+	void testRecord_replacesSmallestCounter() {
+		RouteSketch sketch = new RouteSketch(2);
+		record(sketch, "A", 5);
+		record(sketch, "B", 2);
+		sketch.record("C");
+
+		assertEquals(2, sketch.size());
+		assertEquals(List.of(new RouteSketch.Hit("A", 5, 0), new RouteSketch.Hit("C", 3, 2)), sketch.top(5));
+	}
+
+	// 3) heavy hitters survive a long tail of one-off keys many times the capacity
+	@Test
+	void testTop_findsHeavyHittersInNoise() {
+		RouteSketch sketch = new RouteSketch(50);
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		IntStream.range(0, 20_000).forEach(i -> {
+			int roll = random.nextInt(10);
+			sketch.record(roll < 3 ? "hot-" + roll : "tail-" + random.nextInt(100_000));
+		});
+
+		List<String> top = sketch.top(3).stream().map(RouteSketch.Hit::key).toList();
+		assertTrue(top.containsAll(List.of("hot-0", "hot-1", "hot-2")), top.toString());
+	}
+
+	// 4) decay halves counts and frees counters that reach zero
+	@Test
+	void testDecay_halvesAndFrees() {
+		RouteSketch sketch = new RouteSketch(10);
+		record(sketch, "A", 6);
+		sketch.record("B");
+
+		sketch.decay();
+
+		assertEquals(1, sketch.size());
+		assertEquals(List.of(new RouteSketch.Hit("A", 3, 0)), sketch.top(5));
+	}
+
+	private static void record(RouteSketch sketch, String key, int times) {
+		for (int i = 0; i < times; i++) {
+			sketch.record(key);
+		}
+	}
+}
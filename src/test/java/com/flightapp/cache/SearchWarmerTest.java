@@ -0,0 +1,129 @@
+package com.flightapp.cache;
+
+import com.flightapp.TestDataFactory;
+import com.flightapp.config.SearchCacheProperties;
+import com.flightapp.entity.Flight;
+import com.flightapp.service.FlightService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledInNativeImage;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@DisabledInNativeImage
+public class SearchWarmerTest {
+
+	private static final LocalDate TODAY = LocalDate.now();
+
+	private FlightService flightService;
+	private SearchResultCache searchResultCache;
+	private SearchWarmer warmer;
+
+	@BeforeEach
+	void setup() {
+		flightService = mock(FlightService.class);
+		SearchCacheProperties properties = new SearchCacheProperties();
+		properties.getWarm().setEnabled(true);
+		properties.getWarm().setTopK(2);
+		properties.getWarm().setDays(7);
+		searchResultCache = new SearchResultCache(properties, new SimpleMeterRegistry());
+		warmer = new SearchWarmer(flightService, searchResultCache, new LocalCacheInvalidationBus(), properties);
+
+		when(flightService.loadListings(anyString(), anyString(), any(LocalDate.class)))
+				.thenAnswer(inv -> Mono.just(List.of(listing("f-" + inv.getArgument(2)))));
+	}
+
+	// 1) the top keys inside the date window are loaded and served warm; past/far-out dates and the tail are not
+	@Test
+	void testWarmPopular_loadsTopKeysInWindow() {
+		search("BLR", "BOM", TODAY.plusDays(1), 10);
+		search("BLR", "DEL", TODAY.plusDays(2), 8);
+		search("BLR", "BOM", TODAY.minusDays(1), 20);
+		search("BLR", "BOM", TODAY.plusDays(30), 20);
+		search("DEL", "BOM", TODAY.plusDays(1), 1);
+
+		StepVerifier.create(warmer.warmPopular()).expectNext(2L).verifyComplete();
+
+		assertEquals("f-" + TODAY.plusDays(1), searchResultCache
+				.getWarm(SearchResultCache.key("BLR", "BOM", TODAY.plusDays(1))).orElseThrow().get(0).flight().getId());
+		assertTrue(searchResultCache.isWarm(SearchResultCache.key("BLR", "DEL", TODAY.plusDays(2))));
+		assertFalse(searchResultCache.isWarm(SearchResultCache.key("DEL", "BOM", TODAY.plusDays(1))));
+		verify(flightService, never()).loadListings("BLR", "BOM", TODAY.minusDays(1));
+
+		// counts were halved after the cycle
+		assertEquals(5, searchResultCache.popularKeys(5).stream()
+				.filter(hit -> hit.key().equals(SearchResultCache.key("BLR", "BOM", TODAY.plusDays(1)))).findFirst()
+				.orElseThrow().count());
+	}
+
+	// 2) seat changes on a warm route + day are reloaded once per refresh, others ignored
+	@Test
+	void testRefreshDirty_reloadsChangedWarmRoutes() {
+		Flight flight = TestDataFactory.sampleFlight();
+		String route = CacheInvalidationEvent.routeKey(flight);
+		searchResultCache.putWarm(route, List.of());
+
+		warmer.onEvent(CacheInvalidationEvent.seatsChanged(flight));
+		warmer.onEvent(CacheInvalidationEvent.seatsChanged(flight));
+		warmer.onEvent(CacheInvalidationEvent.pnrCanceled("PNR1"));
+		Flight cold = TestDataFactory.sampleFlight();
+		cold.setToPlace("Delhi");
+		warmer.onEvent(CacheInvalidationEvent.inventoryAdded(cold));
+
+		StepVerifier.create(warmer.refreshDirty()).expectNext(1L).verifyComplete();
+		StepVerifier.create(warmer.refreshDirty()).expectNext(0L).verifyComplete();
+
+		verify(flightService, times(1)).loadListings(anyString(), anyString(), any(LocalDate.class));
+		assertEquals(1, searchResultCache.getWarm(route).orElseThrow().size());
+	}
+
+	// 3) a failed load keeps the previous warm copy
+	@Test
+	void testWarm_failureKeepsPreviousCopy() {
+		String key = SearchResultCache.key("BLR", "BOM", TODAY.plusDays(1));
+		searchResultCache.putWarm(key, List.of(listing("old")));
+		search("BLR", "BOM", TODAY.plusDays(1), 3);
+		when(flightService.loadListings(anyString(), anyString(), any(LocalDate.class)))
+				.thenReturn(Mono.error(new IllegalStateException("mongo down")));
+
+		StepVerifier.create(warmer.warmPopular()).expectNext(0L).verifyComplete();
+
+		assertEquals("old", searchResultCache.getWarm(key).orElseThrow().get(0).flight().getId());
+	}
+
+	// 4) FLUSH_ALL (the bus may have missed seat changes) reloads every warm route + day
+	@Test
+	void testFlushAll_reloadsAllWarmRoutes() {
+		searchResultCache.putWarm(SearchResultCache.key("BLR", "BOM", TODAY.plusDays(1)), List.of());
+		searchResultCache.putWarm(SearchResultCache.key("BLR", "DEL", TODAY.plusDays(2)), List.of());
+
+		warmer.onEvent(CacheInvalidationEvent.flushAll());
+
+		StepVerifier.create(warmer.refreshDirty()).expectNext(2L).verifyComplete();
+		verify(flightService, times(2)).loadListings(anyString(), anyString(), any(LocalDate.class));
+	}
+
+	private static SearchResultCache.Listing listing(String flightId) {
+		Flight flight = TestDataFactory.sampleFlight();
+		flight.setId(flightId);
+		return new SearchResultCache.Listing(flight, null);
+	}
+
+	private void search(String from, String to, LocalDate date, int times) {
+		for (int i = 0; i < times; i++) {
+			searchResultCache.recordSearch(SearchResultCache.key(from, to, date));
+		}
+	}
+}
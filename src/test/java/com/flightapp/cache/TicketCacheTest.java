@@ -0,0 +1,157 @@
+package com.flightapp.cache;
+
+import com.flightapp.config.TicketCacheProperties;
+import com.flightapp.dto.BookingResponse;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class TicketCacheTest {
+
+	private TicketCacheProperties properties;
+	private MeterRegistry meterRegistry;
+
+	@BeforeEach
+	void setup() {
+		properties = new TicketCacheProperties();
+		meterRegistry = new SimpleMeterRegistry();
+	}
+
+	private static BookingResponse ticket(String pnr) {
+		return BookingResponse.builder().pnr(pnr).email("test@example.com").flightId("flight-1").seatsBooked(1)
+				.canceled(false).build();
+	}
+
+	// 1) put + get — local hit, metrics recorded
+	@Test
+	void testPutThenGet_localHit() {
+		TicketCache cache = new TicketCache(properties, TicketCacheTier.none(), meterRegistry);
+
+		StepVerifier.create(cache.get("PNR1")).verifyComplete();
+		StepVerifier.create(cache.put(ticket("PNR1"))).verifyComplete();
+		StepVerifier.create(cache.get("PNR1")).expectNextMatches(r -> r.getPnr().equals("PNR1")).verifyComplete();
+
+		assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "tickets").tag("result", "hit")
+				.functionCounter().count());
+		assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "tickets").tag("result", "miss")
+				.functionCounter().count());
+	}
+
+	// 2) evict — gone from local and shared tier
+	@Test
+	void testEvict_removesFromBothTiers() {
+		InMemoryTicketCacheTier tier = new InMemoryTicketCacheTier();
+		TicketCache cache = new TicketCache(properties, tier, meterRegistry);
+
+		StepVerifier.create(cache.put(ticket("PNR1"))).verifyComplete();
+		assertEquals(1, tier.size());
+
+		StepVerifier.create(cache.evict("PNR1")).verifyComplete();
+
+		assertEquals(0, tier.size());
+		StepVerifier.create(cache.get("PNR1")).verifyComplete();
+	}
+
+	// 3) two "nodes" sharing one tier — second node gets a shared-tier hit
+	@Test
+	void testSharedTier_visibleFromOtherNode() {
+		InMemoryTicketCacheTier tier = new InMemoryTicketCacheTier();
+		TicketCache nodeA = new TicketCache(properties, tier, meterRegistry);
+		TicketCache nodeB = new TicketCache(properties, tier, new SimpleMeterRegistry());
+
+		StepVerifier.create(nodeA.put(ticket("PNR1"))).verifyComplete();
+
+		StepVerifier.create(nodeB.get("PNR1")).expectNextCount(1).verifyComplete();
+		assertEquals(1, nodeB.localSize());
+	}
+
+	// 4) shared tier honours TTL
+	@Test
+	void testSharedTier_expiredEntryIsMiss() {
+		Instant start = Instant.parse("2030-01-01T00:00:00Z");
+		MutableClock clock = new MutableClock(start);
+		InMemoryTicketCacheTier tier = new InMemoryTicketCacheTier(clock);
+
+		StepVerifier.create(tier.put("PNR1", ticket("PNR1"), Duration.ofMinutes(5))).verifyComplete();
+		clock.now = start.plus(Duration.ofMinutes(6));
+
+		StepVerifier.create(tier.get("PNR1")).verifyComplete();
+	}
+
+	// 5) disabled cache never stores anything
+	@Test
+	void testDisabled_alwaysMiss() {
+		properties.setEnabled(false);
+		TicketCache cache = new TicketCache(properties, TicketCacheTier.none(), meterRegistry);
+
+		StepVerifier.create(cache.put(ticket("PNR1"))).verifyComplete();
+		StepVerifier.create(cache.get("PNR1")).verifyComplete();
+	}
+
+	// 6) a lookup that read the booking before a cancel's evict doesn't put the old ticket back
+	@Test
+	void testPutAfterEvict_staleLookupDropped() {
+		TicketCache cache = new TicketCache(properties, TicketCacheTier.none(), meterRegistry);
+
+		long lookupStarted = cache.generation();
+		StepVerifier.create(cache.evict("PNR1")).verifyComplete();
+		StepVerifier.create(cache.put(ticket("PNR1"), lookupStarted)).verifyComplete();
+		StepVerifier.create(cache.get("PNR1")).verifyComplete();
+
+		// a lookup that started after the evict read the cancelled booking and may cache it
+		BookingResponse canceled = ticket("PNR1");
+		canceled.setCanceled(true);
+		StepVerifier.create(cache.put(canceled, cache.generation())).verifyComplete();
+		StepVerifier.create(cache.get("PNR1")).expectNext(canceled).verifyComplete();
+	}
+
+	// 7) another node's stale put can't land in the shared tier after the evict
+	@Test
+	void testSharedTier_evictHoldsOffStalePut() {
+		InMemoryTicketCacheTier tier = new InMemoryTicketCacheTier();
+		TicketCache nodeA = new TicketCache(properties, tier, meterRegistry);
+		TicketCache nodeB = new TicketCache(properties, tier, new SimpleMeterRegistry());
+
+		// node B read the booking, node A cancelled it, then B's put arrives before the bus event
+		StepVerifier.create(nodeA.evict("PNR1")).verifyComplete();
+		StepVerifier.create(nodeB.put(ticket("PNR1"), nodeB.generation())).verifyComplete();
+		nodeB.evictLocal("PNR1");
+
+		assertEquals(0, tier.size());
+		StepVerifier.create(nodeA.get("PNR1")).verifyComplete();
+		StepVerifier.create(nodeB.get("PNR1")).verifyComplete();
+	}
+
+	private static final class MutableClock extends Clock {
+		private Instant now;
+
+		private MutableClock(Instant now) {
+			this.now = now;
+		}
+
+		@Override
+		public ZoneOffset getZone() {
+			return ZoneOffset.UTC;
+		}
+
+		@Override
+		public Clock withZone(java.time.ZoneId zone) {
+			return this;
+		}
+
+		@Override
+		public Instant instant() {
+			return now;
+		}
+	}
+}
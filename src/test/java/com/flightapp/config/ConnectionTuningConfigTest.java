@@ -0,0 +1,97 @@
+package com.flightapp.config;
+
+import com.mongodb.MongoClientSettings;
+import com.mongodb.ServerAddress;
+import com.mongodb.connection.ClusterId;
+import com.mongodb.connection.ConnectionId;
+import com.mongodb.connection.ConnectionPoolSettings;
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.ConnectionCheckOutFailedEvent;
+import com.mongodb.event.ConnectionCheckedInEvent;
+import com.mongodb.event.ConnectionCheckedOutEvent;
+import com.mongodb.event.ConnectionPoolClosedEvent;
+import com.mongodb.event.ConnectionPoolCreatedEvent;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConnectionTuningConfigTest {
+
+	// 1) properties end up on the driver settings
+	@Test
+	void customizerAppliesPoolSocketAndCompression() {
+		MongoClientTuningProperties props = new MongoClientTuningProperties();
+		props.getPool().setMaxSize(40);
+		props.getPool().setMaxWaitTime(Duration.ofMillis(500));
+		props.getSocket().setConnectTimeout(Duration.ofSeconds(1));
+		props.setCompressors(List.of("snappy"));
+
+		MongoClientSettings.Builder builder = MongoClientSettings.builder();
+		new ConnectionTuningConfig().mongoClientTuning(props, new MongoPoolMetrics(new SimpleMeterRegistry()))
+				.customize(builder);
+		MongoClientSettings settings = builder.build();
+
+		assertEquals(40, settings.getConnectionPoolSettings().getMaxSize());
+		assertEquals(10, settings.getConnectionPoolSettings().getMinSize());
+		assertEquals(500, settings.getConnectionPoolSettings().getMaxWaitTime(TimeUnit.MILLISECONDS));
+		assertEquals(1000, settings.getSocketSettings().getConnectTimeout(TimeUnit.MILLISECONDS));
+		assertEquals("snappy", settings.getCompressorList().get(0).getName());
+		assertEquals(1, settings.getConnectionPoolSettings().getConnectionPoolListeners().size());
+	}
+
+	// 2) unknown compressor is a startup error, not a silent no-op
+	@Test
+	void unknownCompressorRejected() {
+		assertThrows(IllegalArgumentException.class, () -> ConnectionTuningConfig.compressor("lz4"));
+	}
+
+	// 3) wait time, timeouts and saturation from pool events
+	@Test
+	void poolMetricsTrackWaitAndSaturation() {
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		MongoPoolMetrics metrics = new MongoPoolMetrics(registry);
+
+		ServerId server = new ServerId(new ClusterId(), new ServerAddress());
+		ConnectionId connection = new ConnectionId(server);
+
+		metrics.connectionPoolCreated(
+				new ConnectionPoolCreatedEvent(server, ConnectionPoolSettings.builder().maxSize(4).build()));
+		metrics.connectionCheckedOut(new ConnectionCheckedOutEvent(connection, 1, TimeUnit.MILLISECONDS.toNanos(3)));
+		metrics.connectionCheckedOut(new ConnectionCheckedOutEvent(connection, 2, TimeUnit.MILLISECONDS.toNanos(5)));
+		metrics.connectionCheckOutFailed(new ConnectionCheckOutFailedEvent(server, 3,
+				ConnectionCheckOutFailedEvent.Reason.TIMEOUT, TimeUnit.SECONDS.toNanos(2)));
+
+		assertEquals(0.5, registry.get("flightapp.mongo.pool.saturation").gauge().value());
+		assertEquals(2, registry.get("flightapp.mongo.pool.wait").tag("outcome", "success").timer().count());
+		assertEquals(1.0, registry.get("flightapp.mongo.pool.wait.timeouts").counter().count());
+
+		metrics.connectionCheckedIn(new ConnectionCheckedInEvent(connection, 1));
+		assertEquals(0.25, registry.get("flightapp.mongo.pool.saturation").gauge().value());
+	}
+
+	// 4) a server that leaves the topology takes its pool's max size with it
+	@Test
+	void poolMetricsDropClosedPools() {
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		MongoPoolMetrics metrics = new MongoPoolMetrics(registry);
+
+		ServerId primary = new ServerId(new ClusterId(), new ServerAddress("mongo-a"));
+		ServerId removed = new ServerId(new ClusterId(), new ServerAddress("mongo-b"));
+		ConnectionPoolSettings settings = ConnectionPoolSettings.builder().maxSize(4).build();
+		metrics.connectionPoolCreated(new ConnectionPoolCreatedEvent(primary, settings));
+		metrics.connectionPoolCreated(new ConnectionPoolCreatedEvent(removed, settings));
+		metrics.connectionCheckedOut(new ConnectionCheckedOutEvent(new ConnectionId(primary), 1, 0));
+		metrics.connectionCheckedOut(new ConnectionCheckedOutEvent(new ConnectionId(primary), 2, 0));
+		assertEquals(0.25, registry.get("flightapp.mongo.pool.saturation").gauge().value());
+
+		metrics.connectionPoolClosed(new ConnectionPoolClosedEvent(removed));
+		metrics.connectionPoolClosed(new ConnectionPoolClosedEvent(removed));
+		assertEquals(0.5, registry.get("flightapp.mongo.pool.saturation").gauge().value());
+	}
+}
@@ -0,0 +1,73 @@
+package com.flightapp.config;
+
+import com.flightapp.entity.Booking;
+import com.flightapp.entity.Flight;
+import com.flightapp.entity.Money;
+
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MongoConversionConfigTest {
+
+	private MappingMongoConverter converter;
+
+	@BeforeEach
+	void setup() {
+		MongoCustomConversions conversions = new MongoConversionConfig().mongoCustomConversions();
+		MongoMappingContext mappingContext = new MongoMappingContext();
+		mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+		mappingContext.afterPropertiesSet();
+
+		converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+		converter.setCustomConversions(conversions);
+		converter.afterPropertiesSet();
+	}
+
+	// 1) Money is written as minor units + currency and read back unchanged
+	@Test
+	void moneyRoundTrips() {
+		Flight flight = Flight.builder().id("f1").price(Money.ofMinor(499999, "INR")).totalSeats(120)
+				.availableSeats(80).build();
+
+		Document doc = new Document();
+		converter.write(flight, doc);
+
+		assertEquals(new Document("minorUnits", 499999L).append("currency", "INR"), doc.get("price"));
+		assertEquals(flight, converter.read(Flight.class, doc));
+	}
+
+	// 2) Documents written before Money (Float price, boxed fields) are still readable
+	@Test
+	void legacyFloatDocumentsStillRead() {
+		Document flightDoc = new Document("_id", "f1").append("price", (double) 4999.99f).append("totalSeats", 120)
+				.append("availableSeats", 80);
+		Flight flight = converter.read(Flight.class, flightDoc);
+		assertEquals(Money.ofMinor(499999, "INR"), flight.getPrice());
+		assertEquals(80, flight.getAvailableSeats());
+
+		Document bookingDoc = new Document("_id", "b1").append("seatsBooked", 2).append("farePerSeat", 4500.0)
+				.append("canceled", true);
+		Booking booking = converter.read(Booking.class, bookingDoc);
+		assertEquals(Money.ofMinor(450000, "INR"), booking.getFarePerSeat());
+		assertTrue(booking.isCanceled());
+	}
+
+	// 3) fixed-point arithmetic — no float drift on totals
+	@Test
+	void moneyArithmeticIsExact() {
+		Money fare = Money.of(new BigDecimal("0.10"), "INR");
+		assertEquals(new BigDecimal("0.30"), fare.times(3).toBigDecimal());
+		assertEquals(Money.ofMinor(6075, "INR"), Money.ofMinor(4500, "INR").scale(1.35));
+		assertEquals(Money.ofMinor(500, "JPY"), Money.of(new BigDecimal("499.6"), "JPY"));
+		assertThrows(IllegalArgumentException.class, () -> fare.compareTo(Money.ofMinor(10, "USD")));
+	}
+}
@@ -0,0 +1,51 @@
+package com.flightapp.config;
+
+import com.flightapp.dto.BookingRequest;
+import com.flightapp.dto.FlightResponse;
+import com.flightapp.dto.PassengerRequest;
+import com.flightapp.entity.Booking;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class NativeHintsTest {
+
+	private final RuntimeHints hints = new RuntimeHints();
+
+	// 1) request DTOs are bindable (setters), including nested passenger list
+	@Test
+	void dtoBindingHints() throws Exception {
+		new NativeHints().registerHints(hints, getClass().getClassLoader());
+
+		assertTrue(RuntimeHintsPredicates.reflection().onType(BookingRequest.class).test(hints));
+		assertTrue(RuntimeHintsPredicates.reflection()
+				.onMethod(BookingRequest.class.getMethod("setEmail", String.class)).test(hints));
+		assertTrue(RuntimeHintsPredicates.reflection().onType(PassengerRequest.class).test(hints));
+	}
+
+	// 2) every mapped entity can be instantiated and have its fields set
+	@Test
+	void entityMappingHints() {
+		new NativeHints().registerHints(hints, getClass().getClassLoader());
+
+		for (Class<?> entity : NativeHints.ENTITIES) {
+			assertTrue(RuntimeHintsPredicates.reflection().onType(entity)
+					.withMemberCategories(MemberCategory.DECLARED_FIELDS).test(hints), entity.getName());
+		}
+		assertTrue(RuntimeHintsPredicates.reflection().onType(Booking.class)
+				.withMemberCategories(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS).test(hints));
+		assertTrue(NativeHints.DTOS.contains(FlightResponse.class));
+	}
+
+	// 3) the place registry's seed file ships in the image
+	@Test
+	void placeRegistryResourceHint() {
+		new NativeHints().registerHints(hints, getClass().getClassLoader());
+
+		assertTrue(RuntimeHintsPredicates.resource().forResource("places.csv").test(hints));
+	}
+}
@@ -0,0 +1,94 @@
+package com.flightapp.config;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flightapp.TestDataFactory;
+import com.flightapp.controller.FlightController;
+import com.flightapp.dto.BookingResponse;
+import com.flightapp.dto.BookingView;
+import com.flightapp.dto.CacheValidators;
+import com.flightapp.dto.FlightSearchRequest;
+import com.flightapp.dto.FlightSearchResult;
+import com.flightapp.entity.Booking;
+import com.flightapp.entity.Money;
+import com.flightapp.service.BookingService;
+import com.flightapp.service.FareCalendarService;
+import com.flightapp.service.FlightService;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledInNativeImage;
+import org.springframework.boot.web.codec.CodecCustomizer;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@DisabledInNativeImage
+public class WireFormatConfigTest {
+
+	private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+	private final ObjectMapper smileMapper = WireFormatConfig.smileMapper(Jackson2ObjectMapperBuilder.json());
+
+	private FlightService flightService;
+	private BookingService bookingService;
+	private WebTestClient webTestClient;
+
+	@BeforeEach
+	void setup() {
+		flightService = mock(FlightService.class);
+		bookingService = mock(BookingService.class);
+		FlightController controller = new FlightController(flightService, bookingService,
+				mock(FareCalendarService.class));
+
+		when(bookingService.getHistoryValidators(any())).thenReturn(Mono.just(CacheValidators.of(List.of())));
+
+		CodecCustomizer smileCodecs = new WireFormatConfig().smileCodecCustomizer(Jackson2ObjectMapperBuilder.json());
+		webTestClient = WebTestClient.bindToController(controller).httpMessageCodecs(smileCodecs::customize).build();
+	}
+
+	// 1) Accept: smile -> Smile body with the same fields/dates as JSON
+	@Test
+	void historyInSmile() throws Exception {
+		Booking booking = TestDataFactory.sampleBooking();
+		booking.setFarePerSeat(Money.ofMinor(450000, "INR"));
+		booking.setBookingTime(LocalDateTime.of(2030, 1, 1, 10, 30));
+		when(bookingService.getBookingHistory("test@example.com"))
+				.thenReturn(Flux.just(new BookingView(booking, List.of(TestDataFactory.samplePassenger()))));
+
+		byte[] body = webTestClient.get().uri("/api/flight/booking/history/test@example.com").accept(SMILE)
+				.exchange().expectStatus().isOk().expectHeader().contentTypeCompatibleWith(SMILE).expectBody()
+				.returnResult().getResponseBody();
+
+		List<BookingResponse> decoded = smileMapper.readValue(body, new TypeReference<List<BookingResponse>>() {
+		});
+		assertEquals("PNR12345", decoded.get(0).getPnr());
+		assertEquals(LocalDateTime.of(2030, 1, 1, 10, 30), decoded.get(0).getBookingTime());
+		assertEquals(0, new BigDecimal("4500").compareTo(decoded.get(0).getFarePerSeat()));
+		assertEquals("1A", decoded.get(0).getPassengers().get(0).getSeatNumber());
+	}
+
+	// 2) Smile request body in, JSON still the default out
+	@Test
+	void smileRequestJsonResponse() throws Exception {
+		FlightSearchRequest req = TestDataFactory.sampleSearchRequest();
+		when(flightService.searchFlights(any()))
+				.thenReturn(Flux.just(FlightSearchResult.builder().flightId("flight-1").build()));
+
+		webTestClient.post().uri("/api/flight/search").contentType(SMILE).bodyValue(smileMapper.writeValueAsBytes(req))
+				.exchange().expectStatus().isOk().expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_JSON)
+				.expectBody().jsonPath("$[0].flightId").isEqualTo("flight-1");
+
+		verify(flightService).searchFlights(req);
+	}
+}
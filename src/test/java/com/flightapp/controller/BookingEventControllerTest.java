@@ -0,0 +1,73 @@
+package com.flightapp.controller;
+
+import com.flightapp.entity.BookingEvent;
+import com.flightapp.outbox.OutboxPublisher;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledInNativeImage;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DisabledInNativeImage
+public class BookingEventControllerTest {
+
+	private static final ParameterizedTypeReference<ServerSentEvent<BookingEvent>> SSE = //
+			new ParameterizedTypeReference<>() {
+			};
+
+	private OutboxPublisher outboxPublisher;
+	private WebTestClient webTestClient;
+
+	@BeforeEach
+	void setup() {
+		outboxPublisher = mock(OutboxPublisher.class);
+		when(outboxPublisher.events(anyLong())).thenReturn(Flux.just(event(6, BookingEvent.Type.BOOKING_CREATED),
+				event(7, BookingEvent.Type.SEATS_CHANGED)).concatWith(Flux.never()));
+
+		webTestClient = WebTestClient.bindToController(new BookingEventController(outboxPublisher))
+				.controllerAdvice(new com.flightapp.exception.GlobalErrorHandler()).build();
+	}
+
+	// 1) SSE with the seq as id and the type as event name
+	@Test
+	void testEvents_streamedAsSse() {
+		Flux<ServerSentEvent<BookingEvent>> body = webTestClient.get().uri("/api/flight/events?after=5")
+				.accept(MediaType.TEXT_EVENT_STREAM).exchange().expectStatus().isOk()
+				.expectHeader().contentTypeCompatibleWith(MediaType.TEXT_EVENT_STREAM).returnResult(SSE)
+				.getResponseBody();
+
+		StepVerifier.create(body.take(2))
+				.expectNextMatches(sse -> "6".equals(sse.id()) && "BOOKING_CREATED".equals(sse.event())
+						&& "PNR6".equals(sse.data().getPnr()))
+				.expectNextMatches(sse -> "7".equals(sse.id()) && "SEATS_CHANGED".equals(sse.event()))
+				.verifyComplete();
+		verify(outboxPublisher).events(5);
+	}
+
+	// 2) reconnect: Last-Event-ID picks up after that seq; no cursor at all = from now on
+	@Test
+	void testEvents_resumeFromLastEventId() {
+		webTestClient.get().uri("/api/flight/events").header("Last-Event-ID", "41")
+				.accept(MediaType.TEXT_EVENT_STREAM).exchange().expectStatus().isOk().returnResult(SSE)
+				.getResponseBody().take(1).blockLast();
+		verify(outboxPublisher).events(41);
+
+		webTestClient.get().uri("/api/flight/events").accept(MediaType.TEXT_EVENT_STREAM).exchange().expectStatus()
+				.isOk().returnResult(SSE).getResponseBody().take(1).blockLast();
+		verify(outboxPublisher).events(-1);
+	}
+
+	private static BookingEvent event(long seq, BookingEvent.Type type) {
+		return BookingEvent.builder().seq(seq).type(type).pnr("PNR" + seq).flightId("flight-1").build();
+	}
+}
@@ -2,13 +2,19 @@ package com.flightapp.controller;
 
 import com.flightapp.TestDataFactory;
 import com.flightapp.dto.*;
+import com.flightapp.entity.Booking;
 import com.flightapp.entity.Flight;
 import com.flightapp.exception.ApiException;
+import com.flightapp.exception.ErrorCode;
+import com.flightapp.repository.BookingStamp;
 import com.flightapp.service.BookingService;
+import com.flightapp.service.FareCalendarService;
 import com.flightapp.service.FlightService;
+import com.flightapp.validation.RequestValidators;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledInNativeImage;
 
 import org.mockito.Mockito;
 
@@ -17,14 +23,22 @@ import org.springframework.test.web.reactive.server.WebTestClient;
 
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
 
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
+@DisabledInNativeImage
 public class FlightControllerTest {
 
 	private FlightService flightService;
 	private BookingService bookingService;
+	private FareCalendarService fareCalendarService;
 	private WebTestClient webTestClient;
 	private static String apiPath = "/api/flight/airline/inventory/add";
 	private static String flightString = "flight-1";
@@ -33,8 +47,13 @@ public class FlightControllerTest {
 	void setup() {
 		flightService = mock(FlightService.class);
 		bookingService = mock(BookingService.class);
+		fareCalendarService = mock(FareCalendarService.class);
+
+		FlightController controller = new FlightController(flightService, bookingService, fareCalendarService);
 
-		FlightController controller = new FlightController(flightService, bookingService);
+		// no stamp -> plain ticket lookup; history always has one (h0 for no bookings)
+		when(bookingService.getTicketValidators(anyString())).thenReturn(Mono.empty());
+		when(bookingService.getHistoryValidators(anyString())).thenReturn(Mono.just(CacheValidators.of(List.of())));
 
 		webTestClient = WebTestClient.bindToController(controller)
 				.controllerAdvice(new com.flightapp.exception.GlobalErrorHandler()).build();
@@ -52,6 +71,23 @@ public class FlightControllerTest {
 				.expectStatus().isCreated().expectBody().jsonPath("$.id").isEqualTo(flightString);
 	}
 
+	// 1b) ADD INVENTORY — the price is a plain decimal; version and seat map aren't exposed
+	@Test
+	void testAddInventory_responseShape() {
+		FlightInventoryRequest req = TestDataFactory.sampleInventoryRequest();
+		Flight saved = TestDataFactory.sampleFlight();
+		saved.setVersion(0L);
+		saved.setBookedSeats(new HashSet<>(Set.of("1A")));
+
+		when(flightService.addInventory(any())).thenReturn(Mono.just(saved));
+
+		webTestClient.post().uri(apiPath).contentType(MediaType.APPLICATION_JSON).bodyValue(req).exchange()
+				.expectStatus().isCreated().expectBody().jsonPath("$.price").isEqualTo(4500.0)
+				.jsonPath("$.currency").isEqualTo("INR").jsonPath("$.totalSeats").isEqualTo(120)
+				.jsonPath("$.availableSeats").isEqualTo(120).jsonPath("$.version").doesNotExist()
+				.jsonPath("$.bookedSeats").doesNotExist().jsonPath("$.pendingEvents").doesNotExist();
+	}
+
 	// 2) ADD INVENTORY — SERVICE THROWS ERROR
 	@Test
 	void testAddInventory_serviceError() {
@@ -68,6 +104,7 @@ public class FlightControllerTest {
 	void testAddInventory_validationFailed() {
 		FlightInventoryRequest req = TestDataFactory.sampleInventoryRequest();
 		req.setFlightNumber(""); // invalid
+		when(flightService.addInventory(any())).thenReturn(Mono.error(RequestValidators.INVENTORY.violations(req)));
 
 		webTestClient.post().uri(apiPath).contentType(MediaType.APPLICATION_JSON).bodyValue(req).exchange()
 				.expectStatus().isBadRequest().expectBody().jsonPath("$.flightNumber").exists();
@@ -76,13 +113,15 @@ public class FlightControllerTest {
 	// 4) SEARCH FLIGHTS — SUCCESS
 	@Test
 	void testSearchFlights_success() {
-		Flight flight = TestDataFactory.sampleFlight();
+		FlightSearchResult result = FlightSearchResult.builder().flightId(flightString).flightNumber("AI101")
+				.airlineName("Air India").build();
 		FlightSearchRequest req = TestDataFactory.sampleSearchRequest();
 
-		when(flightService.searchFlights(any())).thenReturn(Flux.just(flight));
+		when(flightService.searchFlights(any())).thenReturn(Flux.just(result));
 
 		webTestClient.post().uri("/api/flight/search").contentType(MediaType.APPLICATION_JSON).bodyValue(req)
-				.exchange().expectStatus().isOk().expectBody().jsonPath("$[0].flightNumber").isEqualTo("AI101");
+				.exchange().expectStatus().isOk().expectBody().jsonPath("$[0].flightNumber").isEqualTo("AI101")
+				.jsonPath("$[0].airlineName").isEqualTo("Air India");
 	}
 
 	// 5) SEARCH — NO FLIGHTS
@@ -137,21 +176,25 @@ public class FlightControllerTest {
 	// 9) GET TICKET — NOT FOUND
 	@Test
 	void testGetTicket_notFound() {
-		when(bookingService.getTicketByPnr("BAD")).thenReturn(Mono.error(new ApiException("PNR not found")));
+		when(bookingService.getTicketByPnr("BAD")).thenReturn(Mono.error(ErrorCode.PNR_NOT_FOUND.exception()));
 
-		webTestClient.get().uri("/api/flight/ticket/BAD").exchange().expectStatus().isBadRequest().expectBody()
-				.jsonPath("$.error").isEqualTo("PNR not found");
+		webTestClient.get().uri("/api/flight/ticket/BAD").exchange().expectStatus().isNotFound().expectBody()
+				.jsonPath("$.error").isEqualTo("PNR not found").jsonPath("$.code").isEqualTo("PNR_NOT_FOUND");
 	}
 
 	// 10) BOOKING HISTORY — SUCCESS
 	@Test
 	void testBookingHistory_success() {
-		BookingResponse resp = BookingResponse.builder().pnr("PNR00001").flightId(flightString).build();
+		Booking booking = TestDataFactory.sampleBooking();
+		booking.setPnr("PNR00001");
+		BookingView view = new BookingView(booking, List.of(TestDataFactory.samplePassenger()));
 
-		when(bookingService.getBookingHistory("test@example.com")).thenReturn(Flux.just(resp));
+		when(bookingService.getBookingHistory("test@example.com")).thenReturn(Flux.just(view));
 
+		// written by BookingViewSerializer, same fields as BookingResponse
 		webTestClient.get().uri("/api/flight/booking/history/test@example.com").exchange().expectStatus().isOk()
-				.expectBody().jsonPath("$[0].pnr").isEqualTo("PNR00001");
+				.expectBody().jsonPath("$[0].pnr").isEqualTo("PNR00001").jsonPath("$[0].passengers[0].seatNumber")
+				.isEqualTo("1A");
 	}
 
 	// 11) CANCEL BOOKING — SUCCESS
@@ -161,4 +204,115 @@ public class FlightControllerTest {
 
 		webTestClient.delete().uri("/api/flight/booking/cancel/PNR12345").exchange().expectStatus().isNoContent();
 	}
+
+	// 12) FARE CALENDAR — one call, one entry per day
+	@Test
+	void testFareCalendar_success() {
+		FareCalendarRequest req = FareCalendarRequest.builder().fromPlace("Bangalore").toPlace("Mumbai")
+				.startDate(java.time.LocalDate.now().plusDays(1)).endDate(java.time.LocalDate.now().plusDays(30))
+				.build();
+		FareCalendarDay day = FareCalendarDay.builder().date(req.getStartDate()).minPrice(new BigDecimal("3999.50")).availableSeats(42)
+				.flights(2).build();
+
+		when(fareCalendarService.getFareCalendar(any())).thenReturn(Flux.just(day));
+
+		webTestClient.post().uri("/api/flight/fare-calendar").contentType(MediaType.APPLICATION_JSON).bodyValue(req)
+				.exchange().expectStatus().isOk().expectBody().jsonPath("$[0].minPrice").isEqualTo(3999.5)
+				.jsonPath("$[0].availableSeats").isEqualTo(42);
+	}
+
+	// 13) GET TICKET — ETag / Last-Modified from the version stamp
+	@Test
+	void testGetTicket_validatorHeaders() {
+		BookingStamp stamp = new BookingStamp("PNR12345", 2, true, LocalDateTime.of(2030, 1, 1, 10, 0),
+				LocalDateTime.of(2030, 1, 2, 9, 0));
+		when(bookingService.getTicketValidators("PNR12345")).thenReturn(Mono.just(CacheValidators.of(stamp)));
+		when(bookingService.getTicketByPnr("PNR12345"))
+				.thenReturn(Mono.just(BookingResponse.builder().pnr("PNR12345").canceled(true).build()));
+
+		webTestClient.get().uri("/api/flight/ticket/PNR12345").exchange().expectStatus().isOk().expectHeader()
+				.valueEquals("ETag", "W/\"PNR12345-2-c\"").expectHeader().exists("Last-Modified").expectHeader()
+				.valueEquals("Vary", "Accept");
+	}
+
+	// 14) GET TICKET — matching If-None-Match -> 304, ticket never assembled
+	@Test
+	void testGetTicket_notModified() {
+		BookingStamp stamp = new BookingStamp("PNR12345", 0, false, LocalDateTime.of(2030, 1, 1, 10, 0), null);
+		when(bookingService.getTicketValidators("PNR12345")).thenReturn(Mono.just(CacheValidators.of(stamp)));
+
+		webTestClient.get().uri("/api/flight/ticket/PNR12345").header("If-None-Match", "W/\"PNR12345-0\"").exchange()
+				.expectStatus().isNotModified().expectBody().isEmpty();
+
+		verify(bookingService, never()).getTicketByPnr(anyString());
+	}
+
+	// 15) BOOKING HISTORY — stale ETag after a cancel -> full body again; current one -> 304
+	@Test
+	void testBookingHistory_conditional() {
+		LocalDateTime booked = LocalDateTime.of(2030, 1, 1, 10, 0);
+		CacheValidators before = CacheValidators.of(List.of(new BookingStamp("PNR00001", 0, false, booked, null)));
+		CacheValidators after = CacheValidators.of(List.of(new BookingStamp("PNR00001", 1, true, booked, booked)));
+		Booking booking = TestDataFactory.sampleBooking();
+		when(bookingService.getHistoryValidators("test@example.com")).thenReturn(Mono.just(after));
+		when(bookingService.getBookingHistory("test@example.com"))
+				.thenReturn(Flux.just(new BookingView(booking, List.of())));
+
+		webTestClient.get().uri("/api/flight/booking/history/test@example.com").header("If-None-Match", before.etag())
+				.exchange().expectStatus().isOk().expectHeader().valueEquals("ETag", after.etag()).expectBody()
+				.jsonPath("$[0].pnr").isEqualTo(booking.getPnr());
+
+		webTestClient.get().uri("/api/flight/booking/history/test@example.com").header("If-None-Match", after.etag())
+				.exchange().expectStatus().isNotModified();
+
+		verify(bookingService, times(1)).getBookingHistory("test@example.com");
+	}
+
+	// 16) WINDOW SEARCH — streamed results; empty place list rejected by validation
+	@Test
+	void testSearchFlightWindow() {
+		LocalDateTime from = LocalDateTime.of(2030, 3, 1, 0, 0);
+		FlightWindowSearchRequest req = FlightWindowSearchRequest.builder().fromPlaces(List.of("Delhi"))
+				.toPlaces(List.of("Mumbai", "Pune")).departureFrom(from).departureTo(from.plusDays(2)).build();
+
+		when(flightService.searchFlightWindow(any())).thenReturn(Flux.just(
+				FlightSearchResult.builder().flightNumber("AI101").build(),
+				FlightSearchResult.builder().flightNumber("6E202").build()));
+
+		webTestClient.post().uri("/api/flight/search/window").contentType(MediaType.APPLICATION_JSON).bodyValue(req)
+				.exchange().expectStatus().isOk().expectBody().jsonPath("$[0].flightNumber").isEqualTo("AI101")
+				.jsonPath("$[1].flightNumber").isEqualTo("6E202");
+
+		req.setToPlaces(List.of());
+		webTestClient.post().uri("/api/flight/search/window").contentType(MediaType.APPLICATION_JSON).bodyValue(req)
+				.exchange().expectStatus().isBadRequest().expectBody().jsonPath("$.toPlaces").exists();
+	}
+
+	// 17) BOOK TICKET — request validators (run once, by the service): nested field errors in the 400 body
+	@Test
+	void testBookTicket_validationFailure() {
+		BookingRequest req = TestDataFactory.sampleBookingRequest();
+		req.setEmail("not-an-email");
+		req.getPassengers().get(0).setAge(0);
+		when(bookingService.bookTicket(anyString(), any()))
+				.thenReturn(Mono.error(RequestValidators.BOOKING.violations(req)));
+
+		webTestClient.post().uri("/api/flight/booking/flight-1").contentType(MediaType.APPLICATION_JSON)
+				.bodyValue(req).exchange().expectStatus().isBadRequest().expectBody().jsonPath("$.email")
+				.isEqualTo("Invalid email format").jsonPath("$['passengers[0].age']").isEqualTo("Age must be positive");
+
+		verify(bookingService, times(1)).bookTicket(anyString(), any());
+	}
+
+	// 18) BOOK TICKET — sold out is a 409 with a stable code
+	@Test
+	void testBookTicket_soldOut() {
+		when(bookingService.bookTicket(anyString(), any()))
+				.thenReturn(Mono.error(ErrorCode.SEATS_UNAVAILABLE.exception()));
+
+		webTestClient.post().uri("/api/flight/booking/flight-1").contentType(MediaType.APPLICATION_JSON)
+				.bodyValue(TestDataFactory.sampleBookingRequest()).exchange().expectStatus().isEqualTo(409)
+				.expectBody().jsonPath("$.code").isEqualTo("SEATS_UNAVAILABLE").jsonPath("$.error")
+				.isEqualTo("Not enough seats available");
+	}
 }
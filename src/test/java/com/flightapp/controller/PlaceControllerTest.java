@@ -0,0 +1,30 @@
+package com.flightapp.controller;
+
+import com.flightapp.dto.PlaceSuggestion;
+import com.flightapp.place.PlaceRegistry;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledInNativeImage;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+
+@DisabledInNativeImage
+public class PlaceControllerTest {
+
+	// 1) prefix and limit go to the registry, suggestions come back as a JSON array
+	@Test
+	void testPlaces_suggestions() {
+		PlaceRegistry placeRegistry = mock(PlaceRegistry.class);
+		when(placeRegistry.suggest("del", 5)).thenReturn(List.of(new PlaceSuggestion("Delhi", "DEL")));
+
+		WebTestClient.bindToController(new PlaceController(placeRegistry)).build().get()
+				.uri("/api/flight/places?prefix=del&limit=5").exchange().expectStatus().isOk().expectBody()
+				.jsonPath("$[0].name").isEqualTo("Delhi").jsonPath("$[0].code").isEqualTo("DEL")
+				.jsonPath("$.length()").isEqualTo(1);
+
+		verify(placeRegistry).suggest("del", 5);
+	}
+}
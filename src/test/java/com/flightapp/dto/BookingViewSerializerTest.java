@@ -0,0 +1,43 @@
+package com.flightapp.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flightapp.TestDataFactory;
+import com.flightapp.entity.Booking;
+import com.flightapp.entity.Money;
+import com.flightapp.entity.Passenger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class BookingViewSerializerTest {
+
+	// Same defaults Boot gives the WebFlux encoder (JavaTimeModule, ISO dates)
+	private final ObjectMapper mapper = Jackson2ObjectMapperBuilder.json().build();
+
+	// 1) streamed view and assembled DTO produce identical JSON
+	@Test
+	void viewMatchesResponseJson() throws Exception {
+		Booking booking = TestDataFactory.sampleBooking();
+		booking.setSeatsBooked(2);
+		booking.setFarePerSeat(Money.ofMinor(607550, "INR"));
+
+		Passenger second = TestDataFactory.samplePassenger();
+		second.setSeatNumber("1B");
+		second.setAge(null);
+		BookingView view = new BookingView(booking, List.of(TestDataFactory.samplePassenger(), second));
+
+		assertEquals(mapper.writeValueAsString(view.toResponse()), mapper.writeValueAsString(view));
+	}
+
+	// 2) bookings from before dynamic pricing have no fare
+	@Test
+	void viewWithoutFare() throws Exception {
+		BookingView view = new BookingView(TestDataFactory.sampleBooking(), List.of());
+
+		assertEquals(mapper.writeValueAsString(view.toResponse()), mapper.writeValueAsString(view));
+	}
+}
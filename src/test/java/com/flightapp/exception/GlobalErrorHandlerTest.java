@@ -2,6 +2,7 @@ package com.flightapp.exception;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledInNativeImage;
 
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -12,8 +13,11 @@ import reactor.test.StepVerifier;
 
 import java.util.Map;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.mockito.Mockito.*;
 
+@DisabledInNativeImage
 public class GlobalErrorHandlerTest {
 
 	private GlobalErrorHandler handler;
@@ -65,4 +69,64 @@ public class GlobalErrorHandlerTest {
 				res -> res.getStatusCode().value() == 500 && res.getBody().get("error").equals("Internal server error"))
 				.verifyComplete();
 	}
+
+	// 4) FAIL-FAST (timeout / breaker open) — SERVICE_UNAVAILABLE + Retry-After
+	@Test
+	void testHandleUnavailable() {
+		Mono<ResponseEntity<Map<String, String>>> result = handler
+				.handleUnavailable(new java.util.concurrent.TimeoutException("slow"));
+
+		StepVerifier.create(result).expectNextMatches(res -> res.getStatusCode().value() == 503
+				&& res.getHeaders().getFirst("Retry-After") != null).verifyComplete();
+	}
+
+	// 5) VERSION CONFLICT (retries exhausted) — retryable 503 + Retry-After, not a business 409
+	@Test
+	void testHandleConflict() {
+		Mono<ResponseEntity<Map<String, String>>> result = handler
+				.handleConflict(new org.springframework.dao.OptimisticLockingFailureException("busy flight"));
+
+		StepVerifier.create(result).expectNextMatches(res -> res.getStatusCode().value() == 503
+				&& res.getHeaders().getFirst("Retry-After") != null).verifyComplete();
+	}
+
+	// 6) REQUEST VALIDATORS — same field map body as a bind error
+	@Test
+	void testHandleRequestValidation() {
+		Mono<ResponseEntity<Map<String, String>>> result = handler.handleRequestValidation(new ValidationException(
+				java.util.Map.of("passengers[0].name", "Passenger name cannot be blank")));
+
+		StepVerifier.create(result).expectNextMatches(res -> res.getStatusCode().value() == 400
+				&& res.getBody().get("passengers[0].name").equals("Passenger name cannot be blank")).verifyComplete();
+	}
+
+	// 7) CODED BUSINESS ERRORS — status and code from the catalog; plain ApiException stays 400
+	@Test
+	void testHandleApiException_statusFromCode() {
+		StepVerifier.create(handler.handleApiException(ErrorCode.PNR_NOT_FOUND.exception()))
+				.expectNextMatches(res -> res.getStatusCode().value() == 404
+						&& res.getBody().get("code").equals("PNR_NOT_FOUND"))
+				.verifyComplete();
+		StepVerifier.create(handler.handleApiException(ErrorCode.CANCEL_WINDOW_CLOSED.exception()))
+				.expectNextMatches(res -> res.getStatusCode().value() == 422).verifyComplete();
+		StepVerifier.create(handler.handleApiException(new ApiException("odd")))
+				.expectNextMatches(res -> res.getStatusCode().value() == 400
+						&& res.getBody().get("code").equals("BAD_REQUEST"))
+				.verifyComplete();
+	}
+
+	// 8) PREALLOCATED — one shared instance per code, no stack trace, nothing can be attached to it
+	@Test
+	void testErrorCode_sharedStacklessInstances() {
+		ApiException soldOut = ErrorCode.SEATS_UNAVAILABLE.exception();
+		assertSame(soldOut, ErrorCode.SEATS_UNAVAILABLE.exception());
+		assertEquals(0, soldOut.getStackTrace().length);
+
+		soldOut.addSuppressed(new IllegalStateException("elsewhere"));
+		assertEquals(0, soldOut.getSuppressed().length);
+
+		ApiException seatTaken = ErrorCode.SEAT_TAKEN.exception("Seat 1A is already booked");
+		assertEquals(ErrorCode.SEAT_TAKEN, seatTaken.getCode());
+		assertEquals(0, seatTaken.getStackTrace().length);
+	}
 }
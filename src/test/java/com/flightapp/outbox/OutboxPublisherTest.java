@@ -0,0 +1,168 @@
+package com.flightapp.outbox;
+
+import com.flightapp.config.OutboxProperties;
+import com.flightapp.entity.BookingEvent;
+import com.flightapp.exception.ApiException;
+import com.flightapp.repository.BookingEventRepository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledInNativeImage;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DisabledInNativeImage
+public class OutboxPublisherTest {
+
+	// the outbox as the poller sees it: seq -> event
+	private final ConcurrentSkipListMap<Long, BookingEvent> log = new ConcurrentSkipListMap<>();
+
+	// written on the primary, not replicated to the secondary the poller reads yet
+	private final ConcurrentSkipListMap<Long, BookingEvent> primaryOnly = new ConcurrentSkipListMap<>();
+
+	private OutboxProperties properties;
+	private OutboxPublisher publisher;
+
+	@BeforeEach
+	void setup() {
+		BookingEventRepository repository = mock(BookingEventRepository.class);
+		when(repository.lastSeq()).thenAnswer(inv -> Mono.just(log.isEmpty() ? 0L : log.lastKey()));
+		when(repository.readOnReplica(anyLong(), anyLong(), anyInt())).thenAnswer(inv -> Flux
+				.fromIterable(log.subMap(inv.<Long>getArgument(0), false, inv.<Long>getArgument(1), true).values()
+						.stream().limit(inv.<Integer>getArgument(2)).toList()));
+		when(repository.claimGap(anyLong())).thenAnswer(inv -> {
+			long seq = inv.getArgument(0);
+			BookingEvent holder = primaryOnly.containsKey(seq) ? primaryOnly.get(seq)
+					: log.computeIfAbsent(seq, BookingEvent::gap);
+			return Mono.just(holder.getType() == BookingEvent.Type.GAP);
+		});
+
+		properties = new OutboxProperties();
+		properties.setPollInterval(Duration.ofMillis(20));
+		properties.setBatchSize(3);
+		properties.setGapTimeout(Duration.ofMillis(300));
+		publisher = new OutboxPublisher(repository, properties);
+	}
+
+	@AfterEach
+	void teardown() {
+		publisher.stop();
+	}
+
+	// 1) starts at the head: "from now on" consumers only see what's written after that
+	@Test
+	void testEvents_fromNowOn() {
+		write(1, 2);
+		publisher.start();
+		awaitPublished(2);
+
+		StepVerifier.create(publisher.events(-1).map(BookingEvent::getSeq).take(4))
+				.then(() -> write(3, 4, 5, 6))
+				.expectNext(3L, 4L, 5L, 6L).verifyComplete();
+	}
+
+	// 2) resuming consumer: backlog from the log, then live, no repeats
+	@Test
+	void testEvents_resumeFromSeq() {
+		write(1, 2, 3, 4, 5, 6, 7);
+		publisher.start();
+		awaitPublished(7);
+
+		StepVerifier.create(publisher.events(2).map(BookingEvent::getSeq).take(7))
+				.then(() -> write(8, 9))
+				.expectNext(3L, 4L, 5L, 6L, 7L, 8L, 9L).verifyComplete();
+	}
+
+	// 3) a missing seq holds the stream (write in flight), then is closed with a tombstone once it's
+	// clearly lost — never streamed, and a late write can't take that seq any more
+	@Test
+	void testPoll_waitsOutThenClaimsGap() {
+		publisher.start();
+		awaitPublished(0);
+
+		StepVerifier.create(publisher.events(-1).map(BookingEvent::getSeq).take(3)).then(() -> write(1, 3))
+				.expectNext(1L)
+				.expectNoEvent(Duration.ofMillis(150))
+				.then(() -> write(2))
+				.expectNext(2L, 3L).verifyComplete();
+
+		StepVerifier.create(publisher.events(-1).map(BookingEvent::getSeq).take(1)).then(() -> write(5))
+				.expectNext(5L).verifyComplete();
+		assertEquals(5, publisher.lastPublishedSeq());
+		assertEquals(BookingEvent.Type.GAP, log.get(4L).getType());
+
+		// a consumer reading the same stretch from the log doesn't see the tombstone either
+		StepVerifier.create(publisher.events(2).map(BookingEvent::getSeq).take(2)).expectNext(3L, 5L)
+				.verifyComplete();
+	}
+
+	// 6) a seq that's on the primary but hasn't replicated yet can't be claimed: the stream waits
+	@Test
+	void testPoll_unreplicatedEventIsNotClaimed() {
+		publisher.start();
+		awaitPublished(0);
+
+		primaryOnly.put(2L, event(2));
+		StepVerifier.create(publisher.events(-1).map(BookingEvent::getSeq).take(3)).then(() -> write(1, 3))
+				.expectNext(1L)
+				.expectNoEvent(Duration.ofMillis(600))
+				.then(() -> log.put(2L, primaryOnly.remove(2L)))
+				.expectNext(2L, 3L).verifyComplete();
+	}
+
+	// 4) batches: grouped by batchSize, still in order
+	@Test
+	void testBatches_groupsInOrder() {
+		publisher.start();
+		awaitPublished(0);
+
+		StepVerifier.create(publisher.batches(-1).take(2)).then(() -> write(1, 2, 3, 4))
+				.expectNextMatches(batch -> seqs(batch).equals(List.of(1L, 2L, 3L)))
+				.expectNextMatches(batch -> seqs(batch).equals(List.of(4L))).verifyComplete();
+	}
+
+	// 5) disabled: nothing is polled, consumers get told
+	@Test
+	void testDisabled_noStream() {
+		properties.setEnabled(false);
+		publisher.start();
+
+		assertTrue(!publisher.isRunning());
+		StepVerifier.create(publisher.events(0)).expectError(ApiException.class).verify();
+	}
+
+	private void write(long... seqs) {
+		for (long seq : seqs) {
+			log.put(seq, event(seq));
+		}
+	}
+
+	private static BookingEvent event(long seq) {
+		return BookingEvent.builder().seq(seq).type(BookingEvent.Type.SEATS_CHANGED).pnr("PNR" + seq).build();
+	}
+
+	private void awaitPublished(long seq) {
+		long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+		while (publisher.lastPublishedSeq() < seq && System.nanoTime() < deadline) {
+			Thread.onSpinWait();
+		}
+		assertEquals(seq, publisher.lastPublishedSeq());
+	}
+
+	private static List<Long> seqs(List<BookingEvent> batch) {
+		return batch.stream().map(BookingEvent::getSeq).toList();
+	}
+}
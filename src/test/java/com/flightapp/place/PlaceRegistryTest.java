@@ -0,0 +1,110 @@
+package com.flightapp.place;
+
+import com.flightapp.config.PlaceProperties;
+import com.flightapp.dto.PlaceSuggestion;
+import com.flightapp.repository.FlightRepository;
+import com.flightapp.repository.PlaceCount;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledInNativeImage;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@DisabledInNativeImage
+public class PlaceRegistryTest {
+
+	private FlightRepository flightRepository;
+	private PlaceProperties properties;
+	private PlaceRegistry registry;
+
+	@BeforeEach
+	void setup() {
+		flightRepository = mock(FlightRepository.class);
+		properties = new PlaceProperties();
+		registry = new PlaceRegistry(flightRepository, properties);
+	}
+
+	// 1) codes, aliases, case, accents and punctuation all map to the registry name
+	@Test
+	void testNormalize_registryPlaces() {
+		for (String raw : List.of("Delhi", "DELHI", "del", " new-delhi ", "New  Delhi")) {
+			assertEquals("Delhi", registry.normalize(raw), raw);
+		}
+		assertEquals("Bangalore", registry.normalize("Bengaluru"));
+		assertEquals("Mumbai", registry.normalize("BOM"));
+		assertEquals("Kochi", registry.normalize("Cochín"));
+	}
+
+	// 2) unknown places are tidied, then matched against the spelling flights already use
+	@Test
+	void testNormalize_unlistedPlaces() {
+		assertEquals("Shimla", registry.normalize("  SHIMLA "));
+		assertEquals("Port Blair", registry.normalize("port   blair"));
+
+		registry.addFlight("St. Louis");
+		assertEquals("St. Louis", registry.normalize("st louis"));
+	}
+
+	// 3) startup load: counts merged per canonical place, non-canonical spellings renamed
+	@Test
+	void testLoad_indexesAndBackfills() {
+		when(flightRepository.countPlacesOnReplica()).thenReturn(Flux.just(new PlaceCount("DELHI", 3),
+				new PlaceCount("Delhi", 2), new PlaceCount("BOM", 4), new PlaceCount("shimla", 1)));
+		when(flightRepository.renamePlace(anyString(), anyString())).thenReturn(Mono.just(1L));
+
+		StepVerifier.create(registry.load()).expectNext(3L).verifyComplete();
+
+		verify(flightRepository).renamePlace("DELHI", "Delhi");
+		verify(flightRepository).renamePlace("BOM", "Mumbai");
+		verify(flightRepository).renamePlace("shimla", "Shimla");
+		verify(flightRepository, never()).renamePlace(eq("Delhi"), anyString());
+
+		assertEquals(3, registry.indexedPlaces());
+		// Delhi has 5 flights, Mumbai 4, Shimla 1
+		assertEquals(List.of("Delhi", "Mumbai", "Shimla"), names(registry.suggest("", 10)));
+	}
+
+	// 4) backfill off: indexed, nothing renamed
+	@Test
+	void testLoad_backfillOff() {
+		properties.setBackfill(false);
+		when(flightRepository.countPlacesOnReplica()).thenReturn(Flux.just(new PlaceCount("DELHI", 3)));
+
+		StepVerifier.create(registry.load()).expectNext(0L).verifyComplete();
+
+		verify(flightRepository, never()).renamePlace(anyString(), anyString());
+		assertEquals(List.of("Delhi"), names(registry.suggest("del", 10)));
+	}
+
+	// 5) autocomplete by name, any word, code or alias; ranked by flights; limit capped
+	@Test
+	void testSuggest_prefixes() {
+		for (int i = 0; i < 3; i++) {
+			registry.addFlight("Delhi");
+		}
+		registry.addFlight("Dubai");
+		registry.addFlight("Mumbai");
+		registry.addFlight("New York");
+
+		assertEquals(List.of("Delhi", "Dubai"), names(registry.suggest("D", 10)));
+		assertEquals(List.of(new PlaceSuggestion("Mumbai", "BOM")), registry.suggest("bomb", 10));
+		assertEquals(List.of("Mumbai"), names(registry.suggest("BOM", 10)));
+		assertEquals(List.of("Delhi", "New York"), names(registry.suggest("new", 10)));
+		assertEquals(List.of("New York"), names(registry.suggest("york", 10)));
+		assertEquals(List.of(), registry.suggest("xyz", 10));
+		assertEquals(1, registry.suggest("", 1).size());
+		assertEquals(4, registry.suggest("", 500).size());
+	}
+
+	private static List<String> names(List<PlaceSuggestion> suggestions) {
+		return suggestions.stream().map(PlaceSuggestion::getName).toList();
+	}
+}
@@ -0,0 +1,200 @@
+package com.flightapp.pricing;
+
+import com.flightapp.TestDataFactory;
+import com.flightapp.config.PricingProperties;
+import com.flightapp.entity.Flight;
+import com.flightapp.entity.Money;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PricingEngineTest {
+
+	private final AtomicReference<Instant> now = new AtomicReference<>(Instant.parse("2030-01-01T00:00:00Z"));
+
+	private Clock clock;
+	private PricingEngine engine;
+
+	@BeforeEach
+	void setup() {
+		clock = new Clock() {
+			@Override
+			public ZoneId getZone() {
+				return ZoneId.of("UTC");
+			}
+
+			@Override
+			public Clock withZone(ZoneId zone) {
+				return this;
+			}
+
+			@Override
+			public Instant instant() {
+				return now.get();
+			}
+		};
+		engine = new PricingEngine(new PricingProperties(), clock);
+	}
+
+	private static Money inr(long paise) {
+		return Money.ofMinor(paise, "INR");
+	}
+
+	private Flight flight(int availableSeats, long daysOut) {
+		Flight f = TestDataFactory.sampleFlight();
+		f.setAvailableSeats(availableSeats);
+		f.setDepartureTime(LocalDateTime.of(2030, 1, 1, 0, 0).plusDays(daysOut).plusHours(1));
+		return f;
+	}
+
+	// 1) empty flight far out = base price
+	@Test
+	void emptyFlightFarOutPaysBasePrice() {
+		assertEquals(inr(450000), engine.quote(flight(120, 60)).fare());
+	}
+
+	// 2) load factor and departure buckets multiply
+	@Test
+	void bucketsMultiply() {
+		// 80% sold (1.35) and 2 days out (1.3)
+		assertEquals(inr(Math.round(450000 * 1.35 * 1.3)), engine.quote(flight(24, 2)).fare());
+	}
+
+	// 3) same seats = same fare, each quote locked from when it was given; seat change = new fare
+	@Test
+	void quoteIsCachedUntilSeatsChange() {
+		Flight f = flight(120, 60);
+		FareQuote first = engine.quote(f);
+
+		now.set(now.get().plus(Duration.ofMinutes(8)));
+		FareQuote again = engine.quote(f);
+		assertEquals(first.fare(), again.fare());
+		assertEquals(now.get().plus(Duration.ofMinutes(10)), again.validUntil());
+
+		f.setAvailableSeats(20);
+		FareQuote second = engine.quote(f);
+		assertTrue(second.fare().compareTo(first.fare()) > 0);
+	}
+
+	// 4) old fare honoured inside the lock window, not after it
+	@Test
+	void quotedFareLockedForWindow() {
+		Flight f = flight(61, 60);
+		BigDecimal seen = engine.quote(f).fare().toBigDecimal();
+
+		f.setAvailableSeats(20);
+		engine.reprice(f);
+
+		assertEquals(seen, engine.fareForBooking(f, seen).toBigDecimal());
+
+		now.set(now.get().plus(Duration.ofMinutes(11)));
+		assertEquals(engine.quote(f).fare(), engine.fareForBooking(f, seen));
+	}
+
+	// 5) a made-up quote is ignored
+	@Test
+	void unknownQuoteChargesCurrentFare() {
+		Flight f = flight(120, 60);
+		assertEquals(inr(450000), engine.fareForBooking(f, BigDecimal.ONE));
+	}
+
+	// 6) disabled = static price
+	@Test
+	void disabledUsesStaticPrice() {
+		PricingProperties props = new PricingProperties();
+		props.setEnabled(false);
+		assertEquals(inr(450000), new PricingEngine(props).quote(flight(1, 0)).fare());
+	}
+
+	// 7) the old fare's lock runs from its last quote, not from when the fare moved
+	@Test
+	void lockRunsFromLastQuote() {
+		Flight f = flight(61, 60);
+		engine.quote(f);
+		now.set(now.get().plus(Duration.ofMinutes(8)));
+		FareQuote seen = engine.quote(f);
+
+		now.set(now.get().plus(Duration.ofMinutes(1)));
+		f.setAvailableSeats(20);
+		engine.reprice(f);
+
+		now.set(seen.validUntil().minusSeconds(1));
+		assertEquals(seen.fare(), engine.fareForBooking(f, seen.fare().toBigDecimal()));
+		now.set(seen.validUntil().plusSeconds(1));
+		assertEquals(engine.quote(f).fare(), engine.fareForBooking(f, seen.fare().toBigDecimal()));
+	}
+
+	// 8) two moves inside the window: both earlier fares stay bookable
+	@Test
+	void everyRecentQuoteStaysLocked() {
+		Flight f = flight(61, 60);
+		Money first = engine.quote(f).fare();
+
+		now.set(now.get().plus(Duration.ofMinutes(1)));
+		f.setAvailableSeats(25);
+		Money second = engine.quote(f).fare();
+
+		now.set(now.get().plus(Duration.ofMinutes(1)));
+		f.setAvailableSeats(5);
+		engine.reprice(f);
+		Money current = engine.quote(f).fare();
+
+		assertNotEquals(first, second);
+		assertNotEquals(second, current);
+		assertEquals(first, engine.fareForBooking(f, first.toBigDecimal()));
+		assertEquals(second, engine.fareForBooking(f, second.toBigDecimal()));
+
+		// the first lock runs out first
+		now.set(now.get().plus(Duration.ofSeconds(510)));
+		assertEquals(current, engine.fareForBooking(f, first.toBigDecimal()));
+		assertEquals(second, engine.fareForBooking(f, second.toBigDecimal()));
+	}
+
+	// 9) exactly withinDays days left still gets that bucket
+	@Test
+	void departureBucketIncludesItsLastDay() {
+		assertEquals(0, engine.departureBucket(LocalDateTime.of(2030, 1, 2, 1, 0)));
+		assertEquals(1, engine.departureBucket(LocalDateTime.of(2030, 1, 4, 1, 0)));
+		assertEquals(2, engine.departureBucket(LocalDateTime.of(2030, 1, 5, 1, 0)));
+	}
+
+	// 10) a quote's token is honoured by another node with the same key, until it expires
+	@Test
+	void quoteTokenHonouredAcrossNodes() {
+		PricingProperties props = new PricingProperties();
+		props.setQuoteKey("shared-secret");
+		PricingEngine nodeA = new PricingEngine(props, clock);
+		PricingEngine nodeB = new PricingEngine(props, clock);
+
+		Flight f = flight(61, 60);
+		FareQuote seen = nodeA.quote(f);
+		f.setAvailableSeats(20);
+		BigDecimal fare = seen.fare().toBigDecimal();
+
+		// node B never quoted the old fare: only the token vouches for it
+		assertNotEquals(seen.fare(), nodeB.quote(f).fare());
+		assertEquals(seen.fare(), nodeB.fareForBooking(f, fare, seen.token()));
+		assertEquals(nodeB.quote(f).fare(), nodeB.fareForBooking(f, fare));
+
+		// another key, another flight, another fare or an expired token don't pass
+		assertEquals(nodeB.quote(f).fare(), new PricingEngine(new PricingProperties(), clock).fareForBooking(f,
+				fare, seen.token()));
+		Flight other = flight(20, 60);
+		other.setId("flight-2");
+		assertEquals(nodeB.quote(other).fare(), nodeB.fareForBooking(other, fare, seen.token()));
+		assertEquals(nodeB.quote(f).fare(), nodeB.fareForBooking(f, BigDecimal.ONE, seen.token()));
+		assertEquals(nodeB.quote(f).fare(), nodeB.fareForBooking(f, fare, "garbage"));
+		now.set(seen.validUntil().plusSeconds(1));
+		assertEquals(nodeB.quote(f).fare(), nodeB.fareForBooking(f, fare, seen.token()));
+	}
+}
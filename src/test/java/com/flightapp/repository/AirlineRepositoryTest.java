@@ -3,10 +3,12 @@ package com.flightapp.repository;
 import com.flightapp.entity.Airline;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledInNativeImage;
 import org.mockito.Mockito;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
+@DisabledInNativeImage
 public class AirlineRepositoryTest {
 
 	private AirlineRepository airlineRepository;
@@ -0,0 +1,139 @@
+package com.flightapp.repository;
+
+import com.flightapp.config.ReadRouting;
+import com.flightapp.config.ReadRoutingProperties;
+import com.flightapp.entity.Booking;
+import com.flightapp.entity.BookingEvent;
+import com.mongodb.client.result.UpdateResult;
+
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledInNativeImage;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@DisabledInNativeImage
+public class BookingEventLogTest {
+
+	private ReactiveMongoTemplate mongoTemplate;
+	private BookingEventLogImpl eventLog;
+
+	// the counter document
+	private final AtomicLong counter = new AtomicLong(10);
+
+	@BeforeEach
+	void setup() {
+		mongoTemplate = mock(ReactiveMongoTemplate.class);
+		eventLog = new BookingEventLogImpl(mongoTemplate, new ReadRouting(new ReadRoutingProperties()));
+
+		when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+				eq(Document.class), eq(BookingEventLogImpl.COUNTERS))).thenAnswer(inv -> {
+					long by = ((Number) inv.<Update>getArgument(1).getUpdateObject().get("$inc", Document.class)
+							.get("seq")).longValue();
+					return Mono.just(new Document("seq", counter.addAndGet(by)));
+				});
+		when(mongoTemplate.find(any(Query.class), eq(BookingEvent.class))).thenReturn(Flux.empty());
+		when(mongoTemplate.insert(any(BookingEvent.class))).thenAnswer(inv -> Mono.just(inv.getArgument(0)));
+	}
+
+	// 1) relayed twice: only the event that isn't in the log yet takes a seq
+	@Test
+	void testAppend_skipsEventsAlreadyInTheLog() {
+		Booking booking = booking();
+		BookingEvent created = BookingEvent.created(booking);
+		BookingEvent canceled = BookingEvent.canceled(booking);
+		when(mongoTemplate.find(any(Query.class), eq(BookingEvent.class)))
+				.thenReturn(Flux.just(BookingEvent.builder().id(created.getId()).build()));
+
+		StepVerifier.create(eventLog.append(List.of(created, canceled)))
+				.expectNextMatches(e -> e == canceled && e.getSeq() == 11).verifyComplete();
+
+		verify(mongoTemplate, times(1)).insert(any(BookingEvent.class));
+	}
+
+	// 2) the publisher closed our seq while the insert was late: same event, new seq
+	@Test
+	void testAppend_renumbersWhenSeqWasClaimed() {
+		BookingEvent created = BookingEvent.created(booking());
+		List<Long> tried = new ArrayList<>();
+		when(mongoTemplate.insert(any(BookingEvent.class))).thenAnswer(inv -> {
+			BookingEvent event = inv.getArgument(0);
+			tried.add(event.getSeq());
+			return tried.size() == 1 ? Mono.error(new DuplicateKeyException("unique_seq"))
+					: Mono.just(event);
+		});
+		when(mongoTemplate.exists(any(Query.class), eq(BookingEvent.class))).thenReturn(Mono.just(false));
+
+		StepVerifier.create(eventLog.append(List.of(created))).expectNextMatches(e -> e.getSeq() == 12)
+				.verifyComplete();
+		assertEquals(List.of(11L, 12L), tried);
+	}
+
+	// 3) relayed by someone else between our check and our insert: the unused seq is closed at once
+	@Test
+	void testAppend_closesSeqWhenRelayedConcurrently() {
+		BookingEvent created = BookingEvent.created(booking());
+		when(mongoTemplate.insert(any(BookingEvent.class))).thenAnswer(inv -> {
+			BookingEvent event = inv.getArgument(0);
+			return event.getType() == BookingEvent.Type.GAP ? Mono.just(event)
+					: Mono.error(new DuplicateKeyException("_id"));
+		});
+		when(mongoTemplate.exists(any(Query.class), eq(BookingEvent.class))).thenReturn(Mono.just(true));
+
+		StepVerifier.create(eventLog.append(List.of(created))).verifyComplete();
+
+		ArgumentCaptor<BookingEvent> captor = ArgumentCaptor.forClass(BookingEvent.class);
+		verify(mongoTemplate, times(2)).insert(captor.capture());
+		assertEquals(BookingEvent.gap(11).getId(), captor.getAllValues().get(1).getId());
+	}
+
+	// 4) claimGap: a real event holding the seq wins, another node's tombstone counts as claimed
+	@Test
+	void testClaimGap() {
+		when(mongoTemplate.insert(any(BookingEvent.class))).thenReturn(Mono.error(new DuplicateKeyException("seq")));
+		when(mongoTemplate.findOne(any(Query.class), eq(BookingEvent.class)))
+				.thenReturn(Mono.just(BookingEvent.created(booking())), Mono.just(BookingEvent.gap(7)));
+
+		StepVerifier.create(eventLog.claimGap(7)).expectNext(false).verifyComplete();
+		StepVerifier.create(eventLog.claimGap(7)).expectNext(true).verifyComplete();
+	}
+
+	// 5) relayFrom: append, then $pull exactly those events off the booking
+	@Test
+	void testRelayFrom_pullsRelayedEvents() {
+		Booking booking = booking();
+		BookingEvent created = BookingEvent.created(booking);
+		booking.setPendingEvents(List.of(created));
+		when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(Booking.class)))
+				.thenReturn(Mono.just(UpdateResult.acknowledged(1, 1L, null)));
+
+		StepVerifier.create(eventLog.relayFrom(booking)).verifyComplete();
+
+		ArgumentCaptor<Update> captor = ArgumentCaptor.forClass(Update.class);
+		verify(mongoTemplate).updateFirst(any(Query.class), captor.capture(), eq(Booking.class));
+		Document pull = captor.getValue().getUpdateObject().get("$pull", Document.class);
+		assertTrue(pull.get(BookingEventLogImpl.PENDING_EVENTS, Document.class).toJson().contains(created.getId()));
+	}
+
+	private static Booking booking() {
+		return Booking.builder().id("b1").pnr("PNR00001").email("a@b.c").flightId("f1").seatsBooked(1).build();
+	}
+}
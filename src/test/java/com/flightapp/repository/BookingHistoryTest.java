@@ -0,0 +1,201 @@
+package com.flightapp.repository;
+
+import com.flightapp.config.BookingHistoryProperties;
+import com.flightapp.config.ReadRouting;
+import com.flightapp.config.ReadRoutingProperties;
+import com.flightapp.entity.Booking;
+import com.flightapp.entity.BookingHistory;
+import com.flightapp.entity.Passenger;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.result.DeleteResult;
+import com.mongodb.client.result.UpdateResult;
+
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledInNativeImage;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.ReactiveBulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@DisabledInNativeImage
+public class BookingHistoryTest {
+
+	private ReactiveMongoTemplate mongoTemplate;
+
+	@BeforeEach
+	void setup() {
+		mongoTemplate = mock(ReactiveMongoTemplate.class);
+	}
+
+	// 1) PNR already there at an older version: replaced in place, nothing appended
+	@Test
+	void testUpsertEntry_replacesOlderVersion() {
+		BookingHistoryUpdatesImpl updates = updates();
+		when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(BookingHistory.class)))
+				.thenReturn(Mono.just(UpdateResult.acknowledged(1, 1L, null)));
+
+		StepVerifier.create(updates.upsertEntry("a@mail.com", entry("PNR1", 2))).verifyComplete();
+
+		ArgumentCaptor<Query> captor = ArgumentCaptor.forClass(Query.class);
+		verify(mongoTemplate).updateFirst(captor.capture(), any(Update.class), eq(BookingHistory.class));
+		Document match = captor.getValue().getQueryObject().get("bookings", Document.class);
+		assertEquals(new Document("$elemMatch", new Document("pnr", "PNR1").append("version", new Document("$lt", 2L))),
+				match);
+		verify(mongoTemplate, never()).upsert(any(Query.class), any(Update.class), eq(BookingHistory.class));
+	}
+
+	// 2) PNR not there: appended with an upsert guarded by $ne
+	@Test
+	void testUpsertEntry_appendsNewPnr() {
+		BookingHistoryUpdatesImpl updates = updates();
+		when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(BookingHistory.class)))
+				.thenReturn(Mono.just(UpdateResult.acknowledged(0, 0L, null)));
+		when(mongoTemplate.upsert(any(Query.class), any(Update.class), eq(BookingHistory.class)))
+				.thenReturn(Mono.just(UpdateResult.acknowledged(0, 0L, null)));
+
+		StepVerifier.create(updates.upsertEntry("a@mail.com", entry("PNR1", 0))).verifyComplete();
+
+		ArgumentCaptor<Query> captor = ArgumentCaptor.forClass(Query.class);
+		ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+		verify(mongoTemplate).upsert(captor.capture(), update.capture(), eq(BookingHistory.class));
+		assertEquals(new Document("$ne", "PNR1"), captor.getValue().getQueryObject().get("bookings.pnr"));
+		// a document created here is missing the email's older bookings
+		assertEquals(new Document("complete", false), update.getValue().getUpdateObject().get("$setOnInsert"));
+	}
+
+	// 3) PNR there at the same or a newer version: the upsert collides on _id, which means "done"
+	@Test
+	void testUpsertEntry_newerVersionKept() {
+		BookingHistoryUpdatesImpl updates = updates();
+		when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(BookingHistory.class)))
+				.thenReturn(Mono.just(UpdateResult.acknowledged(0, 0L, null)));
+		when(mongoTemplate.upsert(any(Query.class), any(Update.class), eq(BookingHistory.class)))
+				.thenReturn(Mono.error(new DuplicateKeyException("_id")));
+
+		StepVerifier.create(updates.upsertEntry("a@mail.com", entry("PNR1", 0))).verifyComplete();
+	}
+
+	// 4) rebuild: live + archive merged per email, passengers + one bulk write per chunk, stale docs removed
+	@Test
+	@SuppressWarnings("unchecked")
+	void testRebuild_groupsPerEmailInChunks() {
+		BookingHistoryProperties properties = new BookingHistoryProperties();
+		properties.setChunkSize(2);
+		BookingHistoryRebuild rebuild = new BookingHistoryRebuild(mongoTemplate, properties);
+
+		when(mongoTemplate.find(any(Query.class), eq(Booking.class))).thenReturn(Flux.just(booking("b1", "a@mail.com"),
+				booking("b2", "a@mail.com"), booking("b3", "b@mail.com"), booking("b4", "c@mail.com")));
+		// b@mail.com also has an archived booking; b3 is mid-archival and shows up in both
+		when(mongoTemplate.find(any(Query.class), eq(Booking.class), eq(FlightArchiver.BOOKINGS_ARCHIVE)))
+				.thenReturn(Flux.just(booking("b3", "b@mail.com"), booking("b5", "b@mail.com")));
+		when(mongoTemplate.find(any(Query.class), eq(Passenger.class))).thenReturn(
+				Flux.just(Passenger.builder().id("p1").name("P1").seatNumber("1A").bookingId("b1").build()),
+				Flux.just(Passenger.builder().id("p4").name("P4").seatNumber("4A").bookingId("b4").build()));
+		when(mongoTemplate.find(any(Query.class), eq(Passenger.class), eq(FlightArchiver.PASSENGERS_ARCHIVE)))
+				.thenReturn(Flux.just(Passenger.builder().id("p5").name("P5").seatNumber("5A").bookingId("b5").build()),
+						Flux.empty());
+
+		ReactiveBulkOperations bulk = mock(ReactiveBulkOperations.class);
+		when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, BookingHistory.class)).thenReturn(bulk);
+		when(bulk.replaceOne(any(Query.class), any(), any(FindAndReplaceOptions.class))).thenReturn(bulk);
+		when(bulk.execute()).thenReturn(Mono.just(BulkWriteResult.unacknowledged()));
+		when(mongoTemplate.remove(any(Query.class), eq(BookingHistory.class)))
+				.thenReturn(Mono.just(DeleteResult.acknowledged(5)));
+
+		StepVerifier.create(rebuild.rebuild())
+				.expectNextMatches(report -> report.emails() == 3 && report.bookings() == 5 && report.removed() == 5)
+				.verifyComplete();
+
+		// bookings read in email order, passengers fetched per chunk (a+b, then c)
+		ArgumentCaptor<Query> bookingsQuery = ArgumentCaptor.forClass(Query.class);
+		verify(mongoTemplate).find(bookingsQuery.capture(), eq(Booking.class));
+		assertEquals(new Document("email", 1).append("bookingTime", 1), bookingsQuery.getValue().getSortObject());
+		verify(mongoTemplate, times(2)).find(any(Query.class), eq(Passenger.class));
+		verify(bulk, times(2)).execute();
+
+		ArgumentCaptor<Object> docs = ArgumentCaptor.forClass(Object.class);
+		verify(bulk, times(3)).replaceOne(any(Query.class), docs.capture(), any(FindAndReplaceOptions.class));
+		BookingHistory first = (BookingHistory) docs.getAllValues().get(0);
+		assertEquals("a@mail.com", first.getEmail());
+		assertTrue(first.isComplete());
+		assertEquals(List.of("PNR-b1", "PNR-b2"),
+				first.getBookings().stream().map(BookingHistory.Entry::getPnr).toList());
+		assertEquals("1A", first.getBookings().get(0).getPassengers().get(0).getSeatNumber());
+		assertEquals(List.of(), first.getBookings().get(1).getPassengers());
+
+		BookingHistory second = (BookingHistory) docs.getAllValues().get(1);
+		assertEquals(List.of("PNR-b3", "PNR-b5"),
+				second.getBookings().stream().map(BookingHistory.Entry::getPnr).toList());
+		assertEquals("5A", second.getBookings().get(1).getPassengers().get(0).getSeatNumber());
+	}
+
+	// 5) complete: joined entries merged with the document's (newer version wins), only if it is unchanged
+	@Test
+	@SuppressWarnings("unchecked")
+	void testComplete_mergesIntoUnchangedDocument() {
+		BookingHistoryUpdatesImpl updates = updates();
+		when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(BookingHistory.class)))
+				.thenReturn(Mono.just(UpdateResult.acknowledged(1, 1L, null)));
+		LocalDateTime seenAt = LocalDateTime.of(2030, 1, 1, 10, 0);
+		BookingHistory seen = new BookingHistory("a@mail.com", List.of(entry("PNR2", 1)), seenAt, false);
+
+		// the join is behind on PNR2 (secondary lag) and has the older PNR1
+		StepVerifier.create(updates.complete("a@mail.com", seen, List.of(entry("PNR1", 0), entry("PNR2", 0))))
+				.expectNext(true).verifyComplete();
+
+		ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+		ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+		verify(mongoTemplate).updateFirst(query.capture(), update.capture(), eq(BookingHistory.class));
+		assertEquals(new Document("_id", "a@mail.com").append("updatedAt", seenAt), query.getValue().getQueryObject());
+		Document set = update.getValue().getUpdateObject().get("$set", Document.class);
+		assertEquals(true, set.get("complete"));
+		List<BookingHistory.Entry> entries = (List<BookingHistory.Entry>) set.get("bookings");
+		assertEquals(List.of("PNR2:1", "PNR1:0"),
+				entries.stream().map(e -> e.getPnr() + ":" + e.getVersion()).toList());
+	}
+
+	// 6) complete with no document seen: inserted complete; someone created it meanwhile -> not written
+	@Test
+	void testComplete_insertLosesToConcurrentWrite() {
+		BookingHistoryUpdatesImpl updates = updates();
+		when(mongoTemplate.insert(any(BookingHistory.class))).thenReturn(Mono.error(new DuplicateKeyException("_id")));
+
+		StepVerifier.create(updates.complete("a@mail.com", null, List.of(entry("PNR1", 0)))).expectNext(false)
+				.verifyComplete();
+
+		ArgumentCaptor<BookingHistory> doc = ArgumentCaptor.forClass(BookingHistory.class);
+		verify(mongoTemplate).insert(doc.capture());
+		assertTrue(doc.getValue().isComplete());
+	}
+
+	private BookingHistoryUpdatesImpl updates() {
+		return new BookingHistoryUpdatesImpl(mongoTemplate, new ReadRouting(new ReadRoutingProperties()));
+	}
+
+	private static BookingHistory.Entry entry(String pnr, long version) {
+		return BookingHistory.Entry.builder().pnr(pnr).version(version).passengers(List.of()).build();
+	}
+
+	private static Booking booking(String id, String email) {
+		return Booking.builder().id(id).pnr("PNR-" + id).email(email).flightId("flight-1").seatsBooked(1)
+				.bookingTime(LocalDateTime.of(2030, 1, 1, 10, 0)).version(0L).build();
+	}
+}
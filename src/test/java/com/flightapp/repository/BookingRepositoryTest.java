@@ -3,6 +3,7 @@ package com.flightapp.repository;
 import com.flightapp.entity.Booking;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledInNativeImage;
 
 import org.mockito.Mockito;
 import reactor.core.publisher.Flux;
@@ -11,6 +12,7 @@ import reactor.test.StepVerifier;
 
 import static org.mockito.ArgumentMatchers.anyString;
 
+@DisabledInNativeImage
 public class BookingRepositoryTest {
 
 	private BookingRepository bookingRepository;
@@ -0,0 +1,73 @@
+package com.flightapp.repository;
+
+import com.flightapp.entity.FareCalendarEntry;
+import com.flightapp.entity.Money;
+import com.mongodb.client.result.UpdateResult;
+
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledInNativeImage;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@DisabledInNativeImage
+public class FareCalendarUpdatesTest {
+
+	private static final LocalDateTime READ_AT = LocalDateTime.of(2030, 3, 1, 10, 0);
+
+	private ReactiveMongoTemplate mongoTemplate;
+	private FareCalendarUpdatesImpl updates;
+
+	@BeforeEach
+	void setup() {
+		mongoTemplate = mock(ReactiveMongoTemplate.class);
+		updates = new FareCalendarUpdatesImpl(mongoTemplate);
+	}
+
+	// 1) upsert only over a cell read earlier (or never stamped)
+	@Test
+	void testSaveIfNewer_replacesOlderCell() {
+		when(mongoTemplate.upsert(any(Query.class), any(Update.class), eq(FareCalendarEntry.class)))
+				.thenReturn(Mono.just(UpdateResult.acknowledged(1, 1L, null)));
+
+		StepVerifier.create(updates.saveIfNewer(entry())).expectNext(true).verifyComplete();
+
+		ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+		ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+		verify(mongoTemplate).upsert(query.capture(), update.capture(), eq(FareCalendarEntry.class));
+		Document match = query.getValue().getQueryObject();
+		assertEquals("DEL|BOM|2030-03-02", match.get("_id"));
+		assertEquals(List.of(new Document("updatedAt", new Document("$lt", READ_AT)),
+				new Document("updatedAt", new Document("$exists", false))), match.get("$or"));
+		assertEquals(READ_AT, update.getValue().getUpdateObject().get("$set", Document.class).get("updatedAt"));
+	}
+
+	// 2) the stored cell is from a later read: the upsert collides on _id and the cell is kept
+	@Test
+	void testSaveIfNewer_newerCellKept() {
+		when(mongoTemplate.upsert(any(Query.class), any(Update.class), eq(FareCalendarEntry.class)))
+				.thenReturn(Mono.error(new DuplicateKeyException("E11000 duplicate key error")));
+
+		StepVerifier.create(updates.saveIfNewer(entry())).expectNext(false).verifyComplete();
+	}
+
+	private static FareCalendarEntry entry() {
+		return FareCalendarEntry.builder().id(FareCalendarEntry.key("DEL", "BOM", "2030-03-02")).fromPlace("DEL")
+				.toPlace("BOM").day("2030-03-02").minPrice(Money.ofMinor(399900, "INR")).availableSeats(42)
+				.flights(2).updatedAt(READ_AT).build();
+	}
+}
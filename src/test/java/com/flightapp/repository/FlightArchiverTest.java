@@ -0,0 +1,179 @@
+package com.flightapp.repository;
+
+import com.flightapp.config.ArchiveProperties;
+import com.flightapp.entity.Booking;
+import com.flightapp.entity.BookingEvent;
+import com.flightapp.entity.Flight;
+import com.flightapp.entity.Passenger;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.result.DeleteResult;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledInNativeImage;
+import org.mockito.InOrder;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.ReactiveBulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@DisabledInNativeImage
+public class FlightArchiverTest {
+
+	private static final LocalDateTime CUTOFF = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+	private ReactiveMongoTemplate mongoTemplate;
+	private BookingEventRepository eventRepository;
+	private ReactiveBulkOperations bulk;
+	private SimpleMeterRegistry meterRegistry;
+	private ArchiveProperties properties;
+	private FlightArchiver archiver;
+
+	@BeforeEach
+	void setup() {
+		mongoTemplate = mock(ReactiveMongoTemplate.class);
+		eventRepository = mock(BookingEventRepository.class);
+		bulk = mock(ReactiveBulkOperations.class);
+		meterRegistry = new SimpleMeterRegistry();
+		properties = new ArchiveProperties();
+		properties.setBatchSize(2);
+		archiver = new FlightArchiver(mongoTemplate, eventRepository, properties, meterRegistry);
+
+		when(mongoTemplate.bulkOps(eq(BulkOperations.BulkMode.UNORDERED), any(Class.class), anyString()))
+				.thenReturn(bulk);
+		when(bulk.replaceOne(any(Query.class), any(), any(FindAndReplaceOptions.class))).thenReturn(bulk);
+		when(bulk.execute()).thenReturn(Mono.just(BulkWriteResult.unacknowledged()));
+		when(mongoTemplate.remove(any(Query.class), any(Class.class)))
+				.thenReturn(Mono.just(DeleteResult.acknowledged(1)));
+	}
+
+	// 1) one batch: copied into all three archives, then removed live — bookings, passengers, flights
+	@Test
+	void testArchiveBatch_copiesThenDeletes() {
+		when(mongoTemplate.find(any(Query.class), eq(Flight.class))).thenReturn(Flux.just(flight("f1")));
+		when(mongoTemplate.find(any(Query.class), eq(Booking.class)))
+				.thenReturn(Flux.just(booking("b1", "f1"), booking("b2", "f1")));
+		when(mongoTemplate.find(any(Query.class), eq(Passenger.class)))
+				.thenReturn(Flux.just(passenger("p1", "b1"), passenger("p2", "b2"), passenger("p3", "b2")));
+
+		StepVerifier.create(archiver.archiveBatch(CUTOFF))
+				.expectNextMatches(r -> r.flights() == 1 && r.bookings() == 2 && r.passengers() == 3)
+				.verifyComplete();
+
+		InOrder order = inOrder(mongoTemplate);
+		order.verify(mongoTemplate).bulkOps(BulkOperations.BulkMode.UNORDERED, Flight.class,
+				FlightArchiver.FLIGHTS_ARCHIVE);
+		order.verify(mongoTemplate).bulkOps(BulkOperations.BulkMode.UNORDERED, Booking.class,
+				FlightArchiver.BOOKINGS_ARCHIVE);
+		order.verify(mongoTemplate).bulkOps(BulkOperations.BulkMode.UNORDERED, Passenger.class,
+				FlightArchiver.PASSENGERS_ARCHIVE);
+		order.verify(mongoTemplate).remove(any(Query.class), eq(Booking.class));
+		order.verify(mongoTemplate).remove(any(Query.class), eq(Passenger.class));
+		order.verify(mongoTemplate).remove(any(Query.class), eq(Flight.class));
+
+		verify(bulk, times(6)).replaceOne(any(Query.class), any(), any(FindAndReplaceOptions.class));
+		assertEquals(3.0, meterRegistry.counter("flightapp.archive.documents", "collection", "passengers").count());
+	}
+
+	// 2) nothing departed before the cutoff: no writes at all
+	@Test
+	void testArchiveBatch_nothingToArchive() {
+		when(mongoTemplate.find(any(Query.class), eq(Flight.class))).thenReturn(Flux.empty());
+
+		StepVerifier.create(archiver.archiveBatch(CUTOFF)).expectNextMatches(r -> r.flights() == 0)
+				.verifyComplete();
+
+		verify(mongoTemplate, never()).bulkOps(any(BulkOperations.BulkMode.class), any(Class.class), anyString());
+		verify(mongoTemplate, never()).remove(any(Query.class), any(Class.class));
+	}
+
+	// 3) full batches keep going, the first short one ends the run; totals add up
+	@Test
+	void testArchive_repeatsUntilShortBatch() {
+		when(mongoTemplate.find(any(Query.class), eq(Flight.class))).thenReturn(
+				Flux.just(flight("f1"), flight("f2")), Flux.just(flight("f3"), flight("f4")), Flux.just(flight("f5")));
+		when(mongoTemplate.find(any(Query.class), eq(Booking.class))).thenReturn(Flux.just(booking("b1", "f1")),
+				Flux.empty(), Flux.just(booking("b5", "f5")));
+		when(mongoTemplate.find(any(Query.class), eq(Passenger.class))).thenReturn(Flux.just(passenger("p1", "b1")),
+				Flux.empty(), Flux.just(passenger("p5", "b5")));
+
+		StepVerifier.create(archiver.archive())
+				.expectNextMatches(r -> r.flights() == 5 && r.bookings() == 2 && r.passengers() == 2)
+				.verifyComplete();
+
+		verify(mongoTemplate, times(3)).find(any(Query.class), eq(Flight.class));
+	}
+
+	// 4) events still pending on a booking or flight are relayed before the copy, not deleted with it
+	@Test
+	void testArchiveBatch_relaysPendingEventsFirst() {
+		Flight flight = flight("f1");
+		flight.setPendingEvents(new ArrayList<>(List.of(BookingEvent.builder().id("seats-f1").build())));
+		Booking pending = booking("b1", "f1");
+		pending.setPendingEvents(new ArrayList<>(List.of(BookingEvent.builder().id("created-b1").build())));
+		when(mongoTemplate.find(any(Query.class), eq(Flight.class))).thenReturn(Flux.just(flight));
+		when(mongoTemplate.find(any(Query.class), eq(Booking.class)))
+				.thenReturn(Flux.just(pending, booking("b2", "f1")));
+		when(mongoTemplate.find(any(Query.class), eq(Passenger.class))).thenReturn(Flux.empty());
+		when(eventRepository.relayFrom(any(Booking.class))).thenReturn(Mono.empty());
+		when(eventRepository.relayFrom(any(Flight.class))).thenReturn(Mono.empty());
+
+		StepVerifier.create(archiver.archiveBatch(CUTOFF)).expectNextCount(1).verifyComplete();
+
+		InOrder order = inOrder(eventRepository, mongoTemplate);
+		order.verify(eventRepository).relayFrom(pending);
+		order.verify(eventRepository).relayFrom(flight);
+		order.verify(mongoTemplate).bulkOps(BulkOperations.BulkMode.UNORDERED, Flight.class,
+				FlightArchiver.FLIGHTS_ARCHIVE);
+		verify(eventRepository, times(1)).relayFrom(any(Booking.class));
+		// the archive copies don't carry them
+		verify(bulk).replaceOne(any(Query.class), argThat(document -> document instanceof Booking b
+				&& b.getId().equals("b1") && b.getPendingEvents() == null), any(FindAndReplaceOptions.class));
+		assertNull(flight.getPendingEvents());
+	}
+
+	// 5) a failed relay leaves the batch live: nothing copied, nothing deleted
+	@Test
+	void testArchiveBatch_relayFailureKeepsBatchLive() {
+		Booking pending = booking("b1", "f1");
+		pending.setPendingEvents(new ArrayList<>(List.of(BookingEvent.builder().id("created-b1").build())));
+		when(mongoTemplate.find(any(Query.class), eq(Flight.class))).thenReturn(Flux.just(flight("f1")));
+		when(mongoTemplate.find(any(Query.class), eq(Booking.class))).thenReturn(Flux.just(pending));
+		when(mongoTemplate.find(any(Query.class), eq(Passenger.class))).thenReturn(Flux.empty());
+		when(eventRepository.relayFrom(any(Booking.class))).thenReturn(Mono.error(new IllegalStateException("down")));
+
+		StepVerifier.create(archiver.archiveBatch(CUTOFF)).verifyError(IllegalStateException.class);
+
+		verify(mongoTemplate, never()).bulkOps(any(BulkOperations.BulkMode.class), any(Class.class), anyString());
+		verify(mongoTemplate, never()).remove(any(Query.class), any(Class.class));
+	}
+
+	private static Flight flight(String id) {
+		return Flight.builder().id(id).flightNumber("AI" + id).departureTime(CUTOFF.minusDays(1)).build();
+	}
+
+	private static Booking booking(String id, String flightId) {
+		return Booking.builder().id(id).pnr("PNR-" + id).email("a@mail.com").flightId(flightId).seatsBooked(1)
+				.build();
+	}
+
+	private static Passenger passenger(String id, String bookingId) {
+		return Passenger.builder().id(id).name("P " + id).seatNumber("1A").bookingId(bookingId).build();
+	}
+}
@@ -0,0 +1,44 @@
+package com.flightapp.repository;
+
+import com.mongodb.ReadPreference;
+
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class FlightFareQueriesTest {
+
+	// The whole date range is answered by one match -> project -> group -> sort pipeline
+	@Test
+	void testFareCalendarPipeline_shape() {
+		Aggregation aggregation = FlightFareQueriesImpl.fareCalendarPipeline(
+				Criteria.where("fromPlace").is("DEL").and("toPlace").is("BOM"), ReadPreference.primary());
+
+		List<Document> pipeline = aggregation.toPipeline(Aggregation.DEFAULT_CONTEXT);
+
+		assertEquals(4, pipeline.size());
+
+		Document match = pipeline.get(0).get("$match", Document.class);
+		assertEquals("DEL", match.get("fromPlace"));
+		assertEquals(new Document("$gt", 0), match.get("availableSeats"));
+
+		// price may be a Money subdocument or a legacy Float — both end up as minor units
+		Document project = pipeline.get(1).get("$project", Document.class);
+		assertTrue(project.get("priceMinor", Document.class).containsKey("$cond"), project.toJson());
+
+		Document group = pipeline.get(2).get("$group", Document.class);
+		assertEquals(new Document("fromPlace", "$fromPlace").append("toPlace", "$toPlace").append("day", "$day"),
+				group.get("_id"));
+		assertEquals(new Document("$min", "$priceMinor"), group.get("minPrice"));
+		assertEquals(new Document("$sum", "$availableSeats"), group.get("availableSeats"));
+
+		Document sort = pipeline.get(3).get("$sort", Document.class);
+		assertTrue(sort.containsKey("_id.day"), sort.toJson());
+	}
+}
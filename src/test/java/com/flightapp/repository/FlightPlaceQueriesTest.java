@@ -0,0 +1,29 @@
+package com.flightapp.repository;
+
+import com.mongodb.ReadPreference;
+
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class FlightPlaceQueriesTest {
+
+	// Both ends of each flight counted in one pass: project -> unwind -> group
+	@Test
+	void testPlaceCountPipeline_shape() {
+		List<Document> pipeline = FlightPlaceQueriesImpl.placeCountPipeline(ReadPreference.secondaryPreferred())
+				.toPipeline(Aggregation.DEFAULT_CONTEXT);
+
+		assertEquals(3, pipeline.size());
+		assertEquals(List.of("$fromPlace", "$toPlace"),
+				pipeline.get(0).get("$project", Document.class).get("places"));
+		assertEquals("$places", pipeline.get(1).get("$unwind"));
+		Document group = pipeline.get(2).get("$group", Document.class);
+		assertEquals("$places", group.get("_id"));
+		assertEquals(new Document("$sum", 1), group.get("flights"));
+	}
+}
@@ -3,6 +3,7 @@ package com.flightapp.repository;
 import com.flightapp.entity.Flight;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledInNativeImage;
 
 import org.mockito.Mockito;
 
@@ -14,6 +15,7 @@ import java.time.LocalDateTime;
 
 import static org.mockito.ArgumentMatchers.*;
 
+@DisabledInNativeImage
 public class FlightRepositoryTest {
 
 	private FlightRepository flightRepository;
@@ -3,6 +3,7 @@ package com.flightapp.repository;
 import com.flightapp.entity.Passenger;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledInNativeImage;
 
 import org.mockito.Mockito;
 import reactor.core.publisher.Flux;
@@ -10,6 +11,7 @@ import reactor.test.StepVerifier;
 
 import java.util.List;
 
+@DisabledInNativeImage
 public class PassengerRepositoryTest {
 
 	private PassengerRepository passengerRepository;
@@ -0,0 +1,147 @@
+package com.flightapp.repository;
+
+import com.flightapp.config.ReadRouting;
+import com.flightapp.config.ReadRoutingProperties;
+import com.flightapp.entity.Booking;
+import com.flightapp.entity.Flight;
+import com.mongodb.ReadPreference;
+
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledInNativeImage;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@DisabledInNativeImage
+public class ReplicaReadsTest {
+
+	private ReactiveMongoTemplate mongoTemplate;
+	private ReadRoutingProperties properties;
+
+	@BeforeEach
+	void setup() {
+		mongoTemplate = mock(ReactiveMongoTemplate.class);
+		properties = new ReadRoutingProperties();
+	}
+
+	// 1) enabled — search goes to secondaries with the staleness bound
+	@Test
+	void testSearchOnReplica_usesSecondaryPreferred() {
+		properties.setEnabled(true);
+		properties.setMaxStaleness(Duration.ofSeconds(120));
+		FlightReplicaReadsImpl reads = new FlightReplicaReadsImpl(mongoTemplate, new ReadRouting(properties));
+
+		when(mongoTemplate.find(any(Query.class), eq(Flight.class))).thenReturn(Flux.empty());
+
+		LocalDateTime start = LocalDateTime.now();
+		StepVerifier.create(reads.searchOnReplica("DEL", "BLR", start, start.plusDays(1))).verifyComplete();
+
+		ArgumentCaptor<Query> captor = ArgumentCaptor.forClass(Query.class);
+		verify(mongoTemplate).find(captor.capture(), eq(Flight.class));
+		assertEquals(ReadPreference.secondaryPreferred(120, TimeUnit.SECONDS), captor.getValue().getReadPreference());
+
+		// projected: search-result fields only
+		assertEquals(1, captor.getValue().getFieldsObject().get("flightNumber"));
+		assertEquals(1, captor.getValue().getFieldsObject().get("totalSeats"));
+		assertEquals(FlightReplicaReadsImpl.SEARCH_RESULT_FIELDS.length, captor.getValue().getFieldsObject().size());
+	}
+
+	// 2) disabled — same queries, but pinned to the primary
+	@Test
+	void testFindByEmailOnReplica_disabledStaysOnPrimary() {
+		BookingReplicaReadsImpl reads = new BookingReplicaReadsImpl(mongoTemplate, new ReadRouting(properties));
+
+		when(mongoTemplate.find(any(Query.class), eq(Booking.class))).thenReturn(Flux.empty());
+
+		StepVerifier.create(reads.findByEmailOnReplica("test@mail.com")).verifyComplete();
+
+		ArgumentCaptor<Query> captor = ArgumentCaptor.forClass(Query.class);
+		verify(mongoTemplate).find(captor.capture(), eq(Booking.class));
+		assertEquals(ReadPreference.primary(), captor.getValue().getReadPreference());
+	}
+
+	// 3) staleness below MongoDB's 90s minimum gets clamped
+	@Test
+	void testMaxStaleness_clampedToMongoMinimum() {
+		properties.setEnabled(true);
+		properties.setMaxStaleness(Duration.ofSeconds(5));
+
+		assertEquals(ReadPreference.secondaryPreferred(90, TimeUnit.SECONDS),
+				new ReadRouting(properties).replicaReads());
+	}
+
+	// 4) history validators — replica, stamp fields only (no passengers, no fares)
+	@Test
+	void testFindStampsByEmailOnReplica_projectsStampOnly() {
+		properties.setEnabled(true);
+		BookingStampQueriesImpl queries = new BookingStampQueriesImpl(mongoTemplate, new ReadRouting(properties));
+
+		Booking booking = Booking.builder().pnr("PNR00001").version(3L).canceled(true)
+				.bookingTime(LocalDateTime.of(2030, 1, 1, 10, 0)).canceledAt(LocalDateTime.of(2030, 1, 2, 10, 0)).build();
+		when(mongoTemplate.find(any(Query.class), eq(Booking.class))).thenReturn(Flux.just(booking));
+
+		StepVerifier.create(queries.findStampsByEmailOnReplica("test@mail.com"))
+				.expectNext(new BookingStamp("PNR00001", 3, true, booking.getBookingTime(), booking.getCanceledAt()))
+				.verifyComplete();
+
+		ArgumentCaptor<Query> captor = ArgumentCaptor.forClass(Query.class);
+		verify(mongoTemplate).find(captor.capture(), eq(Booking.class));
+		assertEquals(ReadPreference.secondaryPreferred(90, TimeUnit.SECONDS), captor.getValue().getReadPreference());
+		assertEquals(BookingStamp.FIELDS.length + 1, captor.getValue().getFieldsObject().size());
+		assertEquals(0, captor.getValue().getFieldsObject().get("_id"));
+	}
+
+	// 5) window search — one $in query, half-open departure range, sorted by departure
+	@Test
+	void testSearchWindowOnReplica_singleInQuery() {
+		properties.setEnabled(true);
+		FlightReplicaReadsImpl reads = new FlightReplicaReadsImpl(mongoTemplate, new ReadRouting(properties));
+
+		when(mongoTemplate.find(any(Query.class), eq(Flight.class))).thenReturn(Flux.empty());
+
+		LocalDateTime start = LocalDateTime.of(2030, 3, 1, 0, 0);
+		LocalDateTime end = start.plusDays(2);
+		StepVerifier.create(reads.searchWindowOnReplica(List.of("Delhi", "Jaipur"), List.of("Mumbai", "Pune"), start,
+				end)).verifyComplete();
+
+		ArgumentCaptor<Query> captor = ArgumentCaptor.forClass(Query.class);
+		verify(mongoTemplate).find(captor.capture(), eq(Flight.class));
+		Document filter = captor.getValue().getQueryObject();
+		assertEquals(new Document("$in", List.of("Delhi", "Jaipur")), filter.get("fromPlace"));
+		assertEquals(new Document("$in", List.of("Mumbai", "Pune")), filter.get("toPlace"));
+		assertEquals(new Document("$gte", start).append("$lt", end), filter.get("departureTime"));
+		assertEquals(new Document("departureTime", 1), captor.getValue().getSortObject());
+		assertEquals(FlightReplicaReadsImpl.SEARCH_RESULT_FIELDS.length, captor.getValue().getFieldsObject().size());
+	}
+
+	// 6) single-route search includes a flight departing exactly at the start of the range
+	@Test
+	void testSearchOnReplica_startInclusive() {
+		FlightReplicaReadsImpl reads = new FlightReplicaReadsImpl(mongoTemplate, new ReadRouting(properties));
+
+		when(mongoTemplate.find(any(Query.class), eq(Flight.class))).thenReturn(Flux.empty());
+
+		LocalDateTime start = LocalDateTime.of(2030, 3, 1, 0, 0);
+		StepVerifier.create(reads.searchOnReplica("Delhi", "Mumbai", start, start.plusDays(1))).verifyComplete();
+
+		ArgumentCaptor<Query> captor = ArgumentCaptor.forClass(Query.class);
+		verify(mongoTemplate).find(captor.capture(), eq(Flight.class));
+		assertEquals(new Document("$gte", start).append("$lt", start.plusDays(1)),
+				captor.getValue().getQueryObject().get("departureTime"));
+		assertEquals(new Document("departureTime", 1), captor.getValue().getSortObject());
+	}
+}
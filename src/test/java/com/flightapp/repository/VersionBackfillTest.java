@@ -0,0 +1,52 @@
+package com.flightapp.repository;
+
+import com.flightapp.entity.Booking;
+import com.flightapp.entity.Flight;
+import com.mongodb.client.result.UpdateResult;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.mock.env.MockEnvironment;
+import reactor.core.publisher.Mono;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class VersionBackfillTest {
+
+	private ReactiveMongoTemplate mongoTemplate;
+	private MockEnvironment environment;
+
+	@BeforeEach
+	void setup() {
+		mongoTemplate = mock(ReactiveMongoTemplate.class);
+		environment = new MockEnvironment();
+		when(mongoTemplate.updateMulti(any(Query.class), any(Update.class), any(Class.class)))
+				.thenReturn(Mono.just(UpdateResult.acknowledged(0, 0L, null)));
+	}
+
+	// 1) a normal start backfills flights, then bookings
+	@Test
+	void runsBeforeServing() {
+		new VersionBackfill(mongoTemplate, environment).afterSingletonsInstantiated();
+
+		verify(mongoTemplate).updateMulti(any(Query.class), any(Update.class), eq(Flight.class));
+		verify(mongoTemplate).updateMulti(any(Query.class), any(Update.class), eq(Booking.class));
+	}
+
+	// 2) refresh-and-exit (CDS training run) and a disabled flag under AOT never touch Mongo
+	@Test
+	void skippedWhenExitingOnRefreshOrDisabled() {
+		environment.setProperty("spring.context.exit", "onRefresh");
+		new VersionBackfill(mongoTemplate, environment).afterSingletonsInstantiated();
+
+		MockEnvironment disabled = new MockEnvironment().withProperty(VersionBackfill.ENABLED, "false");
+		new VersionBackfill(mongoTemplate, disabled).afterSingletonsInstantiated();
+
+		verifyNoInteractions(mongoTemplate);
+	}
+}
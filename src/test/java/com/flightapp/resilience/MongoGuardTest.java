@@ -0,0 +1,136 @@
+package com.flightapp.resilience;
+
+import com.flightapp.config.ResilienceProperties;
+import com.flightapp.exception.ApiException;
+
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class MongoGuardTest {
+
+	private ResilienceProperties properties;
+
+	@BeforeEach
+	void setup() {
+		properties = new ResilienceProperties();
+		properties.getTimeouts().put(MongoGuard.Operation.SEARCH, Duration.ofMillis(100));
+		properties.getReads().setMinimumNumberOfCalls(4);
+		properties.getReads().setSlidingWindowSize(4);
+	}
+
+	private MongoGuard guard() {
+		return new MongoGuard(properties, new SimpleMeterRegistry());
+	}
+
+	// 1) per-operation timeout, for Mono and for a whole Flux
+	@Test
+	void timesOut() {
+		MongoGuard guard = guard();
+
+		StepVerifier.create(guard.guard(MongoGuard.Operation.SEARCH, Mono.never()))
+				.expectError(TimeoutException.class).verify(Duration.ofSeconds(2));
+
+		// elements keep arriving, but the stream as a whole is too slow
+		StepVerifier.create(guard.guard(MongoGuard.Operation.SEARCH, Flux.interval(Duration.ofMillis(30))))
+				.expectNextCount(1).thenConsumeWhile(tick -> true).expectError(TimeoutException.class)
+				.verify(Duration.ofSeconds(2));
+	}
+
+	// 2) failures open the read breaker; writes are unaffected
+	@Test
+	void breakerOpensOnFailuresPerSide() {
+		MongoGuard guard = guard();
+
+		for (int i = 0; i < 4; i++) {
+			StepVerifier.create(guard.guard(MongoGuard.Operation.SEARCH, Mono.error(new IllegalStateException())))
+					.expectError(IllegalStateException.class).verify();
+		}
+
+		assertEquals(CircuitBreaker.State.OPEN, guard.circuitBreaker(MongoGuard.Operation.HISTORY).getState());
+		StepVerifier.create(guard.guard(MongoGuard.Operation.HISTORY, Mono.just(1)))
+				.expectError(CallNotPermittedException.class).verify();
+		StepVerifier.create(guard.guard(MongoGuard.Operation.BOOKING, Mono.just(1))).expectNext(1).verifyComplete();
+	}
+
+	// 3) business errors don't count
+	@Test
+	void apiExceptionsIgnored() {
+		MongoGuard guard = guard();
+
+		for (int i = 0; i < 10; i++) {
+			StepVerifier.create(guard.guard(MongoGuard.Operation.SEARCH, Mono.error(new ApiException("nope"))))
+					.expectError(ApiException.class).verify();
+		}
+
+		assertEquals(CircuitBreaker.State.CLOSED, guard.circuitBreaker(MongoGuard.Operation.SEARCH).getState());
+	}
+
+	// 4) full bulkhead rejects immediately
+	@Test
+	void bulkheadRejectsWhenFull() {
+		properties.setWrites(new ResilienceProperties.Budget(1));
+		MongoGuard guard = guard();
+
+		Disposable inFlight = guard.guard(MongoGuard.Operation.BOOKING, Mono.never()).subscribe();
+
+		StepVerifier.create(guard.guard(MongoGuard.Operation.CANCEL, Mono.just(1)))
+				.expectError(BulkheadFullException.class).verify();
+
+		inFlight.dispose();
+		StepVerifier.create(guard.guard(MongoGuard.Operation.CANCEL, Mono.just(1))).expectNext(1).verifyComplete();
+	}
+
+	// 5) version conflicts: retried with a fresh attempt, counted, never trip the breaker
+	@Test
+	void retriesVersionConflicts() {
+		properties.getConflictRetry().setMaxRetries(2);
+		properties.getConflictRetry().setMinBackoff(Duration.ofMillis(1));
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		MongoGuard guard = new MongoGuard(properties, registry);
+
+		AtomicInteger attempts = new AtomicInteger();
+		Mono<Integer> twoConflictsThenOk = Mono.defer(() -> attempts.incrementAndGet() <= 2
+				? Mono.error(new OptimisticLockingFailureException("conflict"))
+				: Mono.just(attempts.get()));
+		StepVerifier.create(guard.retryOnConflict(MongoGuard.Operation.BOOKING, twoConflictsThenOk)).expectNext(3)
+				.verifyComplete();
+
+		Mono<Integer> alwaysConflicts = Mono.error(new OptimisticLockingFailureException("hot flight"));
+		for (int i = 0; i < 10; i++) {
+			StepVerifier.create(guard.guard(MongoGuard.Operation.BOOKING,
+					guard.retryOnConflict(MongoGuard.Operation.BOOKING, alwaysConflicts)))
+					.expectError(OptimisticLockingFailureException.class).verify();
+		}
+
+		assertEquals(22.0, registry.counter("flightapp.mongo.version.conflicts", "operation", "booking", "outcome",
+				"retried").count());
+		assertEquals(10.0, registry.counter("flightapp.mongo.version.conflicts", "operation", "booking", "outcome",
+				"exhausted").count());
+		assertEquals(CircuitBreaker.State.CLOSED, guard.circuitBreaker(MongoGuard.Operation.BOOKING).getState());
+
+		// anything else is not retried
+		attempts.set(0);
+		Mono<Integer> failing = Mono.defer(() -> {
+			attempts.incrementAndGet();
+			return Mono.error(new IllegalStateException());
+		});
+		StepVerifier.create(guard.retryOnConflict(MongoGuard.Operation.CANCEL, failing))
+				.expectError(IllegalStateException.class).verify();
+		assertEquals(1, attempts.get());
+	}
+}
@@ -1,33 +1,76 @@
 package com.flightapp.service.impl;
 
 import com.flightapp.TestDataFactory;
+import com.flightapp.cache.CacheInvalidationEvent;
+import com.flightapp.cache.LocalCacheInvalidationBus;
+import com.flightapp.cache.TicketCache;
+import com.flightapp.cache.TicketCacheTier;
+import com.flightapp.config.FareCalendarProperties;
+import com.flightapp.config.PlaceProperties;
+import com.flightapp.config.PricingProperties;
+import com.flightapp.config.ResilienceProperties;
+import com.flightapp.config.TicketCacheProperties;
 import com.flightapp.dto.BookingRequest;
+import com.flightapp.dto.BookingView;
+import com.flightapp.dto.CacheValidators;
 import com.flightapp.dto.PassengerRequest;
 import com.flightapp.entity.Booking;
+import com.flightapp.entity.BookingEvent;
+import com.flightapp.entity.BookingHistory;
 import com.flightapp.entity.Flight;
+import com.flightapp.entity.Money;
 import com.flightapp.entity.Passenger;
 import com.flightapp.exception.ApiException;
+import com.flightapp.exception.ErrorCode;
+import com.flightapp.exception.ValidationException;
+import com.flightapp.place.PlaceRegistry;
+import com.flightapp.pricing.PricingEngine;
+import com.flightapp.repository.BookingEventRepository;
+import com.flightapp.repository.BookingHistoryRepository;
 import com.flightapp.repository.BookingRepository;
+import com.flightapp.repository.BookingStamp;
+import com.flightapp.repository.FareCalendarRepository;
 import com.flightapp.repository.FlightRepository;
 import com.flightapp.repository.PassengerRepository;
+import com.flightapp.resilience.MongoGuard;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledInNativeImage;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import reactor.core.publisher.Mono;
 import reactor.core.publisher.Flux;
 import reactor.test.StepVerifier;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeoutException;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
+@DisabledInNativeImage
 public class BookingServiceImplTest {
 
 	private BookingRepository bookingRepository;
 	private FlightRepository flightRepository;
 	private PassengerRepository passengerRepository;
+	private BookingEventRepository eventRepository;
+	private BookingHistoryRepository historyRepository;
+
+	private TicketCache ticketCache;
+	private LocalCacheInvalidationBus invalidationBus;
+	private PricingEngine pricingEngine;
+	private SimpleMeterRegistry meterRegistry;
 
 	private BookingServiceImpl bookingService;
 
@@ -36,8 +79,44 @@ public class BookingServiceImplTest {
 		bookingRepository = mock(BookingRepository.class);
 		flightRepository = mock(FlightRepository.class);
 		passengerRepository = mock(PassengerRepository.class);
+		eventRepository = mock(BookingEventRepository.class);
+		historyRepository = mock(BookingHistoryRepository.class);
+
+		ticketCache = new TicketCache(new TicketCacheProperties(), TicketCacheTier.none(), new SimpleMeterRegistry());
+
+		invalidationBus = new LocalCacheInvalidationBus();
+
+		meterRegistry = new SimpleMeterRegistry();
+		MongoGuard mongoGuard = new MongoGuard(new ResilienceProperties(), meterRegistry);
+
+		FareCalendarServiceImpl fareCalendarService = new FareCalendarServiceImpl(flightRepository,
+				mock(FareCalendarRepository.class), new FareCalendarProperties(), mongoGuard,
+				new PlaceRegistry(flightRepository, new PlaceProperties()));
+
+		pricingEngine = new PricingEngine(new PricingProperties());
+
+		// cancel looks up the seat numbers to release
+		when(passengerRepository.findByBookingId(anyString())).thenReturn(Flux.empty());
+
+		// no bookings from before the flight's seat map unless a test adds them
+		when(bookingRepository.findByFlightIdAndCanceledFalse(anyString())).thenReturn(Flux.empty());
+
+		// pending outbox events relay fine unless a test says otherwise
+		when(eventRepository.relayFrom(any(Booking.class))).thenReturn(Mono.empty());
+		when(eventRepository.relayFrom(any(Flight.class))).thenReturn(Mono.empty());
+
+		// nothing archived, no history read-model documents unless a test adds them
+		when(bookingRepository.findByEmailInArchive(anyString())).thenReturn(Flux.empty());
+		when(bookingRepository.findByPnrInArchive(anyString())).thenReturn(Mono.empty());
+		when(passengerRepository.findByBookingIdInArchive(anyString())).thenReturn(Flux.empty());
+		when(historyRepository.findByEmailOnReplica(anyString())).thenReturn(Mono.empty());
+		when(historyRepository.upsertEntry(anyString(), any())).thenReturn(Mono.empty());
+		when(historyRepository.markIncomplete(anyString())).thenReturn(Mono.empty());
+		when(historyRepository.complete(anyString(), any(), anyList())).thenReturn(Mono.just(true));
 
-		bookingService = new BookingServiceImpl(bookingRepository, flightRepository, passengerRepository);
+		bookingService = new BookingServiceImpl(bookingRepository, flightRepository, passengerRepository,
+				eventRepository, historyRepository, ticketCache, invalidationBus, fareCalendarService, pricingEngine,
+				mongoGuard);
 	}
 
 	// -----------------------------------------------------
@@ -91,6 +170,10 @@ public class BookingServiceImplTest {
 		StepVerifier.create(bookingService.bookTicket(flight.getId(), req))
 				.expectErrorMatches(ex -> ex instanceof ApiException && ex.getMessage().contains("Not enough seats"))
 				.verify();
+
+		// sold out is the same preallocated exception every time
+		StepVerifier.create(bookingService.bookTicket(flight.getId(), req))
+				.expectErrorMatches(ex -> ex == ErrorCode.SEATS_UNAVAILABLE.exception()).verify();
 	}
 
 	// -----------------------------------------------------
@@ -159,7 +242,7 @@ public class BookingServiceImplTest {
 	}
 
 	// -----------------------------------------------------
-	// 8) BOOKING HISTORY
+	// 8) BOOKING HISTORY — NO READ-MODEL DOCUMENT YET, JOINED
 	// -----------------------------------------------------
 	@Test
 	void testBookingHistory() {
@@ -167,11 +250,18 @@ public class BookingServiceImplTest {
 		Booking booking = TestDataFactory.sampleBooking();
 		Passenger passenger = TestDataFactory.samplePassenger();
 
-		when(bookingRepository.findByEmail("test@example.com")).thenReturn(Flux.just(booking));
+		when(bookingRepository.findByEmailOnReplica("test@example.com")).thenReturn(Flux.just(booking));
 
-		when(passengerRepository.findByBookingId(booking.getId())).thenReturn(Flux.just(passenger));
+		when(passengerRepository.findByBookingIdOnReplica(booking.getId())).thenReturn(Flux.just(passenger));
 
-		StepVerifier.create(bookingService.getBookingHistory("test@example.com")).expectNextCount(1).verifyComplete();
+		// history hands the loaded entities through untouched
+		StepVerifier.create(bookingService.getBookingHistory("test@example.com"))
+				.expectNextMatches(view -> view.booking() == booking && view.passengers().equals(List.of(passenger)))
+				.verifyComplete();
+
+		// and the join creates the document, complete, for the next read
+		verify(historyRepository).complete(eq("test@example.com"), isNull(),
+				argThat(entries -> entries.size() == 1 && entries.get(0).getPnr().equals(booking.getPnr())));
 	}
 
 	// -----------------------------------------------------
@@ -191,7 +281,7 @@ public class BookingServiceImplTest {
 
 		when(bookingRepository.save(any())).thenReturn(Mono.just(booking));
 
-		when(flightRepository.save(any())).thenReturn(Mono.just(flight));
+		when(flightRepository.releaseSeats(eq(flight.getId()), eq(1), any(), any())).thenReturn(Mono.just(flight));
 
 		StepVerifier.create(bookingService.cancelBooking(booking.getPnr())).verifyComplete();
 	}
@@ -238,4 +328,666 @@ public class BookingServiceImplTest {
 
 		StepVerifier.create(bookingService.cancelBooking(booking.getPnr())).expectError(ApiException.class).verify();
 	}
+
+	// -----------------------------------------------------
+	// 13) GET TICKET — SECOND LOOKUP SERVED FROM CACHE
+	// -----------------------------------------------------
+	@Test
+	void testGetTicketByPnr_cachedAfterFirstLookup() {
+
+		Booking booking = TestDataFactory.sampleBooking();
+		Passenger passenger = TestDataFactory.samplePassenger();
+
+		when(bookingRepository.findByPnr("PNR12345")).thenReturn(Mono.just(booking));
+
+		when(passengerRepository.findByBookingId(booking.getId())).thenReturn(Flux.just(passenger));
+
+		StepVerifier.create(bookingService.getTicketByPnr("PNR12345")).expectNextCount(1).verifyComplete();
+		StepVerifier.create(bookingService.getTicketByPnr("PNR12345"))
+				.expectNextMatches(resp -> resp.getPnr().equals("PNR12345")).verifyComplete();
+
+		verify(bookingRepository, times(1)).findByPnr("PNR12345");
+		verify(passengerRepository, times(1)).findByBookingId(booking.getId());
+	}
+
+	// -----------------------------------------------------
+	// 14) BOOK TICKET — RESPONSE IS WRITTEN THROUGH TO CACHE
+	// -----------------------------------------------------
+	@Test
+	void testBookTicket_populatesTicketCache() {
+
+		BookingRequest req = TestDataFactory.sampleBookingRequest();
+		Flight flight = TestDataFactory.sampleFlight();
+
+		when(flightRepository.findById(flight.getId())).thenReturn(Mono.just(flight));
+		when(bookingRepository.save(any())).thenReturn(Mono.just(TestDataFactory.sampleBooking()));
+		when(passengerRepository.saveAll(anyList()))
+				.thenReturn(Flux.fromIterable(List.of(TestDataFactory.samplePassenger())));
+		when(flightRepository.save(any())).thenReturn(Mono.just(flight));
+
+		StepVerifier.create(bookingService.bookTicket(flight.getId(), req)).expectNextCount(1).verifyComplete();
+
+		StepVerifier.create(bookingService.getTicketByPnr("PNR12345")).expectNextCount(1).verifyComplete();
+		verify(bookingRepository, never()).findByPnr(anyString());
+	}
+
+	// -----------------------------------------------------
+	// 15) CANCEL BOOKING — CACHED TICKET IS INVALIDATED
+	// -----------------------------------------------------
+	@Test
+	void testCancelBooking_evictsTicketCache() {
+
+		Booking booking = TestDataFactory.sampleBooking();
+		Flight flight = TestDataFactory.sampleFlight();
+		flight.setDepartureTime(LocalDateTime.now().plusHours(30));
+
+		when(bookingRepository.findByPnr(booking.getPnr())).thenReturn(Mono.just(booking));
+		when(passengerRepository.findByBookingId(booking.getId()))
+				.thenReturn(Flux.just(TestDataFactory.samplePassenger()));
+		when(flightRepository.findById(booking.getFlightId())).thenReturn(Mono.just(flight));
+		when(bookingRepository.save(any())).thenReturn(Mono.just(booking));
+		when(flightRepository.releaseSeats(eq(flight.getId()), eq(1), any(), any())).thenReturn(Mono.just(flight));
+
+		// warm the cache, then cancel
+		StepVerifier.create(bookingService.getTicketByPnr(booking.getPnr())).expectNextCount(1).verifyComplete();
+		StepVerifier.create(bookingService.cancelBooking(booking.getPnr())).verifyComplete();
+
+		StepVerifier.create(bookingService.getTicketByPnr(booking.getPnr()))
+				.expectNextMatches(resp -> Boolean.TRUE.equals(resp.getCanceled())).verifyComplete();
+	}
+
+	// -----------------------------------------------------
+	// 16) CANCEL BOOKING — BROADCASTS PNR + SEAT CHANGES
+	// -----------------------------------------------------
+	@Test
+	void testCancelBooking_publishesInvalidations() {
+
+		Booking booking = TestDataFactory.sampleBooking();
+		Flight flight = TestDataFactory.sampleFlight();
+		flight.setDepartureTime(LocalDateTime.now().plusHours(30));
+
+		when(bookingRepository.findByPnr(booking.getPnr())).thenReturn(Mono.just(booking));
+		when(flightRepository.findById(booking.getFlightId())).thenReturn(Mono.just(flight));
+		when(bookingRepository.save(any())).thenReturn(Mono.just(booking));
+		when(flightRepository.releaseSeats(eq(flight.getId()), eq(1), any(), any())).thenReturn(Mono.just(flight));
+
+		List<CacheInvalidationEvent> seen = new CopyOnWriteArrayList<>();
+		var subscription = invalidationBus.events().subscribe(seen::add);
+
+		StepVerifier.create(bookingService.cancelBooking(booking.getPnr())).verifyComplete();
+		subscription.dispose();
+
+		assertEquals(List.of(CacheInvalidationEvent.Type.PNR_CANCELED, CacheInvalidationEvent.Type.FLIGHT_SEATS_CHANGED),
+				seen.stream().map(CacheInvalidationEvent::getType).toList());
+		assertEquals(booking.getPnr(), seen.get(0).getKey());
+	}
+
+	// -----------------------------------------------------
+	// 17) BOOK TICKET — CHARGES THE DYNAMIC FARE AND REQUOTES
+	// -----------------------------------------------------
+	@Test
+	void testBookTicket_chargesDynamicFare() {
+
+		BookingRequest req = TestDataFactory.sampleBookingRequest();
+		Flight flight = TestDataFactory.sampleFlight();
+		flight.setAvailableSeats(30); // 75% sold
+
+		Money quoted = pricingEngine.quote(flight).fare();
+
+		ArgumentCaptor<Booking> captor = ArgumentCaptor.forClass(Booking.class);
+		when(flightRepository.findById(flight.getId())).thenReturn(Mono.just(flight));
+		when(bookingRepository.save(captor.capture())).thenAnswer(inv -> Mono.just(inv.getArgument(0)));
+		when(passengerRepository.saveAll(anyList()))
+				.thenReturn(Flux.fromIterable(List.of(TestDataFactory.samplePassenger())));
+		when(flightRepository.save(any())).thenReturn(Mono.just(flight));
+
+		StepVerifier.create(bookingService.bookTicket(flight.getId(), req))
+				.expectNextMatches(resp -> resp.getFarePerSeat().equals(quoted.toBigDecimal())
+						&& resp.getTotalFare().equals(quoted.toBigDecimal()) && "INR".equals(resp.getCurrency()))
+				.verifyComplete();
+
+		assertEquals(quoted, captor.getValue().getFarePerSeat());
+		// one more seat sold pushes the flight into the next bucket, but the fare the
+		// customer just saw is still locked
+		assertEquals(29, flight.getAvailableSeats());
+		assertTrue(pricingEngine.quote(flight).fare().compareTo(quoted) > 0);
+		assertEquals(quoted, pricingEngine.fareForBooking(flight, quoted.toBigDecimal()));
+	}
+
+	// -----------------------------------------------------
+	// 18) CANCEL — LOST THE RACE TO A CONCURRENT CANCEL
+	// -----------------------------------------------------
+	@Test
+	void testCancelBooking_concurrentCancelWins() {
+
+		Booking stale = TestDataFactory.sampleBooking();
+		Booking winner = TestDataFactory.sampleBooking();
+		winner.setCanceled(true);
+		Flight flight = TestDataFactory.sampleFlight();
+		flight.setDepartureTime(LocalDateTime.now().plusHours(30));
+
+		// first read is from before the other cancel landed, the re-read after the conflict is not
+		when(bookingRepository.findByPnr(stale.getPnr())).thenReturn(Mono.just(stale), Mono.just(winner));
+		when(flightRepository.findById(stale.getFlightId())).thenReturn(Mono.just(flight));
+		when(bookingRepository.save(any()))
+				.thenReturn(Mono.error(new OptimisticLockingFailureException("version 0 already taken")));
+
+		StepVerifier.create(bookingService.cancelBooking(stale.getPnr()))
+				.expectErrorMatches(ex -> ex instanceof ApiException && "Already canceled".equals(ex.getMessage()))
+				.verify();
+
+		// seats are given back once, by the winner — not again here
+		verify(flightRepository, never()).save(any());
+		assertEquals(1.0, meterRegistry.counter("flightapp.mongo.version.conflicts", "operation", "cancel", "outcome",
+				"retried").count());
+	}
+
+	// -----------------------------------------------------
+	// 19) BOOK — FLIGHT CHANGED UNDER US: RE-READ, RE-CHECK, BOOK ONCE
+	// -----------------------------------------------------
+	@Test
+	void testBookTicket_retriesOnFlightConflict() {
+
+		BookingRequest req = TestDataFactory.sampleBookingRequest();
+		Flight stale = TestDataFactory.sampleFlight();
+		Flight fresh = TestDataFactory.sampleFlight();
+		int seatsBefore = stale.getAvailableSeats();
+		fresh.setAvailableSeats(seatsBefore - 5); // someone else took 5 seats meanwhile
+
+		when(flightRepository.findById(stale.getId())).thenReturn(Mono.just(stale), Mono.just(fresh));
+		when(flightRepository.save(any()))
+				.thenReturn(Mono.error(new OptimisticLockingFailureException("flight saved concurrently")))
+				.thenAnswer(inv -> Mono.just(inv.getArgument(0)));
+		when(bookingRepository.save(any())).thenAnswer(inv -> Mono.just(inv.getArgument(0)));
+		when(passengerRepository.saveAll(anyList()))
+				.thenReturn(Flux.fromIterable(List.of(TestDataFactory.samplePassenger())));
+
+		StepVerifier.create(bookingService.bookTicket(stale.getId(), req)).expectNextCount(1).verifyComplete();
+
+		// nothing but the flight is written until the seats are ours
+		verify(bookingRepository, times(1)).save(any());
+		assertEquals(seatsBefore - 6, fresh.getAvailableSeats());
+	}
+
+	// -----------------------------------------------------
+	// 20) BOOK — SEAT ALREADY HELD BY ANOTHER BOOKING
+	// -----------------------------------------------------
+	@Test
+	void testBookTicket_seatAlreadyBooked() {
+
+		Flight flight = TestDataFactory.sampleFlight();
+		flight.setBookedSeats(new HashSet<>(Set.of("1A")));
+		when(flightRepository.findById(flight.getId())).thenReturn(Mono.just(flight));
+
+		StepVerifier.create(bookingService.bookTicket(flight.getId(), TestDataFactory.sampleBookingRequest()))
+				.expectErrorMatches(ex -> ex instanceof ApiException && ex.getMessage().contains("1A")).verify();
+
+		verify(flightRepository, never()).save(any());
+		verify(bookingRepository, never()).save(any());
+	}
+
+	// -----------------------------------------------------
+	// 21) CANCEL — SEATS AND SEAT NUMBERS ARE RELEASED ATOMICALLY
+	// -----------------------------------------------------
+	@Test
+	void testCancelBooking_releasesSeatNumbers() {
+
+		Booking booking = TestDataFactory.sampleBooking();
+		Flight flight = TestDataFactory.sampleFlight();
+		flight.setDepartureTime(LocalDateTime.now().plusHours(30));
+
+		when(bookingRepository.findByPnr(booking.getPnr())).thenReturn(Mono.just(booking));
+		when(passengerRepository.findByBookingId(booking.getId()))
+				.thenReturn(Flux.just(TestDataFactory.samplePassenger()));
+		when(flightRepository.findById(booking.getFlightId())).thenReturn(Mono.just(flight));
+		when(bookingRepository.save(any())).thenReturn(Mono.just(booking));
+		when(flightRepository.releaseSeats(anyString(), anyInt(), any(), any())).thenReturn(Mono.just(flight));
+
+		StepVerifier.create(bookingService.cancelBooking(booking.getPnr())).verifyComplete();
+
+		// one atomic update, no versioned save that could lose a race after the cancel landed
+		verify(flightRepository).releaseSeats(eq(flight.getId()), eq(1), eq(Set.of("1A")), any());
+		verify(flightRepository, never()).save(any());
+	}
+
+	// -----------------------------------------------------
+	// 22) BOOK — PNR COLLISION IS REDRAWN
+	// -----------------------------------------------------
+	@Test
+	void testBookTicket_redrawsDuplicatePnr() {
+
+		Flight flight = TestDataFactory.sampleFlight();
+		ArgumentCaptor<Booking> captor = ArgumentCaptor.forClass(Booking.class);
+		when(flightRepository.findById(flight.getId())).thenReturn(Mono.just(flight));
+		when(flightRepository.save(any())).thenReturn(Mono.just(flight));
+		when(bookingRepository.save(captor.capture()))
+				.thenReturn(Mono.error(new DuplicateKeyException("unique_pnr")))
+				.thenAnswer(inv -> Mono.just(inv.getArgument(0)));
+		when(passengerRepository.saveAll(anyList()))
+				.thenReturn(Flux.fromIterable(List.of(TestDataFactory.samplePassenger())));
+
+		StepVerifier.create(bookingService.bookTicket(flight.getId(), TestDataFactory.sampleBookingRequest()))
+				.expectNextMatches(resp -> resp.getPnr().equals(captor.getAllValues().get(1).getPnr()))
+				.verifyComplete();
+
+		// seats were taken once, not once per PNR draw
+		verify(flightRepository, times(1)).save(any());
+	}
+
+	// -----------------------------------------------------
+	// 23) BOOK — CREATED + SEATS CHANGED ARE STORED WITH THE BOOKING, THEN RELAYED
+	// -----------------------------------------------------
+	@Test
+	void testBookTicket_storesOutboxEventsWithBooking() {
+
+		Flight flight = TestDataFactory.sampleFlight();
+		int seatsBefore = flight.getAvailableSeats();
+		ArgumentCaptor<Booking> captor = ArgumentCaptor.forClass(Booking.class);
+		when(flightRepository.findById(flight.getId())).thenReturn(Mono.just(flight));
+		when(flightRepository.save(any())).thenAnswer(inv -> Mono.just(inv.getArgument(0)));
+		when(bookingRepository.save(captor.capture())).thenAnswer(inv -> Mono.just(inv.getArgument(0)));
+		when(passengerRepository.saveAll(anyList()))
+				.thenReturn(Flux.fromIterable(List.of(TestDataFactory.samplePassenger())));
+
+		StepVerifier.create(bookingService.bookTicket(flight.getId(), TestDataFactory.sampleBookingRequest()))
+				.expectNextCount(1).verifyComplete();
+
+		Booking stored = captor.getValue();
+		List<BookingEvent> events = stored.getPendingEvents();
+		assertEquals(List.of(BookingEvent.Type.BOOKING_CREATED, BookingEvent.Type.SEATS_CHANGED),
+				events.stream().map(BookingEvent::getType).toList());
+		assertEquals(stored.getPnr(), events.get(0).getPnr());
+		assertEquals(-1, events.get(1).getSeatDelta());
+		assertEquals(seatsBefore - 1, events.get(1).getAvailableSeats());
+		assertTrue(events.stream().allMatch(e -> e.getId() != null));
+
+		verify(eventRepository).relayFrom(stored);
+		verify(eventRepository, never()).append(anyList());
+	}
+
+	// -----------------------------------------------------
+	// 24) CANCEL — OUTBOX RELAY FAILS: CANCEL STANDS, EVENTS STAY PENDING, CACHES INVALIDATED
+	// -----------------------------------------------------
+	@Test
+	void testCancelBooking_relayFailureIsNotFatal() {
+
+		Booking booking = TestDataFactory.sampleBooking();
+		Flight flight = TestDataFactory.sampleFlight();
+		flight.setDepartureTime(LocalDateTime.now().plusHours(30));
+
+		ArgumentCaptor<Booking> saved = ArgumentCaptor.forClass(Booking.class);
+		ArgumentCaptor<BookingEvent> released = ArgumentCaptor.forClass(BookingEvent.class);
+		when(bookingRepository.findByPnr(booking.getPnr())).thenReturn(Mono.just(booking));
+		when(flightRepository.findById(booking.getFlightId())).thenReturn(Mono.just(flight));
+		when(bookingRepository.save(saved.capture())).thenAnswer(inv -> Mono.just(inv.getArgument(0)));
+		when(flightRepository.releaseSeats(eq(flight.getId()), eq(1), any(), released.capture()))
+				.thenReturn(Mono.just(flight));
+		when(eventRepository.relayFrom(any(Booking.class)))
+				.thenReturn(Mono.error(new IllegalStateException("outbox down")));
+		when(eventRepository.relayFrom(any(Flight.class)))
+				.thenReturn(Mono.error(new IllegalStateException("outbox down")));
+
+		List<CacheInvalidationEvent> published = new CopyOnWriteArrayList<>();
+		invalidationBus.events().subscribe(published::add);
+
+		StepVerifier.create(bookingService.cancelBooking(booking.getPnr())).verifyComplete();
+
+		// the cancel carried its event, the release its seat change; the relay sweep finishes the job
+		assertEquals(List.of(BookingEvent.Type.BOOKING_CANCELED),
+				saved.getValue().getPendingEvents().stream().map(BookingEvent::getType).toList());
+		assertEquals(BookingEvent.Type.SEATS_CHANGED, released.getValue().getType());
+		assertEquals(booking.getPnr(), released.getValue().getPnr());
+		assertEquals(1, released.getValue().getSeatDelta());
+		assertEquals(List.of(CacheInvalidationEvent.Type.PNR_CANCELED,
+				CacheInvalidationEvent.Type.FLIGHT_SEATS_CHANGED),
+				published.stream().map(CacheInvalidationEvent::getType).toList());
+	}
+
+	// -----------------------------------------------------
+	// 25) BOOKING HISTORY — ONE READ-MODEL LOOKUP, NO JOIN
+	// -----------------------------------------------------
+	@Test
+	void testBookingHistory_fromReadModel() {
+
+		Booking booking = TestDataFactory.sampleBooking();
+		booking.setVersion(3L);
+		BookingHistory history = new BookingHistory(booking.getEmail(),
+				List.of(BookingHistory.Entry.of(booking, List.of(TestDataFactory.samplePassenger()))),
+				LocalDateTime.now(), true);
+		when(historyRepository.findByEmailOnReplica(booking.getEmail())).thenReturn(Mono.just(history));
+
+		StepVerifier.create(bookingService.getBookingHistory(booking.getEmail()))
+				.expectNextMatches(view -> view.toResponse()
+						.equals(new BookingView(booking, List.of(TestDataFactory.samplePassenger())).toResponse()))
+				.verifyComplete();
+
+		// ETag from the same document, identical to the one built from the bookings collection
+		StepVerifier.create(bookingService.getHistoryValidators(booking.getEmail()))
+				.expectNextMatches(v -> v.etag().equals(CacheValidators.of(List.of(
+						new BookingStamp(booking.getPnr(), 3, false, booking.getBookingTime(), null))).etag()))
+				.verifyComplete();
+
+		verify(bookingRepository, never()).findByEmailOnReplica(anyString());
+		verify(bookingRepository, never()).findStampsByEmailOnReplica(anyString());
+		verify(passengerRepository, never()).findByBookingIdOnReplica(anyString());
+	}
+
+	// -----------------------------------------------------
+	// 26) BOOK + CANCEL — HISTORY ENTRY ADDED, THEN REPLACED AT THE NEW VERSION
+	// -----------------------------------------------------
+	@Test
+	void testBookAndCancel_updateHistory() {
+
+		Flight flight = TestDataFactory.sampleFlight();
+		flight.setDepartureTime(LocalDateTime.now().plusHours(30));
+		Booking booking = TestDataFactory.sampleBooking();
+		booking.setVersion(0L);
+		Passenger passenger = TestDataFactory.samplePassenger();
+
+		when(flightRepository.findById(flight.getId())).thenReturn(Mono.just(flight));
+		when(flightRepository.save(any())).thenReturn(Mono.just(flight));
+		when(bookingRepository.save(any())).thenReturn(Mono.just(booking))
+				.thenAnswer(inv -> {
+					Booking canceled = inv.getArgument(0);
+					canceled.setVersion(1L);
+					return Mono.just(canceled);
+				});
+		when(passengerRepository.saveAll(anyList())).thenReturn(Flux.just(passenger));
+		when(passengerRepository.findByBookingId(booking.getId())).thenReturn(Flux.just(passenger));
+		when(bookingRepository.findByPnr(booking.getPnr())).thenReturn(Mono.just(booking));
+		when(flightRepository.releaseSeats(eq(flight.getId()), eq(1), any(), any())).thenReturn(Mono.just(flight));
+
+		StepVerifier.create(bookingService.bookTicket(flight.getId(), TestDataFactory.sampleBookingRequest()))
+				.expectNextCount(1).verifyComplete();
+		StepVerifier.create(bookingService.cancelBooking(booking.getPnr())).verifyComplete();
+
+		ArgumentCaptor<BookingHistory.Entry> captor = ArgumentCaptor.forClass(BookingHistory.Entry.class);
+		verify(historyRepository, times(2)).upsertEntry(eq(booking.getEmail()), captor.capture());
+
+		BookingHistory.Entry booked = captor.getAllValues().get(0);
+		BookingHistory.Entry canceled = captor.getAllValues().get(1);
+		assertEquals(0, booked.getVersion());
+		assertEquals(passenger.getSeatNumber(), booked.getPassengers().get(0).getSeatNumber());
+		assertEquals(1, canceled.getVersion());
+		assertTrue(canceled.isCanceled());
+		assertEquals(1, canceled.getPassengers().size());
+	}
+
+	// -----------------------------------------------------
+	// 27) BOOK — HISTORY WRITE FAILS, BOOKING STILL SUCCEEDS
+	// -----------------------------------------------------
+	@Test
+	void testBookTicket_historyFailureIsNotFatal() {
+
+		Flight flight = TestDataFactory.sampleFlight();
+		when(flightRepository.findById(flight.getId())).thenReturn(Mono.just(flight));
+		when(flightRepository.save(any())).thenReturn(Mono.just(flight));
+		when(bookingRepository.save(any())).thenReturn(Mono.just(TestDataFactory.sampleBooking()));
+		when(passengerRepository.saveAll(anyList()))
+				.thenReturn(Flux.fromIterable(List.of(TestDataFactory.samplePassenger())));
+		when(historyRepository.upsertEntry(anyString(), any()))
+				.thenReturn(Mono.error(new IllegalStateException("history down")));
+
+		StepVerifier.create(bookingService.bookTicket(flight.getId(), TestDataFactory.sampleBookingRequest()))
+				.expectNextCount(1).verifyComplete();
+
+		// reads join again until the document is completed
+		verify(historyRepository).markIncomplete(TestDataFactory.sampleBooking().getEmail());
+	}
+
+	// -----------------------------------------------------
+	// 28) GET TICKET — FLIGHT ARCHIVED, FOUND IN THE ARCHIVE
+	// -----------------------------------------------------
+	@Test
+	void testGetTicket_fromArchive() {
+
+		Booking booking = TestDataFactory.sampleBooking();
+		when(bookingRepository.findByPnr(booking.getPnr())).thenReturn(Mono.empty());
+		when(bookingRepository.findByPnrInArchive(booking.getPnr())).thenReturn(Mono.just(booking));
+		when(passengerRepository.findByBookingIdInArchive(booking.getId()))
+				.thenReturn(Flux.just(TestDataFactory.samplePassenger()));
+
+		StepVerifier.create(bookingService.getTicketByPnr(booking.getPnr()))
+				.expectNextMatches(resp -> resp.getPnr().equals(booking.getPnr()) && resp.getPassengers().size() == 1)
+				.verifyComplete();
+		verify(passengerRepository, never()).findByBookingId(anyString());
+	}
+
+	// -----------------------------------------------------
+	// 29) BOOKING HISTORY (JOINED) — ARCHIVED + LIVE, MID-ARCHIVAL BOOKING ONCE
+	// -----------------------------------------------------
+	@Test
+	void testBookingHistory_joinsLiveAndArchive() {
+
+		Booking old = Booking.builder().id("old").pnr("OLD00001").email("test@example.com").flightId("f0")
+				.seatsBooked(1).bookingTime(LocalDateTime.now().minusYears(1)).build();
+		Booking moving = TestDataFactory.sampleBooking();
+		when(bookingRepository.findByEmailInArchive("test@example.com")).thenReturn(Flux.just(old, moving));
+		when(bookingRepository.findByEmailOnReplica("test@example.com")).thenReturn(Flux.just(moving));
+		when(passengerRepository.findByBookingIdOnReplica(anyString())).thenReturn(Flux.empty());
+
+		StepVerifier.create(bookingService.getBookingHistory("test@example.com").map(v -> v.booking().getPnr()))
+				.expectNext("OLD00001", moving.getPnr()).verifyComplete();
+	}
+
+	// -----------------------------------------------------
+	// 30) BOOK — BAD REQUEST REJECTED BEFORE THE FLIGHT IS READ
+	// -----------------------------------------------------
+	@Test
+	void testBookTicket_invalidRequestSkipsMongo() {
+
+		BookingRequest req = TestDataFactory.sampleBookingRequest();
+		req.setNumberOfSeats(2);
+		req.getPassengers().get(0).setMeal(" ");
+
+		StepVerifier.create(bookingService.bookTicket("flight-1", req))
+				.expectErrorMatches(ex -> ex instanceof ValidationException
+						&& ((ValidationException) ex).getErrors().keySet()
+								.equals(Set.of("passengers[0].meal", "passengers")))
+				.verify();
+		verifyNoInteractions(flightRepository, bookingRepository, passengerRepository);
+	}
+
+	// -----------------------------------------------------
+	// 31) BOOK — PASSENGER SAVE FAILS AFTER THE HOLD: SEATS COME BACK
+	// -----------------------------------------------------
+	@Test
+	void testBookTicket_passengerFailureReleasesSeats() {
+
+		Flight flight = TestDataFactory.sampleFlight();
+		when(flightRepository.findById(flight.getId())).thenReturn(Mono.just(flight));
+		when(flightRepository.save(any())).thenAnswer(inv -> Mono.just(inv.getArgument(0)));
+		when(passengerRepository.saveAll(anyList()))
+				.thenReturn(Flux.error(new IllegalStateException("passengers down")));
+		when(flightRepository.releaseSeats(anyString(), anyInt(), any(), any())).thenReturn(Mono.just(flight));
+
+		StepVerifier.create(bookingService.bookTicket(flight.getId(), TestDataFactory.sampleBookingRequest()))
+				.expectErrorMessage("passengers down").verify();
+
+		verify(flightRepository).releaseSeats(eq(flight.getId()), eq(1), eq(Set.of("1A")), any());
+		verify(bookingRepository, never()).save(any());
+		verify(eventRepository, never()).relayFrom(any(Booking.class));
+	}
+
+	// -----------------------------------------------------
+	// 32) BOOK — OUT OF PNR DRAWS: PASSENGERS REMOVED, SEATS COME BACK
+	// -----------------------------------------------------
+	@Test
+	void testBookTicket_bookingFailureReleasesSeats() {
+
+		Flight flight = TestDataFactory.sampleFlight();
+		List<Passenger> passengers = List.of(TestDataFactory.samplePassenger());
+		when(flightRepository.findById(flight.getId())).thenReturn(Mono.just(flight));
+		when(flightRepository.save(any())).thenAnswer(inv -> Mono.just(inv.getArgument(0)));
+		when(passengerRepository.saveAll(anyList())).thenReturn(Flux.fromIterable(passengers));
+		when(passengerRepository.deleteAll(anyIterable())).thenReturn(Mono.empty());
+		when(bookingRepository.save(any())).thenReturn(Mono.error(new DuplicateKeyException("unique_pnr")));
+		when(flightRepository.releaseSeats(anyString(), anyInt(), any(), any())).thenReturn(Mono.just(flight));
+
+		StepVerifier.create(bookingService.bookTicket(flight.getId(), TestDataFactory.sampleBookingRequest()))
+				.expectError(DuplicateKeyException.class).verify();
+
+		verify(bookingRepository, times(3)).save(any());
+		verify(passengerRepository).deleteAll(passengers);
+		verify(flightRepository).releaseSeats(eq(flight.getId()), eq(1), eq(Set.of("1A")), any());
+	}
+
+	// -----------------------------------------------------
+	// 33) BOOK — OUTBOX RELAY FAILS AFTER THE BOOKING IS STORED: STILL BOOKED, SEATS KEPT
+	// -----------------------------------------------------
+	@Test
+	void testBookTicket_followUpFailureKeepsBooking() {
+
+		Flight flight = TestDataFactory.sampleFlight();
+		when(flightRepository.findById(flight.getId())).thenReturn(Mono.just(flight));
+		when(flightRepository.save(any())).thenAnswer(inv -> Mono.just(inv.getArgument(0)));
+		when(bookingRepository.save(any())).thenAnswer(inv -> Mono.just(inv.getArgument(0)));
+		when(passengerRepository.saveAll(anyList()))
+				.thenReturn(Flux.fromIterable(List.of(TestDataFactory.samplePassenger())));
+		when(eventRepository.relayFrom(any(Booking.class)))
+				.thenReturn(Mono.error(new IllegalStateException("outbox down")));
+
+		StepVerifier.create(bookingService.bookTicket(flight.getId(), TestDataFactory.sampleBookingRequest()))
+				.expectNextCount(1).verifyComplete();
+
+		verify(flightRepository, never()).releaseSeats(anyString(), anyInt(), any(), any());
+	}
+
+	// -----------------------------------------------------
+	// 34) BOOK — GUARD TIMES OUT MID-COMMIT: THE COMMIT STILL FINISHES AND GIVES THE SEATS BACK
+	// -----------------------------------------------------
+	@Test
+	void testBookTicket_timeoutStillReleasesSeats() {
+
+		ResilienceProperties properties = new ResilienceProperties();
+		properties.getTimeouts().put(MongoGuard.Operation.BOOKING, Duration.ofMillis(50));
+		MongoGuard shortGuard = new MongoGuard(properties, meterRegistry);
+		bookingService = new BookingServiceImpl(bookingRepository, flightRepository, passengerRepository,
+				eventRepository, historyRepository, ticketCache, invalidationBus,
+				mock(FareCalendarServiceImpl.class), pricingEngine, shortGuard);
+
+		Flight flight = TestDataFactory.sampleFlight();
+		when(flightRepository.findById(flight.getId())).thenReturn(Mono.just(flight));
+		when(flightRepository.save(any())).thenAnswer(inv -> Mono.just(inv.getArgument(0)));
+		// the passenger write is still in flight when the guard gives up, then fails
+		when(passengerRepository.saveAll(anyList())).thenReturn(
+				Mono.delay(Duration.ofMillis(200)).thenMany(Flux.error(new IllegalStateException("passengers down"))));
+		when(flightRepository.releaseSeats(anyString(), anyInt(), any(), any())).thenReturn(Mono.just(flight));
+
+		StepVerifier.create(bookingService.bookTicket(flight.getId(), TestDataFactory.sampleBookingRequest()))
+				.expectError(TimeoutException.class).verify();
+
+		verify(flightRepository, timeout(2000)).releaseSeats(eq(flight.getId()), eq(1), eq(Set.of("1A")), any());
+	}
+
+	// -----------------------------------------------------
+	// 35) BOOKING HISTORY — INCOMPLETE DOCUMENT: JOINED, THEN COMPLETED FROM THE JOIN
+	// -----------------------------------------------------
+	@Test
+	void testBookingHistory_incompleteDocumentIsJoined() {
+
+		// an older booking from before the read model, and the one whose update created the document
+		Booking older = TestDataFactory.sampleBooking();
+		Booking newer = TestDataFactory.sampleBooking();
+		newer.setId("b2");
+		newer.setPnr("PNR2");
+		BookingHistory incomplete = new BookingHistory(older.getEmail(),
+				List.of(BookingHistory.Entry.of(newer, List.of())), LocalDateTime.now(), false);
+		when(historyRepository.findByEmailOnReplica(older.getEmail())).thenReturn(Mono.just(incomplete));
+		when(bookingRepository.findByEmailOnReplica(older.getEmail())).thenReturn(Flux.just(older, newer));
+		when(passengerRepository.findByBookingIdOnReplica(anyString())).thenReturn(Flux.empty());
+		when(bookingRepository.findStampsByEmailOnReplica(older.getEmail())).thenReturn(Flux.empty());
+
+		StepVerifier.create(bookingService.getBookingHistory(older.getEmail()).map(view -> view.booking().getPnr()))
+				.expectNextSequence(List.of(older.getPnr(), "PNR2")).verifyComplete();
+		StepVerifier.create(bookingService.getHistoryValidators(older.getEmail())).expectNextCount(1)
+				.verifyComplete();
+
+		// completed against the document that was read; the ETag came from the bookings too
+		verify(historyRepository).complete(eq(older.getEmail()), same(incomplete),
+				argThat(entries -> entries.size() == 2));
+		verify(bookingRepository).findStampsByEmailOnReplica(older.getEmail());
+	}
+
+	// -----------------------------------------------------
+	// 36) BOOK — FLIGHT FROM BEFORE THE SEAT MAP: SEATS OF LIVE BOOKINGS STILL TAKEN
+	// -----------------------------------------------------
+	@Test
+	void testBookTicket_legacyFlightSeatMapFromPassengers() {
+
+		Flight flight = TestDataFactory.sampleFlight();
+		flight.setBookedSeats(null);
+		Booking legacy = TestDataFactory.sampleBooking();
+		when(flightRepository.findById(flight.getId())).thenReturn(Mono.just(flight));
+		when(bookingRepository.findByFlightIdAndCanceledFalse(flight.getId())).thenReturn(Flux.just(legacy));
+		when(passengerRepository.findByBookingIdIn(List.of(legacy.getId())))
+				.thenReturn(Flux.just(Passenger.builder().bookingId(legacy.getId()).seatNumber("1A").build()));
+
+		// 1A is in a booking made before bookedSeats existed
+		StepVerifier.create(bookingService.bookTicket(flight.getId(), TestDataFactory.sampleBookingRequest()))
+				.expectErrorMatches(ex -> ex instanceof ApiException && ex.getMessage().contains("1A")).verify();
+		verify(flightRepository, never()).save(any());
+
+		// another seat: the rebuilt map is saved with the hold
+		when(flightRepository.save(any())).thenReturn(Mono.just(flight));
+		when(bookingRepository.save(any())).thenReturn(Mono.just(TestDataFactory.sampleBooking()));
+		when(passengerRepository.saveAll(anyList())).thenReturn(Flux.just(TestDataFactory.samplePassenger()));
+		BookingRequest request = TestDataFactory.sampleBookingRequest();
+		request.getPassengers().get(0).setSeatNumber("2B");
+		StepVerifier.create(bookingService.bookTicket(flight.getId(), request)).expectNextCount(1).verifyComplete();
+
+		ArgumentCaptor<Flight> saved = ArgumentCaptor.forClass(Flight.class);
+		verify(flightRepository).save(saved.capture());
+		assertEquals(Set.of("1A", "2B"), saved.getValue().getBookedSeats());
+	}
+
+	// -----------------------------------------------------
+	// 37) BOOK — SEATS TAKEN WITH ONE CONDITIONAL UPDATE, NO VERSIONED SAVE
+	// -----------------------------------------------------
+	@Test
+	void testBookTicket_atomicSeatHold() {
+
+		Flight flight = TestDataFactory.sampleFlight();
+		flight.setBookedSeats(new HashSet<>(Set.of("3C")));
+		Flight held = TestDataFactory.sampleFlight();
+		held.setAvailableSeats(flight.getAvailableSeats() - 1);
+		held.setBookedSeats(new HashSet<>(Set.of("3C", "1A")));
+		when(flightRepository.findById(flight.getId())).thenReturn(Mono.just(flight));
+		when(flightRepository.holdSeats(flight.getId(), 1, Set.of("1A"))).thenReturn(Mono.just(held));
+		when(bookingRepository.save(any())).thenAnswer(inv -> Mono.just(inv.getArgument(0)));
+		when(passengerRepository.saveAll(anyList())).thenReturn(Flux.just(TestDataFactory.samplePassenger()));
+
+		StepVerifier.create(bookingService.bookTicket(flight.getId(), TestDataFactory.sampleBookingRequest()))
+				.expectNextCount(1).verifyComplete();
+
+		verify(flightRepository, never()).save(any());
+		// the outbox event carries the seats left after this very update
+		ArgumentCaptor<Booking> booking = ArgumentCaptor.forClass(Booking.class);
+		verify(bookingRepository).save(booking.capture());
+		assertEquals(held.getAvailableSeats(), booking.getValue().getPendingEvents().get(1).getAvailableSeats());
+	}
+
+	// -----------------------------------------------------
+	// 38) BOOK — HOLD DIDN'T APPLY: RE-READ GIVES THE REAL REASON, NOT A RETRY-EXHAUSTED CONFLICT
+	// -----------------------------------------------------
+	@Test
+	void testBookTicket_holdNotAppliedRejectsWithReason() {
+
+		Flight before = TestDataFactory.sampleFlight();
+		before.setBookedSeats(new HashSet<>());
+		Flight after = TestDataFactory.sampleFlight();
+		after.setBookedSeats(new HashSet<>(Set.of("1A")));
+		when(flightRepository.findById(before.getId())).thenReturn(Mono.just(before), Mono.just(after));
+		when(flightRepository.holdSeats(anyString(), anyInt(), anyCollection())).thenReturn(Mono.empty());
+
+		StepVerifier.create(bookingService.bookTicket(before.getId(), TestDataFactory.sampleBookingRequest()))
+				.expectErrorMatches(ex -> ex instanceof ApiException
+						&& ((ApiException) ex).getCode() == ErrorCode.SEAT_TAKEN)
+				.verify();
+
+		verify(flightRepository, times(1)).holdSeats(anyString(), anyInt(), anyCollection());
+		verify(bookingRepository, never()).save(any());
+		assertEquals(1.0, meterRegistry.counter("flightapp.mongo.version.conflicts", "operation", "booking",
+				"outcome", "retried").count());
+	}
 }
@@ -0,0 +1,184 @@
+package com.flightapp.service.impl;
+
+import com.flightapp.TestDataFactory;
+import com.flightapp.config.FareCalendarProperties;
+import com.flightapp.config.PlaceProperties;
+import com.flightapp.config.ResilienceProperties;
+import com.flightapp.dto.FareCalendarRequest;
+import com.flightapp.entity.FareCalendarEntry;
+import com.flightapp.entity.Flight;
+import com.flightapp.entity.Money;
+import com.flightapp.exception.ApiException;
+import com.flightapp.place.PlaceRegistry;
+import com.flightapp.repository.FareCalendarRepository;
+import com.flightapp.repository.FlightRepository;
+import com.flightapp.resilience.MongoGuard;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledInNativeImage;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@DisabledInNativeImage
+public class FareCalendarServiceImplTest {
+
+	private FlightRepository flightRepository;
+	private FareCalendarRepository fareCalendarRepository;
+	private FareCalendarProperties properties;
+	private FareCalendarServiceImpl fareCalendarService;
+
+	private final LocalDate start = LocalDate.now().plusDays(1);
+
+	@BeforeEach
+	void setup() {
+		flightRepository = mock(FlightRepository.class);
+		fareCalendarRepository = mock(FareCalendarRepository.class);
+		properties = new FareCalendarProperties();
+
+		fareCalendarService = new FareCalendarServiceImpl(flightRepository, fareCalendarRepository, properties,
+				new MongoGuard(new ResilienceProperties(), new SimpleMeterRegistry()),
+				new PlaceRegistry(flightRepository, new PlaceProperties()));
+	}
+
+	private FareCalendarRequest request(LocalDate first, LocalDate last) {
+		return FareCalendarRequest.builder().fromPlace("Bangalore").toPlace("Mumbai").startDate(first).endDate(last)
+				.build();
+	}
+
+	private static FareCalendarEntry entry(LocalDate day, long rupees) {
+		return FareCalendarEntry.builder().id(FareCalendarEntry.key("Bangalore", "Mumbai", day.toString()))
+				.fromPlace("Bangalore").toPlace("Mumbai").day(day.toString()).minPrice(Money.ofMinor(rupees * 100, "INR")).availableSeats(10)
+				.flights(1).build();
+	}
+
+	// 1) live mode — one aggregation for the whole range
+	@Test
+	void testGetFareCalendar_liveAggregation() {
+		when(flightRepository.aggregateFareCalendarOnReplica("Bangalore", "Mumbai", start, start.plusDays(29)))
+				.thenReturn(Flux.just(entry(start, 4000), entry(start.plusDays(3), 3500)));
+
+		StepVerifier.create(fareCalendarService.getFareCalendar(request(start, start.plusDays(29))))
+				.expectNextMatches(d -> d.getDate().equals(start) && d.getMinPrice().compareTo(new BigDecimal("4000")) == 0)
+				.expectNextMatches(d -> d.getDate().equals(start.plusDays(3)) && d.getMinPrice().compareTo(new BigDecimal("3500")) == 0)
+				.verifyComplete();
+
+		verifyNoInteractions(fareCalendarRepository);
+	}
+
+	// 2) materialized mode — one _id range read, no aggregation
+	@Test
+	void testGetFareCalendar_materialized() {
+		properties.setMaterialized(true);
+		when(fareCalendarRepository.findByKeyRange("Bangalore|Mumbai|" + start,
+				"Bangalore|Mumbai|" + start.plusDays(6))).thenReturn(Flux.just(entry(start, 4000)));
+
+		StepVerifier.create(fareCalendarService.getFareCalendar(request(start, start.plusDays(6)))).expectNextCount(1)
+				.verifyComplete();
+
+		verify(flightRepository, never()).aggregateFareCalendarOnReplica(any(), any(), any(), any());
+	}
+
+	// 3) range validation
+	@Test
+	void testGetFareCalendar_invalidRanges() {
+		StepVerifier.create(fareCalendarService.getFareCalendar(request(start, start.minusDays(1))))
+				.expectError(ApiException.class).verify();
+
+		StepVerifier.create(fareCalendarService.getFareCalendar(request(start, start.plusDays(200))))
+				.expectErrorMatches(ex -> ex instanceof ApiException && ex.getMessage().contains("at most"))
+				.verify();
+	}
+
+	// 4) refresh — recomputes the flight's cell and writes it, stamped with when it was read
+	@Test
+	void testRefresh_upsertsCell() {
+		properties.setMaterialized(true);
+		Flight flight = TestDataFactory.sampleFlight();
+		LocalDate day = flight.getDepartureTime().toLocalDate();
+
+		when(flightRepository.aggregateFareCalendar("Bangalore", "Mumbai", day, day))
+				.thenReturn(Flux.just(entry(day, 4500)));
+		when(fareCalendarRepository.saveIfNewer(any())).thenReturn(Mono.just(true));
+
+		// stamped when subscribed (the read starts), not when assembled
+		Mono<Void> refresh = fareCalendarService.refresh(flight);
+		LocalDateTime subscribed = LocalDateTime.now();
+		StepVerifier.create(refresh).verifyComplete();
+
+		verify(fareCalendarRepository).saveIfNewer(argThat(e -> e.getId().equals("Bangalore|Mumbai|" + day)
+				&& e.getMinPrice().equals(Money.ofMinor(450000, "INR")) && !e.getUpdatedAt().isBefore(subscribed)));
+		verify(fareCalendarRepository, never()).deleteById(anyString());
+	}
+
+	// 5) refresh — sold-out day becomes an empty cell (left out of reads), not a delete
+	@Test
+	void testRefresh_soldOutDayEmptied() {
+		properties.setMaterialized(true);
+		Flight flight = TestDataFactory.sampleFlight();
+		LocalDate day = flight.getDepartureTime().toLocalDate();
+
+		when(flightRepository.aggregateFareCalendar(any(), any(), any(), any())).thenReturn(Flux.empty());
+		when(fareCalendarRepository.saveIfNewer(any())).thenReturn(Mono.just(true));
+
+		StepVerifier.create(fareCalendarService.refresh(flight)).verifyComplete();
+
+		verify(fareCalendarRepository).saveIfNewer(argThat(e -> e.getId().equals("Bangalore|Mumbai|" + day)
+				&& e.getFlights() == 0 && e.getAvailableSeats() == 0 && e.getUpdatedAt() != null));
+		verify(fareCalendarRepository, never()).deleteById(anyString());
+	}
+
+	// 6) refresh — failures never reach the booking path; off = no-op
+	@Test
+	void testRefresh_errorsSwallowedAndDisabledNoop() {
+		Flight flight = TestDataFactory.sampleFlight();
+
+		StepVerifier.create(fareCalendarService.refresh(flight)).verifyComplete();
+		verifyNoInteractions(fareCalendarRepository);
+
+		properties.setMaterialized(true);
+		when(flightRepository.aggregateFareCalendar(any(), any(), any(), any()))
+				.thenReturn(Flux.error(new RuntimeException("mongo down")));
+
+		StepVerifier.create(fareCalendarService.refresh(flight)).verifyComplete();
+	}
+
+	// 7) refresh — a cell from a later read is already stored: left alone
+	@Test
+	void testRefresh_newerCellKept() {
+		properties.setMaterialized(true);
+		Flight flight = TestDataFactory.sampleFlight();
+		LocalDate day = flight.getDepartureTime().toLocalDate();
+
+		when(flightRepository.aggregateFareCalendar(any(), any(), any(), any()))
+				.thenReturn(Flux.just(entry(day, 4500)));
+		when(fareCalendarRepository.saveIfNewer(any())).thenReturn(Mono.just(false));
+
+		StepVerifier.create(fareCalendarService.refresh(flight)).verifyComplete();
+
+		verify(fareCalendarRepository).saveIfNewer(any());
+		verifyNoMoreInteractions(fareCalendarRepository);
+	}
+
+	// 8) rebuild — same conditional write per cell; counts the cells it wrote
+	@Test
+	void testRebuild_conditionalWrites() {
+		when(flightRepository.aggregateFareCalendarFrom(any()))
+				.thenReturn(Flux.just(entry(start, 4000), entry(start.plusDays(1), 3500)));
+		when(fareCalendarRepository.saveIfNewer(any())).thenReturn(Mono.just(true), Mono.just(false));
+
+		StepVerifier.create(fareCalendarService.rebuild()).expectNext(1L).verifyComplete();
+
+		verify(fareCalendarRepository, times(2)).saveIfNewer(argThat(e -> e.getUpdatedAt() != null));
+		verify(fareCalendarRepository, never()).saveAll(anyIterable());
+	}
+}
@@ -1,32 +1,63 @@
 package com.flightapp.service.impl;
 
 import com.flightapp.TestDataFactory;
+import com.flightapp.cache.AirlineCache;
+import com.flightapp.cache.LocalCacheInvalidationBus;
+import com.flightapp.cache.SearchResultCache;
+import com.flightapp.config.FareCalendarProperties;
+import com.flightapp.config.PlaceProperties;
+import com.flightapp.config.PricingProperties;
+import com.flightapp.config.ResilienceProperties;
+import com.flightapp.config.SearchCacheProperties;
+import com.flightapp.config.SearchWindowProperties;
 import com.flightapp.dto.FlightInventoryRequest;
 import com.flightapp.dto.FlightSearchRequest;
+import com.flightapp.dto.FlightSearchResult;
+import com.flightapp.dto.FlightWindowSearchRequest;
 import com.flightapp.entity.Airline;
 import com.flightapp.entity.Flight;
+import com.flightapp.entity.Money;
 import com.flightapp.exception.ApiException;
+import com.flightapp.place.PlaceRegistry;
+import com.flightapp.pricing.PricingEngine;
 import com.flightapp.repository.AirlineRepository;
+import com.flightapp.repository.FareCalendarRepository;
 import com.flightapp.repository.FlightRepository;
+import com.flightapp.resilience.MongoGuard;
+import com.flightapp.service.FareCalendarService;
 import com.flightapp.service.FlightService;
 
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledInNativeImage;
 
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
+@DisabledInNativeImage
 public class FlightServiceImplTest {
 
 	private FlightRepository flightRepository;
 	private AirlineRepository airlineRepository;
+	private MongoGuard mongoGuard;
+	private PlaceRegistry placeRegistry;
 	private FlightServiceImpl flightService;
 
 	@BeforeEach
@@ -34,7 +65,17 @@ public class FlightServiceImplTest {
 		flightRepository = mock(FlightRepository.class);
 		airlineRepository = mock(AirlineRepository.class);
 
-		flightService = new FlightServiceImpl(flightRepository, airlineRepository);
+		SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+		mongoGuard = new MongoGuard(new ResilienceProperties(), meterRegistry);
+
+		placeRegistry = new PlaceRegistry(flightRepository, new PlaceProperties());
+		FareCalendarServiceImpl fareCalendarService = new FareCalendarServiceImpl(flightRepository,
+				mock(FareCalendarRepository.class), new FareCalendarProperties(), mongoGuard, placeRegistry);
+
+		flightService = new FlightServiceImpl(flightRepository, airlineRepository, new LocalCacheInvalidationBus(),
+				new AirlineCache(airlineRepository), fareCalendarService, new PricingEngine(new PricingProperties()),
+				mongoGuard, new SearchResultCache(new SearchCacheProperties(), meterRegistry), placeRegistry,
+				new SearchWindowProperties());
 	}
 
 	// --------------------------------------------------------
@@ -52,7 +93,7 @@ public class FlightServiceImplTest {
 
 		Flight saved = Flight.builder().id("flight-1").flightNumber(req.getFlightNumber()).fromPlace(req.getFromPlace())
 				.toPlace(req.getToPlace()).departureTime(req.getDepartureTime()).arrivalTime(req.getArrivalTime())
-				.price(req.getPrice()).totalSeats(req.getTotalSeats()).availableSeats(req.getTotalSeats())
+				.price(Money.of(req.getPrice(), "INR")).totalSeats(req.getTotalSeats()).availableSeats(req.getTotalSeats())
 				.airlineId("airline-1").build();
 
 		when(flightRepository.findByFlightNumberAndDepartureTime(req.getFlightNumber(), req.getDepartureTime()))
@@ -112,7 +153,7 @@ public class FlightServiceImplTest {
 
 		req.setDepartureTime(LocalDateTime.now().plusDays(5));
 		req.setArrivalTime(req.getDepartureTime().plusHours(2));
-		req.setPrice(0f);
+		req.setPrice(BigDecimal.ZERO);
 
 		StepVerifier.create(flightService.addInventory(req)).expectError(ApiException.class).verify();
 	}
@@ -157,10 +198,35 @@ public class FlightServiceImplTest {
 		FlightSearchRequest req = TestDataFactory.sampleSearchRequest();
 		Flight f = TestDataFactory.sampleFlight();
 
-		when(flightRepository.findByFromPlaceAndToPlaceAndDepartureTimeBetween(anyString(), anyString(), any(), any()))
-				.thenReturn(Flux.just(f));
+		when(flightRepository.searchOnReplica(anyString(), anyString(), any(), any())).thenReturn(Flux.just(f));
+		when(airlineRepository.findById("airline-1"))
+				.thenReturn(Mono.just(Airline.builder().id("airline-1").name("Air India").logoUrl("logo.png").build()));
+
+		StepVerifier.create(flightService.searchFlights(req))
+				.expectNextMatches(r -> r.getFlightId().equals(f.getId()) && r.getAirlineName().equals("Air India")
+						&& r.getAirlineLogoUrl().equals("logo.png") && r.getAvailableSeats().equals(120))
+				.verifyComplete();
+	}
+
+	// --------------------------------------------------------
+	// 7b) SEARCH FLIGHTS — airline looked up once, then served from memory
+	// --------------------------------------------------------
+	@Test
+	void testSearchFlights_airlineJoinedFromCache() {
+
+		FlightSearchRequest req = TestDataFactory.sampleSearchRequest();
+		Flight f1 = TestDataFactory.sampleFlight();
+		Flight f2 = TestDataFactory.sampleFlight();
+		f2.setId("flight-2");
+
+		when(flightRepository.searchOnReplica(anyString(), anyString(), any(), any())).thenReturn(Flux.just(f1, f2));
+		when(airlineRepository.findById("airline-1"))
+				.thenReturn(Mono.just(Airline.builder().id("airline-1").name("Air India").build()));
+
+		StepVerifier.create(flightService.searchFlights(req)).expectNextCount(2).verifyComplete();
+		StepVerifier.create(flightService.searchFlights(req)).expectNextCount(2).verifyComplete();
 
-		StepVerifier.create(flightService.searchFlights(req)).expectNext(f).verifyComplete();
+		verify(airlineRepository, times(1)).findById("airline-1");
 	}
 
 	// --------------------------------------------------------
@@ -171,7 +237,7 @@ public class FlightServiceImplTest {
 
 		Flight f = TestDataFactory.sampleFlight();
 
-		when(flightRepository.findById("flight-1")).thenReturn(Mono.just(f));
+		when(flightRepository.findByIdOnReplica("flight-1")).thenReturn(Mono.just(f));
 
 		StepVerifier.create(flightService.getFlightById("flight-1")).expectNext(f).verifyComplete();
 	}
@@ -182,10 +248,183 @@ public class FlightServiceImplTest {
 	@Test
 	void testGetFlightById_notFound() {
 
-		when(flightRepository.findById("flight-1")).thenReturn(Mono.empty());
+		when(flightRepository.findByIdOnReplica("flight-1")).thenReturn(Mono.empty());
 
 		StepVerifier.create(flightService.getFlightById("flight-1"))
 				.expectErrorMatches(ex -> ex instanceof ApiException && ex.getMessage().contains("Flight not found"))
 				.verify();
 	}
+
+	// --------------------------------------------------------
+	// 7c) SEARCH FLIGHTS — read breaker open: last good results, else 503-style error
+	// --------------------------------------------------------
+	@Test
+	void testSearchFlights_servesCachedResultsWhileBreakerOpen() {
+
+		FlightSearchRequest req = TestDataFactory.sampleSearchRequest();
+		Flight f = TestDataFactory.sampleFlight();
+
+		AtomicInteger mongoSearches = new AtomicInteger();
+		when(flightRepository.searchOnReplica(anyString(), anyString(), any(), any()))
+				.thenReturn(Flux.just(f).doOnSubscribe(s -> mongoSearches.incrementAndGet()));
+		when(airlineRepository.findById("airline-1"))
+				.thenReturn(Mono.just(Airline.builder().id("airline-1").name("Air India").build()));
+
+		StepVerifier.create(flightService.searchFlights(req)).expectNextCount(1).verifyComplete();
+
+		mongoGuard.circuitBreaker(MongoGuard.Operation.SEARCH).transitionToOpenState();
+
+		StepVerifier.create(flightService.searchFlights(req))
+				.expectNextMatches(r -> r.getFlightId().equals(f.getId())).verifyComplete();
+		assertEquals(1, mongoSearches.get());
+
+		// nothing cached for another day
+		req.setTravelDate(req.getTravelDate().plusDays(1));
+		StepVerifier.create(flightService.searchFlights(req)).expectError(CallNotPermittedException.class).verify();
+	}
+
+	// --------------------------------------------------------
+	// 7d) SEARCH FLIGHTS — popular route + day precomputed: served without Mongo
+	// --------------------------------------------------------
+	@Test
+	void testSearchFlights_servesWarmResults() {
+
+		SearchCacheProperties properties = new SearchCacheProperties();
+		properties.getWarm().setEnabled(true);
+		SearchResultCache searchResultCache = new SearchResultCache(properties, new SimpleMeterRegistry());
+		FlightServiceImpl warmService = new FlightServiceImpl(flightRepository, airlineRepository,
+				new LocalCacheInvalidationBus(), new AirlineCache(airlineRepository), mock(FareCalendarService.class),
+				new PricingEngine(new PricingProperties()), mongoGuard, searchResultCache, placeRegistry,
+				new SearchWindowProperties());
+
+		FlightSearchRequest req = TestDataFactory.sampleSearchRequest();
+		String key = SearchResultCache.key(req.getFromPlace(), req.getToPlace(), req.getTravelDate());
+		Flight flight = TestDataFactory.sampleFlight();
+		flight.setId("warm-1");
+		searchResultCache.putWarm(key, List.of(new SearchResultCache.Listing(flight, null)));
+
+		// priced when served, not when warmed: the fare lock runs from this search
+		Instant lockFrom = Instant.now().plus(new PricingProperties().getQuoteLock());
+		StepVerifier.create(warmService.searchFlights(req))
+				.expectNextMatches(r -> r.getFlightId().equals("warm-1") && r.getPrice() != null
+						&& !r.getFareLockedUntil().isBefore(lockFrom))
+				.verifyComplete();
+
+		verify(flightRepository, never()).searchOnReplica(anyString(), anyString(), any(), any());
+		assertEquals(1, searchResultCache.popularKeys(1).get(0).count());
+	}
+
+	// --------------------------------------------------------
+	// 10) ADD INVENTORY — places stored under their canonical names
+	// --------------------------------------------------------
+	@Test
+	void testAddInventory_normalizesPlaces() {
+
+		FlightInventoryRequest req = TestDataFactory.sampleInventoryRequest();
+		req.setFromPlace("DEL");
+		req.setToPlace("bombay");
+		req.setDepartureTime(LocalDateTime.now().plusDays(10));
+		req.setArrivalTime(req.getDepartureTime().plusHours(2));
+
+		when(flightRepository.findByFlightNumberAndDepartureTime(anyString(), any())).thenReturn(Mono.empty());
+		when(airlineRepository.findByName(anyString()))
+				.thenReturn(Mono.just(Airline.builder().id("airline-1").name("Air India").build()));
+		when(flightRepository.save(any())).thenAnswer(inv -> Mono.just(inv.getArgument(0)));
+
+		StepVerifier.create(flightService.addInventory(req))
+				.expectNextMatches(f -> f.getFromPlace().equals("Delhi") && f.getToPlace().equals("Mumbai"))
+				.verifyComplete();
+		assertEquals(List.of("Delhi"), placeRegistry.suggest("new d", 10).stream().map(s -> s.getName()).toList());
+
+		// same place twice under different spellings
+		req.setToPlace("New Delhi");
+		StepVerifier.create(flightService.addInventory(req))
+				.expectErrorMatches(ex -> ex instanceof ApiException && ex.getMessage().contains("different places"))
+				.verify();
+	}
+
+	// --------------------------------------------------------
+	// 11) SEARCH FLIGHTS — free-form places searched as canonical ones
+	// --------------------------------------------------------
+	@Test
+	void testSearchFlights_normalizesPlaces() {
+
+		FlightSearchRequest req = TestDataFactory.sampleSearchRequest();
+		req.setFromPlace("BLR");
+		req.setToPlace(" BOMBAY ");
+		when(flightRepository.searchOnReplica(anyString(), anyString(), any(), any())).thenReturn(Flux.empty());
+
+		StepVerifier.create(flightService.searchFlights(req)).verifyComplete();
+
+		verify(flightRepository).searchOnReplica(eq("Bangalore"), eq("Mumbai"), any(), any());
+	}
+
+	// --------------------------------------------------------
+	// 12) SEARCH FLIGHTS — a day is [midnight, next midnight): the 23:59:59.5 flight is in
+	// --------------------------------------------------------
+	@Test
+	void testSearchFlights_coversWholeDay() {
+
+		FlightSearchRequest req = TestDataFactory.sampleSearchRequest();
+		when(flightRepository.searchOnReplica(anyString(), anyString(), any(), any())).thenReturn(Flux.empty());
+
+		StepVerifier.create(flightService.searchFlights(req)).verifyComplete();
+
+		LocalDate date = req.getTravelDate();
+		verify(flightRepository).searchOnReplica(anyString(), anyString(), eq(date.atStartOfDay()),
+				eq(date.plusDays(1).atStartOfDay()));
+	}
+
+	// --------------------------------------------------------
+	// 13) WINDOW SEARCH — places normalized and deduplicated, one query, Mongo's order kept
+	// --------------------------------------------------------
+	@SuppressWarnings("unchecked")
+	@Test
+	void testSearchFlightWindow_oneQueryForAllPlaces() {
+
+		LocalDateTime from = LocalDateTime.now().plusDays(3).withNano(0);
+		FlightWindowSearchRequest req = FlightWindowSearchRequest.builder().fromPlaces(List.of("DEL", "New Delhi"))
+				.toPlaces(List.of("bombay", "Pune")).departureFrom(from).departureTo(from.plusHours(36)).build();
+
+		Flight early = TestDataFactory.sampleFlight();
+		early.setId("early");
+		early.setAirlineId("airline-1");
+		Flight late = TestDataFactory.sampleFlight();
+		late.setId("late");
+		late.setAirlineId("airline-1");
+		when(flightRepository.searchWindowOnReplica(any(), any(), any(), any())).thenReturn(Flux.just(early, late));
+		when(airlineRepository.findById("airline-1"))
+				.thenReturn(Mono.just(Airline.builder().id("airline-1").name("Air India").build()));
+
+		StepVerifier.create(flightService.searchFlightWindow(req))
+				.expectNextMatches(r -> r.getFlightId().equals("early") && "Air India".equals(r.getAirlineName()))
+				.expectNextMatches(r -> r.getFlightId().equals("late")).verifyComplete();
+
+		verify(flightRepository).searchWindowOnReplica(
+				(Collection<String>) argThat(places -> Set.copyOf((Collection<String>) places).equals(Set.of("Delhi"))),
+				(Collection<String>) argThat(
+						places -> Set.copyOf((Collection<String>) places).equals(Set.of("Mumbai", "Pune"))),
+				eq(from), eq(from.plusHours(36)));
+		verify(flightRepository, never()).searchOnReplica(anyString(), anyString(), any(), any());
+	}
+
+	// --------------------------------------------------------
+	// 14) WINDOW SEARCH — empty/backwards and over-long windows rejected before Mongo
+	// --------------------------------------------------------
+	@Test
+	void testSearchFlightWindow_invalidWindow() {
+
+		LocalDateTime from = LocalDateTime.now().plusDays(3);
+		FlightWindowSearchRequest req = FlightWindowSearchRequest.builder().fromPlaces(List.of("Delhi"))
+				.toPlaces(List.of("Mumbai")).departureFrom(from).departureTo(from).build();
+
+		StepVerifier.create(flightService.searchFlightWindow(req))
+				.expectErrorMatches(ex -> ex instanceof ApiException && ex.getMessage().contains("after")).verify();
+
+		req.setDepartureTo(from.plusDays(8));
+		StepVerifier.create(flightService.searchFlightWindow(req))
+				.expectErrorMatches(ex -> ex instanceof ApiException && ex.getMessage().contains("168 hours")).verify();
+
+		verify(flightRepository, never()).searchWindowOnReplica(any(), any(), any(), any());
+	}
 }
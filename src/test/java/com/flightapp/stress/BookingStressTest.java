@@ -0,0 +1,296 @@
+package com.flightapp.stress;
+
+import com.flightapp.InMemoryMongo;
+import com.flightapp.TestDataFactory;
+import com.flightapp.dto.BookingRequest;
+import com.flightapp.dto.BookingResponse;
+import com.flightapp.dto.PassengerRequest;
+import com.flightapp.entity.Booking;
+import com.flightapp.entity.BookingEvent;
+import com.flightapp.entity.BookingHistory;
+import com.flightapp.entity.Flight;
+import com.flightapp.entity.Passenger;
+import com.flightapp.repository.BookingEventRepository;
+import com.flightapp.repository.BookingHistoryRepository;
+import com.flightapp.repository.BookingRepository;
+import com.flightapp.repository.FlightRepository;
+import com.flightapp.repository.PassengerRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledInNativeImage;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Thousands of concurrent bookings and cancels against a few flights, through the whole app
+// (Netty, WebFlux, validation, admission off, MongoGuard, BookingServiceImpl) on InMemoryMongo,
+// which enforces @Version and the unique PNR index the way Mongo would.
+//
+// Not part of the normal build:  mvn -Pstress test
+// Size it with -Dstress.operations / -Dstress.concurrency / -Dstress.flights.
+//
+// At the end, per flight: availableSeats never went negative, active seatsBooked + availableSeats
+// = totalSeats, no seat number held twice (and bookedSeats matches the passengers), and PNRs are
+// unique, and the outbox holds two events per booking/cancel, which an SSE client following
+// /events from seq 0 during the run received all of, once each and in order; the booking_history
+// read model has every booking at its final state. Prints throughput and the status-code mix so
+// changes to the booking path can be compared.
+//
+// 409s are reported by error code: only business rejections (SEAT_TAKEN, SEATS_UNAVAILABLE,
+// ALREADY_CANCELED) are expected. Version conflicts that ran out of retries are counted on their own,
+// from flightapp.mongo.version.conflicts, and may not exceed -Dstress.max-exhausted-conflicts
+// (default 0): contention has to end in a booking or a real answer, not a "try again".
+
+@Tag("stress")
+@DisabledInNativeImage
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+		"flightapp.admission.enabled=false", "flightapp.mongo.version-backfill.enabled=false",
+		"spring.data.mongodb.auto-index-creation=false", "flightapp.resilience.writes.max-concurrent=1000",
+		"flightapp.resilience.writes.slow-call-duration=60s", "flightapp.resilience.timeouts.booking=60s",
+		"flightapp.resilience.timeouts.cancel=60s", "flightapp.outbox.poll-interval=50ms",
+		"flightapp.outbox.relay-interval=200ms", "flightapp.outbox.relay-delay=200ms",
+		"logging.level.com.flightapp=WARN" })
+public class BookingStressTest {
+
+	private static final int OPERATIONS = Integer.getInteger("stress.operations", 4000);
+	private static final int CONCURRENCY = Integer.getInteger("stress.concurrency", 128);
+	private static final int FLIGHTS = Integer.getInteger("stress.flights", 3);
+	private static final int MAX_EXHAUSTED_CONFLICTS = Integer.getInteger("stress.max-exhausted-conflicts", 0);
+
+	private static final Set<String> BUSINESS_CONFLICTS = Set.of("SEAT_TAKEN", "SEATS_UNAVAILABLE",
+			"ALREADY_CANCELED");
+
+	// 30 rows x A-F, and few enough that the flights sell out and cancels free seats up again
+	private static final int SEATS = 180;
+	private static final String ROWS = "ABCDEF";
+
+	private static final InMemoryMongo STORE = new InMemoryMongo(true);
+
+	@TestConfiguration
+	static class InMemoryRepositories {
+
+		@Bean
+		@Primary
+		FlightRepository inMemoryFlightRepository() {
+			return STORE.flights();
+		}
+
+		@Bean
+		@Primary
+		BookingRepository inMemoryBookingRepository() {
+			return STORE.bookings();
+		}
+
+		@Bean
+		@Primary
+		PassengerRepository inMemoryPassengerRepository() {
+			return STORE.passengers();
+		}
+
+		@Bean
+		@Primary
+		BookingEventRepository inMemoryBookingEventRepository() {
+			return STORE.bookingEvents();
+		}
+
+		@Bean
+		@Primary
+		BookingHistoryRepository inMemoryBookingHistoryRepository() {
+			return STORE.bookingHistories();
+		}
+	}
+
+	@LocalServerPort
+	int port;
+
+	@Autowired
+	MeterRegistry meterRegistry;
+
+	@Test
+	void concurrentBookingsAndCancelsKeepSeatInvariants() {
+
+		List<String> flightIds = new ArrayList<>();
+		for (int i = 0; i < FLIGHTS; i++) {
+			Flight flight = TestDataFactory.sampleFlight();
+			flight.setId("stress-flight-" + i);
+			flight.setFlightNumber("ST" + (100 + i));
+			flight.setTotalSeats(SEATS);
+			flight.setAvailableSeats(SEATS);
+			STORE.put(flight);
+			flightIds.add(flight.getId());
+		}
+
+		ConnectionProvider connections = ConnectionProvider.builder("stress").maxConnections(CONCURRENCY)
+				.pendingAcquireMaxCount(-1).build();
+		WebClient client = WebClient.builder().baseUrl("http://localhost:" + port + "/api/flight")
+				.clientConnector(new ReactorClientHttpConnector(HttpClient.create(connections))).build();
+
+		// Follow the event stream from the start of the log for the whole run
+		List<Long> streamed = Collections.synchronizedList(new ArrayList<>());
+		Disposable eventStream = client.get().uri("/events?after=0").retrieve()
+				.bodyToFlux(new ParameterizedTypeReference<ServerSentEvent<BookingEvent>>() {
+				}).filter(sse -> sse.data() != null).subscribe(sse -> streamed.add(sse.data().getSeq()));
+
+		List<String> pnrs = Collections.synchronizedList(new ArrayList<>());
+		Map<String, LongAdder> outcomes = new ConcurrentHashMap<>();
+
+		long started = System.nanoTime();
+		Flux.range(0, OPERATIONS).flatMap(i -> {
+			ThreadLocalRandom random = ThreadLocalRandom.current();
+			if (random.nextInt(4) == 0 && !pnrs.isEmpty()) {
+				String pnr = pnrs.get(random.nextInt(pnrs.size()));
+				return client.delete().uri("/booking/cancel/{pnr}", pnr)
+						.exchangeToMono(resp -> outcome("cancel", resp));
+			}
+			String flightId = flightIds.get(random.nextInt(flightIds.size()));
+			return client.post().uri("/booking/{flightId}", flightId).bodyValue(randomRequest(random))
+					.exchangeToMono(resp -> resp.statusCode().value() == 201
+							? resp.bodyToMono(BookingResponse.class).doOnNext(b -> pnrs.add(b.getPnr()))
+									.thenReturn("book 201")
+							: outcome("book", resp));
+		}, CONCURRENCY).doOnNext(outcome -> outcomes.computeIfAbsent(outcome, k -> new LongAdder()).increment())
+				.blockLast(Duration.ofMinutes(10));
+		long elapsedNanos = System.nanoTime() - started;
+
+		double retried = conflicts("retried");
+		double exhausted = conflicts("exhausted");
+		report(outcomes, elapsedNanos, retried, exhausted);
+
+		// The publisher polls every 50ms, the relay sweeps every 200ms (events a concurrent save put
+		// back on a document after their relay); give both a moment to drain
+		Flux.interval(Duration.ofMillis(50))
+				.takeUntil(tick -> STORE.pendingEvents() == 0 && streamed.size() >= STORE.allEvents().size())
+				.blockLast(Duration.ofSeconds(30));
+		eventStream.dispose();
+		connections.dispose();
+
+		outcomes.keySet().forEach(outcome -> assertFalse(outcome.endsWith(" 500") || outcome.endsWith(" 503"),
+				"server errors: " + outcomes));
+		assertTrue(outcomes.containsKey("book 201"), "nothing was booked: " + outcomes);
+		for (String outcome : outcomes.keySet()) {
+			String[] parts = outcome.split(" ");
+			if (parts[1].equals("409")) {
+				assertTrue(BUSINESS_CONFLICTS.contains(parts[2]), "409 without a business reason: " + outcome);
+			}
+		}
+		assertTrue(exhausted <= MAX_EXHAUSTED_CONFLICTS, "version conflicts that ran out of retries: " + exhausted
+				+ " (max " + MAX_EXHAUSTED_CONFLICTS + ")");
+
+		// --- invariants ---
+		assertTrue(STORE.lowestAvailableSeats() >= 0, "availableSeats went negative");
+
+		Map<String, List<Passenger>> passengersByBooking = STORE.allPassengers().stream()
+				.collect(Collectors.groupingBy(Passenger::getBookingId));
+
+		for (String flightId : flightIds) {
+			Flight flight = STORE.flight(flightId);
+			List<Booking> active = STORE.allBookings().stream()
+					.filter(b -> flightId.equals(b.getFlightId()) && !b.isCanceled()).toList();
+
+			int sold = active.stream().mapToInt(Booking::getSeatsBooked).sum();
+			assertEquals(flight.getTotalSeats(), sold + flight.getAvailableSeats(), flightId + ": seats don't add up");
+
+			List<String> seatNumbers = new ArrayList<>();
+			for (Booking booking : active) {
+				List<Passenger> passengers = passengersByBooking.getOrDefault(booking.getId(), List.of());
+				assertEquals(booking.getSeatsBooked(), passengers.size(), booking.getPnr() + ": passenger count");
+				passengers.forEach(p -> seatNumbers.add(p.getSeatNumber()));
+			}
+			Set<String> distinct = new HashSet<>(seatNumbers);
+			assertEquals(seatNumbers.size(), distinct.size(), flightId + ": a seat number is held twice");
+			assertEquals(distinct, flight.getBookedSeats() == null ? Set.of() : flight.getBookedSeats(),
+					flightId + ": seat map out of sync with bookings");
+		}
+
+		// --- outbox ---
+		long canceled = STORE.allBookings().stream().filter(Booking::isCanceled).count();
+		assertEquals(0, STORE.pendingEvents(), "events left on bookings/flights, never relayed");
+		assertEquals(2 * (STORE.allBookings().size() + canceled), STORE.allEvents().size(), "outbox event count");
+		List<Long> expectedSeqs = STORE.allEvents().stream().map(BookingEvent::getSeq).toList();
+		assertEquals(expectedSeqs, List.copyOf(streamed), "event stream missed, repeated or reordered events");
+
+		// --- history read model ---
+		Map<String, BookingHistory.Entry> history = STORE.allHistories().stream()
+				.flatMap(h -> h.getBookings().stream())
+				.collect(Collectors.toMap(BookingHistory.Entry::getPnr, entry -> entry));
+		assertEquals(STORE.allBookings().size(), history.size(), "history entry count");
+		for (Booking booking : STORE.allBookings()) {
+			BookingHistory.Entry entry = history.get(booking.getPnr());
+			assertEquals(booking.isCanceled(), entry.isCanceled(), booking.getPnr() + ": history out of date");
+			assertEquals(booking.getSeatsBooked(), entry.getPassengers().size(), booking.getPnr() + ": travellers");
+		}
+
+		List<String> allPnrs = STORE.allBookings().stream().map(Booking::getPnr).toList();
+		assertEquals(allPnrs.size(), new HashSet<>(allPnrs).size(), "duplicate PNRs");
+		assertEquals(pnrs.size(), STORE.allBookings().size(), "a 201 without a stored booking (or vice versa)");
+	}
+
+	private static BookingRequest randomRequest(ThreadLocalRandom random) {
+		int seats = 1 + random.nextInt(3);
+		Set<String> seatNumbers = new HashSet<>();
+		while (seatNumbers.size() < seats) {
+			seatNumbers.add((1 + random.nextInt(SEATS / ROWS.length())) + "" + ROWS.charAt(random.nextInt(6)));
+		}
+		List<PassengerRequest> passengers = seatNumbers.stream().map(seat -> PassengerRequest.builder()
+				.name("Passenger " + seat).gender("F").age(30).seatNumber(seat).meal("veg").build()).toList();
+		return BookingRequest.builder().email("stress@example.com").numberOfSeats(seats).passengers(passengers)
+				.build();
+	}
+
+	// "book 201", "cancel 204", "book 409 SEAT_TAKEN" — a 409 is split by its error code
+	private static Mono<String> outcome(String operation, ClientResponse resp) {
+		String outcome = operation + " " + resp.statusCode().value();
+		if (resp.statusCode().value() != 409) {
+			return resp.releaseBody().thenReturn(outcome);
+		}
+		return resp.bodyToMono(new ParameterizedTypeReference<Map<String, String>>() {
+		}).map(body -> outcome + " " + body.getOrDefault("code", "-")).defaultIfEmpty(outcome + " -");
+	}
+
+	private double conflicts(String outcome) {
+		Counter counter = meterRegistry.find("flightapp.mongo.version.conflicts").tag("operation", "booking")
+				.tag("outcome", outcome).counter();
+		return counter == null ? 0 : counter.count();
+	}
+
+	private static void report(Map<String, LongAdder> outcomes, long elapsedNanos, double retried,
+			double exhausted) {
+		double seconds = elapsedNanos / 1e9;
+		System.out.printf("%nBooking stress: %d operations, concurrency %d, %d flights x %d seats%n", OPERATIONS,
+				CONCURRENCY, FLIGHTS, SEATS);
+		System.out.printf("  elapsed %.2f s, throughput %.0f ops/s%n", seconds, OPERATIONS / seconds);
+		new TreeMap<>(outcomes).forEach((outcome, count) -> System.out.printf("  %-30s %d%n", outcome, count.sum()));
+		System.out.printf("  booking version conflicts: %.0f retried, %.0f ran out of retries%n", retried, exhausted);
+	}
+}
@@ -0,0 +1,137 @@
+package com.flightapp.validation;
+
+import com.flightapp.TestDataFactory;
+import com.flightapp.dto.BookingRequest;
+import com.flightapp.dto.FlightInventoryRequest;
+import com.flightapp.dto.PassengerRequest;
+import com.flightapp.exception.ValidationException;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledInNativeImage;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// The hand-written validators against the DTO annotations (via Hibernate Validator):
+// every field the annotations reject, the validator rejects too.
+
+@DisabledInNativeImage
+public class RequestValidatorsTest {
+
+	private static ValidatorFactory factory;
+	private static Validator beanValidator;
+
+	@BeforeAll
+	static void setupValidator() {
+		factory = Validation.buildDefaultValidatorFactory();
+		beanValidator = factory.getValidator();
+	}
+
+	@AfterAll
+	static void closeValidator() {
+		factory.close();
+	}
+
+	// 1) valid samples pass both
+	@Test
+	void testValidRequests() {
+		assertNull(RequestValidators.BOOKING.violations(TestDataFactory.sampleBookingRequest()));
+		assertNull(RequestValidators.INVENTORY.violations(TestDataFactory.sampleInventoryRequest()));
+		assertTrue(beanValidator.validate(TestDataFactory.sampleBookingRequest()).isEmpty());
+
+		BookingRequest req = TestDataFactory.sampleBookingRequest();
+		StepVerifier.create(RequestValidators.BOOKING.check(req)).expectNext(req).verifyComplete();
+	}
+
+	// 2) booking: same fields as the annotations, one broken thing at a time
+	@Test
+	void testBooking_matchesAnnotations() {
+		List<Consumer<BookingRequest>> breakages = List.of(r -> r.setEmail(null), r -> r.setEmail(""),
+				r -> r.setEmail("no-at-sign"), r -> r.setEmail("two@@example.com"), r -> r.setEmail("a b@example.com"),
+				r -> r.setEmail("dot.@example.com"), r -> r.setEmail("x@-bad.com"), r -> r.setPassengers(List.of()),
+				r -> r.setPassengers(null), r -> passenger(r).setName(" "), r -> passenger(r).setGender(null),
+				r -> passenger(r).setAge(0), r -> passenger(r).setSeatNumber(""), r -> passenger(r).setMeal(null));
+
+		for (Consumer<BookingRequest> breakage : breakages) {
+			BookingRequest req = TestDataFactory.sampleBookingRequest();
+			req.setPassengers(new ArrayList<>(req.getPassengers()));
+			breakage.accept(req);
+			assertEquals(fields(beanValidator.validate(req)), fields(RequestValidators.BOOKING.violations(req)),
+					req.toString());
+		}
+	}
+
+	// 3) booking cross-field rules the annotations can't express
+	@Test
+	void testBooking_passengerRules() {
+		BookingRequest req = TestDataFactory.sampleBookingRequest();
+		req.setNumberOfSeats(2);
+		assertEquals("Passenger list size must equal numberOfSeats",
+				RequestValidators.BOOKING.violations(req).getErrors().get("passengers"));
+
+		PassengerRequest other = PassengerRequest.builder().name("B").gender("F").age(40).seatNumber("1A").meal("veg")
+				.build();
+		req.setPassengers(List.of(req.getPassengers().get(0), other));
+		ValidationException ex = RequestValidators.BOOKING.violations(req);
+		assertEquals("Duplicate seat numbers in request", ex.getErrors().get("passengers"));
+		assertEquals("Duplicate seat numbers in request", ex.getMessage());
+	}
+
+	// 4) inventory: same fields as the annotations, one broken thing at a time
+	@Test
+	void testInventory_matchesAnnotations() {
+		List<Consumer<FlightInventoryRequest>> breakages = List.of(r -> r.setFlightNumber(null),
+				r -> r.setFlightNumber("ai101"), r -> r.setFlightNumber("AI"), r -> r.setFromPlace(" "),
+				r -> r.setToPlace(null), r -> r.setAirlineName(""), r -> r.setArrivalTime(null),
+				r -> r.setPrice(null), r -> r.setTotalSeats(null), r -> r.setTotalSeats(0));
+
+		for (Consumer<FlightInventoryRequest> breakage : breakages) {
+			FlightInventoryRequest req = TestDataFactory.sampleInventoryRequest();
+			breakage.accept(req);
+			assertEquals(fields(beanValidator.validate(req)), fields(RequestValidators.INVENTORY.violations(req)),
+					req.toString());
+		}
+	}
+
+	// 5) inventory rules addInventory used to check itself
+	@Test
+	void testInventory_timingAndPrice() {
+		FlightInventoryRequest req = TestDataFactory.sampleInventoryRequest();
+		req.setArrivalTime(req.getDepartureTime().minusHours(1));
+		req.setPrice(BigDecimal.ZERO);
+		ValidationException ex = RequestValidators.INVENTORY.violations(req);
+		assertEquals("Departure time must be before arrival time", ex.getErrors().get("departureTime"));
+		assertEquals("Price must be > 0", ex.getErrors().get("price"));
+
+		req = TestDataFactory.sampleInventoryRequest();
+		req.setDepartureTime(LocalDateTime.now().minusMinutes(1));
+		assertEquals("Cannot add flight with past departure time",
+				RequestValidators.INVENTORY.violations(req).getErrors().get("departureTime"));
+	}
+
+	private static PassengerRequest passenger(BookingRequest req) {
+		return req.getPassengers().get(0);
+	}
+
+	private static Set<String> fields(Set<? extends ConstraintViolation<?>> violations) {
+		return violations.stream().map(v -> v.getPropertyPath().toString()).collect(Collectors.toSet());
+	}
+
+	private static Set<String> fields(ValidationException ex) {
+		return ex == null ? Set.of() : ex.getErrors().keySet();
+	}
+}